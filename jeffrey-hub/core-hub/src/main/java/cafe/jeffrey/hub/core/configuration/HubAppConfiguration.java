@@ -29,6 +29,7 @@ import cafe.jeffrey.hub.core.manager.project.HubProjectManager;
 import cafe.jeffrey.hub.core.manager.project.ProjectManager;
 import cafe.jeffrey.hub.core.project.repository.AsprofFileRepositoryStorage;
 import cafe.jeffrey.hub.core.project.repository.InstanceEnvironmentParser;
+import cafe.jeffrey.hub.core.project.repository.RecordingCompressor;
 import cafe.jeffrey.hub.core.project.repository.RepositoryStorage;
 import cafe.jeffrey.hub.core.project.repository.file.AsprofFileInfoProcessor;
 import cafe.jeffrey.hub.core.scheduler.job.descriptor.JobDescriptorFactory;
@@ -140,16 +141,25 @@ public class HubAppConfiguration {
         return jeffreyDirs;
     }
 
+    @Bean
+    public RecordingCompressor recordingCompressor(
+            @Value("${jeffrey.hub.compression.workers:0}") int workers,
+            @Value("${jeffrey.hub.compression.queue-capacity:64}") int queueCapacity) {
+        return new RecordingCompressor(workers, queueCapacity);
+    }
+
     @Bean
     public RepositoryStorage.Factory repositoryStorageFactory(
             HubJeffreyDirs jeffreyDirs,
-            HubPlatformRepositories platformRepositories) {
+            HubPlatformRepositories platformRepositories,
+            RecordingCompressor recordingCompressor) {
         return projectInfo -> new AsprofFileRepositoryStorage(
                 projectInfo,
                 jeffreyDirs.workspaces(),
                 jeffreyDirs.temp(),
                 platformRepositories.newProjectRepositoryRepository(projectInfo.id()),
-                new AsprofFileInfoProcessor());
+                new AsprofFileInfoProcessor(),
+                recordingCompressor);
     }
 
     @Bean
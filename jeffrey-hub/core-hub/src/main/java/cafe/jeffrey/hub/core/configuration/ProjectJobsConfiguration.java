@@ -27,6 +27,7 @@ import cafe.jeffrey.hub.core.HubJeffreyDirs;
 import cafe.jeffrey.hub.core.configuration.properties.SchedulerJobsProperties;
 import cafe.jeffrey.hub.core.configuration.properties.SchedulerJobsProperties.JobConfig;
 import cafe.jeffrey.hub.core.manager.workspace.WorkspacesManager;
+import cafe.jeffrey.hub.core.project.repository.RecordingCompressor;
 import cafe.jeffrey.hub.core.project.repository.RepositoryStorage;
 import cafe.jeffrey.hub.core.scheduler.job.*;
 import cafe.jeffrey.hub.core.scheduler.job.descriptor.ExpiredInstanceCleanerJobDescriptor;
@@ -106,10 +107,11 @@ public class ProjectJobsConfiguration {
     }
 
     @Bean
-    public RepositoryCompressionProjectJob repositoryCompressionProjectJob() {
+    public RepositoryCompressionProjectJob repositoryCompressionProjectJob(RecordingCompressor recordingCompressor) {
         return new RepositoryCompressionProjectJob(
                 workspacesManager,
                 repositoryStorageFactory,
+                recordingCompressor,
                 schedulerJobsProperties.forType(JobType.REPOSITORY_JFR_COMPRESSION).period());
     }
 
@@ -55,13 +55,17 @@ final class ReadyGate {
         return cancelled || observer.isCancelled();
     }
 
-    void awaitReady() throws InterruptedException {
+    /**
+     * @return {@code true} when the channel was not ready and the caller had to wait for it
+     */
+    boolean awaitReady() throws InterruptedException {
         if (observer.isReady() || isCancelled()) {
-            return;
+            return false;
         }
         permits.drainPermits();
         while (!observer.isReady() && !isCancelled()) {
             permits.acquire();
         }
+        return true;
     }
 }
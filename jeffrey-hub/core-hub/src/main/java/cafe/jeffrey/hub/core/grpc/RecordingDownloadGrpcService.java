@@ -18,7 +18,7 @@
 
 package cafe.jeffrey.hub.core.grpc;
 
-import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import io.grpc.StatusRuntimeException;
 import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
@@ -29,15 +29,23 @@ import cafe.jeffrey.hub.core.manager.RepositoryManager;
 import cafe.jeffrey.shared.common.Schedulers;
 import cafe.jeffrey.shared.common.model.repository.StreamedRecordingFile;
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.function.Supplier;
+import java.util.zip.CRC32C;
 
 public class RecordingDownloadGrpcService extends RecordingDownloadServiceGrpc.RecordingDownloadServiceImplBase {
 
     private static final Logger LOG = LoggerFactory.getLogger(RecordingDownloadGrpcService.class);
-    private static final int CHUNK_SIZE = 64 * 1024; // 64KB
+    private static final int MIN_CHUNK_SIZE = 64 * 1024; // 64KB
+    private static final int MAX_CHUNK_SIZE = 1024 * 1024; // 1MB
+    private static final long MAPPING_WINDOW = 64L * 1024 * 1024; // 64MB
 
     private final GrpcLookups lookups;
 
@@ -47,7 +55,7 @@ public class RecordingDownloadGrpcService extends RecordingDownloadServiceGrpc.R
 
     @Override
     public void downloadMergedRecordings(DownloadMergedRecordingsRequest request, StreamObserver<DataChunk> responseObserver) {
-        streamDownload(responseObserver, "merged recordings: sessionId=" + request.getSessionId(), () -> {
+        streamDownload(responseObserver, "merged recordings: sessionId=" + request.getSessionId(), request.getOffset(), () -> {
             RepositoryManager repoManager = lookups.repositoryManagerForSession(request.getSessionId());
 
             LOG.debug("Streaming merged recordings via gRPC: sessionId={} fileCount={}",
@@ -59,7 +67,7 @@ public class RecordingDownloadGrpcService extends RecordingDownloadServiceGrpc.R
 
     @Override
     public void downloadArtifactFile(DownloadArtifactFileRequest request, StreamObserver<DataChunk> responseObserver) {
-        streamDownload(responseObserver, "artifact file: sessionId=" + request.getSessionId() + " fileId=" + request.getFileId(), () -> {
+        streamDownload(responseObserver, "artifact file: sessionId=" + request.getSessionId() + " fileId=" + request.getFileId(), request.getOffset(), () -> {
             RepositoryManager repoManager = lookups.repositoryManagerForSession(request.getSessionId());
 
             LOG.debug("Streaming artifact file via gRPC: sessionId={} fileId={}",
@@ -71,7 +79,7 @@ public class RecordingDownloadGrpcService extends RecordingDownloadServiceGrpc.R
 
     @Override
     public void downloadRecordingFile(DownloadRecordingFileRequest request, StreamObserver<DataChunk> responseObserver) {
-        streamDownload(responseObserver, "recording file: sessionId=" + request.getSessionId() + " fileId=" + request.getFileId(), () -> {
+        streamDownload(responseObserver, "recording file: sessionId=" + request.getSessionId() + " fileId=" + request.getFileId(), request.getOffset(), () -> {
             RepositoryManager repoManager = lookups.repositoryManagerForSession(request.getSessionId());
 
             LOG.debug("Streaming recording file via gRPC: sessionId={} fileId={}",
@@ -84,13 +92,14 @@ public class RecordingDownloadGrpcService extends RecordingDownloadServiceGrpc.R
     /**
      * Runs a server-streaming download: attaches the backpressure gate on the gRPC handler thread,
      * then on the streaming executor resolves the file via {@code producer} and pumps it with
-     * backpressure. A {@link StatusRuntimeException} from the producer (e.g. a NOT_FOUND lookup)
-     * passes through unchanged; any other failure is logged with {@code errorContext} and reported
-     * as {@code INTERNAL}.
+     * backpressure, starting at byte {@code offset}. A {@link StatusRuntimeException} from the
+     * producer (e.g. a NOT_FOUND lookup) passes through unchanged; any other failure is logged with
+     * {@code errorContext} and reported as {@code INTERNAL}.
      */
     private static void streamDownload(
             StreamObserver<DataChunk> responseObserver,
             String errorContext,
+            long offset,
             Supplier<StreamedRecordingFile> producer) {
 
         // ReadyGate.attach must run in the gRPC handler thread (before this method returns) — gRPC rejects
@@ -100,7 +109,12 @@ public class RecordingDownloadGrpcService extends RecordingDownloadServiceGrpc.R
 
         Schedulers.streamingExecutor().execute(() -> {
             try {
-                streamWithBackpressure(producer.get(), observer, gate);
+                StreamedRecordingFile recordingFile = producer.get();
+                try {
+                    streamWithBackpressure(recordingFile, offset, observer, gate);
+                } finally {
+                    closeCleanup(recordingFile.cleanup());
+                }
             } catch (StatusRuntimeException e) {
                 observer.onError(e);
             } catch (Exception e) {
@@ -110,35 +124,96 @@ public class RecordingDownloadGrpcService extends RecordingDownloadServiceGrpc.R
         });
     }
 
+    /**
+     * Sends the file from {@code offset} to its end as read-only mapped slices wrapped without
+     * copying. The chunk size adapts to the connection: it doubles while the transport keeps up and
+     * halves whenever the sender had to wait for the channel to become ready again. Every chunk
+     * carries its position in the complete file and a CRC32C of its data, so a client can verify
+     * what it stored and resume from the last byte it kept.
+     */
     private static void streamWithBackpressure(
             StreamedRecordingFile recordingFile,
+            long offset,
             ServerCallStreamObserver<DataChunk> observer,
             ReadyGate gate) throws IOException, InterruptedException {
 
-        long totalSize = Files.size(recordingFile.path());
-        boolean firstChunk = true;
+        long totalSize = recordingFile.size();
+        if (offset < 0 || offset > totalSize) {
+            throw GrpcExceptions.invalidArgument(
+                    "Offset out of range: offset=" + offset + " size=" + totalSize);
+        }
 
-        try (InputStream stream = recordingFile.openStream()) {
-            byte[] buffer = new byte[CHUNK_SIZE];
-            int bytesRead;
-            while (!gate.isCancelled() && (bytesRead = stream.read(buffer)) != -1) {
-                gate.awaitReady();
-                if (gate.isCancelled()) {
-                    return;
-                }
+        boolean firstChunk = true;
+        int chunkSize = MIN_CHUNK_SIZE;
+        long partStart = 0;
+        for (Path part : recordingFile.parts()) {
+            long partSize = Files.size(part);
+            long partEnd = partStart + partSize;
+            if (partEnd <= offset) {
+                partStart = partEnd;
+                continue;
+            }
 
-                DataChunk.Builder builder = DataChunk.newBuilder()
-                        .setData(ByteString.copyFrom(buffer, 0, bytesRead));
-                if (firstChunk) {
-                    builder.setTotalSize(totalSize);
-                    firstChunk = false;
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.READ)) {
+                long position = Math.max(0, offset - partStart);
+                while (position < partSize) {
+                    long windowSize = Math.min(MAPPING_WINDOW, partSize - position);
+                    MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+
+                    int windowPosition = 0;
+                    while (windowPosition < windowSize) {
+                        boolean waited = gate.awaitReady();
+                        if (gate.isCancelled()) {
+                            return;
+                        }
+                        chunkSize = waited
+                                ? Math.max(MIN_CHUNK_SIZE, chunkSize / 2)
+                                : Math.min(MAX_CHUNK_SIZE, chunkSize * 2);
+
+                        int length = (int) Math.min(chunkSize, windowSize - windowPosition);
+                        ByteBuffer slice = window.slice(windowPosition, length);
+
+                        CRC32C checksum = new CRC32C();
+                        checksum.update(slice.duplicate());
+
+                        DataChunk.Builder builder = DataChunk.newBuilder()
+                                .setData(UnsafeByteOperations.unsafeWrap(slice))
+                                .setOffset(partStart + position + windowPosition)
+                                .setChecksum((int) checksum.getValue());
+                        if (firstChunk) {
+                            builder.setTotalSize(totalSize);
+                            firstChunk = false;
+                        }
+                        observer.onNext(builder.build());
+                        windowPosition += length;
+                    }
+                    position += windowSize;
                 }
-                observer.onNext(builder.build());
             }
+            partStart = partEnd;
+        }
+
+        if (gate.isCancelled()) {
+            return;
         }
+        if (firstChunk && offset > 0) {
+            // A resume at the end of the file: confirm the offset and size so the client can finish
+            observer.onNext(DataChunk.newBuilder()
+                    .setTotalSize(totalSize)
+                    .setOffset(offset)
+                    .build());
+        }
+        observer.onCompleted();
+    }
 
-        if (!gate.isCancelled()) {
-            observer.onCompleted();
+    private static void closeCleanup(Closeable cleanup) {
+        if (cleanup == null) {
+            return;
+        }
+        try {
+            cleanup.close();
+        } catch (IOException e) {
+            LOG.warn("Failed to clean up streamed recording file: {}", e.getMessage());
         }
     }
 
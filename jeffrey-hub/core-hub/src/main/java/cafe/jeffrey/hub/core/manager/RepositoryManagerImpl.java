@@ -107,7 +107,7 @@ public class RepositoryManagerImpl implements RepositoryManager {
         Elapsed<MergedRecording> merged = Measuring.s(() -> repositoryStorage.mergeRecordings(sessionId, recordingFileIds));
         LOG.debug("Merging and streaming recordings completed: sessionId={} durationMs={}",
                 sessionId, merged.duration().toMillis());
-        return new StreamedRecordingFile(merged.entity().filename(), merged.entity().path(), merged.entity()::close);
+        return new StreamedRecordingFile(merged.entity().filename(), merged.entity().parts(), merged.entity()::close);
     }
 
     @Override
@@ -36,16 +36,15 @@ import cafe.jeffrey.shared.common.model.repository.RepositoryFile;
 import cafe.jeffrey.shared.common.model.repository.SupportedRecordingFile;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -67,12 +66,12 @@ public class AsprofFileRepositoryStorage implements RepositoryStorage {
     // level of slack absorbs layouts with a deeper relative session path.
     private static final int SESSION_SEARCH_MAX_DEPTH = 3;
 
-    private final Lock compressionLock = new ReentrantLock();
     private final ProjectInfo projectInfo;
     private final Path workspacesDir;
     private final Path tempDir;
     private final ProjectRepositoryRepository projectRepositoryRepository;
     private final FileInfoProcessor fileInfoProcessor;
+    private final RecordingCompressor recordingCompressor;
 
     private volatile RepositoryInfo cachedRepositoryInfo;
 
@@ -81,13 +80,15 @@ public class AsprofFileRepositoryStorage implements RepositoryStorage {
             Path workspacesDir,
             Path tempDir,
             ProjectRepositoryRepository projectRepositoryRepository,
-            FileInfoProcessor fileInfoProcessor) {
+            FileInfoProcessor fileInfoProcessor,
+            RecordingCompressor recordingCompressor) {
 
         this.projectInfo = projectInfo;
         this.workspacesDir = workspacesDir;
         this.tempDir = tempDir;
         this.projectRepositoryRepository = projectRepositoryRepository;
         this.fileInfoProcessor = fileInfoProcessor;
+        this.recordingCompressor = recordingCompressor;
     }
 
     @Override
@@ -346,16 +347,16 @@ public class AsprofFileRepositoryStorage implements RepositoryStorage {
     public List<Path> recordings(String sessionId, List<String> recordingIds) {
         RecordingSession session = resolveSession(sessionId);
 
-        return session.files().stream()
+        List<CompletableFuture<Path>> compressions = session.files().stream()
                 .filter(file -> Files.isRegularFile(file.filePath()))
                 .filter(RepositoryFile::isRecordingFile)
                 .filter(file -> file.status() == RecordingStatus.FINISHED)
                 .filter(file -> recordingIds == null || recordingIds.contains(file.id()))
                 .sorted(Comparator.comparing(RepositoryFile::createdAt))
-                .map(file -> ensureCompressed(sessionId, file))
-                .filter(Objects::nonNull)
-                .distinct()
+                .map(this::ensureCompressed)
                 .toList();
+
+        return awaitCompressed(compressions);
     }
 
     // ========== Merge Recordings ==========
@@ -371,37 +372,33 @@ public class AsprofFileRepositoryStorage implements RepositoryStorage {
         LOG.info("Merging recordings: sessionId={} sourceFiles={} paths={}",
                 sessionId, compressedPaths.size(), compressedPaths);
 
-        // Create intermediate merged file with .jfr extension.
-        // We decompress LZ4 files, concatenate raw JFR content (JFR supports multiple chunks),
-        // then compress the result back to .jfr.lz4 before returning.
-        Path tempFile = tempDir.resolve(SupportedRecordingFile.JFR.appendExtension(sessionId));
-
-        // Decompress each LZ4 file and merge the raw JFR content
-        try (OutputStream out = Files.newOutputStream(tempFile,
-                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
-            for (Path compressed : compressedPaths) {
-                if (Lz4Compressor.isLz4Compressed(compressed)) {
-                    Lz4Compressor.decompressTo(compressed, out);
-                } else {
-                    Files.copy(compressed, out);
-                }
+        // No decompression: LZ4 frames can be concatenated as-is and so can the JFR chunks inside them.
+        // The merged recording is the ordered list of compressed files, streamed directly to the consumer.
+        // ensureCompressed leaves only .jfr.lz4 files, a plain file is compressed into a single
+        // temporary frame just for this merge.
+        List<Path> parts = new ArrayList<>(compressedPaths.size());
+        List<Path> temporaryParts = new ArrayList<>();
+        for (Path path : compressedPaths) {
+            if (Lz4Compressor.isLz4Compressed(path)) {
+                parts.add(path);
+            } else {
+                Path frame = tempDir.resolve(SupportedRecordingFile.JFR_LZ4.appendExtension(
+                        sessionId + "-" + temporaryParts.size()));
+                Lz4Compressor.compress(path, frame);
+                parts.add(frame);
+                temporaryParts.add(frame);
             }
-        } catch (IOException e) {
-            FileSystemUtils.removeFile(tempFile);
-            throw Exceptions.compressionError(
-                    "Failed to merge recordings: sessionId=" + sessionId + " sourceFiles=" + compressedPaths);
         }
 
-        if (FileSystemUtils.size(tempFile) <= 0) {
-            FileSystemUtils.removeFile(tempFile);
+        MergedRecording merged = new MergedRecording(
+                SupportedRecordingFile.JFR_LZ4.appendExtension(sessionId), parts, temporaryParts);
+
+        if (merged.size() <= 0) {
+            merged.close();
             throw Exceptions.emptyRecordingSession(sessionId);
         }
 
-        Path compressedFile = tempDir.resolve(SupportedRecordingFile.JFR_LZ4.appendExtension(sessionId));
-        Lz4Compressor.compress(tempFile, compressedFile);
-        FileSystemUtils.removeFile(tempFile);
-
-        return new MergedRecording(compressedFile);
+        return merged;
     }
 
     // ========== Artifact Files ==========
@@ -424,13 +421,13 @@ public class AsprofFileRepositoryStorage implements RepositoryStorage {
     public int compressSession(String sessionId) {
         RecordingSession session = resolveSession(sessionId);
 
-        return (int) session.files().stream()
+        List<CompletableFuture<Path>> compressions = session.files().stream()
                 .filter(RepositoryFile::isRecordingFile)
                 .filter(file -> file.status() == RecordingStatus.FINISHED)
-                .map(file -> ensureCompressed(sessionId, file))
-                .filter(Objects::nonNull)
-                .distinct()
-                .count();
+                .map(this::ensureCompressed)
+                .toList();
+
+        return awaitCompressed(compressions).size();
     }
 
     // ========== Private Helpers ==========
@@ -446,55 +443,40 @@ public class AsprofFileRepositoryStorage implements RepositoryStorage {
     /**
      * Ensures the recording file is compressed (JFR_LZ4 format).
      * <p>
-     * If already compressed, returns the original path. Otherwise, compresses the file
-     * and stores the compressed version persistently in the same directory.
-     * Uses double-check locking pattern for thread safety.
+     * If already compressed, returns the original path. Otherwise, hands the file over to the shared
+     * {@link RecordingCompressor} which stores the compressed version persistently in the same directory.
+     * Files are compressed in parallel, only the compression of the same file is serialized.
      * </p>
      */
-    private Path ensureCompressed(String sessionId, RepositoryFile file) {
+    private CompletableFuture<Path> ensureCompressed(RepositoryFile file) {
         if (file.fileType() == TARGET_COMPRESSED_TYPE) {
-            return file.filePath();
+            return CompletableFuture.completedFuture(file.filePath());
         }
 
         Path sourcePath = file.filePath();
         Path compressedPath = sourcePath.resolveSibling(file.name() + ".lz4");
 
-        // Fast path: check if already compressed by another thread
+        // Fast path: already compressed by a previous run
         if (Files.exists(compressedPath)) {
             FileSystemUtils.removeFile(sourcePath);
-            return compressedPath;
+            return CompletableFuture.completedFuture(compressedPath);
         }
 
-        compressionLock.lock();
-        try {
-            // Double-check after acquiring lock
-            if (Files.exists(compressedPath)) {
-                FileSystemUtils.removeFile(sourcePath);
-                return compressedPath;
-            }
-
-            // Capture original file size before compression
-            long originalSize = Files.size(sourcePath);
-
-            // Skip empty recording files — can happen when JFR streaming-repo
-            // writes a file before any events are recorded
-            // it can happened if the AsyncProfiler is stopped before any events are written by non-graceful shutdown
-            if (originalSize == 0) {
-                LOG.debug("Skipping empty recording file: sessionId={} file={}", sessionId, sourcePath);
-                return null;
-            }
+        return recordingCompressor.compress(projectInfo.id(), sourcePath, compressedPath);
+    }
 
-            // Compress, verify, and delete original
-            Lz4Compressor.compress(sourcePath, compressedPath);
-            long compressedSize = Files.size(compressedPath);
-            if (Files.exists(compressedPath) && compressedSize > 0) {
-                FileSystemUtils.removeFile(sourcePath);
-            }
-            return compressedPath;
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to verify compressed file: " + compressedPath, e);
-        } finally {
-            compressionLock.unlock();
+    /**
+     * Waits for all compressions in the original order, skipping empty recordings.
+     */
+    private static List<Path> awaitCompressed(List<CompletableFuture<Path>> compressions) {
+        try {
+            return compressions.stream()
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to compress recording", e.getCause());
         }
     }
 
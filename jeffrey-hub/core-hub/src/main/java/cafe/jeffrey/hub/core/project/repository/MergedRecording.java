@@ -20,54 +20,93 @@ package cafe.jeffrey.hub.core.project.repository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import cafe.jeffrey.shared.common.compression.Lz4Compressor;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 /**
- * AutoCloseable wrapper for a merged recording file.
+ * AutoCloseable wrapper for a merged recording.
  * <p>
- * When closed, the temporary merged file is automatically deleted.
+ * The merged recording is not materialized: it is the ordered concatenation of LZ4 compressed
+ * {@code parts}, which is a valid multi-frame LZ4 stream of concatenated JFR chunks. Parts are
+ * mostly the persistent compressed recordings of the session; parts created only for this merge
+ * are listed in {@code temporaryParts} and deleted on close.
  * Use with try-with-resources to ensure cleanup.
  * </p>
  *
  * <pre>{@code
  * try (MergedRecording merged = repositoryStorage.mergeRecordings(sessionId)) {
- *     // Use merged.path() to access the file
- * } // File is automatically deleted here
+ *     merged.transferTo(output);
+ * } // Temporary parts are automatically deleted here
  * }</pre>
  */
 public class MergedRecording implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(MergedRecording.class);
 
-    private final Path path;
+    private final String filename;
+    private final List<Path> parts;
+    private final List<Path> temporaryParts;
 
-    public MergedRecording(Path path) {
-        this.path = path;
+    public MergedRecording(String filename, List<Path> parts) {
+        this(filename, parts, List.of());
+    }
+
+    public MergedRecording(String filename, List<Path> parts, List<Path> temporaryParts) {
+        this.filename = filename;
+        this.parts = List.copyOf(parts);
+        this.temporaryParts = List.copyOf(temporaryParts);
     }
 
     /**
-     * @return path to the merged recording file
+     * @return LZ4 compressed files forming the merged recording, in order
      */
-    public Path path() {
-        return path;
+    public List<Path> parts() {
+        return parts;
     }
 
     /**
      * @return the filename for the merged recording (e.g., "session-id.jfr.lz4")
      */
     public String filename() {
-        return path.getFileName().toString();
+        return filename;
+    }
+
+    /**
+     * @return size of the merged recording in bytes
+     */
+    public long size() {
+        long size = 0;
+        for (Path part : parts) {
+            try {
+                size += Files.size(part);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read size of merged recording part: " + part, e);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Writes the merged recording to the output without decompressing it.
+     * Note: This method does NOT close the OutputStream - caller is responsible for closing it.
+     */
+    public void transferTo(OutputStream output) {
+        Lz4Compressor.concatenate(parts, output);
     }
 
     @Override
     public void close() {
-        try {
-            Files.deleteIfExists(path);
-        } catch (IOException e) {
-            LOG.warn("Failed to delete merged recording temp file: {}", path, e);
+        for (Path temporaryPart : temporaryParts) {
+            try {
+                Files.deleteIfExists(temporaryPart);
+            } catch (IOException e) {
+                LOG.warn("Failed to delete merged recording temp file: {}", temporaryPart, e);
+            }
         }
     }
 }
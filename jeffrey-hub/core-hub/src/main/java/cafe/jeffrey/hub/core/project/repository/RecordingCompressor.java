@@ -0,0 +1,250 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.hub.core.project.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import cafe.jeffrey.shared.common.Schedulers;
+import cafe.jeffrey.shared.common.compression.Lz4Compressor;
+import cafe.jeffrey.shared.common.filesystem.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Compresses finished recordings to JFR_LZ4 on a bounded pool of workers shared by all repositories of the hub.
+ * <p>
+ * Only the compression of the same file is serialized: concurrent requests for one target join the
+ * in-flight compression, different files are compressed in parallel. The backlog is bounded per project:
+ * when a project already has {@code queueCapacity} files waiting for a worker, the submitting thread
+ * compresses the file itself. This throttles that project's producers (scheduler jobs, downloads) to the
+ * speed of the disk, while a busy project cannot fill the queue for all the others.
+ * <p>
+ * Statistics are collected per project to size the pool: queue depth, throughput and compression ratio.
+ */
+public class RecordingCompressor implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RecordingCompressor.class);
+
+    private static final String PARTIAL_SUFFIX = ".partial";
+
+    /**
+     * Cumulative compression statistics of a single project.
+     *
+     * @param files           number of compressed files
+     * @param originalBytes   size of the recordings before compression
+     * @param compressedBytes size of the recordings after compression
+     * @param busyTime        time spent compressing, summed over all workers
+     */
+    public record Statistics(long files, long originalBytes, long compressedBytes, Duration busyTime) {
+
+        public static final Statistics EMPTY = new Statistics(0, 0, 0, Duration.ZERO);
+
+        public Statistics minus(Statistics other) {
+            return new Statistics(
+                    files - other.files,
+                    originalBytes - other.originalBytes,
+                    compressedBytes - other.compressedBytes,
+                    busyTime.minus(other.busyTime));
+        }
+
+        /**
+         * @return original bytes processed per second of {@code elapsed} time, in MB/s
+         */
+        public double throughputMBps(Duration elapsed) {
+            long nanos = elapsed.toNanos();
+            return nanos <= 0 ? 0 : (originalBytes / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+        }
+
+        /**
+         * @return original size divided by compressed size, 0 if nothing was compressed
+         */
+        public double compressionRatio() {
+            return compressedBytes <= 0 ? 0 : (double) originalBytes / compressedBytes;
+        }
+    }
+
+    private static final class ProjectCounters {
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LongAdder files = new LongAdder();
+        private final LongAdder originalBytes = new LongAdder();
+        private final LongAdder compressedBytes = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+
+        private void record(long originalSize, long compressedSize, long nanos) {
+            files.increment();
+            originalBytes.add(originalSize);
+            compressedBytes.add(compressedSize);
+            busyNanos.add(nanos);
+        }
+
+        private Statistics snapshot() {
+            return new Statistics(
+                    files.sum(), originalBytes.sum(), compressedBytes.sum(), Duration.ofNanos(busyNanos.sum()));
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final ConcurrentMap<Path, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ProjectCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * @param workers       number of compression threads, non-positive value means half of the available cores
+     * @param queueCapacity number of files of one project waiting for a worker before the submitter
+     *                      compresses on its own
+     */
+    public RecordingCompressor(int workers, int queueCapacity) {
+        int resolvedWorkers = workers > 0
+                ? workers
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        this.queueCapacity = queueCapacity;
+        // Bounded per project in compress(), the shared queue holds at most queueCapacity files of each project
+        this.executor = new ThreadPoolExecutor(
+                resolvedWorkers,
+                resolvedWorkers,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                Schedulers.platformThreadfactory("recording-compressor"));
+    }
+
+    /**
+     * Compresses {@code source} into {@code target} and removes the source afterward. If the same target is
+     * already being compressed, the returned future completes with that compression.
+     *
+     * @return future completed with the compressed file, or with {@code null} if the source is empty
+     */
+    public CompletableFuture<Path> compress(String projectId, Path source, Path target) {
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(target, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        ProjectCounters projectCounters = counters(projectId);
+        if (projectCounters.queued.incrementAndGet() > queueCapacity) {
+            // The project's backlog is full, compress in the submitting thread
+            projectCounters.queued.decrementAndGet();
+            runCompression(projectId, source, target, created);
+            return created;
+        }
+
+        try {
+            executor.execute(() -> {
+                projectCounters.queued.decrementAndGet();
+                runCompression(projectId, source, target, created);
+            });
+        } catch (RejectedExecutionException e) {
+            projectCounters.queued.decrementAndGet();
+            inFlight.remove(target, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    private void runCompression(String projectId, Path source, Path target, CompletableFuture<Path> created) {
+        try {
+            created.complete(compressFile(projectId, source, target));
+        } catch (Throwable e) {
+            created.completeExceptionally(e);
+        } finally {
+            inFlight.remove(target, created);
+        }
+    }
+
+    private Path compressFile(String projectId, Path source, Path target) throws IOException {
+        // Compressed by a previous request after the caller's check
+        if (Files.exists(target)) {
+            FileSystemUtils.removeFile(source);
+            return target;
+        }
+
+        long originalSize = Files.size(source);
+
+        // Skip empty recording files — can happen when JFR streaming-repo
+        // writes a file before any events are recorded
+        // it can happened if the AsyncProfiler is stopped before any events are written by non-graceful shutdown
+        if (originalSize == 0) {
+            LOG.debug("Skipping empty recording file: project_id={} file={}", projectId, source);
+            return null;
+        }
+
+        // Compress into a hidden sibling and move it into place, the target is never observed half-written
+        long start = System.nanoTime();
+        Path partial = target.resolveSibling("." + target.getFileName() + PARTIAL_SUFFIX);
+        try {
+            Lz4Compressor.compress(source, partial);
+            Files.move(partial, target, ATOMIC_MOVE, REPLACE_EXISTING);
+        } finally {
+            // Left over only when the compression or the move failed
+            Files.deleteIfExists(partial);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long compressedSize = Files.size(target);
+        if (compressedSize > 0) {
+            FileSystemUtils.removeFile(source);
+        }
+
+        counters(projectId).record(originalSize, compressedSize, elapsed);
+        return target;
+    }
+
+    private ProjectCounters counters(String projectId) {
+        return counters.computeIfAbsent(projectId, _ -> new ProjectCounters());
+    }
+
+    /**
+     * @return number of files of the project waiting for a compression worker
+     */
+    public int queueDepth(String projectId) {
+        ProjectCounters projectCounters = counters.get(projectId);
+        return projectCounters == null ? 0 : projectCounters.queued.get();
+    }
+
+    /**
+     * @return cumulative compression statistics of the project since the start of the hub
+     */
+    public Statistics statistics(String projectId) {
+        ProjectCounters projectCounters = counters.get(projectId);
+        return projectCounters == null ? Statistics.EMPTY : projectCounters.snapshot();
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
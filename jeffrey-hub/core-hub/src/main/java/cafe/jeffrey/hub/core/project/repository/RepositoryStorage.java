@@ -155,15 +155,15 @@ public interface RepositoryStorage {
     // ========== Merge Recordings ==========
 
     /**
-     * Merge specific recordings from a session into a single compressed file.
+     * Merge specific recordings from a session into a single compressed recording.
      * <p>
-     * Compresses if needed, then merges to temp file.
-     * The returned MergedRecording auto-deletes the temp file on close.
+     * Compresses if needed, then merges by concatenating the LZ4 frames without decompression.
+     * The returned MergedRecording auto-deletes any temporary files on close.
      * </p>
      *
      * @param sessionId    the session ID
      * @param recordingIds list of recording IDs to merge
-     * @return MergedRecording wrapper (auto-deletes temp file on close)
+     * @return MergedRecording wrapper (auto-deletes temporary files on close)
      */
     MergedRecording mergeRecordings(String sessionId, List<String> recordingIds);
 
@@ -20,6 +20,7 @@ package cafe.jeffrey.hub.core.scheduler.job;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import cafe.jeffrey.hub.core.project.repository.RecordingCompressor;
 import cafe.jeffrey.hub.core.project.repository.RepositoryStorage;
 import cafe.jeffrey.shared.common.model.job.JobType;
 import cafe.jeffrey.shared.common.model.repository.RecordingSession;
@@ -43,6 +44,9 @@ import java.util.Optional;
  * <p>
  * Older FINISHED sessions are assumed to be already compressed and are skipped.
  * Only files with status FINISHED are compressed to avoid corrupting active recordings.
+ * <p>
+ * Files are compressed in parallel by the shared {@link RecordingCompressor}; every run logs the queue depth,
+ * throughput and compression ratio of the project.
  */
 public class RepositoryCompressionProjectJob extends RepositoryProjectJob<RepositoryCompressionProjectJobDescriptor> {
 
@@ -53,14 +57,17 @@ public class RepositoryCompressionProjectJob extends RepositoryProjectJob<Reposi
      */
     public static final String PARAM_SESSION_ID = "sessionId";
 
+    private final RecordingCompressor recordingCompressor;
     private final Duration period;
 
     public RepositoryCompressionProjectJob(
             WorkspacesManager workspacesManager,
             RepositoryStorage.Factory remoteRepositoryManagerFactory,
+            RecordingCompressor recordingCompressor,
             Duration period) {
 
         super(workspacesManager, remoteRepositoryManagerFactory, new RepositoryCompressionProjectJobDescriptor());
+        this.recordingCompressor = recordingCompressor;
         this.period = period;
     }
 
@@ -81,6 +88,10 @@ public class RepositoryCompressionProjectJob extends RepositoryProjectJob<Reposi
             return;
         }
 
+        String projectId = manager.info().id();
+        RecordingCompressor.Statistics before = recordingCompressor.statistics(projectId);
+        long start = System.nanoTime();
+
         // Check if a specific session ID is provided in context
         Optional<String> targetSessionId = context.get(PARAM_SESSION_ID);
 
@@ -91,6 +102,20 @@ public class RepositoryCompressionProjectJob extends RepositoryProjectJob<Reposi
             // Default periodic mode: ACTIVE + latest FINISHED sessions
             compressDefaultSessions(repositoryStorage, sessions, projectName);
         }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        RecordingCompressor.Statistics run = recordingCompressor.statistics(projectId).minus(before);
+        if (run.files() > 0) {
+            LOG.info("JFR compression finished: project='{}' files={} original_mb={} throughput_mb_s={} "
+                            + "compression_ratio={} queue_depth={} elapsed_ms={}",
+                    projectName,
+                    run.files(),
+                    run.originalBytes() / (1024 * 1024),
+                    String.format("%.1f", run.throughputMBps(elapsed)),
+                    String.format("%.2f", run.compressionRatio()),
+                    recordingCompressor.queueDepth(projectId),
+                    elapsed.toMillis());
+        }
     }
 
     private void compressSpecificSession(
@@ -0,0 +1,57 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.hub.core.streaming;
+
+import jdk.jfr.consumer.RecordedEvent;
+import cafe.jeffrey.hub.api.v1.StreamingEvent;
+import cafe.jeffrey.hub.api.v1.TypedValue;
+
+/**
+ * Mapping of a single {@link jdk.jfr.EventType} to {@link StreamingEvent}, compiled by
+ * {@link RecordedEventMapper#compile(jdk.jfr.EventType)}. Immutable and safe to share between threads.
+ */
+public final class EventMapping {
+
+    private final String eventType;
+    private final String[] fieldNames;
+    private final RecordedEventMapper.FieldAccessor[] accessors;
+
+    EventMapping(String eventType, String[] fieldNames, RecordedEventMapper.FieldAccessor[] accessors) {
+        this.eventType = eventType;
+        this.fieldNames = fieldNames;
+        this.accessors = accessors;
+    }
+
+    public StreamingEvent toStreamingEvent(String sessionId, RecordedEvent event) {
+        StreamingEvent.Builder builder = StreamingEvent.newBuilder()
+                .setEventType(eventType)
+                .setSessionId(sessionId)
+                .setTimestamp(event.getStartTime().toEpochMilli());
+
+        for (int i = 0; i < accessors.length; i++) {
+            TypedValue typedValue = accessors[i].read(event);
+            if (typedValue != null) {
+                builder.putFields(fieldNames[i], typedValue);
+            }
+        }
+
+        return builder.build();
+    }
+}
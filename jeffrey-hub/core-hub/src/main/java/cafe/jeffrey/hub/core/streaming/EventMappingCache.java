@@ -0,0 +1,56 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.hub.core.streaming;
+
+import jdk.jfr.EventType;
+import jdk.jfr.consumer.RecordedEvent;
+import cafe.jeffrey.hub.api.v1.StreamingEvent;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Compiled {@link EventMapping}s of a single event stream, keyed by {@link EventType} identity.
+ * <p>
+ * The JFR parser creates new {@link EventType} instances only when a chunk brings changed metadata,
+ * so a mapping is compiled once per type and recompiled exactly when its metadata changes.
+ * Consecutive events are mostly of the same type, which the last-hit entry serves without a lookup.
+ * <p>
+ * Not thread-safe: it's meant to be used from the thread dispatching the events of one stream.
+ */
+public class EventMappingCache {
+
+    private final Map<EventType, EventMapping> mappings = new IdentityHashMap<>();
+
+    private EventType lastEventType;
+    private EventMapping lastMapping;
+
+    public StreamingEvent toStreamingEvent(String sessionId, RecordedEvent event) {
+        return mapping(event.getEventType()).toStreamingEvent(sessionId, event);
+    }
+
+    private EventMapping mapping(EventType eventType) {
+        if (eventType != lastEventType) {
+            lastMapping = mappings.computeIfAbsent(eventType, RecordedEventMapper::compile);
+            lastEventType = eventType;
+        }
+        return lastMapping;
+    }
+}
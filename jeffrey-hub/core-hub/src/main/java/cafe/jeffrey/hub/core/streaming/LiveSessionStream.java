@@ -0,0 +1,196 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.hub.core.streaming;
+
+import jdk.jfr.consumer.EventStream;
+import jdk.jfr.consumer.RecordedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import cafe.jeffrey.hub.api.v1.StreamingEvent;
+import cafe.jeffrey.shared.common.Schedulers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Single JFR EventStream over a session's streaming repository, shared by all live subscribers of the session.
+ * <p>
+ * The stream subscribes to the union of the subscribers' event types, maps every event to a
+ * {@link StreamingEvent} once and hands it to each interested subscriber. On JFR's {@code onFlush()} every
+ * subscriber cuts its own batch; delivery to the client happens on the subscriber's side, so a slow client
+ * never stalls the repository reader. The stream closes itself when the last subscriber detaches.
+ */
+class LiveSessionStream implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LiveSessionStream.class);
+
+    private final String sessionId;
+    private final Path sessionPath;
+    private final EventStream eventStream;
+    private final Consumer<LiveSessionStream> onClosed;
+    private final List<LiveStreamingSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    // Used only from the EventStream thread
+    private final EventMappingCache mappings = new EventMappingCache();
+
+    // Guarded by this: per event type handler registered in the EventStream
+    private final Map<String, Consumer<RecordedEvent>> handlers = new HashMap<>();
+
+    private LiveSessionStream(
+            String sessionId, Path sessionPath, EventStream eventStream, Consumer<LiveSessionStream> onClosed) {
+
+        this.sessionId = sessionId;
+        this.sessionPath = sessionPath;
+        this.eventStream = eventStream;
+        this.onClosed = onClosed;
+    }
+
+    /**
+     * Opens the streaming repository of the session. The stream starts consuming events
+     * when the first subscriber is attached.
+     *
+     * @param onClosed called once when the stream is closed, either by the last detached
+     *                 subscriber or by the end of the session
+     * @throws IOException if the streaming repository cannot be opened
+     */
+    static LiveSessionStream open(String sessionId, Path sessionPath, Consumer<LiveSessionStream> onClosed)
+            throws IOException {
+
+        LiveSessionStream stream = new LiveSessionStream(
+                sessionId, sessionPath, EventStream.openRepository(sessionPath), onClosed);
+
+        stream.eventStream.onFlush(stream::flush);
+        stream.eventStream.onClose(stream::streamClosed);
+        stream.eventStream.onError(stream::streamFailed);
+        return stream;
+    }
+
+    /**
+     * Attaches the subscriber and registers its event types, starts the stream on the first attachment.
+     *
+     * @return {@code false} if the stream is already closed and a new one has to be opened
+     */
+    synchronized boolean attach(LiveStreamingSubscriber subscriber) {
+        if (closed.get()) {
+            return false;
+        }
+
+        subscribers.add(subscriber);
+        subscriber.attachedTo(this);
+        for (String eventType : subscriber.eventTypes()) {
+            handlers.computeIfAbsent(eventType, _ -> {
+                Consumer<RecordedEvent> handler = this::dispatch;
+                eventStream.onEvent(eventType, handler);
+                return handler;
+            });
+        }
+
+        if (started.compareAndSet(false, true)) {
+            LOG.info("Starting live session stream: session_id={} session_path={}", sessionId, sessionPath);
+            Schedulers.streamingExecutor().execute(eventStream::start);
+        }
+        return true;
+    }
+
+    /**
+     * Detaches the subscriber, unregisters event types nobody else is interested in,
+     * and closes the stream when it was the last subscriber.
+     */
+    synchronized void detach(LiveStreamingSubscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+
+        handlers.entrySet().removeIf(entry -> {
+            boolean unused = subscribers.stream()
+                    .noneMatch(remaining -> remaining.eventTypes().contains(entry.getKey()));
+            if (unused) {
+                eventStream.remove(entry.getValue());
+            }
+            return unused;
+        });
+
+        if (subscribers.isEmpty()) {
+            close();
+        }
+    }
+
+    private void dispatch(RecordedEvent event) {
+        String eventType = event.getEventType().getName();
+
+        StreamingEvent streamingEvent = null;
+        for (LiveStreamingSubscriber subscriber : subscribers) {
+            if (subscriber.eventTypes().contains(eventType)) {
+                if (streamingEvent == null) {
+                    try {
+                        streamingEvent = mappings.toStreamingEvent(sessionId, event);
+                    } catch (Exception e) {
+                        LOG.warn("Failed to map event: session_id={} event_type={}", sessionId, eventType, e);
+                        return;
+                    }
+                }
+                subscriber.accept(streamingEvent);
+            }
+        }
+    }
+
+    private void flush() {
+        for (LiveStreamingSubscriber subscriber : subscribers) {
+            subscriber.flush();
+        }
+    }
+
+    private void streamClosed() {
+        // The stream is terminating on its own (e.g. the session finished) or was closed by the last detach
+        for (LiveStreamingSubscriber subscriber : subscribers) {
+            subscriber.streamEnded();
+        }
+        markClosed();
+    }
+
+    private void streamFailed(Throwable error) {
+        LOG.error("Error in live session stream: session_id={} session_path={}", sessionId, sessionPath, error);
+        for (LiveStreamingSubscriber subscriber : subscribers) {
+            subscriber.streamFailed(error);
+        }
+    }
+
+    private void markClosed() {
+        if (closed.compareAndSet(false, true)) {
+            onClosed.accept(this);
+        }
+    }
+
+    @Override
+    public void close() {
+        LOG.info("Closing live session stream: session_id={} session_path={}", sessionId, sessionPath);
+        markClosed();
+        eventStream.close();
+    }
+}
@@ -20,24 +20,46 @@ package cafe.jeffrey.hub.core.streaming;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import cafe.jeffrey.hub.core.streaming.LiveStreamingSubscriber.SlowConsumerPolicy;
 import cafe.jeffrey.shared.common.IDGenerator;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Tracks active {@link LiveStreamingSubscriber} instances and provides lifecycle
  * management: subscribe, unsubscribe, and close all on shutdown.
+ * <p>
+ * Subscribers of the same session share one {@link LiveSessionStream}: the streaming repository is read
+ * and every event is mapped once per session, regardless of the number of subscribers. Each subscriber
+ * keeps its own bounded queue of batches governed by the {@link SlowConsumerPolicy}.
  */
 public class LiveStreamingManager implements Closeable {
 
     private static final Logger LOG = LoggerFactory.getLogger(LiveStreamingManager.class);
 
+    private record SessionKey(String sessionId, Path sessionPath) {
+    }
+
     private final ConcurrentHashMap<String, LiveStreamingSubscriber> subscriptions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<SessionKey, LiveSessionStream> sessionStreams = new ConcurrentHashMap<>();
+    private final int subscriberQueueCapacity;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+
+    public LiveStreamingManager() {
+        this(LiveStreamingSubscriber.DEFAULT_QUEUE_CAPACITY, SlowConsumerPolicy.DROP_OLDEST);
+    }
+
+    public LiveStreamingManager(int subscriberQueueCapacity, SlowConsumerPolicy slowConsumerPolicy) {
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+        this.slowConsumerPolicy = slowConsumerPolicy;
+    }
 
     /**
-     * Creates and starts a new subscriber event stream for the given session.
+     * Creates a new subscriber and attaches it to the shared event stream of the session,
+     * the stream is opened if the session has no other subscriber yet.
      *
      * @param subscription subscription with all data to start streaming from repo.
      * @return subscription ID
@@ -46,15 +68,48 @@ public class LiveStreamingManager implements Closeable {
     public String subscribe(LiveStreamSubscription subscription, StreamingCallbacks callbacks) throws IOException {
         String subscriptionId = IDGenerator.generate();
         LiveStreamingSubscriber stream = new LiveStreamingSubscriber(
-                subscription, callbacks.withOnClose(() -> removeSubscriber(subscriptionId)));
+                subscription,
+                callbacks.withOnClose(() -> removeSubscriber(subscriptionId)),
+                subscriberQueueCapacity,
+                slowConsumerPolicy);
 
         subscriptions.put(subscriptionId, stream);
-        stream.start();
+        stream.startDelivery();
+        try {
+            attach(stream, new SessionKey(subscription.sessionId(), subscription.sessionPath()));
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
 
         LOG.info("Subscribed to live stream: subscription={} subscriptionId={}", subscription, subscriptionId);
         return subscriptionId;
     }
 
+    private void attach(LiveStreamingSubscriber subscriber, SessionKey key) throws IOException {
+        while (true) {
+            LiveSessionStream sessionStream = sessionStreams.get(key);
+            if (sessionStream == null) {
+                LiveSessionStream opened = LiveSessionStream.open(
+                        key.sessionId(), key.sessionPath(), closed -> sessionStreams.remove(key, closed));
+
+                sessionStream = sessionStreams.putIfAbsent(key, opened);
+                if (sessionStream == null) {
+                    sessionStream = opened;
+                } else {
+                    // Lost the race to another subscriber of the same session
+                    opened.close();
+                }
+            }
+
+            // A closing stream refuses the subscriber and removes itself, the next round opens a new one
+            if (sessionStream.attach(subscriber)) {
+                return;
+            }
+            sessionStreams.remove(key, sessionStream);
+        }
+    }
+
     /**
      * Closes a specific subscriber stream.
      */
@@ -66,11 +121,20 @@ public class LiveStreamingManager implements Closeable {
         LOG.info("Unsubscribed from live stream: subscriptionId={}", subscriptionId);
     }
 
+    /**
+     * @return number of session streams currently reading a streaming repository
+     */
+    public int activeSessionStreams() {
+        return sessionStreams.size();
+    }
+
     @Override
     public void close() {
-        LOG.info("Closing all live streams: count={}", subscriptions.size());
+        LOG.info("Closing all live streams: count={} session_streams={}", subscriptions.size(), sessionStreams.size());
         subscriptions.forEach((_, stream) -> stream.close());
         subscriptions.clear();
+        sessionStreams.forEach((_, sessionStream) -> sessionStream.close());
+        sessionStreams.clear();
     }
 
     private void removeSubscriber(String subscriptionId) {
@@ -18,8 +18,6 @@
 
 package cafe.jeffrey.hub.core.streaming;
 
-import jdk.jfr.consumer.EventStream;
-import jdk.jfr.consumer.RecordedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import cafe.jeffrey.hub.api.v1.EventBatch;
@@ -30,115 +28,277 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Per-subscriber JFR EventStream that opens its own repository, filters by event types,
- * and micro-batches events using JFR's own {@code onFlush()} callback.
+ * Live subscriber of a {@link LiveSessionStream}: collects the already mapped events of its event types
+ * and micro-batches them using JFR's own {@code onFlush()} callback.
  *
- * <p>{@code onEvent()} and {@code onFlush()} are called on the same EventStream thread,
- * so no concurrency control is needed — a plain {@link ArrayList} is used as the buffer.</p>
+ * <p>{@code accept()} and {@code flush()} are called on the same EventStream thread,
+ * so no concurrency control is needed — a plain {@link ArrayList} is used as the buffer.
+ * Batches are handed over to a bounded per-subscriber queue and sent to the client on a separate
+ * delivery thread. When the client cannot keep up and the queue is full, the {@link SlowConsumerPolicy}
+ * decides whether the oldest batch is dropped or the subscriber is disconnected.</p>
  */
 public class LiveStreamingSubscriber implements Closeable {
 
     private static final Logger LOG = LoggerFactory.getLogger(LiveStreamingSubscriber.class);
 
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    public enum SlowConsumerPolicy {
+        /**
+         * Drops the oldest waiting batch to make room for the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Closes the subscription with an error.
+         */
+        DISCONNECT
+    }
+
+    private sealed interface Delivery {
+    }
+
+    private record Batch(EventBatch batch) implements Delivery {
+    }
+
+    private record Failed(Throwable error) implements Delivery {
+    }
+
+    private record Completed() implements Delivery {
+    }
+
+    private record Disconnected(Throwable error) implements Delivery {
+    }
+
     private final LiveStreamSubscription subscription;
     private final StreamingCallbacks callbacks;
+    private final int queueCapacity;
+    private final SlowConsumerPolicy slowConsumerPolicy;
     private final List<StreamingEvent> buffer = new ArrayList<>();
+    private final BlockingQueue<Delivery> deliveries = new LinkedBlockingQueue<>();
+    private final AtomicInteger pendingBatches = new AtomicInteger();
     private final AtomicBoolean alreadyClosed = new AtomicBoolean(false);
+    private final AtomicBoolean cleanedUp = new AtomicBoolean(false);
 
-    private EventStream eventStream;
+    private volatile LiveSessionStream sessionStream;
+    private volatile boolean deliveryStarted;
+    private final AtomicLong droppedBatches = new AtomicLong();
 
     public LiveStreamingSubscriber(LiveStreamSubscription subscription, StreamingCallbacks callbacks) {
+        this(subscription, callbacks, DEFAULT_QUEUE_CAPACITY, SlowConsumerPolicy.DROP_OLDEST);
+    }
+
+    public LiveStreamingSubscriber(
+            LiveStreamSubscription subscription,
+            StreamingCallbacks callbacks,
+            int queueCapacity,
+            SlowConsumerPolicy slowConsumerPolicy) {
+
         this.subscription = subscription;
         this.callbacks = callbacks;
+        this.queueCapacity = queueCapacity;
+        this.slowConsumerPolicy = slowConsumerPolicy;
     }
 
     /**
-     * Opens the streaming repository, configures event handlers,
-     * and starts consuming events asynchronously on a virtual thread.
+     * Opens a dedicated stream over the streaming repository and starts consuming events
+     * asynchronously. Subscribers managed by {@link LiveStreamingManager} share one stream per session instead.
      *
      * @throws IOException if the streaming repository cannot be opened
      */
     public void start() throws IOException {
         LOG.info("Starting live stream: subscription={}", subscription);
-        this.eventStream = EventStream.openRepository(subscription.sessionPath());
-
-        for (String eventType : subscription.eventTypes()) {
-            eventStream.onEvent(eventType, this::bufferEvent);
-        }
+        LiveSessionStream stream =
+                LiveSessionStream.open(subscription.sessionId(), subscription.sessionPath(), _ -> {});
+        startDelivery();
+        stream.attach(this);
+    }
 
-        eventStream.onFlush(this::flush);
+    /**
+     * Starts the delivery thread sending the batches from the queue to the client.
+     */
+    void startDelivery() {
+        deliveryStarted = true;
+        Schedulers.streamingExecutor().execute(this::deliver);
+    }
 
-        eventStream.onClose(() -> {
-            flush();
-            try {
-                callbacks.onComplete().run();
-            } catch (Exception e) {
-                LOG.info("Observer already closed on stream end: subscription={}", subscription);
-            }
-            // The stream is terminating on its own (e.g. the session finished) — run the cleanup
-            // callback here as well, so subscriber removal does not depend on the gRPC context
-            // listener firing. Without this, a naturally ended stream leaks its subscription.
-            completeCleanup();
-        });
-
-        eventStream.onError(t -> {
-            LOG.error("Error in live stream: subscription={}", subscription, t);
-            try {
-                callbacks.onError().accept(t);
-            } catch (Exception e) {
-                LOG.warn("Observer already closed on error: subscription={}", subscription);
-            }
-        });
+    void attachedTo(LiveSessionStream stream) {
+        this.sessionStream = stream;
+    }
 
-        Schedulers.streamingExecutor().execute(eventStream::start);
+    Set<String> eventTypes() {
+        return subscription.eventTypes();
     }
 
-    private void bufferEvent(RecordedEvent event) {
-        try {
-            StreamingEvent streamingEvent = RecordedEventMapper.toStreamingEvent(subscription.sessionId(), event);
-            buffer.add(streamingEvent);
-        } catch (Exception e) {
-            LOG.warn("Failed to map event: subscription={} eventType={}",
-                    subscription, event.getEventType().getName(), e);
+    void accept(StreamingEvent event) {
+        if (!alreadyClosed.get()) {
+            buffer.add(event);
         }
     }
 
-    private void flush() {
+    void flush() {
         if (alreadyClosed.get()) {
+            buffer.clear();
             return;
         }
         if (!buffer.isEmpty() || subscription.sendEmptyBatches()) {
-            try {
-                callbacks.onNext().accept(EventBatch.newBuilder().addAllEvents(buffer).build());
-            } catch (Exception e) {
-                LOG.warn("Failed to send batch, closing stream: subscription={}", subscription);
-                close();
-            }
+            enqueue(EventBatch.newBuilder().addAllEvents(buffer).build());
             buffer.clear();
         }
     }
 
-    @Override
-    public void close() {
-        LOG.info("Closing live stream: subscription={}", subscription);
+    void streamEnded() {
+        flush();
         if (alreadyClosed.compareAndSet(false, true)) {
-            if (eventStream != null) {
-                eventStream.close();
+            terminate(new Completed());
+        }
+    }
+
+    void streamFailed(Throwable error) {
+        if (!alreadyClosed.get()) {
+            deliveries.add(new Failed(error));
+        }
+    }
+
+    private void enqueue(EventBatch batch) {
+        if (pendingBatches.incrementAndGet() > queueCapacity) {
+            if (slowConsumerPolicy == SlowConsumerPolicy.DISCONNECT) {
+                pendingBatches.decrementAndGet();
+                LOG.warn("Slow live stream consumer, disconnecting: subscription={} queue_capacity={}",
+                        subscription, queueCapacity);
+                disconnect(new IllegalStateException(
+                        "Live stream consumer is too slow, queue capacity exceeded: " + queueCapacity));
+                return;
+            }
+
+            if (dropOldestBatch()) {
+                pendingBatches.decrementAndGet();
+                long dropped = droppedBatches.incrementAndGet();
+                if (dropped % 100 == 1) {
+                    LOG.warn("Slow live stream consumer, dropping oldest batch: subscription={} dropped_batches={}",
+                            subscription, dropped);
+                }
             }
-            callbacks.onClose().run();
         }
+        deliveries.add(new Batch(batch));
     }
 
     /**
-     * Marks the subscriber closed and runs the cleanup callback without touching the
-     * event stream — used when the stream is already terminating on its own.
+     * Removes the oldest waiting batch. Terminal signals queued in between (e.g. a stream failure) are
+     * kept, the client must always receive them.
+     *
+     * @return {@code true} if a batch was dropped, {@code false} if the delivery thread took it first
      */
-    private void completeCleanup() {
+    private boolean dropOldestBatch() {
+        for (Delivery delivery : deliveries) {
+            if (delivery instanceof Batch) {
+                return deliveries.remove(delivery);
+            }
+        }
+        return false;
+    }
+
+    private void deliver() {
+        try {
+            while (true) {
+                switch (deliveries.take()) {
+                    case Batch(EventBatch batch) -> {
+                        pendingBatches.decrementAndGet();
+                        try {
+                            callbacks.onNext().accept(batch);
+                        } catch (Exception e) {
+                            LOG.warn("Failed to send batch, closing stream: subscription={}", subscription);
+                            if (alreadyClosed.compareAndSet(false, true)) {
+                                detach();
+                            }
+                            complete();
+                            return;
+                        }
+                    }
+                    case Failed(Throwable error) -> {
+                        try {
+                            callbacks.onError().accept(error);
+                        } catch (Exception e) {
+                            LOG.warn("Observer already closed on error: subscription={}", subscription);
+                        }
+                    }
+                    case Disconnected(Throwable error) -> {
+                        try {
+                            callbacks.onError().accept(error);
+                        } catch (Exception e) {
+                            LOG.warn("Observer already closed on error: subscription={}", subscription);
+                        }
+                        cleanup();
+                        return;
+                    }
+                    case Completed _ -> {
+                        complete();
+                        return;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cleanup();
+        }
+    }
+
+    private void complete() {
+        try {
+            callbacks.onComplete().run();
+        } catch (Exception e) {
+            LOG.info("Observer already closed on stream end: subscription={}", subscription);
+        }
+        cleanup();
+    }
+
+    private void disconnect(Throwable error) {
         if (alreadyClosed.compareAndSet(false, true)) {
+            detach();
+            terminate(new Disconnected(error));
+        }
+    }
+
+    /**
+     * Drops the waiting batches and lets the delivery thread finish with the terminal signal,
+     * so the client callbacks are never invoked concurrently.
+     */
+    private void terminate(Delivery terminal) {
+        deliveries.clear();
+        pendingBatches.set(0);
+        if (deliveryStarted) {
+            deliveries.add(terminal);
+        } else {
+            cleanup();
+        }
+    }
+
+    private void detach() {
+        LiveSessionStream stream = sessionStream;
+        if (stream != null) {
+            stream.detach(this);
+        }
+    }
+
+    private void cleanup() {
+        if (cleanedUp.compareAndSet(false, true)) {
             callbacks.onClose().run();
         }
     }
+
+    @Override
+    public void close() {
+        LOG.info("Closing live stream: subscription={}", subscription);
+        if (alreadyClosed.compareAndSet(false, true)) {
+            detach();
+            terminate(new Completed());
+        }
+    }
 }
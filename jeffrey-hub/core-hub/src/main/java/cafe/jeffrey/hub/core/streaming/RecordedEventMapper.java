@@ -19,6 +19,7 @@
 package cafe.jeffrey.hub.core.streaming;
 
 import jdk.jfr.AnnotationElement;
+import jdk.jfr.EventType;
 import jdk.jfr.Percentage;
 import jdk.jfr.Timespan;
 import jdk.jfr.Timestamp;
@@ -33,6 +34,7 @@ import cafe.jeffrey.shared.common.RecordedClassMapper;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -40,6 +42,10 @@ import java.util.List;
  * Handles JFR annotations ({@code @Timestamp}, {@code @Percentage}, {@code @Timespan}),
  * special object types (Thread, Class, Method), and primitives.
  *
+ * <p>The type resolution is done once per {@link EventType} by {@link #compile(EventType)}: the result is
+ * an {@link EventMapping} with one pre-resolved accessor per field, so mapping an event does no annotation
+ * walks or type-name comparisons. Streams keep the compiled mappings in an {@link EventMappingCache}.</p>
+ *
  * <p>Follows the same type resolution as
  * {@code cafe.jeffrey.profile.parser.fields.EventFieldsToJsonMapper}.</p>
  */
@@ -50,74 +56,110 @@ public abstract class RecordedEventMapper {
     private static final String TIMESPAN_TYPE = Timespan.class.getTypeName();
     private static final List<String> IGNORED_FIELDS = List.of("stackTrace");
 
+    /**
+     * Reads a single field of an event, the field and its type are resolved in advance.
+     * Returns {@code null} if the value should be omitted.
+     */
+    @FunctionalInterface
+    interface FieldAccessor {
+        TypedValue read(RecordedEvent event);
+    }
+
     /**
      * Converts a {@link RecordedEvent} to a proto {@link StreamingEvent}.
+     * Compiles the mapping of the event type for this single event, streams should
+     * use {@link EventMappingCache} to compile every event type only once.
      */
     public static StreamingEvent toStreamingEvent(String sessionId, RecordedEvent event) {
-        StreamingEvent.Builder builder = StreamingEvent.newBuilder()
-                .setEventType(event.getEventType().getName())
-                .setSessionId(sessionId)
-                .setTimestamp(event.getStartTime().toEpochMilli());
+        return compile(event.getEventType()).toStreamingEvent(sessionId, event);
+    }
 
-        for (ValueDescriptor field : event.getFields()) {
+    /**
+     * Resolves annotations and types of all fields of the event type into accessors.
+     */
+    public static EventMapping compile(EventType eventType) {
+        List<String> names = new ArrayList<>();
+        List<FieldAccessor> accessors = new ArrayList<>();
+        for (ValueDescriptor field : eventType.getFields()) {
             String name = field.getName();
             if (IGNORED_FIELDS.contains(name)) {
                 continue;
             }
-
-            TypedValue typedValue = mapField(field, event);
-            if (typedValue != null) {
-                builder.putFields(name, typedValue);
-            }
+            names.add(name);
+            accessors.add(compileField(field));
         }
 
-        return builder.build();
+        return new EventMapping(
+                eventType.getName(),
+                names.toArray(String[]::new),
+                accessors.toArray(FieldAccessor[]::new));
     }
 
     /**
      * Maps a single JFR field to a {@link TypedValue}, resolving annotations and types.
      */
     static TypedValue mapField(ValueDescriptor field, RecordedEvent event) {
+        return compileField(field).read(event);
+    }
+
+    /**
+     * Resolves annotations and types of a single field into an accessor.
+     */
+    static FieldAccessor compileField(ValueDescriptor field) {
+        String name = field.getName();
+
         // Annotation-based types take priority
         for (AnnotationElement annotation : field.getAnnotationElements()) {
             String typeName = annotation.getTypeName();
             if (TIMESTAMP_TYPE.equals(typeName)) {
-                Instant instant = event.getInstant(field.getName());
-                return Instant.MIN.equals(instant) ? null : longValue(instant.toEpochMilli());
+                return event -> {
+                    Instant instant = event.getInstant(name);
+                    return Instant.MIN.equals(instant) ? null : longValue(instant.toEpochMilli());
+                };
             } else if (PERCENTAGE_TYPE.equals(typeName)) {
-                return floatValue(event.getFloat(field.getName()));
+                return event -> floatValue(event.getFloat(name));
             } else if (TIMESPAN_TYPE.equals(typeName)) {
-                Duration duration = event.getDuration(field.getName());
-                return duration.isNegative() || duration.isZero()
-                        ? null : longValue(duration.toNanos());
+                return event -> {
+                    Duration duration = event.getDuration(name);
+                    return duration.isNegative() || duration.isZero()
+                            ? null : longValue(duration.toNanos());
+                };
             }
         }
 
         // Special object types
         String typeName = field.getTypeName();
         if ("java.lang.Thread".equals(typeName)) {
-            RecordedThread thread = event.getThread(field.getName());
-            return thread == null ? null : stringValue(threadName(thread));
+            return event -> {
+                RecordedThread thread = event.getThread(name);
+                return thread == null ? null : stringValue(threadName(thread));
+            };
         } else if ("java.lang.Class".equals(typeName)) {
-            RecordedClass clazz = event.getClass(field.getName());
-            return clazz == null ? null : stringValue(RecordedClassMapper.map(clazz.getName()));
+            return event -> {
+                RecordedClass clazz = event.getClass(name);
+                return clazz == null ? null : stringValue(RecordedClassMapper.map(clazz.getName()));
+            };
         } else if ("jdk.types.Method".equals(typeName)) {
-            RecordedMethod method = event.getValue(field.getName());
-            return method == null ? null : stringValue(method.getType().getName() + "#" + method.getName());
+            return event -> {
+                RecordedMethod method = event.getValue(name);
+                return method == null ? null : stringValue(method.getType().getName() + "#" + method.getName());
+            };
         }
 
         // Primitive types
         if ("long".equals(typeName) || "int".equals(typeName)) {
-            return longValue(event.getLong(field.getName()));
+            return event -> longValue(event.getLong(name));
         } else if ("boolean".equals(typeName)) {
-            return boolValue(event.getBoolean(field.getName()));
+            return event -> boolValue(event.getBoolean(name));
         } else if ("float".equals(typeName) || "double".equals(typeName)) {
-            return doubleValue(event.getDouble(field.getName()));
+            return event -> doubleValue(event.getDouble(name));
         }
 
         // Default: convert to string
-        Object value = event.getValue(field.getName());
-        return value == null ? null : stringValue(value.toString());
+        return event -> {
+            Object value = event.getValue(name);
+            return value == null ? null : stringValue(value.toString());
+        };
     }
 
     private static String threadName(RecordedThread thread) {
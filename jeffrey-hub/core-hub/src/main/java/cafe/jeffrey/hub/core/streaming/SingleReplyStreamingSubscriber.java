@@ -52,6 +52,7 @@ public class SingleReplyStreamingSubscriber {
     private final Path tempDir;
     private final Consumer<EventBatch> consumer;
     private final Supplier<Boolean> isClosed;
+    private final EventMappingCache mappings = new EventMappingCache();
 
     public SingleReplyStreamingSubscriber(
             ReplayStreamSubscription subscription,
@@ -112,7 +113,7 @@ public class SingleReplyStreamingSubscriber {
         }
 
         try {
-            buffer.add(RecordedEventMapper.toStreamingEvent(subscription.sessionId(), event));
+            buffer.add(mappings.toStreamingEvent(subscription.sessionId(), event));
 
             if (buffer.size() >= BATCH_SIZE) {
                 flush(buffer);
@@ -37,11 +37,13 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
@@ -119,6 +121,37 @@ class RecordingDownloadGrpcServiceTest {
             assertTotalSizeOnFirstChunkOnly(observer.chunks, content.length);
             assertArrayEquals(content, reassemble(observer.chunks));
         }
+
+        @Test
+        void resumesAcrossParts(@TempDir Path tempDir) throws Exception {
+            Path part1 = tempDir.resolve("part1.jfr");
+            Path part2 = tempDir.resolve("part2.jfr");
+            Files.write(part1, "first-part|".getBytes());
+            Files.write(part2, "second-part".getBytes());
+
+            var repoManager = mock(RepositoryManager.class);
+            when(repoManager.mergeAndStreamRecordings(SESSION_ID, List.of("f1", "f2")))
+                    .thenReturn(new StreamedRecordingFile("merged.jfr", List.of(part1, part2), null));
+
+            var stub = startServer(serviceWithSession(repoManager));
+            var observer = new TestStreamObserver();
+
+            stub.downloadMergedRecordings(
+                    DownloadMergedRecordingsRequest.newBuilder()
+                            .setSessionId(SESSION_ID)
+                            .addFileIds("f1")
+                            .addFileIds("f2")
+                            .setOffset(6)
+                            .build(),
+                    observer);
+
+            assertTrue(observer.completeLatch.await(5, TimeUnit.SECONDS));
+            assertNull(observer.error, "Stream should complete without error");
+
+            assertTotalSizeOnFirstChunkOnly(observer.chunks, 22);
+            assertChunksVerifiable(observer.chunks, 6);
+            assertArrayEquals("part|second-part".getBytes(), reassemble(observer.chunks));
+        }
     }
 
     // ========== DownloadRecordingFile ==========
@@ -167,8 +200,95 @@ class RecordingDownloadGrpcServiceTest {
             assertFalse(observer.chunks.isEmpty(), "Should receive at least one chunk");
 
             assertTotalSizeOnFirstChunkOnly(observer.chunks, content.length);
+            assertChunksVerifiable(observer.chunks, 0);
             assertArrayEquals(content, reassemble(observer.chunks));
         }
+
+        @Test
+        void resumesFromOffset(@TempDir Path tempDir) throws Exception {
+            byte[] content = new byte[300 * 1024];
+            for (int i = 0; i < content.length; i++) {
+                content[i] = (byte) (i % 251);
+            }
+            Path tempFile = tempDir.resolve("recording.jfr");
+            Files.write(tempFile, content);
+
+            var repoManager = mock(RepositoryManager.class);
+            when(repoManager.streamRecordingFile(SESSION_ID, FILE_ID))
+                    .thenReturn(new StreamedRecordingFile("recording.jfr", tempFile));
+
+            var stub = startServer(serviceWithSession(repoManager));
+            var observer = new TestStreamObserver();
+
+            int offset = 100_000;
+            stub.downloadRecordingFile(
+                    DownloadRecordingFileRequest.newBuilder()
+                            .setSessionId(SESSION_ID)
+                            .setFileId(FILE_ID)
+                            .setOffset(offset)
+                            .build(),
+                    observer);
+
+            assertTrue(observer.completeLatch.await(5, TimeUnit.SECONDS));
+            assertNull(observer.error, "Stream should complete without error");
+
+            assertTotalSizeOnFirstChunkOnly(observer.chunks, content.length);
+            assertChunksVerifiable(observer.chunks, offset);
+            assertArrayEquals(
+                    Arrays.copyOfRange(content, offset, content.length), reassemble(observer.chunks));
+        }
+
+        @Test
+        void offsetAtEnd_reportsSizeWithoutData(@TempDir Path tempDir) throws Exception {
+            byte[] content = "complete".getBytes();
+            Path tempFile = tempDir.resolve("recording.jfr");
+            Files.write(tempFile, content);
+
+            var repoManager = mock(RepositoryManager.class);
+            when(repoManager.streamRecordingFile(SESSION_ID, FILE_ID))
+                    .thenReturn(new StreamedRecordingFile("recording.jfr", tempFile));
+
+            var stub = startServer(serviceWithSession(repoManager));
+            var observer = new TestStreamObserver();
+
+            stub.downloadRecordingFile(
+                    DownloadRecordingFileRequest.newBuilder()
+                            .setSessionId(SESSION_ID)
+                            .setFileId(FILE_ID)
+                            .setOffset(content.length)
+                            .build(),
+                    observer);
+
+            assertTrue(observer.completeLatch.await(5, TimeUnit.SECONDS));
+            assertNull(observer.error, "Stream should complete without error");
+            assertEquals(1, observer.chunks.size());
+            assertEquals(content.length, observer.chunks.getFirst().getTotalSize());
+            assertTrue(observer.chunks.getFirst().getData().isEmpty());
+        }
+
+        @Test
+        void offsetBeyondSize_returnsInvalidArgument(@TempDir Path tempDir) throws Exception {
+            Path tempFile = tempDir.resolve("recording.jfr");
+            Files.write(tempFile, "short".getBytes());
+
+            var repoManager = mock(RepositoryManager.class);
+            when(repoManager.streamRecordingFile(SESSION_ID, FILE_ID))
+                    .thenReturn(new StreamedRecordingFile("recording.jfr", tempFile));
+
+            var stub = startServer(serviceWithSession(repoManager));
+            var observer = new TestStreamObserver();
+
+            stub.downloadRecordingFile(
+                    DownloadRecordingFileRequest.newBuilder()
+                            .setSessionId(SESSION_ID)
+                            .setFileId(FILE_ID)
+                            .setOffset(6)
+                            .build(),
+                    observer);
+
+            assertTrue(observer.errorLatch.await(5, TimeUnit.SECONDS));
+            assertStatus(Status.Code.INVALID_ARGUMENT, observer.error);
+        }
     }
 
     // ========== DownloadArtifactFile ==========
@@ -273,6 +393,26 @@ class RecordingDownloadGrpcServiceTest {
         }
     }
 
+    /**
+     * Verifies every chunk carries its position in the complete file, the positions are contiguous
+     * from {@code expectedOffset}, and each chunk's CRC32C matches its data.
+     */
+    private static void assertChunksVerifiable(List<DataChunk> chunks, long expectedOffset) {
+        long position = expectedOffset;
+        for (int i = 0; i < chunks.size(); i++) {
+            DataChunk chunk = chunks.get(i);
+            assertTrue(chunk.hasOffset(), "Chunk should carry its offset: index=" + i);
+            assertEquals(position, chunk.getOffset(), "Chunks should be contiguous: index=" + i);
+
+            CRC32C checksum = new CRC32C();
+            checksum.update(chunk.getData().asReadOnlyByteBuffer());
+            assertTrue(chunk.hasChecksum(), "Chunk should carry its checksum: index=" + i);
+            assertEquals((int) checksum.getValue(), chunk.getChecksum(), "Checksum mismatch: index=" + i);
+
+            position += chunk.getData().size();
+        }
+    }
+
     private static byte[] reassemble(List<DataChunk> chunks) throws IOException {
         ByteArrayOutputStream assembled = new ByteArrayOutputStream();
         for (DataChunk chunk : chunks) {
@@ -0,0 +1,141 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.hub.core.project.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import cafe.jeffrey.shared.common.compression.Lz4Compressor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class RecordingCompressorTest {
+
+    private static final String PROJECT_ID = "project-1";
+
+    @TempDir
+    Path dir;
+
+    private RecordingCompressor compressor;
+
+    @BeforeEach
+    void setUp() {
+        compressor = new RecordingCompressor(2, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        compressor.close();
+    }
+
+    private Path recording(String name) throws IOException {
+        return Files.writeString(dir.resolve(name), ("content of " + name + "\n").repeat(1000));
+    }
+
+    @Nested
+    class Compress {
+
+        @Test
+        void compressesAndRemovesSource() throws IOException {
+            Path source = recording("recording.jfr");
+            String content = Files.readString(source);
+            Path target = dir.resolve("recording.jfr.lz4");
+
+            Path compressed = compressor.compress(PROJECT_ID, source, target).join();
+
+            assertEquals(target, compressed);
+            assertFalse(Files.exists(source));
+            try (InputStream in = Lz4Compressor.decompressStream(compressed)) {
+                assertEquals(content, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        @Test
+        void emptyRecordingIsSkipped() throws IOException {
+            Path source = Files.createFile(dir.resolve("empty.jfr"));
+
+            assertNull(compressor.compress(PROJECT_ID, source, dir.resolve("empty.jfr.lz4")).join());
+            assertTrue(Files.exists(source));
+        }
+
+        @Test
+        void manyFilesMoreThanQueueCapacity() throws IOException {
+            List<CompletableFuture<Path>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Path source = recording("recording-" + i + ".jfr");
+                futures.add(compressor.compress(PROJECT_ID, source, dir.resolve(source.getFileName() + ".lz4")));
+            }
+
+            futures.forEach(future -> assertTrue(Files.exists(future.join())));
+            assertEquals(20, compressor.statistics(PROJECT_ID).files());
+            assertEquals(0, compressor.queueDepth(PROJECT_ID));
+        }
+
+        @Test
+        void failedCompressionLeavesNoPartialFile() throws IOException {
+            // A directory passes the size check but cannot be read as a recording
+            Path source = Files.createDirectory(dir.resolve("broken.jfr"));
+            Path target = dir.resolve("broken.jfr.lz4");
+            assumeTrue(Files.size(source) > 0, "The file system reports empty directories");
+
+            CompletableFuture<Path> future = compressor.compress(PROJECT_ID, source, target);
+
+            assertThrows(CompletionException.class, future::join);
+            assertFalse(Files.exists(target));
+            assertFalse(Files.exists(dir.resolve(".broken.jfr.lz4.partial")));
+        }
+    }
+
+    @Nested
+    class ProjectStatistics {
+
+        @Test
+        void collectedPerProject() throws IOException {
+            Path source = recording("recording.jfr");
+            long originalSize = Files.size(source);
+            Path target = compressor.compress(PROJECT_ID, source, dir.resolve("recording.jfr.lz4")).join();
+
+            RecordingCompressor.Statistics statistics = compressor.statistics(PROJECT_ID);
+            assertEquals(1, statistics.files());
+            assertEquals(originalSize, statistics.originalBytes());
+            assertEquals(Files.size(target), statistics.compressedBytes());
+            assertTrue(statistics.compressionRatio() > 1);
+
+            assertEquals(RecordingCompressor.Statistics.EMPTY, compressor.statistics("another-project"));
+        }
+    }
+}
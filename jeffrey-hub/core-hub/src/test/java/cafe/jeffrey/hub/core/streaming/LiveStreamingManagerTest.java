@@ -111,6 +111,42 @@ class LiveStreamingManagerTest {
         }
     }
 
+    @Nested
+    class SharedSessionStream {
+
+        @Test
+        void subscribersOfSameSessionShareOneStream() throws Exception {
+            try (var manager = new LiveStreamingManager()) {
+                var firstReceived = new CountDownLatch(1);
+                var secondReceived = new CountDownLatch(1);
+
+                String first = manager.subscribe(subscription(), batchCallbacks(firstReceived));
+                String second = manager.subscribe(subscription(), batchCallbacks(secondReceived));
+
+                assertEquals(1, manager.activeSessionStreams());
+                assertTrue(firstReceived.await(10, TimeUnit.SECONDS), "First subscriber should receive events");
+                assertTrue(secondReceived.await(10, TimeUnit.SECONDS), "Second subscriber should receive events");
+
+                manager.unsubscribe(first);
+                assertEquals(1, manager.activeSessionStreams(), "Stream stays open for the remaining subscriber");
+
+                manager.unsubscribe(second);
+                assertEquals(0, manager.activeSessionStreams(), "Last unsubscribe closes the session stream");
+            }
+        }
+
+        private static StreamingCallbacks batchCallbacks(CountDownLatch latch) {
+            return new StreamingCallbacks(
+                    batch -> {
+                        if (batch.getEventsCount() > 0) {
+                            latch.countDown();
+                        }
+                    },
+                    () -> {},
+                    _ -> {});
+        }
+    }
+
     @Nested
     class AutoRemoval {
 
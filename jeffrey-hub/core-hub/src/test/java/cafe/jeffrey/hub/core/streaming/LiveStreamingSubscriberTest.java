@@ -208,5 +208,30 @@ class LiveStreamingSubscriberTest {
             // Close without calling start — eventStream is null, should be safe
             assertDoesNotThrow(subscriber::close);
         }
+
+        @Test
+        void droppingOldestBatchKeepsQueuedFailure() throws Exception {
+            var subscription = new LiveStreamSubscription(
+                    "session-1", repoPath, Set.of("jdk.CPULoad"), true);
+            var error = new IllegalStateException("stream failed");
+            List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch batchLatch = new CountDownLatch(1);
+            var subscriber = new LiveStreamingSubscriber(subscription,
+                    new StreamingCallbacks(_ -> batchLatch.countDown(), () -> {}, errors::add),
+                    1, LiveStreamingSubscriber.SlowConsumerPolicy.DROP_OLDEST);
+
+            // Queue before the delivery starts: a batch, the failure, then a batch over the capacity
+            subscriber.flush();
+            subscriber.streamFailed(error);
+            subscriber.flush();
+
+            subscriber.startDelivery();
+            try {
+                assertTrue(batchLatch.await(5, TimeUnit.SECONDS), "The newest batch should be delivered");
+                assertEquals(List.of(error), errors);
+            } finally {
+                subscriber.close();
+            }
+        }
     }
 }
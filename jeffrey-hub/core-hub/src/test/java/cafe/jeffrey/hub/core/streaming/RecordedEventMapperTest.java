@@ -374,6 +374,45 @@ class RecordedEventMapperTest {
         }
     }
 
+    @Nested
+    class CompiledMappings {
+
+        @Test
+        void cachedMappingProducesSameEventAsDirectMapping() throws IOException {
+            List<RecordedEvent> events = readEvents("jdk.CPULoad");
+            EventMappingCache cache = new EventMappingCache();
+
+            for (RecordedEvent event : events) {
+                assertEquals(
+                        RecordedEventMapper.toStreamingEvent(SESSION_ID, event),
+                        cache.toStreamingEvent(SESSION_ID, event));
+            }
+        }
+
+        @Test
+        void compiledMappingIsReusableAcrossEventsOfSameType() throws IOException {
+            List<RecordedEvent> events = readEvents("jdk.CPULoad");
+            EventMapping mapping = RecordedEventMapper.compile(events.getFirst().getEventType());
+
+            for (RecordedEvent event : events) {
+                StreamingEvent mapped = mapping.toStreamingEvent(SESSION_ID, event);
+                assertEquals("jdk.CPULoad", mapped.getEventType());
+                assertEquals(event.getStartTime().toEpochMilli(), mapped.getTimestamp());
+                assertEquals(event.getFloat("jvmUser"), mapped.getFieldsMap().get("jvmUser").getFloatValue());
+            }
+        }
+    }
+
+    private static List<RecordedEvent> readEvents(String eventType) throws IOException {
+        List<RecordedEvent> events = new ArrayList<>();
+        try (EventStream stream = EventStream.openFile(JfrTestFiles.resolve(JfrTestFiles.PROFILE_1))) {
+            stream.onEvent(eventType, events::add);
+            stream.start();
+        }
+        assertFalse(events.isEmpty(), "Expected at least one " + eventType + " event in test file");
+        return events;
+    }
+
     private static RecordedEvent readFirstEvent(String eventType) throws IOException {
         List<RecordedEvent> events = new ArrayList<>();
         try (EventStream stream = EventStream.openFile(JfrTestFiles.resolve(JfrTestFiles.PROFILE_1))) {
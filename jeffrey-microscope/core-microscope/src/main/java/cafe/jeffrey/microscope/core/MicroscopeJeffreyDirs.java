@@ -30,6 +30,7 @@ public class MicroscopeJeffreyDirs implements TempDirFactory {
     private static final String WORKSPACES_DIR = "workspaces";
     private static final String PROFILES_DIR = "profiles";
     private static final String RECORDINGS_DIR = "recordings";
+    private static final String RECORDING_CACHE_DIR = "recording-cache";
     public static final String HEAP_DUMP_ANALYSIS_DIR = "heap-dump";
     private static final String TMP_DIR = "tmp";
     private final Path homeDir;
@@ -48,6 +49,7 @@ public class MicroscopeJeffreyDirs implements TempDirFactory {
         FileSystemUtils.createDirectories(homeDir);
         FileSystemUtils.createDirectories(profiles());
         FileSystemUtils.createDirectories(recordings());
+        FileSystemUtils.createDirectories(recordingCache());
         FileSystemUtils.removeAndCreateDirectories(tempDir);
         return homeDir;
     }
@@ -68,6 +70,13 @@ public class MicroscopeJeffreyDirs implements TempDirFactory {
         return homeDir.resolve(RECORDINGS_DIR);
     }
 
+    /**
+     * Local cache of files downloaded from hubs, survives restarts unlike the temp directory.
+     */
+    public Path recordingCache() {
+        return homeDir.resolve(RECORDING_CACHE_DIR);
+    }
+
     public Path profileDir(String profileId) {
         return profiles().resolve(profileId);
     }
@@ -133,10 +133,16 @@ public class AppConfiguration {
     public ProfilePersistenceProvider profilePersistenceProvider(
             MicroscopeJeffreyDirs jeffreyDirs,
             @Value("${jeffrey.microscope.profile.frame-resolution:CACHE}") FrameResolutionMode frameResolutionMode,
+            @Value("${jeffrey.microscope.profile.ingest.writer-threads:2}") int writerThreads,
             Clock clock) {
 
-        LOG.info("Using frame resolution mode: mode={}", frameResolutionMode);
-        return new DuckDBProfilePersistenceProvider(jeffreyDirs.profiles(), frameResolutionMode, clock);
+        LOG.info("Using frame resolution mode: mode={} writer_threads_per_table={}", frameResolutionMode, writerThreads);
+        return new DuckDBProfilePersistenceProvider(
+                jeffreyDirs.profiles(),
+                frameResolutionMode,
+                clock,
+                DuckDBProfilePersistenceProvider.DEFAULT_BATCH_SIZE,
+                writerThreads);
     }
 
     @Bean
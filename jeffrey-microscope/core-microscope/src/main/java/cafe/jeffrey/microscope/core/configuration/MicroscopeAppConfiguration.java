@@ -48,6 +48,7 @@ import cafe.jeffrey.shared.ui.workspace.bridge.WorkspaceBrowserAccess;
 import cafe.jeffrey.shared.ui.workspace.config.WorkspacesFeatureConfiguration;
 import cafe.jeffrey.shared.ui.version.VersionFeatureConfiguration;
 import cafe.jeffrey.profile.ProfileInitializer;
+import cafe.jeffrey.profile.EventStorageOptions;
 import cafe.jeffrey.profile.ProfileInitializerImpl;
 import cafe.jeffrey.profile.configuration.ProfilesConfiguration;
 import cafe.jeffrey.profile.manager.ProfileManager;
@@ -88,10 +89,17 @@ public class MicroscopeAppConfiguration {
             ProfileManager.Factory profileManagerFactory,
             ProfileDataInitializer profileDataInitializer,
             MicroscopeCorePersistenceProvider localCorePersistenceProvider,
-            @Value("${jeffrey.microscope.profile.frame-resolution:CACHE}") FrameResolutionMode frameResolutionMode) {
-
-        ProfilePersistenceProvider quickProvider =
-                new DuckDBProfilePersistenceProvider(jeffreyDirs.profiles(), frameResolutionMode, clock);
+            @Value("${jeffrey.microscope.profile.frame-resolution:CACHE}") FrameResolutionMode frameResolutionMode,
+            @Value("${jeffrey.microscope.profile.ingest.writer-threads:2}") int writerThreads,
+            @Value("${jeffrey.microscope.profile.events.dictionary-encoding:false}") boolean dictionaryEncoding,
+            @Value("${jeffrey.microscope.profile.events.typed-field-tables:false}") boolean typedFieldTables) {
+
+        ProfilePersistenceProvider quickProvider = new DuckDBProfilePersistenceProvider(
+                jeffreyDirs.profiles(),
+                frameResolutionMode,
+                clock,
+                DuckDBProfilePersistenceProvider.DEFAULT_BATCH_SIZE,
+                writerThreads);
 
         RecordingEventParser jfrParser =
                 new JfrRecordingEventParser(jeffreyDirs, new Lz4Compressor(jeffreyDirs));
@@ -108,7 +116,8 @@ public class MicroscopeAppConfiguration {
                 quickProvider.eventWriterFactory(),
                 profileManagerFactory,
                 profileDataInitializer,
-                clock);
+                clock,
+                new EventStorageOptions(dictionaryEncoding, typedFieldTables));
 
         MicroscopeCoreRepositories repos = localCorePersistenceProvider.localCoreRepositories();
         RecordingInformationParser recordingInformationParser =
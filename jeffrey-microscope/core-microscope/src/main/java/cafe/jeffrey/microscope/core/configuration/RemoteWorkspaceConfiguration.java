@@ -31,6 +31,7 @@ import cafe.jeffrey.microscope.persistence.api.MicroscopeCorePersistenceProvider
 import cafe.jeffrey.microscope.persistence.api.HubsRepository;
 import cafe.jeffrey.microscope.persistence.jdbc.JdbcHubsRepository;
 import cafe.jeffrey.microscope.persistence.jdbc.JdbcWorkspaceRepository;
+import cafe.jeffrey.recordings.core.download.RecordingFileCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -51,12 +52,22 @@ public class RemoteWorkspaceConfiguration {
         return new CachedHubClientsFactory(jeffreyDirs::newTempDir);
     }
 
+    /**
+     * One cache for all hubs and projects: it is bounded by its total size, which only holds when a
+     * single instance evicts from the directory.
+     */
+    @Bean
+    public RecordingFileCache recordingFileCache(MicroscopeJeffreyDirs jeffreyDirs) {
+        return new RecordingFileCache(jeffreyDirs.recordingCache(), RecordingFileCache.DEFAULT_MAX_SIZE);
+    }
+
     @Bean
     public WorkspaceManagerFactory workspaceManagerFactory(
             MicroscopeJeffreyDirs jeffreyDirs,
             MicroscopeCorePersistenceProvider persistenceProvider,
             ProfilesManager.Factory profilesManagerFactory,
-            RecordingsManager recordingsManager) {
+            RecordingsManager recordingsManager,
+            RecordingFileCache recordingFileCache) {
 
         return (serverInfo, workspaceInfo, remoteClients) -> new RemoteWorkspaceManager(
                 jeffreyDirs,
@@ -65,7 +76,8 @@ public class RemoteWorkspaceConfiguration {
                 new JdbcWorkspaceRepository(workspaceInfo.id(), persistenceProvider.databaseClientProvider()),
                 remoteClients,
                 profilesManagerFactory,
-                recordingsManager);
+                recordingsManager,
+                recordingFileCache);
     }
 
     @Bean
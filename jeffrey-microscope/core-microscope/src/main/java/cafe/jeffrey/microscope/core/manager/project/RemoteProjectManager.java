@@ -29,6 +29,7 @@ import cafe.jeffrey.microscope.core.manager.recordings.RecordingsManager;
 import cafe.jeffrey.recordings.core.OriginContext;
 import cafe.jeffrey.recordings.core.RecordingsDownloadManager;
 import cafe.jeffrey.recordings.core.RemoteRecordingsDownloadManager;
+import cafe.jeffrey.recordings.core.download.RecordingFileCache;
 import cafe.jeffrey.shared.common.model.ProjectInfo;
 
 public class RemoteProjectManager implements ProjectManager {
@@ -38,6 +39,7 @@ public class RemoteProjectManager implements ProjectManager {
     private final HubClients remoteClients;
     private final ProfilesManager.Factory profilesManagerFactory;
     private final RecordingsManager recordingsManager;
+    private final RecordingFileCache recordingFileCache;
     private final OriginContext originContext;
 
     public RemoteProjectManager(
@@ -46,6 +48,7 @@ public class RemoteProjectManager implements ProjectManager {
             HubClients remoteClients,
             ProfilesManager.Factory profilesManagerFactory,
             RecordingsManager recordingsManager,
+            RecordingFileCache recordingFileCache,
             OriginContext originContext) {
 
         this.jeffreyDirs = jeffreyDirs;
@@ -53,6 +56,7 @@ public class RemoteProjectManager implements ProjectManager {
         this.remoteClients = remoteClients;
         this.profilesManagerFactory = profilesManagerFactory;
         this.recordingsManager = recordingsManager;
+        this.recordingFileCache = recordingFileCache;
         this.originContext = originContext;
     }
 
@@ -75,6 +79,7 @@ public class RemoteProjectManager implements ProjectManager {
     public RecordingsDownloadManager recordingsDownloadManager() {
         return new RemoteRecordingsDownloadManager(
                 jeffreyDirs::newTempDir,
+                recordingFileCache,
                 remoteClients.recordings(),
                 remoteClients.repository(),
                 recordingsManager,
@@ -29,6 +29,7 @@ import cafe.jeffrey.microscope.core.manager.project.RemoteProjectManager;
 import cafe.jeffrey.microscope.core.manager.recordings.RecordingsManager;
 import cafe.jeffrey.microscope.core.recording.ProjectRecordingInitializer;
 import cafe.jeffrey.recordings.core.OriginContext;
+import cafe.jeffrey.recordings.core.download.RecordingFileCache;
 import cafe.jeffrey.hub.client.HubClients;
 import cafe.jeffrey.microscope.core.client.RemoteMappers;
 import cafe.jeffrey.hub.client.dto.RemoteProjectResponse;
@@ -49,6 +50,7 @@ public class RemoteProjectsManager implements ProjectsManager {
     private final HubClients remoteClients;
     private final ProfilesManager.Factory profilesManagerFactory;
     private final RecordingsManager recordingsManager;
+    private final RecordingFileCache recordingFileCache;
 
     public RemoteProjectsManager(
             MicroscopeJeffreyDirs jeffreyDirs,
@@ -56,7 +58,8 @@ public class RemoteProjectsManager implements ProjectsManager {
             WorkspaceInfo workspaceInfo,
             HubClients remoteClients,
             ProfilesManager.Factory profilesManagerFactory,
-            RecordingsManager recordingsManager) {
+            RecordingsManager recordingsManager,
+            RecordingFileCache recordingFileCache) {
 
         this.jeffreyDirs = jeffreyDirs;
         this.serverInfo = serverInfo;
@@ -64,6 +67,7 @@ public class RemoteProjectsManager implements ProjectsManager {
         this.remoteClients = remoteClients;
         this.profilesManagerFactory = profilesManagerFactory;
         this.recordingsManager = recordingsManager;
+        this.recordingFileCache = recordingFileCache;
     }
 
     @Override
@@ -130,6 +134,7 @@ public class RemoteProjectsManager implements ProjectsManager {
                 remoteClients,
                 profilesManagerFactory,
                 recordingsManager,
+                recordingFileCache,
                 originContext);
     }
 
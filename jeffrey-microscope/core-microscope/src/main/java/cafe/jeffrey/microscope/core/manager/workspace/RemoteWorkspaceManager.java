@@ -29,6 +29,7 @@ import cafe.jeffrey.microscope.core.manager.project.ProjectsManager;
 import cafe.jeffrey.microscope.core.manager.recordings.RecordingsManager;
 import cafe.jeffrey.shared.common.model.hub.HubInfo;
 import cafe.jeffrey.microscope.persistence.api.WorkspaceRepository;
+import cafe.jeffrey.recordings.core.download.RecordingFileCache;
 import cafe.jeffrey.shared.common.filesystem.FileSystemUtils;
 import cafe.jeffrey.shared.common.model.workspace.WorkspaceInfo;
 import cafe.jeffrey.shared.common.model.workspace.WorkspaceStatus;
@@ -47,6 +48,7 @@ public class RemoteWorkspaceManager implements WorkspaceManager {
     private final HubClients remoteClients;
     private final ProfilesManager.Factory profilesManagerFactory;
     private final RecordingsManager recordingsManager;
+    private final RecordingFileCache recordingFileCache;
 
     public RemoteWorkspaceManager(
             MicroscopeJeffreyDirs jeffreyDirs,
@@ -55,7 +57,8 @@ public class RemoteWorkspaceManager implements WorkspaceManager {
             WorkspaceRepository workspaceRepository,
             HubClients remoteClients,
             ProfilesManager.Factory profilesManagerFactory,
-            RecordingsManager recordingsManager) {
+            RecordingsManager recordingsManager,
+            RecordingFileCache recordingFileCache) {
 
         this.jeffreyDirs = jeffreyDirs;
         this.serverInfo = serverInfo;
@@ -64,6 +67,7 @@ public class RemoteWorkspaceManager implements WorkspaceManager {
         this.remoteClients = remoteClients;
         this.profilesManagerFactory = profilesManagerFactory;
         this.recordingsManager = recordingsManager;
+        this.recordingFileCache = recordingFileCache;
     }
 
     @Override
@@ -95,7 +99,8 @@ public class RemoteWorkspaceManager implements WorkspaceManager {
                 workspaceInfo,
                 remoteClients,
                 profilesManagerFactory,
-                recordingsManager);
+                recordingsManager,
+                recordingFileCache);
     }
 
     @Override
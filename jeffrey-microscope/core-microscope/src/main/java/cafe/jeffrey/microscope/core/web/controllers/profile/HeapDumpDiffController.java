@@ -25,6 +25,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import cafe.jeffrey.microscope.core.web.ProfileManagerResolver;
 import cafe.jeffrey.profile.heapdump.model.HeapDumpDiffReport;
+import cafe.jeffrey.profile.heapdump.model.HeapDumpPathDiffReport;
 import cafe.jeffrey.profile.manager.heapdump.HeapDumpDiffService;
 import cafe.jeffrey.profile.manager.heapdump.HeapDumpManager;
 
@@ -55,4 +56,14 @@ public class HeapDumpDiffController {
         HeapDumpManager baseline = resolver.resolve(secondaryProfileId).heapDumpManager();
         return HeapDumpDiffService.diff(primary, baseline, topN);
     }
+
+    @GetMapping("/dominator-paths")
+    public HeapDumpPathDiffReport dominatorPaths(
+            @PathVariable("primaryProfileId") String primaryProfileId,
+            @PathVariable("secondaryProfileId") String secondaryProfileId,
+            @RequestParam(value = "topN", defaultValue = "200") int topN) {
+        HeapDumpManager primary = resolver.resolve(primaryProfileId).heapDumpManager();
+        HeapDumpManager baseline = resolver.resolve(secondaryProfileId).heapDumpManager();
+        return HeapDumpDiffService.diffPaths(primary, baseline, topN);
+    }
 }
@@ -28,6 +28,7 @@ import org.springframework.web.bind.annotation.RestController;
 import cafe.jeffrey.microscope.core.web.ProfileManagerResolver;
 import cafe.jeffrey.profile.heapdump.model.ClassHistogramEntry;
 import cafe.jeffrey.profile.heapdump.model.ClassInstancesResponse;
+import cafe.jeffrey.profile.heapdump.model.ClassRetainedSizeEntry;
 import cafe.jeffrey.profile.heapdump.model.DominatorTreeResponse;
 import cafe.jeffrey.profile.heapdump.model.GCRootClassAggregate;
 import cafe.jeffrey.profile.heapdump.model.GCRootClassLoaderAggregate;
@@ -41,6 +42,7 @@ import cafe.jeffrey.profile.heapdump.model.InstanceTreeResponse;
 import cafe.jeffrey.profile.heapdump.model.LeakHintFinding;
 import cafe.jeffrey.profile.heapdump.model.OQLQueryRequest;
 import cafe.jeffrey.profile.heapdump.model.OQLQueryResult;
+import cafe.jeffrey.profile.heapdump.model.RetainedSizeEstimate;
 import cafe.jeffrey.profile.heapdump.model.SortBy;
 import cafe.jeffrey.profile.common.pipeline.SubPhaseTiming;
 import cafe.jeffrey.profile.heapdump.model.ThreadStackFrame;
@@ -74,6 +76,13 @@ public class HeapDumpObjectsController {
         return mgr(profileId).getClassHistogram(topN, sortBy);
     }
 
+    @GetMapping("/histogram/retained")
+    public List<ClassRetainedSizeEntry> histogramRetained(
+            @PathVariable("profileId") String profileId,
+            @RequestParam(value = "topN", defaultValue = "100") int topN) {
+        return mgr(profileId).getClassRetainedSizes(topN);
+    }
+
     @PostMapping("/query")
     public OQLQueryResult query(
             @PathVariable("profileId") String profileId,
@@ -156,6 +165,13 @@ public class HeapDumpObjectsController {
         return mgr(profileId).getInstanceDetail(objectId, includeRetainedSize);
     }
 
+    @GetMapping("/instance/{objectId}/retained-size")
+    public RetainedSizeEstimate getRetainedSizeEstimate(
+            @PathVariable("profileId") String profileId,
+            @PathVariable("objectId") long objectId) {
+        return mgr(profileId).getRetainedSizeEstimate(objectId);
+    }
+
     @GetMapping("/instance/{objectId}/referrers")
     public InstanceTreeResponse getReferrers(
             @PathVariable("profileId") String profileId,
@@ -110,6 +110,7 @@ public final class JfrAnalysisSystemPrompt {
                 - The `duration` column stores values in **nanoseconds**. Use `duration / 1000000` to convert to milliseconds.
                 - Use `epoch_ms(start_timestamp)` to convert timestamps to milliseconds
                 - JSON extraction: `fields->>'fieldName'` or `json_extract(fields, '$.fieldName')`
+                - If the profile has `typed_*` tables (HTTP/gRPC/JDBC exchanges, garbage collections, socket I/O), the fields of those events are in the typed columns of these tables and `events.fields` is NULL for them
                 - Array operations: Use UNNEST for frame_hashes arrays
                 - Aggregations: COUNT(*), SUM(samples), AVG(duration), etc.
                 - **GROUP BY rule**: When using aggregate functions (COUNT, SUM, AVG, MIN, MAX), ALL non-aggregated columns in the SELECT must appear in the GROUP BY clause.
@@ -47,18 +47,39 @@ public class DbBasedFlamegraphGenerator implements GraphGenerator {
     private final ProfileEventStreamRepository eventRepository;
     private final double minFrameThresholdPct;
     private final AiExportConfig aiExportConfig;
+    private final ProfileFlamegraphCache resultCache;
 
     public DbBasedFlamegraphGenerator(
             ProfileEventStreamRepository eventRepository,
             double minFrameThresholdPct,
             AiExportConfig aiExportConfig) {
+        this(eventRepository, minFrameThresholdPct, aiExportConfig, null);
+    }
+
+    /**
+     * @param resultCache cache of the already generated graphs of the profile, {@code null} generates
+     *                    every graph from scratch
+     */
+    public DbBasedFlamegraphGenerator(
+            ProfileEventStreamRepository eventRepository,
+            double minFrameThresholdPct,
+            AiExportConfig aiExportConfig,
+            ProfileFlamegraphCache resultCache) {
         this.eventRepository = eventRepository;
         this.minFrameThresholdPct = minFrameThresholdPct;
         this.aiExportConfig = aiExportConfig;
+        this.resultCache = resultCache;
     }
 
     @Override
     public byte[] generate(GraphParameters params) {
+        if (resultCache == null) {
+            return generateUncached(params);
+        }
+        return resultCache.getOrGenerate(params, minFrameThresholdPct, () -> generateUncached(params));
+    }
+
+    private byte[] generateUncached(GraphParameters params) {
         // Both branches run on a shared pool, where ScopedValue does not reach. fork captures the
         // enclosing span here and re-establishes it inside each task so the two halves of a graph
         // request stay under the request that asked for them instead of starting traces of their own.
@@ -0,0 +1,93 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.flamegraph.api;
+
+import cafe.jeffrey.provider.profile.api.ProfileCacheRepository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory tier of the flamegraph result cache, shared by all profiles of the application. It keeps
+ * the most recently opened graphs as serialized {@code GraphData} bytes and is bounded by the total
+ * size of the cached payloads, not by the number of entries, because a graph of a large profile can
+ * be a thousand times bigger than a graph of a small one.
+ *
+ * <p>Entries are only ever looked up with keys produced by {@link ProfileFlamegraphCache}, which
+ * scopes them to a profile and to the current cache generation of its database. Invalidating the
+ * persisted tier therefore makes the entries here unreachable, they fall out as the least recently
+ * used ones.
+ */
+public class FlamegraphResultCache {
+
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+
+    public FlamegraphResultCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public FlamegraphResultCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Opens the cache for a single profile, combining this in-memory tier with the persisted tier
+     * in the profile's own database.
+     */
+    public ProfileFlamegraphCache forProfile(String profileId, ProfileCacheRepository persisted) {
+        return new ProfileFlamegraphCache(profileId, this, persisted);
+    }
+
+    synchronized Optional<byte[]> get(String key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+
+    synchronized void put(String key, byte[] content) {
+        if (content.length > maxBytes) {
+            return;
+        }
+
+        byte[] previous = entries.put(key, content);
+        if (previous != null) {
+            currentBytes -= previous.length;
+        }
+        currentBytes += content.length;
+
+        var iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, byte[]> eldest = iterator.next();
+            currentBytes -= eldest.getValue().length;
+            iterator.remove();
+        }
+    }
+
+    public synchronized long sizeInBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
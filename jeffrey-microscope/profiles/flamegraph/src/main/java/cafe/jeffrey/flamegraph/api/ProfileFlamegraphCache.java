@@ -0,0 +1,115 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.flamegraph.api;
+
+import cafe.jeffrey.profile.common.config.GraphParameters;
+import cafe.jeffrey.provider.profile.api.ProfileCacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Flamegraph result cache of a single profile: the shared {@link FlamegraphResultCache} in front of
+ * the {@code cache} table of the profile's database. Results are stored as the serialized
+ * {@code GraphData} bytes under a hash of the canonical form of the {@link GraphParameters} and the
+ * frame threshold they were rendered with.
+ *
+ * <p>Invalidation goes through the profile's database: the in-memory keys carry a generation token
+ * stored in the same {@code cache} table. Anything that clears the table (profile re-initialization,
+ * frame renames and collapses in the profile tools) drops the generation with it, the next request
+ * starts a new one and the old in-memory entries can no longer be reached.
+ */
+public class ProfileFlamegraphCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProfileFlamegraphCache.class);
+
+    private static final String KEY_PREFIX = "flamegraph:";
+    private static final String GENERATION_KEY = KEY_PREFIX + "generation";
+
+    private final String profileId;
+    private final FlamegraphResultCache memory;
+    private final ProfileCacheRepository persisted;
+
+    ProfileFlamegraphCache(String profileId, FlamegraphResultCache memory, ProfileCacheRepository persisted) {
+        this.profileId = profileId;
+        this.memory = memory;
+        this.persisted = persisted;
+    }
+
+    public byte[] getOrGenerate(GraphParameters params, double minFrameThresholdPct, Supplier<byte[]> generator) {
+        String key = cacheKey(params, minFrameThresholdPct);
+        String memoryKey = profileId + "/" + generation() + "/" + key;
+
+        Optional<byte[]> fromMemory = memory.get(memoryKey);
+        if (fromMemory.isPresent()) {
+            LOG.debug("Flamegraph served from the memory cache: profile_id={} event_type={}",
+                    profileId, params.eventType());
+            return fromMemory.get();
+        }
+
+        Optional<byte[]> fromDatabase = persisted.getBytes(key);
+        if (fromDatabase.isPresent()) {
+            LOG.debug("Flamegraph served from the profile cache: profile_id={} event_type={}",
+                    profileId, params.eventType());
+            memory.put(memoryKey, fromDatabase.get());
+            return fromDatabase.get();
+        }
+
+        byte[] generated = generator.get();
+        persisted.putBytes(key, generated);
+        memory.put(memoryKey, generated);
+        return generated;
+    }
+
+    private String generation() {
+        Optional<byte[]> generation = persisted.getBytes(GENERATION_KEY);
+        if (generation.isPresent()) {
+            return new String(generation.get(), StandardCharsets.UTF_8);
+        }
+
+        // Two concurrent first requests may both start a generation, the later one wins and the entries
+        // cached under the other one are simply never hit again.
+        String newGeneration = UUID.randomUUID().toString();
+        persisted.putBytes(GENERATION_KEY, newGeneration.getBytes(StandardCharsets.UTF_8));
+        return newGeneration;
+    }
+
+    /**
+     * Every component of {@link GraphParameters} is a record, an enum or a list of them, so the
+     * record's {@code toString} is a complete and deterministic canonical form of the request.
+     */
+    static String cacheKey(GraphParameters params, double minFrameThresholdPct) {
+        String canonical = params + "|minFrameThresholdPct=" + minFrameThresholdPct;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return KEY_PREFIX + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
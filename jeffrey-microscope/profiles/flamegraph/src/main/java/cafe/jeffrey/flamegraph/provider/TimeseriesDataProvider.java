@@ -22,6 +22,7 @@ import cafe.jeffrey.profile.common.config.GraphParameters;
 import cafe.jeffrey.provider.profile.api.EventQueryConfigurer;
 import cafe.jeffrey.provider.profile.api.ProfileEventStreamRepository;
 import cafe.jeffrey.jfr.events.trace.Tracer;
+import cafe.jeffrey.timeseries.MarkerFramePaths;
 import cafe.jeffrey.timeseries.TimeseriesData;
 import cafe.jeffrey.timeseries.TimeseriesResolver;
 import cafe.jeffrey.timeseries.TimeseriesSearchBuilder;
@@ -71,8 +72,15 @@ public class TimeseriesDataProvider {
             return Tracer.call(SPAN_QUERY, () ->
                     eventStreamRepository.timeseriesSearchingStreamer(configurer, builder));
         } else {
+            // Marker paths are resolved to frame hashes up front, the split itself is aggregated in the
+            // database instead of streaming every stacktrace and naming its frames here
+            TimeseriesSearchBuilder builder = new TimeseriesSearchBuilder(graphParameters.timeRange());
             return Tracer.call(SPAN_QUERY, () ->
-                    eventStreamRepository.frameBasedTimeseriesStreamer(configurer, TimeseriesResolver.resolve(graphParameters)));
+                    eventStreamRepository.timeseriesPathMatchingStreamer(
+                            configurer,
+                            MarkerFramePaths.framePaths(graphParameters.markers()),
+                            MarkerFramePaths::frameName,
+                            builder));
         }
     }
 }
@@ -0,0 +1,154 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.flamegraph.api;
+
+import cafe.jeffrey.profile.common.config.GraphParameters;
+import cafe.jeffrey.provider.profile.api.ProfileCacheRepository;
+import cafe.jeffrey.shared.common.model.Type;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.type.TypeReference;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ProfileFlamegraphCacheTest {
+
+    private static final GraphParameters CPU = GraphParameters.builder()
+            .withEventType(Type.EXECUTION_SAMPLE)
+            .build();
+
+    private static final GraphParameters CPU_THREAD_MODE = GraphParameters.builder()
+            .withEventType(Type.EXECUTION_SAMPLE)
+            .withThreadMode(true)
+            .build();
+
+    private final InMemoryCacheRepository persisted = new InMemoryCacheRepository();
+    private final FlamegraphResultCache memory = new FlamegraphResultCache();
+    private final AtomicInteger generations = new AtomicInteger();
+
+    private byte[] generate() {
+        return new byte[]{(byte) generations.incrementAndGet()};
+    }
+
+    @Test
+    void sameParametersAreGeneratedOnce() {
+        ProfileFlamegraphCache cache = memory.forProfile("profile-1", persisted);
+
+        byte[] first = cache.getOrGenerate(CPU, 0.05, this::generate);
+        byte[] second = cache.getOrGenerate(CPU, 0.05, this::generate);
+
+        assertArrayEquals(first, second);
+        assertEquals(1, generations.get());
+    }
+
+    @Test
+    void differentParametersOrThresholdAreGeneratedSeparately() {
+        ProfileFlamegraphCache cache = memory.forProfile("profile-1", persisted);
+
+        cache.getOrGenerate(CPU, 0.05, this::generate);
+        cache.getOrGenerate(CPU_THREAD_MODE, 0.05, this::generate);
+        cache.getOrGenerate(CPU, 1.0, this::generate);
+
+        assertEquals(3, generations.get());
+        assertNotEquals(
+                ProfileFlamegraphCache.cacheKey(CPU, 0.05),
+                ProfileFlamegraphCache.cacheKey(CPU_THREAD_MODE, 0.05));
+    }
+
+    @Test
+    void persistedTierSurvivesEmptyMemoryTier() {
+        memory.forProfile("profile-1", persisted).getOrGenerate(CPU, 0.05, this::generate);
+
+        ProfileFlamegraphCache afterRestart = new FlamegraphResultCache().forProfile("profile-1", persisted);
+        afterRestart.getOrGenerate(CPU, 0.05, this::generate);
+
+        assertEquals(1, generations.get());
+    }
+
+    @Test
+    void clearingPersistedTierInvalidatesMemoryTier() {
+        ProfileFlamegraphCache cache = memory.forProfile("profile-1", persisted);
+        byte[] before = cache.getOrGenerate(CPU, 0.05, this::generate);
+
+        persisted.clearAll();
+        byte[] after = cache.getOrGenerate(CPU, 0.05, this::generate);
+
+        assertEquals(2, generations.get());
+        assertNotEquals(before[0], after[0]);
+    }
+
+    @Test
+    void memoryTierIsBoundedBySize() {
+        FlamegraphResultCache bounded = new FlamegraphResultCache(10);
+        bounded.put("a", new byte[6]);
+        bounded.put("b", new byte[6]);
+        bounded.put("c", new byte[20]);
+
+        assertEquals(1, bounded.size());
+        assertEquals(6, bounded.sizeInBytes());
+        assertEquals(Optional.empty(), bounded.get("a").map(bytes -> bytes.length));
+    }
+
+    private static final class InMemoryCacheRepository implements ProfileCacheRepository {
+
+        private final Map<String, byte[]> entries = new HashMap<>();
+
+        @Override
+        public void put(String key, Object content) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return entries.containsKey(key);
+        }
+
+        @Override
+        public <T> Optional<T> get(String key, Class<T> type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> Optional<T> get(String key, TypeReference<T> type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putBytes(String key, byte[] content) {
+            entries.put(key, content);
+        }
+
+        @Override
+        public Optional<byte[]> getBytes(String key) {
+            return Optional.ofNullable(entries.get(key));
+        }
+
+        @Override
+        public void clearAll() {
+            entries.clear();
+        }
+    }
+}
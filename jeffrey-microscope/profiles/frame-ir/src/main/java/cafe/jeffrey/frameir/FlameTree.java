@@ -0,0 +1,348 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.frameir;
+
+import cafe.jeffrey.profile.common.model.FrameType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arena-backed flame tree used while the records are being aggregated. Nodes live in
+ * struct-of-arrays form: int indexes for the parent/child/sibling links, interned frame-name ids
+ * and one flat {@code long[]} with the twelve counters of every node. A child is found through an
+ * open-addressing table keyed by {@code (parent, nameId)}, so adding a frame costs one hash probe
+ * instead of string comparisons down a {@code TreeMap} and no per-node allocation.
+ *
+ * <p>The nodes are appended in the order they are discovered, a parent always has a lower index
+ * than its children. {@link #toFrame()} relies on it and materializes the {@link Frame} tree for
+ * the existing consumers in a single forward pass. The materialization consumes the tree: the
+ * arena is released while the {@link Frame}s are allocated, so the two trees never exist in full
+ * at the same time.
+ *
+ * <p>Not thread-safe.
+ */
+public class FlameTree {
+
+    public static final int ROOT = 0;
+
+    private static final int NO_NODE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final String ROOT_NAME = "-";
+
+    static final int TOTAL_SAMPLES = 0;
+    static final int TOTAL_WEIGHT = 1;
+    static final int SELF_SAMPLES = 2;
+    static final int SELF_WEIGHT = 3;
+    static final int C1_SAMPLES = 4;
+    static final int NATIVE_SAMPLES = 5;
+    static final int CPP_SAMPLES = 6;
+    static final int INTERPRETED_SAMPLES = 7;
+    static final int JIT_COMPILED_SAMPLES = 8;
+    static final int INLINED_SAMPLES = 9;
+    static final int KERNEL_SAMPLES = 10;
+    static final int UNKNOWN_SAMPLES = 11;
+    static final int COUNTERS = 12;
+
+    private static final FrameType[] FRAME_TYPES = FrameType.values();
+
+    private int size;
+    private int[] parents;
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    private int[] nameIds;
+    private int[] lineNumbers;
+    private int[] bcis;
+    // FrameType ordinal + 1 of the last synthetic type, 0 when none was applied
+    private byte[] syntheticTypes;
+    private long[] counters;
+
+    private final Map<String, Integer> nameIdsByName = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    // (parent << 32 | nameId) -> child node, open addressing with linear probing
+    private long[] childKeys;
+    private int[] childNodes;
+    private int childMask;
+    private int childCount;
+
+    public FlameTree() {
+        this.parents = new int[INITIAL_CAPACITY];
+        this.firstChildren = new int[INITIAL_CAPACITY];
+        this.nextSiblings = new int[INITIAL_CAPACITY];
+        this.nameIds = new int[INITIAL_CAPACITY];
+        this.lineNumbers = new int[INITIAL_CAPACITY];
+        this.bcis = new int[INITIAL_CAPACITY];
+        this.syntheticTypes = new byte[INITIAL_CAPACITY];
+        this.counters = new long[INITIAL_CAPACITY * COUNTERS];
+
+        this.childKeys = new long[INITIAL_CAPACITY * 2];
+        this.childNodes = new int[INITIAL_CAPACITY * 2];
+        this.childMask = childKeys.length - 1;
+        Arrays.fill(childNodes, NO_NODE);
+
+        addNode(NO_NODE, intern(ROOT_NAME), 0, 0);
+    }
+
+    /**
+     * Returns the child of the given parent with the given name, the child is created when it
+     * does not exist yet. Line number and bytecode index are taken from the first occurrence,
+     * the same way the {@link Frame} tree keeps them.
+     */
+    public int child(int parent, String methodName, int lineNumber, int bci) {
+        int nameId = intern(methodName);
+        long key = childKey(parent, nameId);
+
+        int slot = slot(key);
+        while (childNodes[slot] != NO_NODE) {
+            if (childKeys[slot] == key) {
+                return childNodes[slot];
+            }
+            slot = (slot + 1) & childMask;
+        }
+
+        int node = addNode(parent, nameId, lineNumber, bci);
+        childKeys[slot] = key;
+        childNodes[slot] = node;
+        if (++childCount * 2 > childKeys.length) {
+            rehashChildren();
+        }
+        return node;
+    }
+
+    public void increment(int node, FrameType type, long weight, long samples, boolean isTopFrame) {
+        int offset = node * COUNTERS;
+        counters[offset + TOTAL_SAMPLES] += samples;
+        counters[offset + TOTAL_WEIGHT] += weight;
+
+        if (isTopFrame) {
+            counters[offset + SELF_SAMPLES] += samples;
+            counters[offset + SELF_WEIGHT] += weight;
+        }
+
+        switch (type) {
+            case C1_COMPILED -> counters[offset + C1_SAMPLES] += samples;
+            case NATIVE -> counters[offset + NATIVE_SAMPLES] += samples;
+            case CPP -> counters[offset + CPP_SAMPLES] += samples;
+            case INTERPRETED -> counters[offset + INTERPRETED_SAMPLES] += samples;
+            case JIT_COMPILED -> counters[offset + JIT_COMPILED_SAMPLES] += samples;
+            case INLINED -> counters[offset + INLINED_SAMPLES] += samples;
+            case KERNEL -> counters[offset + KERNEL_SAMPLES] += samples;
+            case UNKNOWN -> counters[offset + UNKNOWN_SAMPLES] += samples;
+            case THREAD_NAME_SYNTHETIC,
+                 ALLOCATED_OBJECT_SYNTHETIC,
+                 ALLOCATED_OBJECT_IN_NEW_TLAB_SYNTHETIC,
+                 ALLOCATED_OBJECT_OUTSIDE_TLAB_SYNTHETIC,
+                 LAMBDA_SYNTHETIC,
+                 BLOCKING_OBJECT_SYNTHETIC,
+                 COLLAPSED_SYNTHETIC,
+                 TRUNCATED_SYNTHETIC -> syntheticTypes[node] = (byte) (type.ordinal() + 1);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int firstChild(int node) {
+        return firstChildren[node];
+    }
+
+    public int nextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    public int parent(int node) {
+        return parents[node];
+    }
+
+    public String methodName(int node) {
+        return names.get(nameIds[node]);
+    }
+
+    public long totalSamples(int node) {
+        return counters[node * COUNTERS + TOTAL_SAMPLES];
+    }
+
+    public long totalWeight(int node) {
+        return counters[node * COUNTERS + TOTAL_WEIGHT];
+    }
+
+    /**
+     * Materializes the tree into {@link Frame}s for the consumers built on top of the {@link Frame}
+     * API (flamegraph and diffgraph formatters, Guardian traversals). Every parent has a lower
+     * index than its children, so one forward pass is enough and no recursion is involved.
+     *
+     * <p>The tree is consumed: the child lookup and the sibling links are dropped before the first
+     * {@link Frame} is allocated, and every time half of the remaining nodes has been materialized
+     * the per-node arrays are cut down to the nodes that are still pending. The tree cannot be used
+     * afterwards.
+     *
+     * @return the root frame of the materialized tree.
+     */
+    public Frame toFrame() {
+        if (counters == null) {
+            throw new IllegalStateException("The tree has already been materialized");
+        }
+        releaseLookups();
+
+        Frame[] frames = new Frame[size];
+        // node index of the first entry in the (already cut down) per-node arrays
+        int base = 0;
+        int compactAt = size / 2;
+        for (int node = 0; node < size; node++) {
+            if (node == compactAt && size - node >= INITIAL_CAPACITY) {
+                dropMaterialized(node - base, size - node);
+                base = node;
+                compactAt = node + (size - node) / 2;
+            }
+
+            int index = node - base;
+            int parent = parents[index];
+            Frame parentFrame = parent == NO_NODE ? null : frames[parent];
+            String methodName = names.get(nameIds[index]);
+
+            Frame frame = new Frame(parentFrame, methodName, lineNumbers[index], bcis[index]);
+            frame.load(counters, index * COUNTERS, syntheticType(index));
+            if (parentFrame != null) {
+                parentFrame.put(methodName, frame);
+            }
+            frames[node] = frame;
+        }
+
+        Frame root = frames[ROOT];
+        releaseNodes();
+        return root;
+    }
+
+    private FrameType syntheticType(int index) {
+        int encoded = syntheticTypes[index];
+        return encoded == 0 ? null : FRAME_TYPES[encoded - 1];
+    }
+
+    private void releaseLookups() {
+        childKeys = null;
+        childNodes = null;
+        firstChildren = null;
+        nextSiblings = null;
+        nameIdsByName.clear();
+    }
+
+    /**
+     * Cuts the per-node arrays down to the {@code remaining} nodes following the first
+     * {@code materialized} ones, the old arrays become garbage.
+     */
+    private void dropMaterialized(int materialized, int remaining) {
+        int end = materialized + remaining;
+        parents = Arrays.copyOfRange(parents, materialized, end);
+        nameIds = Arrays.copyOfRange(nameIds, materialized, end);
+        lineNumbers = Arrays.copyOfRange(lineNumbers, materialized, end);
+        bcis = Arrays.copyOfRange(bcis, materialized, end);
+        syntheticTypes = Arrays.copyOfRange(syntheticTypes, materialized, end);
+        counters = Arrays.copyOfRange(counters, materialized * COUNTERS, end * COUNTERS);
+    }
+
+    private void releaseNodes() {
+        parents = null;
+        nameIds = null;
+        lineNumbers = null;
+        bcis = null;
+        syntheticTypes = null;
+        counters = null;
+        names.clear();
+        size = 0;
+    }
+
+    private int intern(String methodName) {
+        Integer nameId = nameIdsByName.get(methodName);
+        if (nameId == null) {
+            nameId = names.size();
+            names.add(methodName);
+            nameIdsByName.put(methodName, nameId);
+        }
+        return nameId;
+    }
+
+    private int addNode(int parent, int nameId, int lineNumber, int bci) {
+        if (size == parents.length) {
+            grow();
+        }
+
+        int node = size++;
+        parents[node] = parent;
+        firstChildren[node] = NO_NODE;
+        nextSiblings[node] = NO_NODE;
+        nameIds[node] = nameId;
+        lineNumbers[node] = lineNumber;
+        bcis[node] = bci;
+
+        if (parent != NO_NODE) {
+            nextSiblings[node] = firstChildren[parent];
+            firstChildren[parent] = node;
+        }
+        return node;
+    }
+
+    private void grow() {
+        int capacity = parents.length + (parents.length >> 1);
+        parents = Arrays.copyOf(parents, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        nameIds = Arrays.copyOf(nameIds, capacity);
+        lineNumbers = Arrays.copyOf(lineNumbers, capacity);
+        bcis = Arrays.copyOf(bcis, capacity);
+        syntheticTypes = Arrays.copyOf(syntheticTypes, capacity);
+        counters = Arrays.copyOf(counters, capacity * COUNTERS);
+    }
+
+    private void rehashChildren() {
+        long[] oldKeys = childKeys;
+        int[] oldNodes = childNodes;
+
+        childKeys = new long[oldKeys.length * 2];
+        childNodes = new int[oldNodes.length * 2];
+        childMask = childKeys.length - 1;
+        Arrays.fill(childNodes, NO_NODE);
+
+        for (int i = 0; i < oldNodes.length; i++) {
+            if (oldNodes[i] != NO_NODE) {
+                int slot = slot(oldKeys[i]);
+                while (childNodes[slot] != NO_NODE) {
+                    slot = (slot + 1) & childMask;
+                }
+                childKeys[slot] = oldKeys[i];
+                childNodes[slot] = oldNodes[i];
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & childMask;
+    }
+
+    private static long childKey(int parent, int nameId) {
+        return ((long) parent << 32) | (nameId & 0xFFFFFFFFL);
+    }
+}
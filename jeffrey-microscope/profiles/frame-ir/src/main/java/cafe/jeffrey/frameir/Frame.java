@@ -76,6 +76,29 @@ public class Frame extends TreeMap<String, Frame> {
         unknownSamples += frame.unknownSamples;
     }
 
+    /**
+     * Loads the counters of a node materialized from {@link FlameTree}.
+     *
+     * @param counters           flat counter array in the {@link FlameTree} layout.
+     * @param offset             offset of this node's counters.
+     * @param syntheticFrameType synthetic type applied to the node, or {@code null}.
+     */
+    void load(long[] counters, int offset, FrameType syntheticFrameType) {
+        this.totalSamples = counters[offset + FlameTree.TOTAL_SAMPLES];
+        this.totalWeight = counters[offset + FlameTree.TOTAL_WEIGHT];
+        this.selfSamples = counters[offset + FlameTree.SELF_SAMPLES];
+        this.selfWeight = counters[offset + FlameTree.SELF_WEIGHT];
+        this.c1Samples = counters[offset + FlameTree.C1_SAMPLES];
+        this.nativeSamples = counters[offset + FlameTree.NATIVE_SAMPLES];
+        this.cppSamples = counters[offset + FlameTree.CPP_SAMPLES];
+        this.interpretedSamples = counters[offset + FlameTree.INTERPRETED_SAMPLES];
+        this.jitCompiledSamples = counters[offset + FlameTree.JIT_COMPILED_SAMPLES];
+        this.inlinedSamples = counters[offset + FlameTree.INLINED_SAMPLES];
+        this.kernelSamples = counters[offset + FlameTree.KERNEL_SAMPLES];
+        this.unknownSamples = counters[offset + FlameTree.UNKNOWN_SAMPLES];
+        this.syntheticFrameType = syntheticFrameType;
+    }
+
     public void increment(FrameType type, long weight, long samples, boolean isTopFrame) {
         totalSamples += samples;
         totalWeight += weight;
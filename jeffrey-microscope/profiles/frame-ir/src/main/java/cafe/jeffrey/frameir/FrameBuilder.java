@@ -36,7 +36,7 @@ public class FrameBuilder implements RecordBuilder<FlamegraphRecord, Frame> {
 
     private static final Logger LOG = LoggerFactory.getLogger(FrameBuilder.class);
 
-    private final Frame root = Frame.emptyFrame();
+    private final FlameTree tree = new FlameTree();
 
     private final List<FrameProcessor> processors;
 
@@ -82,7 +82,7 @@ public class FrameBuilder implements RecordBuilder<FlamegraphRecord, Frame> {
 
         List<NewFrame> newFrames = collectNewFrames(record, frames);
 
-        Frame parent = root;
+        int parent = FlameTree.ROOT;
         for (int i = 0; i < newFrames.size(); i++) {
             // Only the deepest emitted frame of the record carries the self-time, it keeps the invariant:
             // selfSamples + sum(children.totalSamples) == totalSamples for every node in the tree.
@@ -112,26 +112,25 @@ public class FrameBuilder implements RecordBuilder<FlamegraphRecord, Frame> {
         return newFrames;
     }
 
-    private static Frame addFrameToLayer(NewFrame newFrame, Frame parent, boolean isTopFrame) {
-        Frame resolvedFrame = parent.get(newFrame.methodName());
-        if (resolvedFrame == null) {
-            resolvedFrame = new Frame(parent, newFrame.methodName(), newFrame.lineNumber(), newFrame.bytecodeIndex());
-            parent.put(newFrame.methodName(), resolvedFrame);
-        }
-
-        resolvedFrame.increment(newFrame.frameType(), newFrame.sampleWeight(), newFrame.samples(), isTopFrame);
-        return resolvedFrame;
+    private int addFrameToLayer(NewFrame newFrame, int parent, boolean isTopFrame) {
+        int node = tree.child(parent, newFrame.methodName(), newFrame.lineNumber(), newFrame.bytecodeIndex());
+        tree.increment(node, newFrame.frameType(), newFrame.sampleWeight(), newFrame.samples(), isTopFrame);
+        return node;
     }
 
+    /**
+     * Completes the aggregation and materializes the {@link Frame} tree. The underlying
+     * {@link FlameTree} is consumed on the way, the builder cannot take more records afterwards.
+     */
     public Frame build() {
         long allWeight = 0;
         long allSamples = 0;
-        for (Frame frame : root.values()) {
-            allSamples += frame.totalSamples();
-            allWeight += frame.totalWeight();
+        for (int child = tree.firstChild(FlameTree.ROOT); child >= 0; child = tree.nextSibling(child)) {
+            allSamples += tree.totalSamples(child);
+            allWeight += tree.totalWeight(child);
         }
 
-        root.increment(FrameType.NATIVE, allWeight, allSamples, false);
-        return root;
+        tree.increment(FlameTree.ROOT, FrameType.NATIVE, allWeight, allSamples, false);
+        return tree.toFrame();
     }
 }
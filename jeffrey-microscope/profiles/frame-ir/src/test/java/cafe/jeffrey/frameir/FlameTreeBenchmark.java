@@ -0,0 +1,150 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.frameir;
+
+import cafe.jeffrey.profile.common.model.FrameType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares aggregating a large synthetic profile into the {@code TreeMap}-based {@link Frame} tree
+ * (the former {@code FrameBuilder.addFrameToLayer}) with aggregating it into {@link FlameTree}
+ * and materializing the {@link Frame} tree once at the end.
+ *
+ * <p>Not part of the test suite, run it from the IDE or with the test classpath:
+ * {@code java -cp <test-classpath> cafe.jeffrey.frameir.FlameTreeBenchmark}. Add {@code -prof gc}
+ * through the options to see the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class FlameTreeBenchmark {
+
+    private static final FrameType[] FRAME_TYPES = {
+            FrameType.JIT_COMPILED, FrameType.INLINED, FrameType.INTERPRETED, FrameType.C1_COMPILED
+    };
+
+    @Param({"500000"})
+    public int records;
+
+    @Param({"5000"})
+    public int methods;
+
+    private String[][] stacks;
+    private FrameType[][] types;
+    private long[] weights;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        String[] methodNames = new String[methods];
+        for (int i = 0; i < methods; i++) {
+            methodNames[i] = "com.example.service.Component" + (i % 97) + "#method" + i;
+        }
+
+        stacks = new String[records][];
+        types = new FrameType[records][];
+        weights = new long[records];
+        for (int i = 0; i < records; i++) {
+            int depth = 20 + random.nextInt(60);
+            String[] stack = new String[depth];
+            FrameType[] stackTypes = new FrameType[depth];
+            for (int level = 0; level < depth; level++) {
+                // Narrow near the root and wide near the leaves, the shape of a real CPU/allocation tree
+                int fanOut = Math.min(methods, 2 + level * level);
+                stack[level] = methodNames[random.nextInt(fanOut)];
+                stackTypes[level] = FRAME_TYPES[random.nextInt(FRAME_TYPES.length)];
+            }
+            stacks[i] = stack;
+            types[i] = stackTypes;
+            weights[i] = 1 + random.nextInt(1024);
+        }
+    }
+
+    @Benchmark
+    public Frame treeMapFrame() {
+        Frame root = Frame.emptyFrame();
+        for (int i = 0; i < records; i++) {
+            String[] stack = stacks[i];
+            Frame parent = root;
+            for (int level = 0; level < stack.length; level++) {
+                Frame frame = parent.get(stack[level]);
+                if (frame == null) {
+                    frame = new Frame(parent, stack[level], level, level);
+                    parent.put(stack[level], frame);
+                }
+                frame.increment(types[i][level], weights[i], 1, level == stack.length - 1);
+                parent = frame;
+            }
+        }
+        return root;
+    }
+
+    @Benchmark
+    public FlameTree flameTree() {
+        FlameTree tree = new FlameTree();
+        aggregate(tree);
+        return tree;
+    }
+
+    @Benchmark
+    public Frame flameTreeMaterialized() {
+        FlameTree tree = new FlameTree();
+        aggregate(tree);
+        return tree.toFrame();
+    }
+
+    private void aggregate(FlameTree tree) {
+        for (int i = 0; i < records; i++) {
+            String[] stack = stacks[i];
+            int parent = FlameTree.ROOT;
+            for (int level = 0; level < stack.length; level++) {
+                parent = tree.child(parent, stack[level], level, level);
+                tree.increment(parent, types[i][level], weights[i], 1, level == stack.length - 1);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FlameTreeBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
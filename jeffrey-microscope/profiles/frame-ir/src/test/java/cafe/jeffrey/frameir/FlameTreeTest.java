@@ -0,0 +1,130 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.frameir;
+
+import cafe.jeffrey.profile.common.model.FrameType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FlameTreeTest {
+
+    private static final FrameType[] FRAME_TYPES = {
+            FrameType.JIT_COMPILED, FrameType.INLINED, FrameType.NATIVE, FrameType.C1_COMPILED,
+            FrameType.THREAD_NAME_SYNTHETIC
+    };
+
+    @Test
+    void childIsCreatedOnceAndReused() {
+        FlameTree tree = new FlameTree();
+
+        int first = tree.child(FlameTree.ROOT, "a", 1, 2);
+        int second = tree.child(FlameTree.ROOT, "a", 3, 4);
+        int other = tree.child(first, "a", 1, 2);
+
+        assertEquals(first, second);
+        assertEquals(3, tree.size());
+        assertEquals(FlameTree.ROOT, tree.parent(first));
+        assertEquals(first, tree.parent(other));
+        assertEquals("a", tree.methodName(other));
+    }
+
+    @Test
+    void materializedFrameKeepsPositionsOfFirstOccurrence() {
+        FlameTree tree = new FlameTree();
+        int node = tree.child(FlameTree.ROOT, "a", 10, 20);
+        tree.child(FlameTree.ROOT, "a", 30, 40);
+        tree.increment(node, FrameType.LAMBDA_SYNTHETIC, 5, 1, true);
+
+        Frame frame = tree.toFrame().get("a");
+
+        assertNotNull(frame);
+        assertEquals(10, frame.lineNumber());
+        assertEquals(20, frame.bci());
+        assertEquals(FrameType.LAMBDA_SYNTHETIC, frame.frameType());
+        assertEquals(List.of("a"), frame.framePath());
+        assertNull(frame.parent().parent());
+    }
+
+    @Test
+    void materializedTreeEqualsTreeMapBasedAggregation() {
+        Random random = new Random(7);
+        Frame expected = Frame.emptyFrame();
+        FlameTree tree = new FlameTree();
+
+        for (int record = 0; record < 5_000; record++) {
+            int depth = 1 + random.nextInt(15);
+            Frame parentFrame = expected;
+            int parentNode = FlameTree.ROOT;
+            for (int level = 0; level < depth; level++) {
+                String name = "m" + random.nextInt(level < 3 ? 3 : 12);
+                FrameType type = FRAME_TYPES[random.nextInt(FRAME_TYPES.length)];
+                long weight = random.nextInt(100);
+                boolean isTopFrame = level == depth - 1;
+
+                Frame frame = parentFrame.get(name);
+                if (frame == null) {
+                    frame = new Frame(parentFrame, name, level, level);
+                    parentFrame.put(name, frame);
+                }
+                frame.increment(type, weight, 1, isTopFrame);
+                parentFrame = frame;
+
+                parentNode = tree.child(parentNode, name, level, level);
+                tree.increment(parentNode, type, weight, 1, isTopFrame);
+            }
+        }
+
+        assertEquals(expected, tree.toFrame());
+    }
+
+    @Test
+    void deepTreeIsMaterializedWhileTheArenaIsReleased() {
+        FlameTree tree = new FlameTree();
+        int node = FlameTree.ROOT;
+        for (int level = 0; level < 10_000; level++) {
+            node = tree.child(node, "m" + level, level, level);
+            tree.increment(node, FrameType.JIT_COMPILED, level, 1, false);
+        }
+
+        Frame frame = tree.toFrame();
+        for (int level = 0; level < 10_000; level++) {
+            frame = frame.get("m" + level);
+            assertNotNull(frame);
+            assertEquals(level, frame.lineNumber());
+            assertEquals(level, frame.totalWeight());
+        }
+    }
+
+    @Test
+    void treeIsConsumedByMaterialization() {
+        FlameTree tree = new FlameTree();
+        tree.child(FlameTree.ROOT, "a", 1, 2);
+        tree.toFrame();
+
+        assertThrows(IllegalStateException.class, tree::toFrame);
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.heapdump.analyzer.heapview;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import cafe.jeffrey.profile.heapdump.model.ClassRetainedSizeEntry;
+import cafe.jeffrey.profile.heapdump.model.RetainedSizeEstimate;
+import cafe.jeffrey.profile.heapdump.persistence.DominatorTreeBuilder;
+import cafe.jeffrey.profile.heapdump.view.HeapView;
+import cafe.jeffrey.profile.heapdump.view.HistogramRow;
+
+/**
+ * Retained sizes for a requested set of objects without waiting for
+ * {@link DominatorTreeBuilder#build} to finish over the whole heap.
+ * <p>
+ * For a seed set {@code S} the retained set is everything that becomes
+ * unreachable once {@code S} is gone. It is computed on the sub-graph
+ * reachable from {@code S}:
+ * <ol>
+ *   <li>bounded BFS over {@code outbound_ref} from {@code S} collects the
+ *       candidate set {@code C} (at most {@code nodeBudget} nodes);</li>
+ *   <li>a candidate outside {@code S} <em>escapes</em> when it is a GC root or
+ *       has an inbound reference from a node outside {@code C};</li>
+ *   <li>everything reachable inside {@code C} from an escaping node, without
+ *       passing through {@code S}, stays alive; the rest is retained.</li>
+ * </ol>
+ * When the walk covers the full closure of {@code S} this is the exact
+ * retained size for a dump of live objects. When the budget cuts the walk
+ * short, referrers beyond the budget look like outside references and the
+ * result is a lower bound, flagged {@link RetainedSizeEstimate#approximate()}.
+ * <p>
+ * Once the dominator tree exists, per-instance queries answer from the
+ * {@code retained_size} table and per-class queries sum the retained sizes of
+ * the class's instances that no other instance of the class dominates. Callers
+ * can keep asking the same question and get the exact figure once the
+ * background build completes.
+ */
+public final class ApproximateRetainedSizeAnalyzer {
+
+    /** Max nodes a single estimate may visit before it settles for a lower bound. */
+    public static final int DEFAULT_NODE_BUDGET = 100_000;
+
+    /** Max ids bound into one {@code IN (...)} lookup. */
+    private static final int BATCH_SIZE = 1_000;
+
+    private static final String UNKNOWN_NAME = "<unknown>";
+
+    private static final String SELECT_OUTBOUND_BY_SOURCE =
+            "SELECT source_id, target_id FROM outbound_ref WHERE source_id IN (%s)";
+
+    private static final String SELECT_INBOUND_BY_TARGET =
+            "SELECT source_id, target_id FROM outbound_ref WHERE target_id IN (%s)";
+
+    private static final String SELECT_GC_ROOTS =
+            "SELECT DISTINCT instance_id FROM gc_root WHERE instance_id IN (%s)";
+
+    private static final String SELECT_INSTANCE_SIZES =
+            "SELECT instance_id, shallow_size FROM instance WHERE instance_id IN (%s)";
+
+    private static final String SELECT_CLASS_STATIC_SIZES =
+            "SELECT class_id, static_fields_size FROM class WHERE class_id IN (%s)";
+
+    private static final String SELECT_INSTANCES_OF_CLASS =
+            "SELECT instance_id FROM instance WHERE class_id = ?";
+
+    // Walks up the dominator chain of every instance of the class and stops at
+    // the first ancestor of the same class; instances with such an ancestor are
+    // already counted in that ancestor's retained size.
+    private static final String SELECT_CLASS_RETAINED_SIZE = """
+            WITH RECURSIVE seeds AS (
+                SELECT instance_id FROM instance WHERE class_id = ?
+            ),
+            ancestors(instance_id, ancestor_id) AS (
+                SELECT d.instance_id, d.dominator_id
+                FROM dominator d JOIN seeds s ON s.instance_id = d.instance_id
+                UNION ALL
+                SELECT a.instance_id, d.dominator_id
+                FROM ancestors a JOIN dominator d ON d.instance_id = a.ancestor_id
+                WHERE a.ancestor_id NOT IN (SELECT instance_id FROM seeds)
+            )
+            SELECT COALESCE(SUM(r.bytes), 0)
+            FROM retained_size r JOIN seeds s ON s.instance_id = r.instance_id
+            WHERE r.instance_id NOT IN (
+                SELECT a.instance_id FROM ancestors a JOIN seeds s ON s.instance_id = a.ancestor_id
+            )
+            """;
+
+    private ApproximateRetainedSizeAnalyzer() {
+    }
+
+    /**
+     * Retained size of a single instance: exact from the dominator tables when
+     * they are populated, otherwise estimated from the instance's sub-graph.
+     */
+    public static RetainedSizeEstimate estimateInstance(HeapView view, long instanceId) throws SQLException {
+        return estimateInstance(view, instanceId, DEFAULT_NODE_BUDGET);
+    }
+
+    public static RetainedSizeEstimate estimateInstance(HeapView view, long instanceId, int nodeBudget)
+            throws SQLException {
+        if (view.hasDominatorTree()) {
+            Optional<Long> exact = view.findRetainedSize(instanceId);
+            if (exact.isPresent()) {
+                return new RetainedSizeEstimate(exact.get(), false);
+            }
+        }
+        return estimate(view, List.of(instanceId), nodeBudget);
+    }
+
+    /**
+     * Retained sizes of the {@code topN} classes by total shallow size, each
+     * class treated as the set of all its instances: exact from the dominator
+     * tables when they are populated, otherwise estimated.
+     */
+    public static List<ClassRetainedSizeEntry> topClasses(HeapView view, int topN) throws SQLException {
+        return topClasses(view, topN, DEFAULT_NODE_BUDGET);
+    }
+
+    public static List<ClassRetainedSizeEntry> topClasses(HeapView view, int topN, int nodeBudget)
+            throws SQLException {
+        if (topN <= 0) {
+            throw new IllegalArgumentException("topN must be positive: topN=" + topN);
+        }
+
+        boolean dominatorTree = view.hasDominatorTree();
+        // classHistogram() is already ordered by total shallow size desc.
+        List<HistogramRow> rows = view.classHistogram();
+        List<ClassRetainedSizeEntry> out = new ArrayList<>(Math.min(topN, rows.size()));
+        for (HistogramRow row : rows) {
+            if (out.size() == topN) {
+                break;
+            }
+            String name = row.className() != null ? row.className() : UNKNOWN_NAME;
+            RetainedSizeEstimate retained;
+            if (dominatorTree && row.classId() != null) {
+                retained = new RetainedSizeEstimate(classRetainedSize(view, row.classId()), false);
+            } else if (row.classId() == null || row.instanceCount() > nodeBudget) {
+                // Too many seeds to walk from: the instances' own bytes are the best cheap bound.
+                retained = new RetainedSizeEstimate(row.totalShallowSize(), true);
+            } else {
+                retained = estimate(view, instancesOf(view, row.classId()), nodeBudget);
+            }
+            out.add(new ClassRetainedSizeEntry(
+                    name,
+                    row.instanceCount(),
+                    row.totalShallowSize(),
+                    Math.max(retained.retainedSize(), row.totalShallowSize()),
+                    retained.approximate()));
+        }
+        return out;
+    }
+
+    /**
+     * Retained size of {@code seedIds} taken together, computed on the bounded
+     * sub-graph reachable from them. Never consults the dominator tables.
+     */
+    public static RetainedSizeEstimate estimate(HeapView view, Collection<Long> seedIds, int nodeBudget)
+            throws SQLException {
+        if (seedIds == null || seedIds.isEmpty()) {
+            throw new IllegalArgumentException("seedIds must not be empty");
+        }
+        if (nodeBudget <= 0) {
+            throw new IllegalArgumentException("nodeBudget must be positive: nodeBudget=" + nodeBudget);
+        }
+
+        Connection connection = view.databaseClient().connection();
+        Set<Long> seeds = new HashSet<>(seedIds);
+        if (seeds.size() > nodeBudget) {
+            return new RetainedSizeEstimate(shallowSize(connection, seeds), true);
+        }
+
+        // 1. Bounded BFS: candidate set plus the successor lists of every candidate.
+        Set<Long> candidates = new HashSet<>(seeds);
+        Map<Long, List<Long>> successors = new HashMap<>();
+        boolean truncated = false;
+        List<Long> frontier = new ArrayList<>(seeds);
+        while (!frontier.isEmpty()) {
+            List<Long> next = new ArrayList<>();
+            for (List<Long> batch : batches(frontier)) {
+                try (PreparedStatement stmt = prepareBatch(connection, SELECT_OUTBOUND_BY_SOURCE, batch);
+                     ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        long source = rs.getLong(1);
+                        long target = rs.getLong(2);
+                        successors.computeIfAbsent(source, k -> new ArrayList<>()).add(target);
+                        if (candidates.contains(target)) {
+                            continue;
+                        }
+                        if (candidates.size() < nodeBudget) {
+                            candidates.add(target);
+                            next.add(target);
+                        } else {
+                            truncated = true;
+                        }
+                    }
+                }
+            }
+            frontier = next;
+        }
+
+        // 2. Escaping candidates: GC roots, and anything referenced from outside the candidate set.
+        List<Long> nonSeeds = new ArrayList<>(candidates.size());
+        for (Long id : candidates) {
+            if (!seeds.contains(id)) {
+                nonSeeds.add(id);
+            }
+        }
+        Set<Long> live = new HashSet<>();
+        for (List<Long> batch : batches(nonSeeds)) {
+            try (PreparedStatement stmt = prepareBatch(connection, SELECT_GC_ROOTS, batch);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    live.add(rs.getLong(1));
+                }
+            }
+            try (PreparedStatement stmt = prepareBatch(connection, SELECT_INBOUND_BY_TARGET, batch);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (!candidates.contains(rs.getLong(1))) {
+                        live.add(rs.getLong(2));
+                    }
+                }
+            }
+        }
+
+        // 3. Whatever an escaping candidate reaches without going through a seed stays alive.
+        Deque<Long> stack = new ArrayDeque<>(live);
+        while (!stack.isEmpty()) {
+            for (Long target : successors.getOrDefault(stack.pop(), List.of())) {
+                if (candidates.contains(target) && !seeds.contains(target) && live.add(target)) {
+                    stack.push(target);
+                }
+            }
+        }
+
+        Set<Long> retained = new HashSet<>(candidates);
+        retained.removeAll(live);
+        return new RetainedSizeEstimate(shallowSize(connection, retained), truncated);
+    }
+
+    private static long classRetainedSize(HeapView view, long classId) throws SQLException {
+        try (PreparedStatement stmt = view.databaseClient().connection().prepareStatement(SELECT_CLASS_RETAINED_SIZE)) {
+            stmt.setLong(1, classId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        }
+    }
+
+    private static List<Long> instancesOf(HeapView view, long classId) throws SQLException {
+        List<Long> out = new ArrayList<>();
+        try (PreparedStatement stmt = view.databaseClient().connection().prepareStatement(SELECT_INSTANCES_OF_CLASS)) {
+            stmt.setLong(1, classId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    out.add(rs.getLong(1));
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Sums the node sizes the same way {@link DominatorTreeBuilder} does: an
+     * instance contributes its shallow size, a class object (statics holder)
+     * its static-fields size. Ids matching neither (orphan refs) contribute 0.
+     */
+    private static long shallowSize(Connection connection, Set<Long> ids) throws SQLException {
+        long total = 0;
+        List<Long> classCandidates = new ArrayList<>();
+        for (List<Long> batch : batches(new ArrayList<>(ids))) {
+            Set<Long> found = new HashSet<>();
+            try (PreparedStatement stmt = prepareBatch(connection, SELECT_INSTANCE_SIZES, batch);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    found.add(rs.getLong(1));
+                    total += rs.getLong(2);
+                }
+            }
+            for (Long id : batch) {
+                if (!found.contains(id)) {
+                    classCandidates.add(id);
+                }
+            }
+        }
+        for (List<Long> batch : batches(classCandidates)) {
+            try (PreparedStatement stmt = prepareBatch(connection, SELECT_CLASS_STATIC_SIZES, batch);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    total += rs.getLong(2);
+                }
+            }
+        }
+        return total;
+    }
+
+    private static List<List<Long>> batches(List<Long> ids) {
+        List<List<Long>> out = new ArrayList<>((ids.size() + BATCH_SIZE - 1) / BATCH_SIZE);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            out.add(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())));
+        }
+        return out;
+    }
+
+    private static PreparedStatement prepareBatch(Connection connection, String sqlTemplate, List<Long> ids)
+            throws SQLException {
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        PreparedStatement stmt = connection.prepareStatement(sqlTemplate.formatted(placeholders));
+        try {
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setLong(i + 1, ids.get(i));
+            }
+            return stmt;
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+    }
+}
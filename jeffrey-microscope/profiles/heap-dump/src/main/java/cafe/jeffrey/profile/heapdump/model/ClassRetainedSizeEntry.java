@@ -0,0 +1,39 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.heapdump.model;
+
+/**
+ * Class histogram row extended with the retained size of all its instances
+ * taken together.
+ *
+ * @param className     fully qualified class name
+ * @param instanceCount number of instances of this class
+ * @param shallowSize   total shallow size of all instances in bytes
+ * @param retainedSize  bytes freed if every instance of the class became
+ *                      unreachable; never smaller than {@code shallowSize}
+ * @param approximate   true when {@code retainedSize} is a lower bound (the
+ *                      sub-graph walk hit its node budget)
+ */
+public record ClassRetainedSizeEntry(
+        String className,
+        long instanceCount,
+        long shallowSize,
+        long retainedSize,
+        boolean approximate
+) {
+}
@@ -0,0 +1,49 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.heapdump.model;
+
+/**
+ * Retained-size delta of one dominator-tree path between two heap dumps
+ * (primary vs baseline). A path is the chain of class names from a GC root
+ * down the dominator tree, with consecutive same-class steps collapsed.
+ *
+ * @param path                  class names from the top-level node down,
+ *                              joined with {@code " > "}
+ * @param gcRootKind            human-readable GC-root kind of the top-level
+ *                              node, or null when it is reachable from several
+ *                              roots rather than being a root itself
+ * @param depth                 number of steps in {@code path}
+ * @param primaryCount          dominator subtrees on this path in the primary dump
+ * @param baselineCount         dominator subtrees on this path in the baseline dump
+ * @param countDelta            {@code primaryCount - baselineCount}
+ * @param primaryRetainedBytes  retained bytes of those subtrees in the primary dump
+ * @param baselineRetainedBytes retained bytes of those subtrees in the baseline dump
+ * @param retainedBytesDelta    {@code primaryRetainedBytes - baselineRetainedBytes}
+ */
+public record DominatorPathDiffEntry(
+        String path,
+        String gcRootKind,
+        int depth,
+        long primaryCount,
+        long baselineCount,
+        long countDelta,
+        long primaryRetainedBytes,
+        long baselineRetainedBytes,
+        long retainedBytesDelta
+) {
+}
@@ -0,0 +1,37 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.heapdump.model;
+
+import java.util.List;
+
+/**
+ * Object-level comparison of two heap dumps: dominator subtrees matched by
+ * class path and GC-root signature, so growth is attributed to the path that
+ * holds it rather than to a class name alone.
+ *
+ * @param primarySummary  summary of the primary (current) dump
+ * @param baselineSummary summary of the baseline dump
+ * @param entries         per-path deltas ordered by absolute retained-bytes
+ *                        delta descending, capped at the requested topN
+ */
+public record HeapDumpPathDiffReport(
+        HeapSummary primarySummary,
+        HeapSummary baselineSummary,
+        List<DominatorPathDiffEntry> entries
+) {
+}
@@ -0,0 +1,31 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.heapdump.model;
+
+/**
+ * Retained size of an object (or a set of objects) that may have been
+ * computed without the full dominator tree.
+ *
+ * @param retainedSize bytes that would be freed if the object(s) became
+ *                     unreachable
+ * @param approximate  true when the value is a lower bound from a bounded
+ *                     sub-graph walk rather than the exact figure; the exact
+ *                     value becomes available once the dominator tree is built
+ */
+public record RetainedSizeEstimate(long retainedSize, boolean approximate) {
+}
@@ -0,0 +1,511 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.profile.heapdump.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Random-access reader over a heap dump written by HotSpot with
+ * {@code -XX:HeapDumpGzipLevel}. Such a dump is a sequence of independent gzip
+ * members, each holding exactly {@code BLOCKSIZE} uncompressed bytes (the last
+ * one possibly fewer). The block size is announced in the comment of the first
+ * member's header ({@code HPROF BLOCKSIZE=<n>}).
+ * <p>
+ * The compressed file is memory-mapped and its member boundaries are located
+ * once at open time by a parallel scan for the trailer/header seam
+ * ({@code ISIZE == BLOCKSIZE} immediately followed by a fresh gzip header), so
+ * nothing is inflated up front. Blocks are inflated on demand, with a few
+ * blocks of read-ahead on virtual threads for forward walks, and kept in a bounded cache evicted
+ * least-recently-used first. Every inflated block is checked against its
+ * member's CRC32, size and compressed length, so a mis-detected boundary
+ * surfaces as an error rather than as wrong bytes.
+ * <p>
+ * Like {@link HprofMappedFile}, all accessors are thread-safe. Each thread
+ * keeps a reference to the block it read last, so sequential reads only touch
+ * the shared cache when crossing a block boundary.
+ */
+final class ChunkedGzipHprofFile implements AutoCloseable {
+
+    static final String BLOCK_SIZE_COMMENT_PREFIX = "HPROF BLOCKSIZE=";
+
+    /**
+     * Upper bound of inflated bytes held by the shared block cache.
+     */
+    static final long DEFAULT_CACHE_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * Blocks inflated ahead of the one a reader walking forward has just entered.
+     */
+    static final int READ_AHEAD_BLOCKS = 4;
+
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+    private static final int GZIP_DEFLATE = 8;
+    private static final int GZIP_BASE_HEADER_LEN = 10;
+    private static final int GZIP_TRAILER_LEN = 8;
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private static final int MAX_HEADER_PROBE = 1024;
+    private static final long MIN_SCAN_RANGE = 64L * 1024 * 1024;
+
+    private static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+    private static final ValueLayout.OfShort LE_SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfInt LE_INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private record Block(int index, byte[] data) {
+    }
+
+    private static final class CacheEntry {
+        private final CompletableFuture<Block> block;
+        private volatile long lastAccess;
+
+        private CacheEntry(CompletableFuture<Block> block, long lastAccess) {
+            this.block = block;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private final Path path;
+    private final Arena arena;
+    private final MemorySegment compressed;
+    private final long[] memberOffsets;
+    private final int blockSize;
+    private final long size;
+    private final int cacheCapacity;
+    private final ExecutorService inflaters = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Integer, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final AtomicLong accessClock = new AtomicLong();
+    private final ThreadLocal<Block> lastBlock = new ThreadLocal<>();
+    private final Object evictionLock = new Object();
+
+    private ChunkedGzipHprofFile(
+            Path path, Arena arena, MemorySegment compressed, long[] memberOffsets, int blockSize, long cacheBytes) {
+
+        this.path = path;
+        this.arena = arena;
+        this.compressed = compressed;
+        this.memberOffsets = memberOffsets;
+        this.blockSize = blockSize;
+        int lastBlockSize = compressed.get(LE_INT, compressed.byteSize() - 4);
+        this.size = (long) (memberOffsets.length - 1) * blockSize + Integer.toUnsignedLong(lastBlockSize);
+        this.cacheCapacity = (int) Math.max(READ_AHEAD_BLOCKS * 2L, cacheBytes / blockSize);
+    }
+
+    /**
+     * Cheap check that reads only the first gzip header: {@code true} when the
+     * file is a gzip stream whose first member announces a HotSpot block size.
+     */
+    static boolean isChunkedGzip(Path path) throws IOException {
+        byte[] probe;
+        try (InputStream in = Files.newInputStream(path)) {
+            probe = in.readNBytes(MAX_HEADER_PROBE);
+        }
+        return blockSizeFromHeader(MemorySegment.ofArray(probe)) > 0;
+    }
+
+    static ChunkedGzipHprofFile open(Path path) throws IOException {
+        return open(path, DEFAULT_CACHE_BYTES, BuildOptions.DEFAULT_WALK_WORKERS);
+    }
+
+    static ChunkedGzipHprofFile open(Path path, long cacheBytes, int scanWorkers) throws IOException {
+        long fileSize = Files.size(path);
+        Arena arena = Arena.ofShared();
+        try {
+            MemorySegment segment;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize, arena);
+            }
+            int blockSize = blockSizeFromHeader(segment);
+            if (blockSize <= 0) {
+                throw new IOException("Heap dump is not a chunked gzip file: path=" + path);
+            }
+            long[] memberOffsets = findMemberOffsets(segment, blockSize, scanWorkers);
+            return new ChunkedGzipHprofFile(path, arena, segment, memberOffsets, blockSize, cacheBytes);
+        } catch (Throwable t) {
+            arena.close();
+            throw t;
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    /**
+     * Uncompressed size of the heap dump.
+     */
+    long size() {
+        return size;
+    }
+
+    int blockSize() {
+        return blockSize;
+    }
+
+    int blockCount() {
+        return memberOffsets.length;
+    }
+
+    byte readByte(long offset) {
+        Block block = block(offset);
+        return block.data[(int) (offset - (long) block.index * blockSize)];
+    }
+
+    short readShort(long offset) {
+        return (short) readBigEndian(offset, 2);
+    }
+
+    int readInt(long offset) {
+        return (int) readBigEndian(offset, 4);
+    }
+
+    long readLong(long offset) {
+        return readBigEndian(offset, 8);
+    }
+
+    void readBytes(long offset, byte[] dst, int dstOffset, int length) {
+        if (offset < 0 || length < 0 || offset + length > size) {
+            throw new IndexOutOfBoundsException(
+                    "Read outside of heap dump: offset=" + offset + " length=" + length + " size=" + size);
+        }
+        int copied = 0;
+        while (copied < length) {
+            long position = offset + copied;
+            Block block = block(position);
+            int inBlock = (int) (position - (long) block.index * blockSize);
+            int chunk = Math.min(length - copied, block.data.length - inBlock);
+            System.arraycopy(block.data, inBlock, dst, dstOffset + copied, chunk);
+            copied += chunk;
+        }
+    }
+
+    @Override
+    public void close() {
+        // Waits for in-flight read-ahead so no inflater touches the unmapped segment
+        inflaters.close();
+        cache.clear();
+        arena.close();
+    }
+
+    private long readBigEndian(long offset, int width) {
+        Block block = block(offset);
+        int inBlock = (int) (offset - (long) block.index * blockSize);
+        byte[] data = block.data;
+        long value = 0;
+        if (inBlock + width <= data.length) {
+            for (int i = 0; i < width; i++) {
+                value = (value << 8) | (data[inBlock + i] & 0xFF);
+            }
+            return value;
+        }
+        // The value straddles two blocks
+        for (int i = 0; i < width; i++) {
+            value = (value << 8) | (readByte(offset + i) & 0xFF);
+        }
+        return value;
+    }
+
+    private Block block(long offset) {
+        if (offset < 0 || offset >= size) {
+            throw new IndexOutOfBoundsException("Read outside of heap dump: offset=" + offset + " size=" + size);
+        }
+        int index = (int) (offset / blockSize);
+        Block current = lastBlock.get();
+        if (current != null && current.index == index) {
+            return current;
+        }
+        // Read ahead only for a thread walking the dump forward; random probes would just churn the cache
+        boolean sequential = current != null && current.index == index - 1;
+        Block block = sharedBlock(index, sequential);
+        lastBlock.set(block);
+        return block;
+    }
+
+    private Block sharedBlock(int index, boolean readAhead) {
+        CacheEntry entry = cache.get(index);
+        if (entry == null || readAhead) {
+            entry = load(index);
+            int readAheadBlocks = readAhead ? READ_AHEAD_BLOCKS : 0;
+            for (int next = index + 1; next <= index + readAheadBlocks && next < memberOffsets.length; next++) {
+                load(next);
+            }
+            evictIfNeeded();
+        }
+        entry.lastAccess = accessClock.incrementAndGet();
+        try {
+            return entry.block.join();
+        } catch (CompletionException e) {
+            cache.remove(index, entry);
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    private CacheEntry load(int index) {
+        return cache.computeIfAbsent(index, i -> new CacheEntry(
+                CompletableFuture.supplyAsync(() -> new Block(i, inflate(i)), inflaters),
+                accessClock.incrementAndGet()));
+    }
+
+    private void evictIfNeeded() {
+        if (cache.size() <= cacheCapacity) {
+            return;
+        }
+        synchronized (evictionLock) {
+            while (cache.size() > cacheCapacity) {
+                Map.Entry<Integer, CacheEntry> oldest = null;
+                for (Map.Entry<Integer, CacheEntry> candidate : cache.entrySet()) {
+                    if (candidate.getValue().block.isDone()
+                            && (oldest == null || candidate.getValue().lastAccess < oldest.getValue().lastAccess)) {
+                        oldest = candidate;
+                    }
+                }
+                if (oldest == null) {
+                    // Everything still inflating; the next miss retries
+                    return;
+                }
+                cache.remove(oldest.getKey(), oldest.getValue());
+            }
+        }
+    }
+
+    private byte[] inflate(int index) {
+        long memberStart = memberOffsets[index];
+        long memberEnd = index + 1 < memberOffsets.length ? memberOffsets[index + 1] : compressed.byteSize();
+        MemorySegment member = compressed.asSlice(memberStart, memberEnd - memberStart);
+        try {
+            int headerLength = headerLength(member);
+            long dataLength = member.byteSize() - headerLength - GZIP_TRAILER_LEN;
+            if (dataLength < 0) {
+                throw new IOException("Truncated gzip member: block=" + index + " offset=" + memberStart);
+            }
+            int expectedCrc = member.get(LE_INT, member.byteSize() - 8);
+            long expectedSize = Integer.toUnsignedLong(member.get(LE_INT, member.byteSize() - 4));
+            if (expectedSize > blockSize) {
+                throw new IOException("Gzip member larger than block size: block=" + index
+                        + " size=" + expectedSize + " block_size=" + blockSize);
+            }
+
+            byte[] data = new byte[(int) expectedSize];
+            Inflater inflater = new Inflater(true);
+            try {
+                // Inflater cannot read ByteBuffers of a shared arena; a compressed member is small enough to copy
+                inflater.setInput(member.asSlice(headerLength, dataLength).toArray(BYTE));
+                // One spare byte lets the inflater reach the end-of-stream marker once the block is
+                // full, and exposes a member that inflates to more than its trailer claims
+                byte[] overflow = new byte[1];
+                int produced = 0;
+                while (!inflater.finished() && !inflater.needsInput() && !inflater.needsDictionary()
+                        && produced <= data.length) {
+                    produced += produced < data.length
+                            ? inflater.inflate(data, produced, data.length - produced)
+                            : inflater.inflate(overflow);
+                }
+                if (produced != data.length || !inflater.finished() || inflater.getBytesRead() != dataLength) {
+                    throw new IOException("Gzip member does not match its boundaries: block=" + index
+                            + " offset=" + memberStart + " inflated=" + produced + " expected=" + data.length);
+                }
+            } finally {
+                inflater.end();
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new IOException("Gzip member CRC mismatch: block=" + index + " offset=" + memberStart);
+            }
+            return data;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot inflate heap dump block: path=" + path, e);
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException("Cannot inflate heap dump block: path=" + path,
+                    new IOException("Corrupt gzip member: block=" + index + " offset=" + memberStart, e));
+        }
+    }
+
+    /**
+     * Locates the start of every gzip member. Each range is scanned by its own
+     * virtual thread; a seam is only accepted when the 4 bytes before a gzip
+     * header hold {@code ISIZE == blockSize}, which every member except the
+     * last one carries.
+     */
+    private static long[] findMemberOffsets(MemorySegment segment, int blockSize, int workers) {
+        long fileSize = segment.byteSize();
+        long firstData = headerLengthUnchecked(segment);
+        long scanStart = firstData + GZIP_TRAILER_LEN;
+        long scanEnd = fileSize - GZIP_TRAILER_LEN - GZIP_BASE_HEADER_LEN;
+
+        List<long[]> parts = new ArrayList<>();
+        if (scanEnd > scanStart) {
+            int ranges = (int) Math.clamp((scanEnd - scanStart) / MIN_SCAN_RANGE, 1, Math.max(1, workers));
+            long rangeSize = (scanEnd - scanStart + ranges - 1) / ranges;
+            List<Future<long[]>> futures = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < ranges; i++) {
+                    long from = scanStart + i * rangeSize;
+                    long to = Math.min(scanEnd, from + rangeSize);
+                    futures.add(executor.submit(() -> scanSeams(segment, from, to, blockSize)));
+                }
+                for (Future<long[]> future : futures) {
+                    parts.add(FutureJoin.unwrap(future));
+                }
+            }
+        }
+
+        int total = 1;
+        for (long[] part : parts) {
+            total += part.length;
+        }
+        long[] offsets = new long[total];
+        int position = 1;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, offsets, position, part.length);
+            position += part.length;
+        }
+        return offsets;
+    }
+
+    private static long[] scanSeams(MemorySegment segment, long from, long to, int blockSize) {
+        long[] found = new long[16];
+        int count = 0;
+        for (long p = from; p < to; p++) {
+            if (segment.get(BYTE, p) != (byte) GZIP_MAGIC_1
+                    || segment.get(BYTE, p + 1) != (byte) GZIP_MAGIC_2
+                    || segment.get(BYTE, p + 2) != GZIP_DEFLATE
+                    || segment.get(LE_INT, p - 4) != blockSize) {
+                continue;
+            }
+            if (count == found.length) {
+                found = Arrays.copyOf(found, count * 2);
+            }
+            found[count++] = p;
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Parses the first member's header and returns the announced block size,
+     * or {@code -1} when the bytes are not a HotSpot chunked gzip header.
+     */
+    private static int blockSizeFromHeader(MemorySegment segment) {
+        if (segment.byteSize() < GZIP_BASE_HEADER_LEN
+                || segment.get(BYTE, 0) != (byte) GZIP_MAGIC_1
+                || segment.get(BYTE, 1) != (byte) GZIP_MAGIC_2
+                || segment.get(BYTE, 2) != GZIP_DEFLATE) {
+            return -1;
+        }
+        int flags = segment.get(BYTE, 3) & 0xFF;
+        if ((flags & FCOMMENT) == 0) {
+            return -1;
+        }
+        long offset = GZIP_BASE_HEADER_LEN;
+        try {
+            if ((flags & FEXTRA) != 0) {
+                offset += 2 + Short.toUnsignedInt(segment.get(LE_SHORT, offset));
+            }
+            if ((flags & FNAME) != 0) {
+                offset = skipZeroTerminated(segment, offset);
+            }
+            long commentEnd = skipZeroTerminated(segment, offset) - 1;
+            String comment = new String(segment.asSlice(offset, commentEnd - offset).toArray(BYTE),
+                    StandardCharsets.ISO_8859_1);
+            if (!comment.startsWith(BLOCK_SIZE_COMMENT_PREFIX)) {
+                return -1;
+            }
+            long blockSize = Long.parseLong(comment.substring(BLOCK_SIZE_COMMENT_PREFIX.length()).trim());
+            return blockSize > 0 && blockSize <= Integer.MAX_VALUE - 8 ? (int) blockSize : -1;
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int headerLength(MemorySegment member) throws IOException {
+        if (member.byteSize() < GZIP_BASE_HEADER_LEN
+                || member.get(BYTE, 0) != (byte) GZIP_MAGIC_1
+                || member.get(BYTE, 1) != (byte) GZIP_MAGIC_2
+                || member.get(BYTE, 2) != GZIP_DEFLATE) {
+            throw new IOException("Missing gzip member header");
+        }
+        try {
+            return headerLengthUnchecked(member);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Truncated gzip member header", e);
+        }
+    }
+
+    private static int headerLengthUnchecked(MemorySegment member) {
+        int flags = member.get(BYTE, 3) & 0xFF;
+        long offset = GZIP_BASE_HEADER_LEN;
+        if ((flags & FEXTRA) != 0) {
+            offset += 2 + Short.toUnsignedInt(member.get(LE_SHORT, offset));
+        }
+        if ((flags & FNAME) != 0) {
+            offset = skipZeroTerminated(member, offset);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            offset = skipZeroTerminated(member, offset);
+        }
+        if ((flags & FHCRC) != 0) {
+            offset += 2;
+        }
+        return (int) offset;
+    }
+
+    /**
+     * Returns the offset just past the zero terminator of the string at {@code offset}.
+     */
+    private static long skipZeroTerminated(MemorySegment segment, long offset) {
+        long position = offset;
+        while (segment.get(BYTE, position) != 0) {
+            position++;
+        }
+        return position + 1;
+    }
+}
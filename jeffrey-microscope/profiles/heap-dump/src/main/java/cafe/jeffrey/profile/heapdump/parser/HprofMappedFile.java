@@ -35,6 +35,11 @@ import java.nio.file.StandardOpenOption;
  * concurrently from the same instance without contention.
  * <p>
  * The header is parsed eagerly at construction.
+ * <p>
+ * A dump written with {@code -XX:HeapDumpGzipLevel} ({@code .hprof.gz} made of
+ * independent gzip members) is opened in place through
+ * {@link ChunkedGzipHprofFile}: offsets and {@link #size()} then refer to the
+ * uncompressed HPROF stream, and blocks are inflated on demand.
  */
 public final class HprofMappedFile implements AutoCloseable {
 
@@ -48,13 +53,22 @@ public final class HprofMappedFile implements AutoCloseable {
     private final Path path;
     private final Arena arena;
     private final MemorySegment segment;
+    private final ChunkedGzipHprofFile chunked;
     private final long size;
     private final HprofHeader header;
 
-    private HprofMappedFile(Path path, Arena arena, MemorySegment segment, long size, HprofHeader header) {
+    private HprofMappedFile(
+            Path path,
+            Arena arena,
+            MemorySegment segment,
+            ChunkedGzipHprofFile chunked,
+            long size,
+            HprofHeader header) {
+
         this.path = path;
         this.arena = arena;
         this.segment = segment;
+        this.chunked = chunked;
         this.size = size;
         this.header = header;
     }
@@ -66,6 +80,9 @@ public final class HprofMappedFile implements AutoCloseable {
         if (!Files.exists(path)) {
             throw new IOException("Heap dump file does not exist: path=" + path);
         }
+        if (ChunkedGzipHprofFile.isChunkedGzip(path)) {
+            return openChunkedGzip(path);
+        }
         long size = Files.size(path);
         if (size < HprofHeader.MAGIC_1_0_1.length() + 1 + 4 + 8) {
             throw new IOException("Heap dump file too small to contain a valid header: path=" + path + " size=" + size);
@@ -78,13 +95,39 @@ public final class HprofMappedFile implements AutoCloseable {
                 segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
             }
             HprofHeader header = readHeader(segment, size);
-            return new HprofMappedFile(path, arena, segment, size, header);
+            return new HprofMappedFile(path, arena, segment, null, size, header);
         } catch (Throwable t) {
             arena.close();
             throw t;
         }
     }
 
+    /**
+     * {@code true} when {@code path} is a chunked gzip heap dump that
+     * {@link #open(Path)} reads in place, without decompressing it to disk first.
+     * Only the first gzip header is read.
+     */
+    public static boolean isRandomAccessGzip(Path path) throws IOException {
+        return ChunkedGzipHprofFile.isChunkedGzip(path);
+    }
+
+    private static HprofMappedFile openChunkedGzip(Path path) throws IOException {
+        ChunkedGzipHprofFile chunked = ChunkedGzipHprofFile.open(path);
+        try {
+            long size = chunked.size();
+            if (size < HprofHeader.MAGIC_1_0_1.length() + 1 + 4 + 8) {
+                throw new IOException("Heap dump file too small to contain a valid header: path=" + path + " size=" + size);
+            }
+            byte[] headerBytes = new byte[(int) Math.min(size, MAX_MAGIC_LEN + 4 + 8)];
+            chunked.readBytes(0, headerBytes, 0, headerBytes.length);
+            HprofHeader header = readHeader(MemorySegment.ofArray(headerBytes), headerBytes.length);
+            return new HprofMappedFile(path, null, null, chunked, size, header);
+        } catch (Throwable t) {
+            chunked.close();
+            throw t;
+        }
+    }
+
     public Path path() {
         return path;
     }
@@ -98,18 +141,30 @@ public final class HprofMappedFile implements AutoCloseable {
     }
 
     public byte readByte(long offset) {
+        if (chunked != null) {
+            return chunked.readByte(offset);
+        }
         return segment.get(LE_BYTE, offset);
     }
 
     public short readShort(long offset) {
+        if (chunked != null) {
+            return chunked.readShort(offset);
+        }
         return segment.get(BE_SHORT, offset);
     }
 
     public int readInt(long offset) {
+        if (chunked != null) {
+            return chunked.readInt(offset);
+        }
         return segment.get(BE_INT, offset);
     }
 
     public long readLong(long offset) {
+        if (chunked != null) {
+            return chunked.readLong(offset);
+        }
         return segment.get(BE_LONG, offset);
     }
 
@@ -122,9 +177,9 @@ public final class HprofMappedFile implements AutoCloseable {
      */
     public long readId(long offset) {
         if (header.idSize() == 4) {
-            return segment.get(BE_INT, offset) & 0xFFFFFFFFL;
+            return readInt(offset) & 0xFFFFFFFFL;
         }
-        return segment.get(BE_LONG, offset);
+        return readLong(offset);
     }
 
     /**
@@ -135,13 +190,21 @@ public final class HprofMappedFile implements AutoCloseable {
             throw new IllegalArgumentException("length must be non-negative: length=" + length);
         }
         byte[] dst = new byte[length];
-        MemorySegment.copy(segment, LE_BYTE, offset, dst, 0, length);
+        if (chunked != null) {
+            chunked.readBytes(offset, dst, 0, length);
+        } else {
+            MemorySegment.copy(segment, LE_BYTE, offset, dst, 0, length);
+        }
         return dst;
     }
 
     @Override
     public void close() {
-        arena.close();
+        if (chunked != null) {
+            chunked.close();
+        } else {
+            arena.close();
+        }
     }
 
     private static HprofHeader readHeader(MemorySegment segment, long size) throws IOException {
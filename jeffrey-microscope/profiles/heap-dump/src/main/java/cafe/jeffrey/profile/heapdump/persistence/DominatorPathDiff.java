@@ -0,0 +1,170 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.heapdump.persistence;
+
+import cafe.jeffrey.profile.heapdump.model.DominatorPathDiffEntry;
+import cafe.jeffrey.profile.heapdump.view.HprofTag;
+import cafe.jeffrey.shared.persistence.GroupLabel;
+import org.duckdb.DuckDBConnection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Diffs the {@code dominator_path} tables of two heap-dump indexes. Both index
+ * files are attached read-only to one throwaway in-memory DuckDB, so matching
+ * paths, computing deltas, ranking and rebuilding the display path for the
+ * top rows is a single query — nothing is pulled into Java maps.
+ * <p>
+ * Both indexes must have their dominator tree built; the path table is filled
+ * by {@link DominatorTreeBuilder}.
+ */
+public final class DominatorPathDiff {
+
+    private static final String IN_MEMORY_URL = "jdbc:duckdb:";
+
+    private static final String PRIMARY_ALIAS = "primary_dump";
+
+    private static final String BASELINE_ALIAS = "baseline_dump";
+
+    private static final String HAS_PATH_TABLE_SQL =
+            "SELECT COUNT(*) FROM duckdb_tables() WHERE database_name = ? AND table_name = 'dominator_path'";
+
+    /**
+     * {@code diff} ranks every path present on either side by its absolute
+     * retained-bytes delta; {@code chain} then walks {@code parent_path_id}
+     * upwards for the surviving top rows only (at most
+     * {@link DominatorPaths#MAX_DEPTH} steps each) to rebuild the class path.
+     */
+    private static final String DIFF_SQL = """
+            WITH RECURSIVE
+                nodes AS (
+                    SELECT path_id, parent_path_id, depth, class_name FROM primary_dump.dominator_path
+                    UNION
+                    SELECT path_id, parent_path_id, depth, class_name FROM baseline_dump.dominator_path
+                ),
+                joined AS (
+                    SELECT COALESCE(p.path_id, b.path_id)      AS path_id,
+                           COALESCE(p.depth, b.depth)          AS depth,
+                           COALESCE(p.root_kind, b.root_kind)  AS root_kind,
+                           COALESCE(p.instance_count, 0)       AS primary_count,
+                           COALESCE(b.instance_count, 0)       AS baseline_count,
+                           COALESCE(p.retained_bytes, 0)       AS primary_bytes,
+                           COALESCE(b.retained_bytes, 0)       AS baseline_bytes
+                    FROM primary_dump.dominator_path p
+                    FULL OUTER JOIN baseline_dump.dominator_path b ON p.path_id = b.path_id
+                ),
+                diff AS (
+                    SELECT *, primary_bytes - baseline_bytes AS bytes_delta
+                    FROM joined
+                    WHERE primary_bytes <> baseline_bytes OR primary_count <> baseline_count
+                    ORDER BY ABS(primary_bytes - baseline_bytes) DESC, path_id
+                    LIMIT ?
+                ),
+                chain AS (
+                    SELECT d.path_id, n.parent_path_id AS next_id, n.depth, n.class_name
+                    FROM diff d
+                    JOIN nodes n ON n.path_id = d.path_id
+                    UNION ALL
+                    SELECT c.path_id, n.parent_path_id, n.depth, n.class_name
+                    FROM chain c
+                    JOIN nodes n ON n.path_id = c.next_id AND n.depth = c.depth - 1
+                )
+            SELECT string_agg(c.class_name, ' > ' ORDER BY c.depth) AS path,
+                   d.root_kind, d.depth,
+                   d.primary_count, d.baseline_count,
+                   d.primary_bytes, d.baseline_bytes, d.bytes_delta
+            FROM diff d
+            JOIN chain c ON c.path_id = d.path_id
+            GROUP BY d.path_id, d.root_kind, d.depth,
+                     d.primary_count, d.baseline_count, d.primary_bytes, d.baseline_bytes, d.bytes_delta
+            ORDER BY ABS(d.bytes_delta) DESC, d.path_id
+            """;
+
+    private DominatorPathDiff() {
+    }
+
+    /**
+     * Returns the {@code topN} paths with the largest absolute retained-size
+     * change between {@code baselineIndexDb} and {@code primaryIndexDb}.
+     * Paths present on one side only are reported with zeroes on the other.
+     *
+     * @throws IllegalStateException when either index predates the path table
+     *                               and has to be rebuilt
+     */
+    public static List<DominatorPathDiffEntry> diff(Path primaryIndexDb, Path baselineIndexDb, int topN)
+            throws SQLException, IOException {
+        if (topN <= 0) {
+            throw new IllegalArgumentException("topN must be positive: topN=" + topN);
+        }
+        requireExists(primaryIndexDb);
+        requireExists(baselineIndexDb);
+
+        try (Connection raw = DriverManager.getConnection(IN_MEMORY_URL);
+             DuckDBConnection conn = raw.unwrap(DuckDBConnection.class)) {
+
+            HeapDumpDatabaseClient client = new HeapDumpDatabaseClient(conn, GroupLabel.HEAP_DUMP_INDEX);
+            attach(client, primaryIndexDb, PRIMARY_ALIAS);
+            attach(client, baselineIndexDb, BASELINE_ALIAS);
+            requirePathTable(client, PRIMARY_ALIAS, primaryIndexDb);
+            requirePathTable(client, BASELINE_ALIAS, baselineIndexDb);
+
+            return client.queryList(HeapDumpStatement.DOMINATOR_PATH_DIFF, DIFF_SQL, rs -> {
+                int rootKind = rs.getInt(2);
+                long primaryCount = rs.getLong(4);
+                long baselineCount = rs.getLong(5);
+                return new DominatorPathDiffEntry(
+                        rs.getString(1),
+                        rootKind == DominatorPaths.NO_ROOT_KIND ? null : HprofTag.Sub.rootKindName(rootKind),
+                        rs.getInt(3),
+                        primaryCount,
+                        baselineCount,
+                        primaryCount - baselineCount,
+                        rs.getLong(6),
+                        rs.getLong(7),
+                        rs.getLong(8));
+            }, topN);
+        }
+    }
+
+    private static void attach(HeapDumpDatabaseClient client, Path indexDb, String alias) {
+        String escaped = indexDb.toAbsolutePath().toString().replace("'", "''");
+        client.execute(HeapDumpStatement.ATTACH_INDEX, "ATTACH '" + escaped + "' AS " + alias + " (READ_ONLY)");
+    }
+
+    private static void requirePathTable(HeapDumpDatabaseClient client, String alias, Path indexDb) {
+        if (client.queryLong(HeapDumpStatement.DOMINATOR_PATH_DIFF, HAS_PATH_TABLE_SQL, alias) == 0) {
+            throw new IllegalStateException(
+                    "Heap dump index has no dominator_path table, rebuild it: path=" + indexDb);
+        }
+    }
+
+    private static void requireExists(Path indexDb) throws IOException {
+        if (indexDb == null) {
+            throw new IllegalArgumentException("indexDb must not be null");
+        }
+        if (!Files.exists(indexDb)) {
+            throw new IOException("Heap dump index file does not exist: path=" + indexDb);
+        }
+    }
+}
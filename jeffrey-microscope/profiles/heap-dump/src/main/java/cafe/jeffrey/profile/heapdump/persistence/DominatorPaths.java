@@ -0,0 +1,201 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.heapdump.persistence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import cafe.jeffrey.profile.heapdump.persistence.MappedWorkspace.MappedArray;
+
+/**
+ * Aggregates the dominator tree by <em>path signature</em> so two dumps of the
+ * same service can be compared subtree by subtree instead of class by class.
+ * <p>
+ * A node's signature is the GC-root kind of its top-level ancestor followed by
+ * the class names along its dominator chain. Consecutive nodes of the same
+ * class collapse into one step (so a 10k-long linked list is one path, not
+ * 10k), and chains deeper than {@link #MAX_DEPTH} fold into their ancestor at
+ * that depth. The path id is a hash of the signature that only depends on
+ * class names and root kinds, never on object or class ids, so the same path
+ * gets the same id in every dump and two {@code dominator_path} tables join
+ * directly on it.
+ * <p>
+ * Only the top-most node of each collapsed run is counted; its retained size
+ * already covers the rest of the run, so per-path sums never double-count.
+ */
+final class DominatorPaths {
+
+    /** Max path steps below the virtual root; deeper nodes fold into their depth-capped ancestor. */
+    static final int MAX_DEPTH = 16;
+
+    /** {@code root_kind} of paths whose top-level node is not itself a GC root (reachable from several). */
+    static final int NO_ROOT_KIND = -1;
+
+    private static final String UNKNOWN_NAME = "<unknown>";
+
+    private static final String CLASS_NODE_NAME_PREFIX = "class ";
+
+    /** One {@code dominator_path} row. */
+    record PathRow(
+            long pathId,
+            long parentPathId,
+            int depth,
+            int rootKind,
+            String className,
+            long instanceCount,
+            long retainedBytes) {
+    }
+
+    private static final class Acc {
+        final long parentPathId;
+        final int depth;
+        final int rootKind;
+        final String className;
+        long instanceCount;
+        long retainedBytes;
+
+        Acc(long parentPathId, int depth, int rootKind, String className) {
+            this.parentPathId = parentPathId;
+            this.depth = depth;
+            this.rootKind = rootKind;
+            this.className = className;
+        }
+
+        PathRow toRow(long pathId) {
+            return new PathRow(pathId, parentPathId, depth, rootKind, className, instanceCount, retainedBytes);
+        }
+    }
+
+    private DominatorPaths() {
+    }
+
+    /**
+     * Walks the dominator tree in DFS preorder (every node's immediate
+     * dominator is visited before the node) and sums instance counts and
+     * retained sizes per path.
+     *
+     * @param labels     per-node class label: the class id for instances,
+     *                   {@code -1 - classId} for class objects (statics holders)
+     * @param classNames class id → class name
+     * @param rootKinds  instance id → GC-root kind, for top-level nodes
+     */
+    static List<PathRow> aggregate(
+            MappedArray idom,
+            MappedArray preorder,
+            long reachable,
+            MappedArray ids,
+            MappedArray labels,
+            MappedArray retained,
+            long virtualIndex,
+            long totalNodes,
+            Map<Long, String> classNames,
+            Map<Long, Integer> rootKinds,
+            MappedWorkspace workspace) {
+
+        Map<Long, Acc> byPath = new LinkedHashMap<>();
+        Map<Long, Long> labelHashes = new HashMap<>();
+        try (MappedArray pathIds = workspace.longs("path_ids", totalNodes);
+             MappedArray depths = workspace.nodes("path_depths", totalNodes, MAX_DEPTH + 1)) {
+
+            for (long i = 0; i < reachable; i++) {
+                long v = preorder.get(i);
+                if (v == virtualIndex) {
+                    continue;
+                }
+                long d = idom.get(v);
+                long label = labels.get(v);
+
+                long parentPathId;
+                int depth;
+                int rootKind;
+                if (d == virtualIndex) {
+                    rootKind = rootKinds.getOrDefault(ids.get(v), NO_ROOT_KIND);
+                    parentPathId = rootPathId(rootKind);
+                    depth = 1;
+                } else {
+                    long dominatorPath = pathIds.get(d);
+                    int dominatorDepth = (int) depths.get(d);
+                    if (labels.get(d) == label || dominatorDepth >= MAX_DEPTH) {
+                        // Same-class run or depth cap: fold into the dominator's path, already counted there.
+                        pathIds.set(v, dominatorPath);
+                        depths.set(v, dominatorDepth);
+                        continue;
+                    }
+                    rootKind = byPath.get(dominatorPath).rootKind;
+                    parentPathId = dominatorPath;
+                    depth = dominatorDepth + 1;
+                }
+
+                long labelHash = labelHashes.computeIfAbsent(label, l -> hash(className(l, classNames)));
+                long pathId = childPathId(parentPathId, labelHash);
+                pathIds.set(v, pathId);
+                depths.set(v, depth);
+
+                Acc acc = byPath.computeIfAbsent(pathId,
+                        k -> new Acc(parentPathId, depth, rootKind, className(label, classNames)));
+                acc.instanceCount++;
+                acc.retainedBytes += retained.get(v);
+            }
+        }
+
+        List<PathRow> out = new ArrayList<>(byPath.size());
+        for (Map.Entry<Long, Acc> e : byPath.entrySet()) {
+            out.add(e.getValue().toRow(e.getKey()));
+        }
+        return out;
+    }
+
+    private static String className(long label, Map<Long, String> classNames) {
+        if (label >= 0) {
+            return classNames.getOrDefault(label, UNKNOWN_NAME);
+        }
+        String name = classNames.get(-1 - label);
+        return name != null ? CLASS_NODE_NAME_PREFIX + name : UNKNOWN_NAME;
+    }
+
+    /** Parent id of every depth-1 path: the root kind is the first step of the signature. */
+    static long rootPathId(int rootKind) {
+        return mix(0x9E3779B97F4A7C15L * (rootKind + 2L));
+    }
+
+    static long childPathId(long parentPathId, long labelHash) {
+        return mix(Long.rotateLeft(parentPathId, 29) ^ labelHash);
+    }
+
+    /** 64-bit FNV-1a over the UTF-16 chars; stable across JVMs unlike {@link String#hashCode()}. */
+    static long hash(String s) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return h;
+    }
+
+    /** Murmur3 fmix64 finalizer. */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -29,7 +29,7 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.time.Duration;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -41,6 +41,7 @@ import org.duckdb.DuckDBConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import cafe.jeffrey.profile.heapdump.parser.FutureJoin;
+import cafe.jeffrey.profile.heapdump.persistence.MappedWorkspace.MappedArray;
 
 /**
  * Computes the dominator tree of the heap reference graph and the retained
@@ -58,14 +59,18 @@ import cafe.jeffrey.profile.heapdump.parser.FutureJoin;
  *       at the virtual root.</li>
  *   <li>{@code retained_size(instance_id, bytes)} — bottom-up sum over the
  *       dominator tree.</li>
+ *   <li>{@code dominator_path} — the tree aggregated by class-path signature
+ *       ({@link DominatorPaths}), the input of cross-dump diffs.</li>
  * </ul>
  *
- * Memory cost: roughly 64 bytes per reachable instance for the in-memory
- * working set. Fine for heaps up to ~50M instances; for larger heaps the
- * implementation needs to spill, deferred to a future PR.
+ * Memory: the CSR graphs, DFS and semi-NCA arrays live in memory-mapped
+ * files under the staging directory ({@link MappedWorkspace}) and are indexed
+ * by {@code long}, so the working set is paged by the OS instead of held on
+ * the Java heap, and heaps beyond 2^31 objects are supported. Node-index
+ * arrays take 4 bytes per element below 2^31 nodes and 8 bytes above.
  *
- * The build is idempotent — calling it again clears and recomputes both
- * tables.
+ * The build is idempotent — calling it again clears and recomputes all
+ * three tables.
  */
 public final class DominatorTreeBuilder {
 
@@ -91,11 +96,11 @@ public final class DominatorTreeBuilder {
      */
     private static final String PRAGMA_PRESERVE_INSERTION_ORDER = "SET preserve_insertion_order = false";
 
-    public record BuildResult(int reachableInstances, int rootEdges, long iterations,
+    public record BuildResult(long reachableInstances, long rootEdges, long iterations,
                               java.time.Duration buildTime, List<SubPhaseTiming> subPhases) {
 
         /** Backwards-compatible factory for tests/callers that don't need sub-phase data. */
-        public BuildResult(int reachableInstances, int rootEdges, long iterations, Duration buildTime) {
+        public BuildResult(long reachableInstances, long rootEdges, long iterations, Duration buildTime) {
             this(reachableInstances, rootEdges, iterations, buildTime, List.of());
         }
     }
@@ -126,6 +131,7 @@ public final class DominatorTreeBuilder {
             client.execute(HeapDumpStatement.PRESERVE_INSERTION_ORDER_PRAGMA, PRAGMA_PRESERVE_INSERTION_ORDER);
             client.execute(HeapDumpStatement.DELETE_DOMINATOR, "DELETE FROM dominator");
             client.execute(HeapDumpStatement.DELETE_RETAINED_SIZE, "DELETE FROM retained_size");
+            client.execute(HeapDumpStatement.DELETE_DOMINATOR_PATH, "DELETE FROM dominator_path");
 
             Path stagingDir = HeapDumpIndexPaths.stagingForIndex(indexDbPath);
             Elapsed<BuildResult> elapsed = Measuring.s(() -> {
@@ -149,39 +155,60 @@ public final class DominatorTreeBuilder {
 
     private static BuildResult doBuild(HeapDumpDatabaseClient client, Path stagingDir)
             throws SQLException, IOException {
-        Elapsed<InstanceMeta> metaE = measure(() -> loadInstanceMeta(client));
+        // Every working array is a memory-mapped file in the staging scratch
+        // directory, indexed by long, so neither -Xmx nor the 2^31 array limit
+        // caps the size of the heap graph.
+        try (ParquetStaging staging = ParquetStaging.open(stagingDir);
+             MappedWorkspace workspace = MappedWorkspace.open(staging.scratchDir(SCRATCH_DIR))) {
+            return doBuild(client, staging, workspace);
+        }
+    }
+
+    private static BuildResult doBuild(
+            HeapDumpDatabaseClient client, ParquetStaging staging, MappedWorkspace workspace)
+            throws SQLException, IOException {
+        Elapsed<InstanceMeta> metaE = measure(() -> loadInstanceMeta(client, workspace));
         InstanceMeta meta = metaE.entity();
-        long[] ids = meta.ids();
-        long[] shallow = meta.shallow();
-        // Index N = virtual root. We allocate one extra slot at index ids.length.
-        int virtualIndex = ids.length;
-        int totalNodes = ids.length + 1;
+        MappedArray ids = meta.ids();
+        // Index N = virtual root. We allocate one extra slot at index meta.count().
+        long virtualIndex = meta.count();
+        long totalNodes = meta.count() + 1;
 
-        Elapsed<Csr> succE = measure(() -> loadSuccessors(client, ids, virtualIndex));
+        Elapsed<Csr> succE = measure(() -> loadSuccessors(client, workspace, meta.count(), virtualIndex));
         Csr succ = succE.entity();
+        long edgeCount = succ.edgeCount();
+        long rootEdges = succ.outDegree(virtualIndex);
 
-        Elapsed<Csr> predE = Measuring.s(() -> invert(succ, totalNodes));
+        Elapsed<Csr> predE = Measuring.s(() -> invert(succ, totalNodes, workspace));
         Csr pred = predE.entity();
 
         // DFS from the virtual root: assigns each reachable node a preorder number,
         // captures the spanning-tree parent. Replaces the old RPO setup.
-        Elapsed<DfsData> dfsE = Measuring.s(() -> computeDfsData(succ, virtualIndex, totalNodes));
+        Elapsed<DfsData> dfsE = Measuring.s(() -> computeDfsData(succ, virtualIndex, totalNodes, workspace));
         DfsData dfs = dfsE.entity();
-        int reachableNodes = dfs.reachable();
+        long reachableNodes = dfs.reachable();
+        succ.close();
 
         // semi-NCA dominators (Georgiadis & Tarjan, "Finding Dominators Revisited", 2004).
         // Replaces the old Cooper-Harvey-Kennedy fixed-point loop. On heap reference
         // graphs (heavily cyclic, unlike CFGs) CHK iterated 100s of times until
         // convergence; semi-NCA is essentially linear regardless of graph shape.
-        Elapsed<int[]> idomE = Measuring.s(() -> computeDominatorsSemiNCA(pred, dfs, totalNodes));
-        int[] idom = idomE.entity();
+        Elapsed<MappedArray> idomE = Measuring.s(() -> computeDominatorsSemiNCA(pred, dfs, totalNodes, workspace));
+        MappedArray idom = idomE.entity();
+        pred.close();
 
         // Retained size: bottom-up over the dom tree, processed in reverse DFS
         // preorder so every node sees its descendants finalised before adding
         // into its dominator.
-        Elapsed<long[]> retE = Measuring.s(() ->
-                computeRetained(idom, dfs, shallow, virtualIndex, totalNodes));
-        long[] retained = retE.entity();
+        Elapsed<MappedArray> retE = Measuring.s(() ->
+                computeRetained(idom, dfs, meta.shallow(), virtualIndex, totalNodes, workspace));
+        MappedArray retained = retE.entity();
+
+        // Path signatures: the same tree folded by class path, persisted straight
+        // away — it is small (one row per distinct path) next to the per-node tables.
+        Elapsed<Long> pathsE = measure(() -> persistPaths(client, DominatorPaths.aggregate(
+                idom, dfs.preorder(), reachableNodes, ids, meta.labels(), retained,
+                virtualIndex, totalNodes, loadClassNames(client), loadRootKinds(client), workspace)));
 
         // Stage 1: materialise the per-row data into compact primitive arrays.
         // This is the actual reusable work — both appenders need the same
@@ -189,9 +216,9 @@ public final class DominatorTreeBuilder {
         // them once on a single thread is cheaper than re-running the branchy
         // {v == virtualIndex ? VIRTUAL_ROOT : ids[d]} logic in each shard.
         Elapsed<PersistRowData> rowsE = Measuring.s(() ->
-                buildPersistRowData(idom, dfs, retained, ids, virtualIndex, reachableNodes));
+                buildPersistRowData(idom, dfs, retained, ids, virtualIndex, reachableNodes, workspace));
         PersistRowData rows = rowsE.entity();
-        int reachable = rows.count();
+        long reachable = rows.count();
 
         // Stage 2: parallel parquet staging + serial bulk-load. Each writer
         // owns an in-memory DuckDB instance (so the appender state is isolated
@@ -203,7 +230,7 @@ public final class DominatorTreeBuilder {
         // read_parquet(...).
         Duration persistDuration = Measuring.r(() -> {
             try {
-                persistViaParquet(client, stagingDir, rows);
+                persistViaParquet(client, staging, rows);
             } catch (IOException | SQLException e) {
                 throw new RuntimeException(e);
             }
@@ -211,19 +238,21 @@ public final class DominatorTreeBuilder {
 
         LOG.debug(
                 "Dominator tree phases: load_meta_ms={} load_successors_ms={} invert_ms={} "
-                        + "dfs_ms={} semi_nca_ms={} retained_ms={} stage_rows_ms={} persist_ms={} "
-                        + "instances={} edges={} reachable={}",
+                        + "dfs_ms={} semi_nca_ms={} retained_ms={} paths_ms={} stage_rows_ms={} persist_ms={} "
+                        + "instances={} edges={} reachable={} paths={}",
                 metaE.duration().toMillis(),
                 succE.duration().toMillis(),
                 predE.duration().toMillis(),
                 dfsE.duration().toMillis(),
                 idomE.duration().toMillis(),
                 retE.duration().toMillis(),
+                pathsE.duration().toMillis(),
                 rowsE.duration().toMillis(),
                 persistDuration.toMillis(),
-                ids.length,
-                succ.edges().length,
-                reachable);
+                meta.count(),
+                edgeCount,
+                reachable,
+                pathsE.entity());
 
         List<SubPhaseTiming> subPhases = List.of(
                 new SubPhaseTiming("load_meta", metaE.duration().toMillis(), null),
@@ -232,13 +261,13 @@ public final class DominatorTreeBuilder {
                 new SubPhaseTiming("dfs", dfsE.duration().toMillis(), null),
                 new SubPhaseTiming("semi_nca", idomE.duration().toMillis(), "Lengauer-Tarjan"),
                 new SubPhaseTiming("retained", retE.duration().toMillis(), null),
+                new SubPhaseTiming("paths", pathsE.duration().toMillis(), null),
                 new SubPhaseTiming("stage_rows", rowsE.duration().toMillis(), null),
                 new SubPhaseTiming("persist", persistDuration.toMillis(), null));
 
         // BuildResult.iterations was a CHK leftover (number of fixed-point passes);
         // semi-NCA needs no fixed-point so we report 1 to keep the field honest.
-        return new BuildResult(reachable, succ.outDegree(virtualIndex), 1L,
-                java.time.Duration.ZERO, subPhases);
+        return new BuildResult(reachable, rootEdges, 1L, java.time.Duration.ZERO, subPhases);
     }
 
     /**
@@ -250,13 +279,23 @@ public final class DominatorTreeBuilder {
      *                    ({@code parent[root] = root} as a sentinel)
      * @param reachable   how many nodes were reached from the virtual root
      */
-    private record DfsData(int[] preorder, int[] dfsNum, int[] parent, int reachable) {
+    private record DfsData(MappedArray preorder, MappedArray dfsNum, MappedArray parent, long reachable) {
     }
 
+    /** Subdirectory of the staging directory holding the mapped working arrays. */
+    private static final String SCRATCH_DIR = "dominator-work";
+
     private static final String DOMINATOR_TABLE = "dominator";
 
     private static final String RETAINED_SIZE_TABLE = "retained_size";
 
+    private static final String DOMINATOR_PATH_TABLE = "dominator_path";
+
+    private static final String CLASS_NAMES_SQL = "SELECT class_id, name FROM class";
+
+    private static final String ROOT_KINDS_SQL =
+            "SELECT instance_id, MIN(root_kind) FROM gc_root GROUP BY instance_id";
+
     private static final String DOMINATOR_STAGING_DDL =
             "instance_id BIGINT, dominator_id BIGINT";
 
@@ -269,39 +308,37 @@ public final class DominatorTreeBuilder {
      * DuckDB, then bulk-loads both shards into the real index DB.
      */
     private static void persistViaParquet(
-            HeapDumpDatabaseClient client, Path stagingDir, PersistRowData rows)
+            HeapDumpDatabaseClient client, ParquetStaging staging, PersistRowData rows)
             throws IOException, SQLException {
-        try (ParquetStaging staging = ParquetStaging.open(stagingDir)) {
-            staging.prepareTable(DOMINATOR_TABLE);
-            staging.prepareTable(RETAINED_SIZE_TABLE);
-
-            Path dominatorOutput = staging.partFile(DOMINATOR_TABLE, 0);
-            Path retainedOutput = staging.partFile(RETAINED_SIZE_TABLE, 0);
-
-            // ParquetSink + its underlying DuckDBAppender are thread-confined —
-            // each worker must open its own sink inside the worker thread.
-            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
-                Future<?> domF = executor.submit(() -> {
-                    writeDominatorShard(rows, dominatorOutput);
-                    return null;
-                });
-                Future<?> retF = executor.submit(() -> {
-                    writeRetainedSizeShard(rows, retainedOutput);
-                    return null;
-                });
-                FutureJoin.unwrap(domF);
-                FutureJoin.unwrap(retF);
-            }
-
-            // Bulk-load: two different target tables, no constraint overlap,
-            // so the two INSERT statements could run concurrently on separate
-            // connections. Keeping it sequential for now — the bulk-load is
-            // already vector-pipelined inside DuckDB and the second statement
-            // typically lands in <5 s. Revisit if profiling shows it as the
-            // remaining bottleneck after this front lands.
-            staging.bulkLoad(client, HeapDumpStatement.BULK_LOAD_DOMINATOR, DOMINATOR_TABLE);
-            staging.bulkLoad(client, HeapDumpStatement.BULK_LOAD_RETAINED_SIZE, RETAINED_SIZE_TABLE);
+        staging.prepareTable(DOMINATOR_TABLE);
+        staging.prepareTable(RETAINED_SIZE_TABLE);
+
+        Path dominatorOutput = staging.partFile(DOMINATOR_TABLE, 0);
+        Path retainedOutput = staging.partFile(RETAINED_SIZE_TABLE, 0);
+
+        // ParquetSink + its underlying DuckDBAppender are thread-confined —
+        // each worker must open its own sink inside the worker thread.
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> domF = executor.submit(() -> {
+                writeDominatorShard(rows, dominatorOutput);
+                return null;
+            });
+            Future<?> retF = executor.submit(() -> {
+                writeRetainedSizeShard(rows, retainedOutput);
+                return null;
+            });
+            FutureJoin.unwrap(domF);
+            FutureJoin.unwrap(retF);
         }
+
+        // Bulk-load: two different target tables, no constraint overlap,
+        // so the two INSERT statements could run concurrently on separate
+        // connections. Keeping it sequential for now — the bulk-load is
+        // already vector-pipelined inside DuckDB and the second statement
+        // typically lands in <5 s. Revisit if profiling shows it as the
+        // remaining bottleneck after this front lands.
+        staging.bulkLoad(client, HeapDumpStatement.BULK_LOAD_DOMINATOR, DOMINATOR_TABLE);
+        staging.bulkLoad(client, HeapDumpStatement.BULK_LOAD_RETAINED_SIZE, RETAINED_SIZE_TABLE);
     }
 
     private static void writeDominatorShard(PersistRowData rows, Path outputPath) {
@@ -309,13 +346,13 @@ public final class DominatorTreeBuilder {
                 Map.of(DOMINATOR_TABLE, DOMINATOR_STAGING_DDL),
                 Map.of(DOMINATOR_TABLE, outputPath))) {
             DuckDBAppender app = sink.appender(DOMINATOR_TABLE);
-            long[] instanceIds = rows.instanceIds();
-            long[] dominatorIds = rows.dominatorIds();
-            int count = rows.count();
-            for (int i = 0; i < count; i++) {
+            MappedArray instanceIds = rows.instanceIds();
+            MappedArray dominatorIds = rows.dominatorIds();
+            long count = rows.count();
+            for (long i = 0; i < count; i++) {
                 app.beginRow();
-                app.append(instanceIds[i]);
-                app.append(dominatorIds[i]);
+                app.append(instanceIds.get(i));
+                app.append(dominatorIds.get(i));
                 app.endRow();
             }
         } catch (SQLException e) {
@@ -328,13 +365,13 @@ public final class DominatorTreeBuilder {
                 Map.of(RETAINED_SIZE_TABLE, RETAINED_SIZE_STAGING_DDL),
                 Map.of(RETAINED_SIZE_TABLE, outputPath))) {
             DuckDBAppender app = sink.appender(RETAINED_SIZE_TABLE);
-            long[] instanceIds = rows.instanceIds();
-            long[] retainedBytes = rows.retainedBytes();
-            int count = rows.count();
-            for (int i = 0; i < count; i++) {
+            MappedArray instanceIds = rows.instanceIds();
+            MappedArray retainedBytes = rows.retainedBytes();
+            long count = rows.count();
+            for (long i = 0; i < count; i++) {
                 app.beginRow();
-                app.append(instanceIds[i]);
-                app.append(retainedBytes[i]);
+                app.append(instanceIds.get(i));
+                app.append(retainedBytes.get(i));
                 app.endRow();
             }
         } catch (SQLException e) {
@@ -342,6 +379,46 @@ public final class DominatorTreeBuilder {
         }
     }
 
+    private static long persistPaths(HeapDumpDatabaseClient client, List<DominatorPaths.PathRow> paths) {
+        client.withAppender(HeapDumpStatement.APPEND_DOMINATOR_PATH, DOMINATOR_PATH_TABLE, app -> {
+            for (DominatorPaths.PathRow row : paths) {
+                app.beginRow();
+                app.append(row.pathId());
+                app.append(row.parentPathId());
+                app.append(row.depth());
+                app.append(row.rootKind());
+                app.append(row.className());
+                app.append(row.instanceCount());
+                app.append(row.retainedBytes());
+                app.endRow();
+            }
+            return paths.size();
+        });
+        return paths.size();
+    }
+
+    private static Map<Long, String> loadClassNames(HeapDumpDatabaseClient client) {
+        Map<Long, String> out = new HashMap<>();
+        client.rawStream(HeapDumpStatement.LOAD_CLASS_NAMES, CLASS_NAMES_SQL, rs -> {
+            while (rs.next()) {
+                out.put(rs.getLong(1), rs.getString(2));
+            }
+            return out.size();
+        });
+        return out;
+    }
+
+    private static Map<Long, Integer> loadRootKinds(HeapDumpDatabaseClient client) {
+        Map<Long, Integer> out = new HashMap<>();
+        client.rawStream(HeapDumpStatement.LOAD_GC_ROOT_KINDS, ROOT_KINDS_SQL, rs -> {
+            while (rs.next()) {
+                out.put(rs.getLong(1), rs.getInt(2));
+            }
+            return out.size();
+        });
+        return out;
+    }
+
     /**
      * Compact column-store of the per-row data each appender thread needs.
      * Built once in preorder; both the {@code dominator} and {@code retained_size}
@@ -349,35 +426,36 @@ public final class DominatorTreeBuilder {
      * {@code v == virtualIndex ? VIRTUAL_ROOT : ids[d]} branching.
      */
     private record PersistRowData(
-            long[] instanceIds,
-            long[] dominatorIds,
-            long[] retainedBytes,
-            int count) {
+            MappedArray instanceIds,
+            MappedArray dominatorIds,
+            MappedArray retainedBytes,
+            long count) {
     }
 
     private static PersistRowData buildPersistRowData(
-            int[] idom,
+            MappedArray idom,
             DfsData dfs,
-            long[] retained,
-            long[] ids,
-            int virtualIndex,
-            int reachableNodes) {
+            MappedArray retained,
+            MappedArray ids,
+            long virtualIndex,
+            long reachableNodes,
+            MappedWorkspace workspace) {
         // Worst case the virtual root sits in the preorder too, so size with a -1.
-        int cap = Math.max(0, reachableNodes - 1);
-        long[] instanceIds = new long[cap];
-        long[] dominatorIds = new long[cap];
-        long[] retainedBytes = new long[cap];
-        int[] preorder = dfs.preorder();
-        int n = 0;
-        for (int i = 0; i < reachableNodes; i++) {
-            int v = preorder[i];
+        long cap = Math.max(0, reachableNodes - 1);
+        MappedArray instanceIds = workspace.longs("row_instance_ids", cap);
+        MappedArray dominatorIds = workspace.longs("row_dominator_ids", cap);
+        MappedArray retainedBytes = workspace.longs("row_retained_bytes", cap);
+        MappedArray preorder = dfs.preorder();
+        long n = 0;
+        for (long i = 0; i < reachableNodes; i++) {
+            long v = preorder.get(i);
             if (v == virtualIndex) {
                 continue;
             }
-            int d = idom[v];
-            instanceIds[n] = ids[v];
-            dominatorIds[n] = d == virtualIndex ? VIRTUAL_ROOT : ids[d];
-            retainedBytes[n] = retained[v];
+            long d = idom.get(v);
+            instanceIds.set(n, ids.get(v));
+            dominatorIds.set(n, d == virtualIndex ? VIRTUAL_ROOT : ids.get(d));
+            retainedBytes.set(n, retained.get(v));
             n++;
         }
         return new PersistRowData(instanceIds, dominatorIds, retainedBytes, n);
@@ -404,7 +482,7 @@ public final class DominatorTreeBuilder {
     }
 
     /**
-     * Compressed Sparse Row adjacency layout. {@code edges} is one flat int[]
+     * Compressed Sparse Row adjacency layout. {@code edges} is one flat array
      * holding every outbound destination; node {@code u}'s edges live at
      * indices {@code [offsets[u], offsets[u + 1])}. Replaces the per-node
      * {@code int[]} adjacency lists that allocated one int[] per graph node —
@@ -412,12 +490,22 @@ public final class DominatorTreeBuilder {
      *
      * <p>{@code offsets.length == nodes + 1}; the trailing slot acts as the
      * end-sentinel so {@code outDegree(u) = offsets[u + 1] - offsets[u]} stays
-     * branch-free.
+     * branch-free. Offsets are always 8 bytes wide (the edge count of a large
+     * heap exceeds 2^31); edges are node indices.
      */
-    private record Csr(int[] offsets, int[] edges) {
+    private record Csr(MappedArray offsets, MappedArray edges) {
+
+        long outDegree(long u) {
+            return offsets.get(u + 1) - offsets.get(u);
+        }
+
+        long edgeCount() {
+            return edges.length();
+        }
 
-        int outDegree(int u) {
-            return offsets[u + 1] - offsets[u];
+        void close() {
+            offsets.close();
+            edges.close();
         }
     }
 
@@ -427,45 +515,47 @@ public final class DominatorTreeBuilder {
      * count. Unreachable nodes are left with {@code dfsNum[v] = -1} and
      * {@code parent[v] = -1}.
      */
-    private static DfsData computeDfsData(Csr succ, int root, int totalNodes) {
-        int[] offsets = succ.offsets();
-        int[] edges = succ.edges();
-        int[] preorder = new int[totalNodes];
-        int[] dfsNum = new int[totalNodes];
-        int[] parent = new int[totalNodes];
-        Arrays.fill(dfsNum, -1);
-        Arrays.fill(parent, -1);
-
-        int[] stack = new int[totalNodes];
-        int[] childIdx = new int[totalNodes];
-        int top = -1;
-
-        dfsNum[root] = 0;
-        preorder[0] = root;
-        parent[root] = root; // self-parent sentinel so the semi-NCA walk terminates cleanly
-        int n = 1;
-        stack[++top] = root;
-
-        while (top >= 0) {
-            int u = stack[top];
-            int idx = childIdx[u];
-            int start = offsets[u];
-            int end = offsets[u + 1];
-            if (start + idx < end) {
-                int v = edges[start + idx];
-                childIdx[u] = idx + 1;
-                if (dfsNum[v] < 0) {
-                    dfsNum[v] = n;
-                    preorder[n] = v;
-                    parent[v] = u;
-                    n++;
-                    stack[++top] = v;
+    private static DfsData computeDfsData(Csr succ, long root, long totalNodes, MappedWorkspace workspace) {
+        MappedArray offsets = succ.offsets();
+        MappedArray edges = succ.edges();
+        MappedArray preorder = workspace.nodes("dfs_preorder", totalNodes, totalNodes);
+        MappedArray dfsNum = workspace.nodes("dfs_num", totalNodes, totalNodes);
+        MappedArray parent = workspace.nodes("dfs_parent", totalNodes, totalNodes);
+        dfsNum.fillMinusOne();
+        parent.fillMinusOne();
+
+        // nextEdge[u] = absolute position in edges[] of u's next unexplored child
+        try (MappedArray stack = workspace.nodes("dfs_stack", totalNodes, totalNodes);
+             MappedArray nextEdge = workspace.longs("dfs_next_edge", totalNodes)) {
+            long top = -1;
+
+            dfsNum.set(root, 0);
+            preorder.set(0, root);
+            parent.set(root, root); // self-parent sentinel so the semi-NCA walk terminates cleanly
+            nextEdge.set(root, offsets.get(root));
+            long n = 1;
+            stack.set(++top, root);
+
+            while (top >= 0) {
+                long u = stack.get(top);
+                long edge = nextEdge.get(u);
+                if (edge < offsets.get(u + 1)) {
+                    long v = edges.get(edge);
+                    nextEdge.set(u, edge + 1);
+                    if (dfsNum.get(v) < 0) {
+                        dfsNum.set(v, n);
+                        preorder.set(n, v);
+                        parent.set(v, u);
+                        nextEdge.set(v, offsets.get(v));
+                        n++;
+                        stack.set(++top, v);
+                    }
+                } else {
+                    top--;
                 }
-            } else {
-                top--;
             }
+            return new DfsData(preorder, dfsNum, parent, n);
         }
-        return new DfsData(preorder, dfsNum, parent, n);
     }
 
     /**
@@ -484,60 +574,64 @@ public final class DominatorTreeBuilder {
      * @return {@code idom[v]} = immediate dominator of {@code v}, with
      *         {@code idom[root] = root}. Unreachable nodes have {@code -1}.
      */
-    private static int[] computeDominatorsSemiNCA(Csr pred, DfsData dfs, int totalNodes) {
-        int[] predOffsets = pred.offsets();
-        int[] predEdges = pred.edges();
-        int[] preorder = dfs.preorder();
-        int[] dfsNum = dfs.dfsNum();
-        int[] parent = dfs.parent();
-        int reachable = dfs.reachable();
-        int root = preorder[0];
-
-        int[] sdom = new int[totalNodes];
-        int[] ancestor = new int[totalNodes];
-        int[] best = new int[totalNodes];
-        int[] idom = new int[totalNodes];
-        int[] pathStack = new int[totalNodes];
-
-        Arrays.fill(ancestor, -1);
-        Arrays.fill(idom, -1);
-
-        // sdom[v] starts at v's own DFS number — the trivial 0-length path.
-        for (int v = 0; v < totalNodes; v++) {
-            sdom[v] = dfsNum[v];
-            best[v] = v;
-        }
+    private static MappedArray computeDominatorsSemiNCA(
+            Csr pred, DfsData dfs, long totalNodes, MappedWorkspace workspace) {
+        MappedArray predOffsets = pred.offsets();
+        MappedArray predEdges = pred.edges();
+        MappedArray preorder = dfs.preorder();
+        MappedArray dfsNum = dfs.dfsNum();
+        MappedArray parent = dfs.parent();
+        long reachable = dfs.reachable();
+        long root = preorder.get(0);
+
+        MappedArray idom = workspace.nodes("idom", totalNodes, totalNodes);
+        idom.fillMinusOne();
+
+        try (MappedArray sdom = workspace.nodes("sdom", totalNodes, totalNodes);
+             MappedArray ancestor = workspace.nodes("ancestor", totalNodes, totalNodes);
+             MappedArray best = workspace.nodes("best", totalNodes, totalNodes);
+             MappedArray pathStack = workspace.nodes("path_stack", totalNodes, totalNodes)) {
+
+            ancestor.fillMinusOne();
+
+            // sdom[v] starts at v's own DFS number — the trivial 0-length path.
+            for (long v = 0; v < totalNodes; v++) {
+                sdom.set(v, dfsNum.get(v));
+                best.set(v, v);
+            }
 
-        // Reverse-preorder pass: for each v, walk predecessors, refine semi-dominator.
-        for (int i = reachable - 1; i > 0; i--) {
-            int v = preorder[i];
-            int startEdge = predOffsets[v];
-            int endEdge = predOffsets[v + 1];
-            for (int k = startEdge; k < endEdge; k++) {
-                int u = predEdges[k];
-                if (dfsNum[u] < 0) {
-                    continue; // unreachable predecessor
-                }
-                int t = eval(u, ancestor, best, sdom, pathStack);
-                if (sdom[t] < sdom[v]) {
-                    sdom[v] = sdom[t];
+            // Reverse-preorder pass: for each v, walk predecessors, refine semi-dominator.
+            for (long i = reachable - 1; i > 0; i--) {
+                long v = preorder.get(i);
+                long startEdge = predOffsets.get(v);
+                long endEdge = predOffsets.get(v + 1);
+                for (long k = startEdge; k < endEdge; k++) {
+                    long u = predEdges.get(k);
+                    if (dfsNum.get(u) < 0) {
+                        continue; // unreachable predecessor
+                    }
+                    long t = eval(u, ancestor, best, sdom, pathStack);
+                    if (sdom.get(t) < sdom.get(v)) {
+                        sdom.set(v, sdom.get(t));
+                    }
                 }
+                // Link v into the forest under its DFS-tree parent.
+                ancestor.set(v, parent.get(v));
             }
-            // Link v into the forest under its DFS-tree parent.
-            ancestor[v] = parent[v];
-        }
 
-        // semi-NCA: idom[v] = the nearest ancestor in the DFS tree whose DFS
-        // number does not exceed sdom[v]. Processing in preorder ensures every
-        // ancestor's idom is already finalised by the time we walk up.
-        idom[root] = root;
-        for (int i = 1; i < reachable; i++) {
-            int v = preorder[i];
-            int p = parent[v];
-            while (dfsNum[p] > sdom[v]) {
-                p = idom[p];
+            // semi-NCA: idom[v] = the nearest ancestor in the DFS tree whose DFS
+            // number does not exceed sdom[v]. Processing in preorder ensures every
+            // ancestor's idom is already finalised by the time we walk up.
+            idom.set(root, root);
+            for (long i = 1; i < reachable; i++) {
+                long v = preorder.get(i);
+                long p = parent.get(v);
+                long semi = sdom.get(v);
+                while (dfsNum.get(p) > semi) {
+                    p = idom.get(p);
+                }
+                idom.set(v, p);
             }
-            idom[v] = p;
         }
         return idom;
     }
@@ -550,30 +644,31 @@ public final class DominatorTreeBuilder {
      * (millions of instances → forest depth in the thousands). The iterative
      * form below uses a pre-allocated {@code pathStack} scratch buffer instead.
      */
-    private static int eval(int v, int[] ancestor, int[] best, int[] sdom, int[] pathStack) {
-        if (ancestor[v] == -1) {
+    private static long eval(
+            long v, MappedArray ancestor, MappedArray best, MappedArray sdom, MappedArray pathStack) {
+        if (ancestor.get(v) == -1) {
             return v;
         }
-        int top = 0;
-        pathStack[top++] = v;
-        int curr = v;
-        while (ancestor[curr] != -1) {
-            curr = ancestor[curr];
-            pathStack[top++] = curr;
+        long top = 0;
+        pathStack.set(top++, v);
+        long curr = v;
+        while (ancestor.get(curr) != -1) {
+            curr = ancestor.get(curr);
+            pathStack.set(top++, curr);
         }
         // pathStack[top-1] is the forest root (its ancestor is -1).
-        int forestRoot = pathStack[top - 1];
+        long forestRoot = pathStack.get(top - 1);
         // Compress: every node on the path now points directly at the forest
         // root, and best[] absorbs the minimum-semi node from its sub-path.
-        for (int i = top - 2; i >= 0; i--) {
-            int u = pathStack[i];
-            int origAncestor = pathStack[i + 1];
-            if (sdom[best[origAncestor]] < sdom[best[u]]) {
-                best[u] = best[origAncestor];
+        for (long i = top - 2; i >= 0; i--) {
+            long u = pathStack.get(i);
+            long origAncestor = pathStack.get(i + 1);
+            if (sdom.get(best.get(origAncestor)) < sdom.get(best.get(u))) {
+                best.set(u, best.get(origAncestor));
             }
-            ancestor[u] = forestRoot;
+            ancestor.set(u, forestRoot);
         }
-        return best[v];
+        return best.get(v);
     }
 
     /**
@@ -582,62 +677,64 @@ public final class DominatorTreeBuilder {
      * {@code idom[v]} is always an ancestor of {@code v} in the DFS spanning
      * tree, so all of v's dominator-tree descendants are processed before v.
      */
-    private static long[] computeRetained(
-            int[] idom, DfsData dfs, long[] shallow, int virtualIndex, int totalNodes) {
-        int[] preorder = dfs.preorder();
-        int reachable = dfs.reachable();
-        long[] retained = new long[totalNodes];
-
-        for (int i = 0; i < reachable; i++) {
-            int v = preorder[i];
+    private static MappedArray computeRetained(
+            MappedArray idom,
+            DfsData dfs,
+            MappedArray shallow,
+            long virtualIndex,
+            long totalNodes,
+            MappedWorkspace workspace) {
+        MappedArray preorder = dfs.preorder();
+        long reachable = dfs.reachable();
+        MappedArray retained = workspace.longs("retained", totalNodes);
+
+        for (long i = 0; i < reachable; i++) {
+            long v = preorder.get(i);
             if (v != virtualIndex) {
-                retained[v] = shallow[v];
+                retained.set(v, shallow.get(v));
             }
         }
-        for (int i = reachable - 1; i >= 1; i--) {
-            int v = preorder[i];
-            int d = idom[v];
+        for (long i = reachable - 1; i >= 1; i--) {
+            long v = preorder.get(i);
+            long d = idom.get(v);
             if (d != -1 && d != virtualIndex) {
-                retained[d] += retained[v];
+                retained.add(d, retained.get(v));
             }
         }
         return retained;
     }
 
     /**
-     * Sorted instance ids paired with their shallow sizes, indices aligned —
-     * {@code ids[i]} has size {@code shallow[i]}. Loaded by one ORDER BY
-     * instance_id scan so the downstream code can use {@code shallow[index]}
-     * directly without a second SQL pass or per-row lookup.
+     * Sorted instance ids paired with their shallow sizes and class labels,
+     * indices aligned — {@code ids[i]} has size {@code shallow[i]}. Loaded by
+     * one ORDER BY instance_id scan so the downstream code can use
+     * {@code shallow[index]} directly without a second SQL pass or per-row
+     * lookup. {@code labels[i]} is the class id of an instance, or
+     * {@code -1 - classId} for a class object. {@code count} is the number of
+     * rows actually read, which may be below the arrays' length.
      */
-    private record InstanceMeta(long[] ids, long[] shallow) {
+    private record InstanceMeta(MappedArray ids, MappedArray shallow, MappedArray labels, long count) {
     }
 
-    private static InstanceMeta loadInstanceMeta(HeapDumpDatabaseClient client) {
-        int count = (int) client.queryLong(HeapDumpStatement.TOTAL_INSTANCE_COUNT, NODE_COUNT_SQL);
-        long[] ids = new long[count];
-        long[] shallow = new long[count];
-        int[] iBox = {0};
+    private static InstanceMeta loadInstanceMeta(HeapDumpDatabaseClient client, MappedWorkspace workspace) {
+        long count = client.queryLong(HeapDumpStatement.TOTAL_INSTANCE_COUNT, NODE_COUNT_SQL);
+        MappedArray ids = workspace.longs("ids", count);
+        MappedArray shallow = workspace.longs("shallow", count);
+        MappedArray labels = workspace.longs("labels", count);
+        long[] iBox = {0};
         client.rawStream(HeapDumpStatement.STREAM_INSTANCES_BY_CLASS, NODE_META_SQL,
                 rs -> {
                     while (rs.next() && iBox[0] < count) {
-                        ids[iBox[0]] = rs.getLong(1);
-                        shallow[iBox[0]] = rs.getLong(2);
+                        ids.set(iBox[0], rs.getLong(1));
+                        shallow.set(iBox[0], rs.getLong(2));
+                        labels.set(iBox[0], rs.getLong(3));
                         iBox[0]++;
                     }
                     return iBox[0];
                 });
-        int i = iBox[0];
-        if (i != count) {
-            // Defensive: COUNT(*) and the scan returned different row counts
-            // (concurrent write, or count overflow). Truncate to actually read.
-            long[] idsTrimmed = new long[i];
-            long[] shallowTrimmed = new long[i];
-            System.arraycopy(ids, 0, idsTrimmed, 0, i);
-            System.arraycopy(shallow, 0, shallowTrimmed, 0, i);
-            return new InstanceMeta(idsTrimmed, shallowTrimmed);
-        }
-        return new InstanceMeta(ids, shallow);
+        // Defensive: COUNT(*) and the scan may return different row counts
+        // (concurrent write, or count overflow). Only the rows read are used.
+        return new InstanceMeta(ids, shallow, labels, iBox[0]);
     }
 
     /**
@@ -657,12 +754,16 @@ public final class DominatorTreeBuilder {
      * {@code field_kind = 2}, source = class id) and class-targeted GC roots
      * (e.g. ROOT_STICKY_CLASS) contribute edges — without them, objects
      * retained only through statics would be unreachable and get no retained
-     * size. A class node's "shallow size" is its static-field footprint.
+     * size. A class node's "shallow size" is its static-field footprint, and
+     * its label is {@code -1 - class_id} so it never collides with the label
+     * of an instance of that class.
      */
     private static final String NODE_SET_SQL = """
-            SELECT instance_id AS id, CAST(shallow_size AS BIGINT) AS shallow FROM instance
+            SELECT instance_id AS id, CAST(shallow_size AS BIGINT) AS shallow,
+                   COALESCE(class_id, 0) AS label
+            FROM instance
             UNION ALL
-            SELECT class_id, CAST(static_fields_size AS BIGINT) FROM class
+            SELECT class_id, CAST(static_fields_size AS BIGINT), -1 - class_id FROM class
             WHERE class_id NOT IN (SELECT instance_id FROM instance)
             """;
 
@@ -670,12 +771,12 @@ public final class DominatorTreeBuilder {
             "SELECT COUNT(*) FROM (" + NODE_SET_SQL + ")";
 
     private static final String NODE_META_SQL =
-            "SELECT id, shallow FROM (" + NODE_SET_SQL + ") ORDER BY id";
+            "SELECT id, shallow, label FROM (" + NODE_SET_SQL + ") ORDER BY id";
 
     private static final String CREATE_ID_INDEX_SQL = """
             CREATE TEMP TABLE id_index AS
             SELECT id AS instance_id,
-                   CAST(ROW_NUMBER() OVER (ORDER BY id) - 1 AS INTEGER) AS node_index
+                   CAST(ROW_NUMBER() OVER (ORDER BY id) - 1 AS BIGINT) AS node_index
             FROM (
             """ + NODE_SET_SQL + ")";
 
@@ -706,9 +807,9 @@ public final class DominatorTreeBuilder {
      * {@code if (src >= 0 && dst >= 0)} filter.
      */
     private static Csr loadSuccessors(
-            HeapDumpDatabaseClient client, long[] ids, int virtualIndex) {
-        int n = ids.length + 1;
-        int[] offsets = new int[n + 1];
+            HeapDumpDatabaseClient client, MappedWorkspace workspace, long nodeCount, long virtualIndex) {
+        long n = nodeCount + 1;
+        MappedArray offsets = workspace.longs("succ_offsets", n + 1);
 
         client.execute(HeapDumpStatement.BUILD_ID_INDEX, CREATE_ID_INDEX_SQL);
         try {
@@ -717,8 +818,8 @@ public final class DominatorTreeBuilder {
             client.rawStream(HeapDumpStatement.JOIN_OUTBOUND_REFS, OUTBOUND_REFS_JOIN_SQL, rs -> {
                 long rows = 0;
                 while (rs.next()) {
-                    int src = rs.getInt(1);
-                    offsets[src + 1]++;
+                    long src = rs.getLong(1);
+                    offsets.add(src + 1, 1);
                     rows++;
                 }
                 return rows;
@@ -728,7 +829,7 @@ public final class DominatorTreeBuilder {
             client.rawStream(HeapDumpStatement.JOIN_GC_ROOTS, GC_ROOTS_JOIN_SQL, rs -> {
                 long rows = 0;
                 while (rs.next()) {
-                    offsets[virtualIndex + 1]++;
+                    offsets.add(virtualIndex + 1, 1);
                     rows++;
                 }
                 return rows;
@@ -736,37 +837,38 @@ public final class DominatorTreeBuilder {
 
             // Prefix-sum the degrees in offsets[1..n] → CSR start offsets.
             // offsets[0] stays 0; offsets[n] becomes the total edge count.
-            for (int i = 1; i <= n; i++) {
-                offsets[i] += offsets[i - 1];
+            for (long i = 1; i <= n; i++) {
+                offsets.add(i, offsets.get(i - 1));
             }
-            int totalEdges = offsets[n];
-            int[] edges = new int[totalEdges];
+            long totalEdges = offsets.get(n);
+            MappedArray edges = workspace.nodes("succ_edges", totalEdges, n);
 
             // Pass 2: fill edges using cursor[] to track per-source write position.
             // cursor[u] starts at offsets[u]; advances within [offsets[u], offsets[u + 1]).
-            int[] cursor = new int[n];
-            System.arraycopy(offsets, 0, cursor, 0, n);
-
-            client.rawStream(HeapDumpStatement.JOIN_OUTBOUND_REFS, OUTBOUND_REFS_JOIN_SQL, rs -> {
-                long rows = 0;
-                while (rs.next()) {
-                    int src = rs.getInt(1);
-                    int dst = rs.getInt(2);
-                    edges[cursor[src]++] = dst;
-                    rows++;
-                }
-                return rows;
-            });
+            try (MappedArray cursor = workspace.longs("succ_cursor", n)) {
+                cursor.copyFrom(offsets, n);
+
+                client.rawStream(HeapDumpStatement.JOIN_OUTBOUND_REFS, OUTBOUND_REFS_JOIN_SQL, rs -> {
+                    long rows = 0;
+                    while (rs.next()) {
+                        long src = rs.getLong(1);
+                        long dst = rs.getLong(2);
+                        edges.set(cursor.getAndIncrement(src), dst);
+                        rows++;
+                    }
+                    return rows;
+                });
 
-            client.rawStream(HeapDumpStatement.JOIN_GC_ROOTS, GC_ROOTS_JOIN_SQL, rs -> {
-                long rows = 0;
-                while (rs.next()) {
-                    int dst = rs.getInt(1);
-                    edges[cursor[virtualIndex]++] = dst;
-                    rows++;
-                }
-                return rows;
-            });
+                client.rawStream(HeapDumpStatement.JOIN_GC_ROOTS, GC_ROOTS_JOIN_SQL, rs -> {
+                    long rows = 0;
+                    while (rs.next()) {
+                        long dst = rs.getLong(1);
+                        edges.set(cursor.getAndIncrement(virtualIndex), dst);
+                        rows++;
+                    }
+                    return rows;
+                });
+            }
 
             return new Csr(offsets, edges);
         } finally {
@@ -780,27 +882,29 @@ public final class DominatorTreeBuilder {
      * {@code predOffsets}, then fill {@code predEdges} by walking the forward
      * CSR once more.
      */
-    private static Csr invert(Csr succ, int n) {
-        int[] succOffsets = succ.offsets();
-        int[] succEdges = succ.edges();
-        int[] predOffsets = new int[n + 1];
-
-        for (int k = 0; k < succEdges.length; k++) {
-            predOffsets[succEdges[k] + 1]++;
+    private static Csr invert(Csr succ, long n, MappedWorkspace workspace) {
+        MappedArray succOffsets = succ.offsets();
+        MappedArray succEdges = succ.edges();
+        long edgeCount = succ.edgeCount();
+        MappedArray predOffsets = workspace.longs("pred_offsets", n + 1);
+
+        for (long k = 0; k < edgeCount; k++) {
+            predOffsets.add(succEdges.get(k) + 1, 1);
         }
-        for (int i = 1; i <= n; i++) {
-            predOffsets[i] += predOffsets[i - 1];
+        for (long i = 1; i <= n; i++) {
+            predOffsets.add(i, predOffsets.get(i - 1));
         }
-        int[] predEdges = new int[succEdges.length];
-        int[] cursor = new int[n];
-        System.arraycopy(predOffsets, 0, cursor, 0, n);
-
-        for (int u = 0; u < n; u++) {
-            int startEdge = succOffsets[u];
-            int endEdge = succOffsets[u + 1];
-            for (int k = startEdge; k < endEdge; k++) {
-                int v = succEdges[k];
-                predEdges[cursor[v]++] = u;
+        MappedArray predEdges = workspace.nodes("pred_edges", edgeCount, n);
+        try (MappedArray cursor = workspace.longs("pred_cursor", n)) {
+            cursor.copyFrom(predOffsets, n);
+
+            for (long u = 0; u < n; u++) {
+                long startEdge = succOffsets.get(u);
+                long endEdge = succOffsets.get(u + 1);
+                for (long k = startEdge; k < endEdge; k++) {
+                    long v = succEdges.get(k);
+                    predEdges.set(cursor.getAndIncrement(v), u);
+                }
             }
         }
         return new Csr(predOffsets, predEdges);
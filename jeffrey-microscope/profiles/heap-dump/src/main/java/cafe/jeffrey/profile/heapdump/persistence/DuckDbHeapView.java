@@ -29,6 +29,7 @@ import java.sql.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -43,6 +44,7 @@ import cafe.jeffrey.profile.heapdump.view.HprofTag;
 import cafe.jeffrey.profile.heapdump.view.HprofTypeSize;
 import cafe.jeffrey.profile.heapdump.view.InstanceFieldDescriptor;
 import cafe.jeffrey.profile.heapdump.view.InstanceFieldValue;
+import cafe.jeffrey.profile.heapdump.view.InstanceIdSpan;
 import cafe.jeffrey.profile.heapdump.view.InstanceRow;
 import cafe.jeffrey.profile.heapdump.view.JavaClassRow;
 import cafe.jeffrey.profile.heapdump.view.OutboundRefRow;
@@ -86,6 +88,15 @@ public final class DuckDbHeapView implements HeapView {
     private static final String SELECT_INSTANCES_BY_CLASS_ORDERED =
             "SELECT " + INSTANCE_COLUMNS + " FROM instance WHERE class_id = ? ORDER BY instance_id";
 
+    private static final String SELECT_INSTANCES_BY_CLASS_RANGE =
+            "SELECT " + INSTANCE_COLUMNS + " FROM instance "
+                    + "WHERE class_id = ? AND instance_id BETWEEN ? AND ? ORDER BY instance_id";
+
+    /** Class ids are inlined (they are longs, nothing to escape) so the IN list is one statement. */
+    private static final String SELECT_INSTANCE_ID_SPANS_TEMPLATE =
+            "SELECT class_id, COUNT(*), MIN(instance_id), MAX(instance_id) FROM instance "
+                    + "WHERE class_id IN (%s) GROUP BY class_id";
+
     private static final String SELECT_INSTANCE_BY_ID =
             "SELECT " + INSTANCE_COLUMNS + " FROM instance WHERE instance_id = ?";
 
@@ -278,6 +289,33 @@ public final class DuckDbHeapView implements HeapView {
         return resultSetStream(stmt, rs, DuckDbHeapView::mapInstance);
     }
 
+    @Override
+    public Stream<InstanceRow> instances(long classId, long fromInstanceId, long toInstanceId)
+            throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement(SELECT_INSTANCES_BY_CLASS_RANGE);
+        stmt.setLong(1, classId);
+        stmt.setLong(2, fromInstanceId);
+        stmt.setLong(3, toInstanceId);
+        ResultSet rs = stmt.executeQuery();
+        return resultSetStream(stmt, rs, DuckDbHeapView::mapInstance);
+    }
+
+    @Override
+    public List<InstanceIdSpan> instanceIdSpans(Collection<Long> classIds) throws SQLException {
+        if (classIds.isEmpty()) {
+            return List.of();
+        }
+        String idList = classIds.stream().map(String::valueOf).collect(Collectors.joining(", "));
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_INSTANCE_ID_SPANS_TEMPLATE.formatted(idList))) {
+            List<InstanceIdSpan> spans = new ArrayList<>();
+            while (rs.next()) {
+                spans.add(new InstanceIdSpan(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)));
+            }
+            return spans;
+        }
+    }
+
     @Override
     public Optional<InstanceRow> findInstanceById(long instanceId) throws SQLException {
         try (PreparedStatement stmt = connection.prepareStatement(SELECT_INSTANCE_BY_ID)) {
@@ -32,6 +32,7 @@ public final class HeapDumpIndexPaths {
     static final String INDEX_WAL_SUFFIX = ".idx.duckdb.wal";
     static final String INDEX_STAGING_SUFFIX = ".idx.staging";
     static final String INDEX_BUILD_SUFFIX = ".idx.building.duckdb";
+    static final String DOMINATOR_BUILD_SUFFIX = ".idx.dominator.duckdb";
     static final String WAL_SUFFIX = ".wal";
 
     private HeapDumpIndexPaths() {
@@ -61,6 +62,15 @@ public final class HeapDumpIndexPaths {
         return sibling(hprof, INDEX_BUILD_SUFFIX);
     }
 
+    /**
+     * Copy of the index a background dominator-tree build writes to while the
+     * open session keeps reading the original. It replaces {@link #indexFor(Path)}
+     * once the build has finished.
+     */
+    public static Path dominatorBuildFor(Path hprof) {
+        return sibling(hprof, DOMINATOR_BUILD_SUFFIX);
+    }
+
     /** The DuckDB write-ahead log sibling of any index database path. */
     public static Path walFor(Path indexDb) {
         return sibling(indexDb, WAL_SUFFIX);
@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.sql.SQLException;
 import java.time.Clock;
 import java.util.List;
@@ -154,6 +155,52 @@ public final class HeapDumpSession implements AutoCloseable {
         }
     }
 
+    /**
+     * Copies the index to {@link HeapDumpIndexPaths#dominatorBuildFor(Path)} so
+     * the dominator tree can be built into the copy on its own connection while
+     * this session keeps serving reads from the original. Returns
+     * {@link Optional#empty()} when the tree is already present. The built copy
+     * is published with {@link #installDominatorTree(Path)}.
+     */
+    public Optional<Path> copyIndexForDominatorBuild() throws SQLException, IOException {
+        if (view.hasDominatorTree()) {
+            return Optional.empty();
+        }
+        Path copyPath = HeapDumpIndexPaths.dominatorBuildFor(hprof.path());
+        deleteDatabase(copyPath);
+        Files.copy(indexDbPath, copyPath);
+        return Optional.of(copyPath);
+    }
+
+    /**
+     * Replaces the index with a copy the dominator tree was built into. The
+     * view is closed for the swap and re-opened on the new file, so the same
+     * {@link HeapDumpSession} stays usable. When the index already has a tree
+     * the copy is dropped instead.
+     *
+     * @return true when the copy was installed
+     */
+    public boolean installDominatorTree(Path builtIndexDbPath) throws SQLException, IOException {
+        if (view.hasDominatorTree()) {
+            deleteDatabase(builtIndexDbPath);
+            return false;
+        }
+        view.close();
+        try {
+            Files.move(builtIndexDbPath, indexDbPath,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            view = HeapView.open(indexDbPath, hprof);
+        }
+        return true;
+    }
+
+    /** Deletes a DuckDB database together with the write-ahead log that belongs to it. */
+    public static void deleteDatabase(Path dbPath) throws IOException {
+        Files.deleteIfExists(dbPath);
+        Files.deleteIfExists(HeapDumpIndexPaths.walFor(dbPath));
+    }
+
     /**
      * Per-phase index-build timings captured the last time this session ran
      * {@link HprofIndex#build}. Empty list when the existing index was reused.
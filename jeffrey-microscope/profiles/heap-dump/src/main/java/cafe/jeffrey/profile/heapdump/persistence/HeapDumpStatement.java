@@ -51,6 +51,9 @@ public enum HeapDumpStatement {
     // ---- DominatorTreeBuilder appenders ----
     APPEND_DOMINATOR,
     APPEND_RETAINED_SIZE,
+    APPEND_DOMINATOR_PATH,
+    LOAD_CLASS_NAMES,
+    LOAD_GC_ROOT_KINDS,
 
     // ---- DominatorTreeBuilder id-index temp table (load_successors hash-join) ----
     BUILD_ID_INDEX,
@@ -75,6 +78,7 @@ public enum HeapDumpStatement {
     // ---- dominator reset ----
     DELETE_DOMINATOR,
     DELETE_RETAINED_SIZE,
+    DELETE_DOMINATOR_PATH,
 
     // ---- read-side (DuckDbHeapView) ----
     READ_DUMP_METADATA,
@@ -121,6 +125,8 @@ public enum HeapDumpStatement {
     INSTANCE_TREE_REACHABLES,
     DOMINATOR_TREE_CHILDREN,
     DOMINATOR_TREE_ROOT_CHILDREN,
+    ATTACH_INDEX,
+    DOMINATOR_PATH_DIFF,
     CLASS_INSTANCE_BROWSER,
     GC_ROOT_SUMMARY,
     HEAP_SUMMARY_AGGREGATE;
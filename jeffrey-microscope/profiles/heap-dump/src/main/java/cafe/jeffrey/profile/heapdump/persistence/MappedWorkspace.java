@@ -0,0 +1,187 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.heapdump.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Allocates large primitive working arrays as memory-mapped files in a scratch
+ * directory, so a graph computation over hundreds of millions of nodes is
+ * bounded by disk and page cache rather than by {@code -Xmx}. Arrays are
+ * indexed by {@code long} and may exceed 2^31 elements.
+ *
+ * <p>Each array lives in its own file and arena and can be {@linkplain
+ * MappedArray#close() released} as soon as a phase no longer needs it; the
+ * files are unlinked right after mapping, so the disk space returns to the OS
+ * once the mapping goes away. {@link #close()} releases whatever is still open.
+ *
+ * <p>Arrays are shared-arena segments: they can be read from worker threads,
+ * but concurrent writes to the same element need external coordination.
+ */
+final class MappedWorkspace implements AutoCloseable {
+
+    private final Path directory;
+    private final List<MappedArray> arrays = new ArrayList<>();
+
+    private MappedWorkspace(Path directory) {
+        this.directory = directory;
+    }
+
+    static MappedWorkspace open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return new MappedWorkspace(directory);
+    }
+
+    /**
+     * Array of 8-byte values.
+     */
+    MappedArray longs(String name, long length) {
+        return allocate(name, length, true);
+    }
+
+    /**
+     * Array of node indices (or {@code -1}) in {@code [0, nodeCount)}: stored in
+     * 4 bytes per element while every index fits an {@code int}, otherwise in 8.
+     */
+    MappedArray nodes(String name, long length, long nodeCount) {
+        return allocate(name, length, nodeCount > Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() {
+        for (MappedArray array : arrays) {
+            array.close();
+        }
+        arrays.clear();
+    }
+
+    private MappedArray allocate(String name, long length, boolean wide) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length must be non-negative: name=" + name + " length=" + length);
+        }
+        long bytes = Math.max(1, length * (wide ? Long.BYTES : Integer.BYTES));
+        Path file = directory.resolve(name + ".bin");
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE)) {
+            // A fresh file maps as zeros; the mapping outlives the (deleted) file
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes, arena);
+            MappedArray array = new MappedArray(arena, segment, length, wide);
+            arrays.add(array);
+            return array;
+        } catch (IOException e) {
+            arena.close();
+            throw new UncheckedIOException("Cannot map working array: path=" + file + " bytes=" + bytes, e);
+        }
+    }
+
+    /**
+     * Fixed-length {@code long}-indexed array backed by a mapped segment.
+     * Narrow (4-byte) arrays sign-extend on read, so {@code -1} round-trips.
+     */
+    static final class MappedArray implements AutoCloseable {
+
+        private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG;
+        private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT;
+
+        private final Arena arena;
+        private final MemorySegment segment;
+        private final long length;
+        private final boolean wide;
+        private boolean closed;
+
+        private MappedArray(Arena arena, MemorySegment segment, long length, boolean wide) {
+            this.arena = arena;
+            this.segment = segment;
+            this.length = length;
+            this.wide = wide;
+        }
+
+        long length() {
+            return length;
+        }
+
+        long get(long index) {
+            return wide ? segment.getAtIndex(LONG, index) : segment.getAtIndex(INT, index);
+        }
+
+        void set(long index, long value) {
+            if (wide) {
+                segment.setAtIndex(LONG, index, value);
+            } else {
+                segment.setAtIndex(INT, index, (int) value);
+            }
+        }
+
+        void add(long index, long delta) {
+            set(index, get(index) + delta);
+        }
+
+        /**
+         * Returns the current value and stores it incremented by one.
+         */
+        long getAndIncrement(long index) {
+            long value = get(index);
+            set(index, value + 1);
+            return value;
+        }
+
+        /**
+         * Fills every element with {@code -1} (all bits set, in either width).
+         */
+        void fillMinusOne() {
+            segment.fill((byte) 0xFF);
+        }
+
+        /**
+         * Copies the first {@code count} elements of {@code source} into this array.
+         */
+        void copyFrom(MappedArray source, long count) {
+            if (source.wide == wide) {
+                long elementBytes = wide ? Long.BYTES : Integer.BYTES;
+                MemorySegment.copy(source.segment, 0, segment, 0, count * elementBytes);
+                return;
+            }
+            for (long i = 0; i < count; i++) {
+                set(i, source.get(i));
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            arena.close();
+        }
+    }
+}
@@ -127,6 +127,15 @@ public final class ParquetStaging implements AutoCloseable {
         deleteRecursively(tableDir(table));
     }
 
+    /**
+     * Creates (if needed) and returns a subdirectory for non-parquet scratch
+     * files of the build, e.g. memory-mapped working arrays. Removed together
+     * with the rest of the staging directory by {@link #close}.
+     */
+    public Path scratchDir(String name) throws IOException {
+        return Files.createDirectories(stagingDir.resolve(name));
+    }
+
     /** The staging directory root (used by tests and logging). */
     public Path directory() {
         return stagingDir;
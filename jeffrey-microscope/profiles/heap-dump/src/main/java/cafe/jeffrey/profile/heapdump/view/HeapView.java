@@ -22,6 +22,7 @@ import cafe.jeffrey.profile.heapdump.persistence.HeapDumpDatabaseClient;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -81,6 +82,19 @@ public interface HeapView extends AutoCloseable {
      */
     Stream<InstanceRow> instances(long classId) throws SQLException;
 
+    /**
+     * Same as {@link #instances(long)} restricted to instance ids in
+     * {@code [fromInstanceId, toInstanceId]} (both inclusive). The stream
+     * <strong>must be closed</strong> by the caller.
+     */
+    Stream<InstanceRow> instances(long classId, long fromInstanceId, long toInstanceId) throws SQLException;
+
+    /**
+     * Instance count and id bounds for each of {@code classIds} in one
+     * aggregation. Classes without instances are omitted.
+     */
+    List<InstanceIdSpan> instanceIdSpans(Collection<Long> classIds) throws SQLException;
+
     Optional<InstanceRow> findInstanceById(long instanceId) throws SQLException;
 
     long instanceCount(long classId) throws SQLException;
@@ -206,6 +206,28 @@ CREATE TABLE IF NOT EXISTS retained_size
     bytes       BIGINT NOT NULL
 );
 
+--
+-- DOMINATOR_PATH
+-- The dominator tree folded by path signature: the GC-root kind of the
+-- top-level ancestor followed by the class names down the dominator chain
+-- (consecutive same-class steps collapsed, depth capped). path_id hashes
+-- only class names and root kinds, so the same path has the same id in
+-- every dump and two indexes diff with a plain join on it. Depth-1 rows
+-- point at a synthetic parent_path_id that has no row of its own.
+-- root_kind is -1 when the top-level node is not itself a GC root.
+-- Populated by the same lazy build that fills the dominator table.
+--
+CREATE TABLE IF NOT EXISTS dominator_path
+(
+    path_id        BIGINT  NOT NULL PRIMARY KEY,
+    parent_path_id BIGINT  NOT NULL,
+    depth          INTEGER NOT NULL,
+    root_kind      INTEGER NOT NULL,
+    class_name     VARCHAR NOT NULL,
+    instance_count BIGINT  NOT NULL,
+    retained_bytes BIGINT  NOT NULL
+);
+
 --
 -- STRING_CONTENT
 -- Decoded text of every java.lang.String instance, materialised during the
@@ -0,0 +1,219 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.heapdump.analyzer.heapview;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cafe.jeffrey.profile.heapdump.model.ClassRetainedSizeEntry;
+import cafe.jeffrey.profile.heapdump.model.RetainedSizeEstimate;
+import cafe.jeffrey.profile.heapdump.parser.HprofIndex;
+import cafe.jeffrey.profile.heapdump.parser.HprofMappedFile;
+import cafe.jeffrey.profile.heapdump.parser.SyntheticHprof;
+import cafe.jeffrey.profile.heapdump.persistence.DominatorTreeBuilder;
+import cafe.jeffrey.profile.heapdump.persistence.HeapDumpIndexPaths;
+import cafe.jeffrey.profile.heapdump.view.HeapView;
+import cafe.jeffrey.profile.heapdump.view.HprofTag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApproximateRetainedSizeAnalyzerTest {
+
+    private static final Clock CLOCK =
+            Clock.fixed(Instant.ofEpochMilli(1L), ZoneOffset.UTC);
+
+    private static final int ID_SIZE = 8;
+    private static final long CLASS_ID = 0xC001L;
+
+    // ROOT → a → array → b → c
+    //                  ↘ shared ← q ← ROOT
+    private static final long A = 0x100L, ARRAY = 0x101L, B = 0x102L, C = 0x103L;
+    private static final long Q = 0x200L, SHARED = 0x201L;
+
+    @Test
+    void matchesDominatorTreeOnceBuilt(@TempDir Path tmp) throws IOException, SQLException {
+        Path indexDb = index(tmp);
+
+        RetainedSizeEstimate before;
+        try (HeapView view = HeapView.open(indexDb)) {
+            assertFalse(view.hasDominatorTree());
+            before = ApproximateRetainedSizeAnalyzer.estimateInstance(view, A);
+            assertFalse(before.approximate(), "closure of a fits in the default budget");
+
+            long expected = shallow(view, A) + shallow(view, ARRAY) + shallow(view, B) + shallow(view, C);
+            assertEquals(expected, before.retainedSize(), "shared is held by q and must not be retained by a");
+        }
+
+        DominatorTreeBuilder.build(indexDb);
+
+        try (HeapView view = HeapView.open(indexDb)) {
+            RetainedSizeEstimate after = ApproximateRetainedSizeAnalyzer.estimateInstance(view, A);
+            assertFalse(after.approximate());
+            assertEquals(view.findRetainedSize(A).orElseThrow(), after.retainedSize());
+            assertEquals(before.retainedSize(), after.retainedSize());
+        }
+    }
+
+    @Test
+    void sharedObjectRetainsOnlyItself(@TempDir Path tmp) throws IOException, SQLException {
+        Path indexDb = index(tmp);
+
+        try (HeapView view = HeapView.open(indexDb)) {
+            RetainedSizeEstimate estimate = ApproximateRetainedSizeAnalyzer.estimate(
+                    view, List.of(SHARED), ApproximateRetainedSizeAnalyzer.DEFAULT_NODE_BUDGET);
+            assertEquals(shallow(view, SHARED), estimate.retainedSize());
+        }
+    }
+
+    @Test
+    void seedSetRetainsWhatNoSingleSeedDominates(@TempDir Path tmp) throws IOException, SQLException {
+        Path indexDb = index(tmp);
+
+        try (HeapView view = HeapView.open(indexDb)) {
+            // Neither a nor q alone retains 'shared', but together they do.
+            RetainedSizeEstimate both = ApproximateRetainedSizeAnalyzer.estimate(
+                    view, List.of(A, Q), ApproximateRetainedSizeAnalyzer.DEFAULT_NODE_BUDGET);
+            RetainedSizeEstimate a = ApproximateRetainedSizeAnalyzer.estimateInstance(view, A);
+            RetainedSizeEstimate q = ApproximateRetainedSizeAnalyzer.estimateInstance(view, Q);
+
+            assertEquals(a.retainedSize() + q.retainedSize() + shallow(view, SHARED), both.retainedSize());
+        }
+    }
+
+    @Test
+    void exhaustedBudgetYieldsFlaggedLowerBound(@TempDir Path tmp) throws IOException, SQLException {
+        Path indexDb = index(tmp);
+
+        try (HeapView view = HeapView.open(indexDb)) {
+            RetainedSizeEstimate full = ApproximateRetainedSizeAnalyzer.estimateInstance(view, A);
+            RetainedSizeEstimate bounded = ApproximateRetainedSizeAnalyzer.estimate(view, List.of(A), 2);
+
+            assertTrue(bounded.approximate());
+            assertTrue(bounded.retainedSize() >= shallow(view, A));
+            assertTrue(bounded.retainedSize() < full.retainedSize());
+        }
+    }
+
+    @Test
+    void topClassesCoverWholeInstanceSet(@TempDir Path tmp) throws IOException, SQLException {
+        Path indexDb = index(tmp);
+
+        try (HeapView view = HeapView.open(indexDb)) {
+            List<ClassRetainedSizeEntry> entries = ApproximateRetainedSizeAnalyzer.topClasses(view, 10);
+
+            ClassRetainedSizeEntry holder = entries.stream()
+                    .filter(e -> e.className().equals("Holder"))
+                    .findFirst()
+                    .orElseThrow();
+            assertFalse(holder.approximate());
+            assertTrue(holder.retainedSize() >= holder.shallowSize());
+        }
+    }
+
+    @Test
+    void topClassesSwitchToDominatorTreeOnceBuilt(@TempDir Path tmp) throws IOException, SQLException {
+        Path indexDb = index(tmp);
+
+        ClassRetainedSizeEntry before;
+        try (HeapView view = HeapView.open(indexDb)) {
+            before = holder(ApproximateRetainedSizeAnalyzer.topClasses(view, 10, 1));
+            assertTrue(before.approximate(), "a budget of one node cannot cover the class");
+        }
+
+        DominatorTreeBuilder.build(indexDb);
+
+        try (HeapView view = HeapView.open(indexDb)) {
+            ClassRetainedSizeEntry after = holder(ApproximateRetainedSizeAnalyzer.topClasses(view, 10, 1));
+            assertFalse(after.approximate(), "the dominator tree replaces the budgeted walk");
+
+            // Every Holder is rooted or held by one, so the class retains the whole graph.
+            long expected = shallow(view, A) + shallow(view, ARRAY) + shallow(view, B) + shallow(view, C)
+                    + shallow(view, Q) + shallow(view, SHARED);
+            assertEquals(expected, after.retainedSize());
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveTopN(@TempDir Path tmp) throws IOException, SQLException {
+        Path indexDb = index(tmp);
+
+        try (HeapView view = HeapView.open(indexDb)) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> ApproximateRetainedSizeAnalyzer.topClasses(view, 0));
+        }
+    }
+
+    private static Path index(Path tmp) throws IOException, SQLException {
+        Path hprof = SyntheticHprof.create("1.0.2", ID_SIZE, 0L)
+                .string(0xA001L, "Holder")
+                .string(0xA002L, "next")
+                .loadClass(1, CLASS_ID, 0, 0xA001L)
+                .heapDumpSegment(seg -> seg
+                        .topLevelObjectClassDump(CLASS_ID, 0xA002L)
+                        .gcRoot(HprofTag.Sub.ROOT_STICKY_CLASS, A)
+                        .gcRoot(HprofTag.Sub.ROOT_STICKY_CLASS, Q)
+                        .instanceDump(A, CLASS_ID, idBytes(ARRAY))
+                        .objectArrayDump(ARRAY, CLASS_ID, new long[]{B, SHARED})
+                        .instanceDump(B, CLASS_ID, idBytes(C))
+                        .instanceDump(C, CLASS_ID, idBytes(0L))
+                        .instanceDump(Q, CLASS_ID, idBytes(SHARED))
+                        .instanceDump(SHARED, CLASS_ID, idBytes(0L)))
+                .heapDumpEnd()
+                .writeTo(tmp, "estimate.hprof");
+        Path indexDb = HeapDumpIndexPaths.indexFor(hprof);
+        try (HprofMappedFile file = HprofMappedFile.open(hprof)) {
+            HprofIndex.build(file, indexDb, CLOCK);
+        }
+        return indexDb;
+    }
+
+    private static ClassRetainedSizeEntry holder(List<ClassRetainedSizeEntry> entries) {
+        return entries.stream()
+                .filter(e -> e.className().equals("Holder"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static long shallow(HeapView view, long instanceId) throws SQLException {
+        return view.findInstanceById(instanceId).orElseThrow().shallowSize();
+    }
+
+    private static byte[] idBytes(long id) {
+        try {
+            ByteArrayOutputStream b = new ByteArrayOutputStream();
+            DataOutputStream d = new DataOutputStream(b);
+            d.writeLong(id);
+            return b.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
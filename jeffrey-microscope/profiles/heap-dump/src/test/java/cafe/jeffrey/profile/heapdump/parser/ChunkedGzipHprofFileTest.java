@@ -0,0 +1,259 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.profile.heapdump.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkedGzipHprofFileTest {
+
+    private static final int BLOCK_SIZE = 64;
+
+    @Nested
+    class Detection {
+
+        @Test
+        void recognisesChunkedGzip(@TempDir Path tmp) throws IOException {
+            Path gz = writeChunkedGzip(tmp.resolve("dump.hprof.gz"), randomBytes(1000), BLOCK_SIZE);
+            assertTrue(ChunkedGzipHprofFile.isChunkedGzip(gz));
+            assertTrue(HprofMappedFile.isRandomAccessGzip(gz));
+        }
+
+        @Test
+        void rejectsSingleStreamGzip(@TempDir Path tmp) throws IOException {
+            Path gz = tmp.resolve("dump.hprof.gz");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz))) {
+                out.write(randomBytes(1000));
+            }
+            assertFalse(ChunkedGzipHprofFile.isChunkedGzip(gz));
+        }
+
+        @Test
+        void rejectsPlainHprof(@TempDir Path tmp) throws IOException {
+            Path hprof = SyntheticHprof.create("1.0.2", 8, 0L).writeTo(tmp, "plain.hprof");
+            assertFalse(ChunkedGzipHprofFile.isChunkedGzip(hprof));
+        }
+    }
+
+    @Nested
+    class RandomAccess {
+
+        @Test
+        void indexesEveryMemberAndReportsUncompressedSize(@TempDir Path tmp) throws IOException {
+            byte[] data = randomBytes(BLOCK_SIZE * 10 + 17);
+            Path gz = writeChunkedGzip(tmp.resolve("dump.hprof.gz"), data, BLOCK_SIZE);
+
+            try (ChunkedGzipHprofFile file = ChunkedGzipHprofFile.open(gz, 0, 4)) {
+                assertEquals(BLOCK_SIZE, file.blockSize());
+                assertEquals(11, file.blockCount());
+                assertEquals(data.length, file.size());
+            }
+        }
+
+        @Test
+        void readsValuesStraddlingBlockBoundaries(@TempDir Path tmp) throws IOException {
+            byte[] data = randomBytes(BLOCK_SIZE * 4);
+            Path gz = writeChunkedGzip(tmp.resolve("dump.hprof.gz"), data, BLOCK_SIZE);
+
+            try (ChunkedGzipHprofFile file = ChunkedGzipHprofFile.open(gz, 0, 1)) {
+                for (int offset = 0; offset + 8 <= data.length; offset++) {
+                    assertEquals(data[offset], file.readByte(offset));
+                    assertEquals(bigEndian(data, offset, 2), file.readShort(offset) & 0xFFFFL);
+                    assertEquals(bigEndian(data, offset, 4), file.readInt(offset) & 0xFFFFFFFFL);
+                    assertEquals(bigEndian(data, offset, 8), file.readLong(offset));
+                }
+
+                byte[] all = new byte[data.length];
+                file.readBytes(0, all, 0, all.length);
+                assertArrayEquals(data, all);
+            }
+        }
+
+        @Test
+        void concurrentReadersWithTinyCacheSeeConsistentBytes(@TempDir Path tmp) throws Exception {
+            byte[] data = randomBytes(BLOCK_SIZE * 200 + 5);
+            Path gz = writeChunkedGzip(tmp.resolve("dump.hprof.gz"), data, BLOCK_SIZE);
+
+            try (ChunkedGzipHprofFile file = ChunkedGzipHprofFile.open(gz, BLOCK_SIZE, 4);
+                 ExecutorService executor = Executors.newFixedThreadPool(8)) {
+
+                List<Future<?>> futures = new ArrayList<>();
+                for (int worker = 0; worker < 8; worker++) {
+                    long seed = worker;
+                    futures.add(executor.submit(() -> {
+                        Random random = new Random(seed);
+                        for (int i = 0; i < 5_000; i++) {
+                            int offset = random.nextInt(data.length);
+                            assertEquals(data[offset], file.readByte(offset));
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+        }
+
+        @Test
+        void corruptMemberFailsInsteadOfReturningWrongBytes(@TempDir Path tmp) throws IOException {
+            byte[] data = randomBytes(BLOCK_SIZE * 3);
+            Path gz = writeChunkedGzip(tmp.resolve("dump.hprof.gz"), data, BLOCK_SIZE);
+            byte[] raw = Files.readAllBytes(gz);
+            // Flip a byte of the last member's CRC32
+            raw[raw.length - 8] ^= 0x5A;
+            Files.write(gz, raw);
+
+            try (ChunkedGzipHprofFile file = ChunkedGzipHprofFile.open(gz, 0, 1)) {
+                assertEquals(data[0], file.readByte(0));
+                assertThrows(UncheckedIOException.class, () -> file.readByte(BLOCK_SIZE * 2));
+            }
+        }
+    }
+
+    @Nested
+    class ThroughMappedFile {
+
+        @Test
+        void topLevelWalkMatchesUncompressedDump(@TempDir Path tmp) throws IOException {
+            SyntheticHprof synthetic = SyntheticHprof.create("1.0.2", 8, 42L)
+                    .string(0xAAAAL, "java.lang.String")
+                    .string(0xAAABL, "a fairly long string that spans more than a single gzip block")
+                    .loadClass(1, 0xBBBBL, 0, 0xAAAAL)
+                    .heapDumpSegment(seg -> {
+                    })
+                    .heapDumpEnd();
+            Path hprof = synthetic.writeTo(tmp, "dump.hprof");
+            Path gz = writeChunkedGzip(tmp.resolve("dump.hprof.gz"), synthetic.toByteArray(), 16);
+
+            List<String> plain = topLevelRecords(hprof);
+            List<String> chunked = topLevelRecords(gz);
+
+            try (HprofMappedFile file = HprofMappedFile.open(gz)) {
+                assertEquals(Files.size(hprof), file.size());
+                assertEquals(42L, file.header().timestampMs());
+                assertEquals(gz, file.path());
+            }
+            assertEquals(plain, chunked);
+        }
+
+        private List<String> topLevelRecords(Path path) throws IOException {
+            List<String> records = new ArrayList<>();
+            try (HprofMappedFile file = HprofMappedFile.open(path)) {
+                HprofTopLevelReader.read(file, new HprofTopLevelReader.Listener() {
+                    @Override
+                    public void onRecord(HprofRecord.Top record) {
+                        records.add(record instanceof HprofRecord.HprofString s
+                                ? "string:" + s.stringId() + ":" + new String(s.utf8(), StandardCharsets.UTF_8)
+                                : record.getClass().getSimpleName());
+                    }
+
+                    @Override
+                    public void onWarning(ParseWarning warning) {
+                        records.add("warning:" + warning);
+                    }
+                });
+            }
+            return records;
+        }
+    }
+
+    private static long bigEndian(byte[] data, int offset, int width) {
+        long value = 0;
+        for (int i = 0; i < width; i++) {
+            value = (value << 8) | (data[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static byte[] randomBytes(int length) {
+        // Low-entropy content keeps the members small while still being distinguishable
+        byte[] data = new byte[length];
+        Random random = new Random(length);
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) random.nextInt(16);
+        }
+        return data;
+    }
+
+    /**
+     * Mirrors HotSpot's {@code -XX:HeapDumpGzipLevel} layout: one gzip member per
+     * block, with the block size announced in the first member's comment.
+     */
+    static Path writeChunkedGzip(Path target, byte[] data, int blockSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int start = 0, member = 0; start < data.length; start += blockSize, member++) {
+            int length = Math.min(blockSize, data.length - start);
+            boolean first = member == 0;
+
+            out.write(new byte[]{0x1f, (byte) 0x8b, 8, (byte) (first ? 16 : 0), 0, 0, 0, 0, 0, 3});
+            if (first) {
+                out.write((ChunkedGzipHprofFile.BLOCK_SIZE_COMMENT_PREFIX + blockSize)
+                        .getBytes(StandardCharsets.ISO_8859_1));
+                out.write(0);
+            }
+
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            deflater.setInput(data, start, length);
+            deflater.finish();
+            byte[] buffer = new byte[256];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            deflater.end();
+
+            CRC32 crc = new CRC32();
+            crc.update(data, start, length);
+            writeLittleEndianInt(out, (int) crc.getValue());
+            writeLittleEndianInt(out, length);
+        }
+        Files.write(target, out.toByteArray());
+        return target;
+    }
+
+    private static void writeLittleEndianInt(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+}
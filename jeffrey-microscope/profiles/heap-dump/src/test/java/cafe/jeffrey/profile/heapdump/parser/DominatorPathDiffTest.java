@@ -0,0 +1,184 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.heapdump.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import cafe.jeffrey.profile.heapdump.model.DominatorPathDiffEntry;
+import cafe.jeffrey.profile.heapdump.persistence.DominatorPathDiff;
+import cafe.jeffrey.profile.heapdump.persistence.DominatorTreeBuilder;
+import cafe.jeffrey.profile.heapdump.persistence.HeapDumpIndexPaths;
+import cafe.jeffrey.profile.heapdump.view.HprofTag;
+
+class DominatorPathDiffTest {
+
+    private static final Clock CLOCK =
+            Clock.fixed(Instant.ofEpochMilli(1L), ZoneOffset.UTC);
+
+    private static final int ID_SIZE = 8;
+    private static final long CACHE_CLASS = 0xC001L;
+    private static final long ENTRY_CLASS = 0xC002L;
+    private static final long STABLE_CLASS = 0xC003L;
+    private static final long CACHE = 0x100L;
+    private static final long STABLE = 0x900L;
+
+    /** Shallow size of every fixture instance: 16-byte header + one reference. */
+    private static final long SHALLOW = 16 + ID_SIZE;
+
+    /**
+     * Baseline: JNI global → Cache → Entry. Primary: the same cache holding a
+     * run of three entries. The Entry run collapses into one path step, so
+     * both dumps share the path ids and the growth lands on the existing
+     * {@code Cache > Entry} path instead of a new deeper one.
+     */
+    @Test
+    void growthIsAttributedToTheSharedPath(@TempDir Path tmp) throws IOException, SQLException {
+        Path baseline = buildIndex(tmp.resolve("baseline"), 1);
+        Path primary = buildIndex(tmp.resolve("primary"), 3);
+
+        List<DominatorPathDiffEntry> entries = DominatorPathDiff.diff(primary, baseline, 10);
+
+        DominatorPathDiffEntry entryPath = find(entries, "com.app.Cache > com.app.Entry");
+        assertEquals("JNI global", entryPath.gcRootKind());
+        assertEquals(2, entryPath.depth());
+        assertEquals(1L, entryPath.primaryCount(), "only the top of the same-class run is counted");
+        assertEquals(1L, entryPath.baselineCount());
+        assertEquals(3 * SHALLOW, entryPath.primaryRetainedBytes());
+        assertEquals(SHALLOW, entryPath.baselineRetainedBytes());
+        assertEquals(2 * SHALLOW, entryPath.retainedBytesDelta());
+
+        DominatorPathDiffEntry cachePath = find(entries, "com.app.Cache");
+        assertEquals(1, cachePath.depth());
+        assertEquals(2 * SHALLOW, cachePath.retainedBytesDelta());
+
+        assertFalse(entries.stream().anyMatch(e -> e.path().contains("com.app.Stable")),
+                "unchanged paths are filtered out");
+        assertTrue(entries.stream().noneMatch(e -> e.path().split(" > ").length > 2),
+                "no path deeper than Cache > Entry");
+    }
+
+    @Test
+    void capsEntriesAtTopN(@TempDir Path tmp) throws IOException, SQLException {
+        Path baseline = buildIndex(tmp.resolve("baseline"), 1);
+        Path primary = buildIndex(tmp.resolve("primary"), 3);
+
+        assertEquals(1, DominatorPathDiff.diff(primary, baseline, 1).size());
+    }
+
+    /**
+     * An index whose dominator tree was never built has an empty path table,
+     * so every baseline path is reported as gone.
+     */
+    @Test
+    void unbuiltSideReportsEveryPathAsRemoved(@TempDir Path tmp) throws IOException, SQLException {
+        Path baseline = buildIndex(tmp.resolve("baseline"), 1);
+        Path dir = Files.createDirectories(tmp.resolve("unbuilt"));
+        Path hprof = writeDump(dir, 1);
+        Path unbuilt = HeapDumpIndexPaths.indexFor(hprof);
+        try (HprofMappedFile file = HprofMappedFile.open(hprof)) {
+            HprofIndex.build(file, unbuilt, CLOCK);
+        }
+
+        List<DominatorPathDiffEntry> entries = DominatorPathDiff.diff(unbuilt, baseline, 10);
+
+        assertFalse(entries.isEmpty());
+        assertTrue(entries.stream().allMatch(e -> e.primaryCount() == 0 && e.retainedBytesDelta() <= 0));
+    }
+
+    @Test
+    void rejectsNonPositiveTopN(@TempDir Path tmp) throws IOException, SQLException {
+        Path index = buildIndex(tmp.resolve("baseline"), 1);
+
+        assertThrows(IllegalArgumentException.class, () -> DominatorPathDiff.diff(index, index, 0));
+    }
+
+    private static Path buildIndex(Path dir, int entries) throws IOException, SQLException {
+        Files.createDirectories(dir);
+        Path hprof = writeDump(dir, entries);
+        Path indexDb = HeapDumpIndexPaths.indexFor(hprof);
+        try (HprofMappedFile file = HprofMappedFile.open(hprof)) {
+            HprofIndex.build(file, indexDb, CLOCK);
+        }
+        DominatorTreeBuilder.build(indexDb);
+        return indexDb;
+    }
+
+    private static Path writeDump(Path dir, int entries) throws IOException {
+        return SyntheticHprof.create("1.0.2", ID_SIZE, 0L)
+                .string(0xA001L, "com.app.Cache")
+                .string(0xA002L, "com.app.Entry")
+                .string(0xA003L, "com.app.Stable")
+                .string(0xA004L, "next")
+                .loadClass(1, CACHE_CLASS, 0, 0xA001L)
+                .loadClass(2, ENTRY_CLASS, 0, 0xA002L)
+                .loadClass(3, STABLE_CLASS, 0, 0xA003L)
+                .heapDumpSegment(seg -> {
+                    seg.topLevelObjectClassDump(CACHE_CLASS, 0xA004L)
+                            .topLevelObjectClassDump(ENTRY_CLASS, 0xA004L)
+                            .topLevelObjectClassDump(STABLE_CLASS, 0xA004L)
+                            .gcRoot(HprofTag.Sub.ROOT_JNI_GLOBAL, CACHE)
+                            .gcRoot(HprofTag.Sub.ROOT_STICKY_CLASS, STABLE)
+                            .instanceDump(STABLE, STABLE_CLASS, idBytes(0L))
+                            .instanceDump(CACHE, CACHE_CLASS, idBytes(entryId(0)));
+                    for (int i = 0; i < entries; i++) {
+                        long next = i + 1 < entries ? entryId(i + 1) : 0L;
+                        seg.instanceDump(entryId(i), ENTRY_CLASS, idBytes(next));
+                    }
+                })
+                .heapDumpEnd()
+                .writeTo(dir, "dump.hprof");
+    }
+
+    private static long entryId(int i) {
+        return 0x200L + i * 0x10L;
+    }
+
+    private static DominatorPathDiffEntry find(List<DominatorPathDiffEntry> entries, String path) {
+        return entries.stream()
+                .filter(e -> path.equals(e.path()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("missing path " + path + " in " + entries));
+    }
+
+    private static byte[] idBytes(long id) {
+        try {
+            ByteArrayOutputStream b = new ByteArrayOutputStream();
+            DataOutputStream d = new DataOutputStream(b);
+            d.writeLong(id);
+            return b.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
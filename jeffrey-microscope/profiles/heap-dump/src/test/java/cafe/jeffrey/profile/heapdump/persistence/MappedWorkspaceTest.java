@@ -0,0 +1,88 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.profile.heapdump.persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MappedWorkspaceTest {
+
+    @Test
+    void narrowNodeArrayRoundTripsIndicesAndMinusOne(@TempDir Path tmp) throws IOException {
+        try (MappedWorkspace workspace = MappedWorkspace.open(tmp.resolve("work"))) {
+            MappedWorkspace.MappedArray nodes = workspace.nodes("nodes", 4, 1_000);
+            nodes.fillMinusOne();
+            nodes.set(1, 999);
+            nodes.add(1, -9);
+
+            assertEquals(-1, nodes.get(0));
+            assertEquals(990, nodes.get(1));
+            assertEquals(4, nodes.length());
+        }
+    }
+
+    @Test
+    void wideNodeArrayHoldsIndicesBeyondIntRange(@TempDir Path tmp) throws IOException {
+        long hugeNodeCount = 3L * Integer.MAX_VALUE;
+        try (MappedWorkspace workspace = MappedWorkspace.open(tmp.resolve("work"))) {
+            MappedWorkspace.MappedArray nodes = workspace.nodes("nodes", 2, hugeNodeCount);
+            nodes.fillMinusOne();
+            nodes.set(1, hugeNodeCount - 1);
+
+            assertEquals(-1, nodes.get(0));
+            assertEquals(hugeNodeCount - 1, nodes.get(1));
+        }
+    }
+
+    @Test
+    void copyFromConvertsBetweenWidths(@TempDir Path tmp) throws IOException {
+        try (MappedWorkspace workspace = MappedWorkspace.open(tmp.resolve("work"))) {
+            MappedWorkspace.MappedArray longs = workspace.longs("longs", 3);
+            longs.set(0, 7);
+            longs.set(1, -1);
+            longs.set(2, 42);
+            MappedWorkspace.MappedArray narrow = workspace.nodes("narrow", 3, 100);
+
+            narrow.copyFrom(longs, 3);
+
+            assertEquals(7, narrow.getAndIncrement(0));
+            assertEquals(8, narrow.get(0));
+            assertEquals(-1, narrow.get(1));
+            assertEquals(42, narrow.get(2));
+        }
+    }
+
+    @Test
+    void leavesNoFilesBehind(@TempDir Path tmp) throws IOException {
+        Path dir = tmp.resolve("work");
+        try (MappedWorkspace workspace = MappedWorkspace.open(dir)) {
+            workspace.longs("a", 1024).set(1023, 1);
+            workspace.nodes("b", 1024, 1024).close();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -23,6 +23,7 @@ import cafe.jeffrey.profile.heapdump.oql.compiler.ExecutionPlan;
 import cafe.jeffrey.profile.heapdump.oql.compiler.OqlCompileOptions;
 import cafe.jeffrey.profile.heapdump.oql.compiler.OqlCompiler;
 import cafe.jeffrey.profile.heapdump.oql.executor.OqlExecutor;
+import cafe.jeffrey.profile.heapdump.oql.executor.OqlQueryBudget;
 import cafe.jeffrey.profile.heapdump.oql.parser.OqlParseException;
 import cafe.jeffrey.profile.heapdump.oql.parser.OqlParserFactory;
 import cafe.jeffrey.profile.heapdump.view.HeapView;
@@ -71,4 +72,13 @@ public final class OqlEngine {
     public OQLQueryResult execute(ExecutionPlan plan, HeapView view, int limit) throws SQLException {
         return OqlExecutor.execute(plan, view, limit);
     }
+
+    /**
+     * Executes a compiled plan under {@code budget}: the query stops with an
+     * error result once the budget's deadline passes or it is cancelled.
+     */
+    public OQLQueryResult execute(ExecutionPlan plan, HeapView view, int limit, OqlQueryBudget budget)
+            throws SQLException {
+        return OqlExecutor.execute(plan, view, limit, budget);
+    }
 }
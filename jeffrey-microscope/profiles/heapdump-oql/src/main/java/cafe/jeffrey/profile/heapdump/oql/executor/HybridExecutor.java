@@ -43,6 +43,11 @@ public final class HybridExecutor {
     }
 
     public static OQLQueryResult execute(HybridPlan plan, HeapView view, int limit) throws SQLException {
+        return execute(plan, view, limit, OqlQueryBudget.unlimited());
+    }
+
+    public static OQLQueryResult execute(HybridPlan plan, HeapView view, int limit, OqlQueryBudget budget)
+            throws SQLException {
         ClassHierarchyExpansion expansion = (ClassHierarchyExpansion) plan.prePass();
         List<Long> classIds = expansion.isInterface()
                 ? RESOLVER.resolveImplements(view, expansion.rootClassName())
@@ -50,12 +55,17 @@ public final class HybridExecutor {
         if (classIds.isEmpty()) {
             return OQLQueryResult.success(List.of(), 0, false, 0);
         }
+        // The hierarchy walk can be slow on deep class graphs — re-check
+        // before handing the remaining budget to the SQL stage.
+        if (budget.exhausted()) {
+            return OQLQueryResult.error(budget.exhaustionMessage(), 0);
+        }
         SqlPlan source = plan.sqlPlan();
         String placeholder = OqlCompiler.classIdsPlaceholder();
         String classIdList = classIds.stream().map(String::valueOf).collect(Collectors.joining(", "));
         String substituted = source.sql().replace(placeholder, classIdList);
         SqlPlan effective = new SqlPlan(substituted, new ArrayList<>(source.params()),
                 source.needsDominatorTree(), source.resultShape());
-        return SqlExecutor.execute(effective, view, limit);
+        return SqlExecutor.execute(effective, view, limit, budget);
     }
 }
@@ -32,31 +32,99 @@ import cafe.jeffrey.profile.heapdump.oql.compiler.ExecutionPlan.JavaPlan;
 import cafe.jeffrey.profile.heapdump.oql.compiler.ExecutionPlan.PrePass.ClassHierarchyExpansion;
 import cafe.jeffrey.profile.heapdump.oql.function.RegexPatternCache;
 import cafe.jeffrey.profile.heapdump.view.HeapView;
+import cafe.jeffrey.profile.heapdump.view.InstanceIdSpan;
 import cafe.jeffrey.profile.heapdump.view.InstanceRow;
 import cafe.jeffrey.profile.heapdump.view.JavaClassRow;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 /**
  * Plan C executor — iterates candidate instances Java-side and evaluates
  * WHERE / SELECT row by row.
  *
- * <p>Materializes all surviving rows before applying ORDER BY because the
- * sort key may reference Java-evaluated expressions; the {@code limit}
- * passed to the executor caps the final row count.
+ * <p>Candidates are split into partitions — one per class, large classes cut
+ * into instance-id ranges — and scanned on virtual-thread workers, each with
+ * its own read-only {@link HeapView} copy, once the candidate count makes that
+ * worthwhile (see {@link ScanSettings}). Every partition is an id range
+ * scanned in instance-id order, and every entry carries its
+ * partition-and-ordinal sequence number, so results are independent of the
+ * worker count: they come out exactly in the order a single-threaded scan
+ * would produce them in.
+ *
+ * <p>Without ORDER BY the scan short-circuits once the leading partitions hold
+ * {@code limit + 1} rows. With ORDER BY each partition keeps only its best
+ * {@code limit} rows in a bounded heap, so memory stays proportional to the
+ * limit rather than to the number of matches. The sort key may reference only
+ * values carried on the result entry (see {@link #orderComparator}).
  */
 public final class JavaExecutor {
 
     private static final ClassHierarchyResolver HIERARCHY = new ClassHierarchyResolver();
 
+    private static final int MAX_WORKERS = 8;
+
+    /** Rows scanned between two polls of the budget and of the prefix short-circuit. */
+    private static final int CHECK_INTERVAL = 1024;
+
+    /** Low bits of an entry's sequence number hold its ordinal within the partition. */
+    private static final int ORDINAL_BITS = 40;
+
+    /**
+     * Thresholds of the partitioned scan.
+     *
+     * @param parallelMinInstances below this many candidate instances the scan stays on the caller's thread and view
+     * @param partitionInstances   target instances per partition; larger classes are cut into id ranges of about
+     *                             this size
+     * @param maxWorkers           upper bound on the number of scan workers
+     */
+    public record ScanSettings(long parallelMinInstances, long partitionInstances, int maxWorkers) {
+
+        public static final ScanSettings DEFAULT = new ScanSettings(
+                200_000, 250_000, Math.clamp(Runtime.getRuntime().availableProcessors(), 1, MAX_WORKERS));
+
+        public ScanSettings {
+            if (parallelMinInstances < 0) {
+                throw new IllegalArgumentException(
+                        "parallelMinInstances must not be negative: parallelMinInstances=" + parallelMinInstances);
+            }
+            if (partitionInstances <= 0) {
+                throw new IllegalArgumentException(
+                        "partitionInstances must be positive: partitionInstances=" + partitionInstances);
+            }
+            if (maxWorkers <= 0) {
+                throw new IllegalArgumentException("maxWorkers must be positive: maxWorkers=" + maxWorkers);
+            }
+        }
+    }
+
     private JavaExecutor() {
     }
 
     public static OQLQueryResult execute(JavaPlan plan, HeapView view, int limit) throws SQLException {
+        return execute(plan, view, limit, OqlQueryBudget.unlimited());
+    }
+
+    public static OQLQueryResult execute(JavaPlan plan, HeapView view, int limit, OqlQueryBudget budget)
+            throws SQLException {
+        return execute(plan, view, limit, budget, ScanSettings.DEFAULT);
+    }
+
+    public static OQLQueryResult execute(
+            JavaPlan plan, HeapView view, int limit, OqlQueryBudget budget, ScanSettings settings)
+            throws SQLException {
         if (plan.reason() != null) {
             return OQLQueryResult.error(
                     "OQL feature requires the Java executor (Phase 3+): " + plan.reason(), 0);
@@ -67,53 +135,133 @@ public final class JavaExecutor {
         }
 
         List<Long> classIds = resolveCandidateClasses(view, query.from(), plan.expansion());
-        if (classIds.isEmpty()) {
+        List<ScanPartition> partitions = partition(view, classIds, settings.partitionInstances());
+        if (partitions.isEmpty()) {
             return OQLQueryResult.success(List.of(), 0, false, 0);
         }
 
-        List<OQLResultEntry> entries = new ArrayList<>();
-        // Hoist per-query setup out of the inner loop. PathExprEvaluator
-        // queries dump_metadata once for the id-size; constructing it per
-        // row would issue one SQL round-trip per candidate instance, which
-        // dominates Plan-C runtime on multi-million-string heaps.
-        PathExprEvaluator pathEval = new PathExprEvaluator(view);
-        // Shared per-query so a loop-invariant regex operand compiles once
-        // instead of once per candidate instance.
-        RegexPatternCache regexCache = new RegexPatternCache();
-        // ORDER BY requires materializing every surviving row before sorting.
-        // Without ORDER BY we can short-circuit at the user's limit — this
-        // turns "first 50 matching Strings" from a 5M-instance scan into
-        // ~thousands of instances in the common case.
-        boolean hasOrderBy = !query.orderBy().isEmpty();
-        int gatherBudget = hasOrderBy ? Integer.MAX_VALUE : limit + 1;
-        outer:
-        for (long classId : classIds) {
-            JavaClassRow clazz = view.findClassById(classId).orElse(null);
-            if (clazz == null) {
-                continue;
+        Comparator<OQLResultEntry> order = orderComparator(query);
+        ScanResults results = order == null
+                ? new PrefixResults(partitions.size(), (long) limit + 1)
+                : new TopKResults(order, limit);
+
+        long candidates = partitions.stream().mapToLong(ScanPartition::instanceCount).sum();
+        int workers = candidates < settings.parallelMinInstances()
+                ? 1
+                : Math.min(partitions.size(), settings.maxWorkers());
+        if (workers == 1) {
+            PartitionScanner scanner = new PartitionScanner(view, query, budget);
+            for (ScanPartition partition : partitions) {
+                if (budget.exhausted()) {
+                    break;
+                }
+                scanner.scan(partition, results);
             }
-            try (Stream<InstanceRow> stream = view.instances(classId)) {
-                for (InstanceRow inst : (Iterable<InstanceRow>) stream::iterator) {
-                    if (entries.size() >= gatherBudget) {
-                        break outer;
-                    }
-                    Row row = new Row(view, inst, clazz, query.from().alias());
-                    ExprEvaluator eval = new ExprEvaluator(row, pathEval, regexCache);
-                    if (query.whereExpr() != null && !eval.evalPredicate(query.whereExpr())) {
-                        continue;
+        } else {
+            scanInParallel(view, query, partitions, results, workers, budget);
+        }
+
+        if (budget.exhausted()) {
+            return OQLQueryResult.error(budget.exhaustionMessage(), 0);
+        }
+        return results.toResult(limit);
+    }
+
+    /**
+     * Fans the partitions out over {@code workers} virtual threads. Workers
+     * claim partitions in index order, so the leading partitions — the ones a
+     * LIMIT without ORDER BY needs — finish first.
+     */
+    private static void scanInParallel(
+            HeapView view,
+            OqlQuery query,
+            List<ScanPartition> partitions,
+            ScanResults results,
+            int workers,
+            OqlQueryBudget budget) throws SQLException {
+
+        AtomicInteger next = new AtomicInteger();
+        List<Future<Void>> futures = new ArrayList<>(workers);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < workers; w++) {
+                futures.add(executor.submit(() -> {
+                    // A DuckDB connection must not run statements from several
+                    // threads at once; each worker gets its own over the shared mmap.
+                    try (HeapView copy = view.openReadOnlyCopy()) {
+                        PartitionScanner scanner = new PartitionScanner(copy, query, budget);
+                        int index;
+                        while ((index = next.getAndIncrement()) < partitions.size() && !budget.exhausted()) {
+                            scanner.scan(partitions.get(index), results);
+                        }
                     }
-                    appendRowEntries(eval, query, row, entries);
+                    return null;
+                }));
+            }
+        }
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sql) {
+                    throw sql;
                 }
+                if (cause instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw new SQLException("OQL scan worker failed: " + cause.getMessage(), cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                budget.cancel();
+                throw new SQLException("Interrupted while waiting for OQL scan workers", e);
             }
         }
+    }
 
-        applyOrderBy(query, view, entries);
-
-        boolean hasMore = entries.size() > limit;
-        if (hasMore) {
-            entries = new ArrayList<>(entries.subList(0, limit));
+    /**
+     * Splits the candidate classes into partitions, in candidate order. Class
+     * ids without instances are dropped; classes above
+     * {@code partitionInstances} are cut into equal-width id ranges, which
+     * tracks the instance distribution well because ids are heap addresses.
+     * A class that fits one partition becomes a single range over its whole id
+     * span, so every partition is read by the same ordered range scan.
+     */
+    private static List<ScanPartition> partition(HeapView view, List<Long> classIds, long partitionInstances)
+            throws SQLException {
+        if (classIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, InstanceIdSpan> spans = new HashMap<>();
+        for (InstanceIdSpan span : view.instanceIdSpans(classIds)) {
+            spans.put(span.classId(), span);
+        }
+        List<ScanPartition> partitions = new ArrayList<>();
+        for (long classId : classIds) {
+            InstanceIdSpan span = spans.get(classId);
+            if (span == null) {
+                continue;
+            }
+            JavaClassRow clazz = view.findClassById(classId).orElse(null);
+            if (clazz == null) {
+                continue;
+            }
+            long slices = Math.max(1, Math.ceilDiv(span.instanceCount(), partitionInstances));
+            if (slices == 1) {
+                partitions.add(new ScanPartition(
+                        partitions.size(), clazz, span.minInstanceId(), span.maxInstanceId(),
+                        span.instanceCount()));
+                continue;
+            }
+            long width = (span.maxInstanceId() - span.minInstanceId()) / slices + 1;
+            long from = span.minInstanceId();
+            for (long i = 0; i < slices && from <= span.maxInstanceId(); i++) {
+                long to = i == slices - 1 ? span.maxInstanceId() : from + width - 1;
+                partitions.add(new ScanPartition(
+                        partitions.size(), clazz, from, to, span.instanceCount() / slices));
+                from = to + 1;
+            }
         }
-        return OQLQueryResult.success(entries, entries.size(), hasMore, 0);
+        return partitions;
     }
 
     private static List<Long> resolveCandidateClasses(
@@ -291,18 +439,20 @@ public final class JavaExecutor {
         return String.valueOf(v);
     }
 
-    private static void applyOrderBy(OqlQuery query, HeapView view, List<OQLResultEntry> entries) throws SQLException {
+    /**
+     * Comparator for the query's first ORDER BY item, or {@code null} without
+     * ORDER BY.
+     *
+     * <p>ORDER BY in Plan C is best-effort: we can only sort on values
+     * computable from each result entry independent of its origin row (since
+     * the original Row is gone by then). Retained/used size — the most common
+     * Plan C sort key — is carried on the entry; anything else sorts by the
+     * value preview, which at least gives a stable, deterministic order.
+     */
+    private static Comparator<OQLResultEntry> orderComparator(OqlQuery query) {
         if (query.orderBy().isEmpty()) {
-            return;
+            return null;
         }
-        // ORDER BY in Plan C is best-effort: we can only sort on values
-        // computable from each result entry independent of its origin row
-        // (since we've already lost the original Row). For now we sort by
-        // the entry's value preview which gives stable, deterministic ordering
-        // even if not always the user-intended one. Phase 4 can do better by
-        // attaching projection-value vectors to entries.
-        // The user's most common ORDER BY in Plan C will be on retained/used
-        // size which we already populate on the entry, so cover those.
         OqlExpr key = query.orderBy().get(0).expr();
         boolean desc = query.orderBy().get(0).descending();
         Comparator<OQLResultEntry> cmp;
@@ -313,9 +463,290 @@ public final class JavaExecutor {
         } else {
             cmp = Comparator.comparing(OQLResultEntry::value, Comparator.nullsLast(String::compareTo));
         }
-        if (desc) {
-            cmp = cmp.reversed();
+        return desc ? cmp.reversed() : cmp;
+    }
+
+    /**
+     * A slice of one candidate class: its instances with ids in
+     * {@code [fromInstanceId, toInstanceId]}. {@code instanceCount} is an
+     * estimate when the class is cut into several ranges.
+     */
+    private record ScanPartition(
+            int index,
+            JavaClassRow clazz,
+            long fromInstanceId,
+            long toInstanceId,
+            long instanceCount) {
+    }
+
+    /** A result entry tagged with its position in single-threaded scan order. */
+    private record Ranked(OQLResultEntry entry, long seq) {
+    }
+
+    /**
+     * Per-thread scan state. {@link PathExprEvaluator} and
+     * {@link RegexPatternCache} are hoisted out of the row loop — the former
+     * queries {@code dump_metadata} for the id size, which would otherwise be
+     * one SQL round-trip per candidate instance.
+     */
+    private static final class PartitionScanner {
+
+        private final HeapView view;
+        private final OqlQuery query;
+        private final OqlQueryBudget budget;
+        private final PathExprEvaluator pathEval;
+        private final RegexPatternCache regexCache = new RegexPatternCache();
+        private final List<OQLResultEntry> rowEntries = new ArrayList<>();
+
+        PartitionScanner(HeapView view, OqlQuery query, OqlQueryBudget budget) {
+            this.view = view;
+            this.query = query;
+            this.budget = budget;
+            this.pathEval = new PathExprEvaluator(view);
+        }
+
+        void scan(ScanPartition partition, ScanResults results) throws SQLException {
+            PartitionSink sink = results.newSink(partition.index());
+            if (results.skip(partition.index())) {
+                results.complete(sink);
+                return;
+            }
+            long classId = partition.clazz().classId();
+            long scanned = 0;
+            try (Stream<InstanceRow> stream =
+                         view.instances(classId, partition.fromInstanceId(), partition.toInstanceId())) {
+                for (InstanceRow inst : (Iterable<InstanceRow>) stream::iterator) {
+                    if (sink.full()) {
+                        break;
+                    }
+                    if (++scanned % CHECK_INTERVAL == 0
+                            && (budget.exhausted() || results.skip(partition.index()))) {
+                        break;
+                    }
+                    Row row = new Row(view, inst, partition.clazz(), query.from().alias());
+                    ExprEvaluator eval = new ExprEvaluator(row, pathEval, regexCache);
+                    if (query.whereExpr() != null && !eval.evalPredicate(query.whereExpr())) {
+                        continue;
+                    }
+                    rowEntries.clear();
+                    appendRowEntries(eval, query, row, rowEntries);
+                    for (OQLResultEntry entry : rowEntries) {
+                        sink.add(entry);
+                    }
+                }
+            }
+            results.complete(sink);
+        }
+    }
+
+    /** Collects one partition's entries on the scanning thread. */
+    private abstract static class PartitionSink {
+
+        final int partition;
+        private long ordinal;
+
+        PartitionSink(int partition) {
+            this.partition = partition;
+        }
+
+        final void add(OQLResultEntry entry) {
+            accept(new Ranked(entry, ((long) partition << ORDINAL_BITS) | ordinal++));
+        }
+
+        abstract void accept(Ranked ranked);
+
+        /** True once this partition cannot contribute anything further. */
+        abstract boolean full();
+    }
+
+    /** Merges partition results; shared by all workers of one query. */
+    private interface ScanResults {
+
+        PartitionSink newSink(int partition);
+
+        /** True when {@code partition} no longer needs to be scanned. */
+        boolean skip(int partition);
+
+        void complete(PartitionSink sink);
+
+        OQLQueryResult toResult(int limit);
+    }
+
+    /**
+     * No ORDER BY: the answer is the first {@code need} entries in scan order.
+     * Once the contiguous run of completed partitions starting at 0 holds that
+     * many, every later partition is skipped.
+     */
+    private static final class PrefixResults implements ScanResults {
+
+        private final long need;
+        private final List<List<OQLResultEntry>> completed;
+        private int frontier;
+        private long gathered;
+        private volatile int lastNeeded = Integer.MAX_VALUE;
+
+        PrefixResults(int partitions, long need) {
+            this.need = need;
+            this.completed = new ArrayList<>(Collections.nCopies(partitions, null));
+        }
+
+        @Override
+        public PartitionSink newSink(int partition) {
+            return new PrefixSink(partition, need);
+        }
+
+        @Override
+        public boolean skip(int partition) {
+            return partition > lastNeeded;
+        }
+
+        @Override
+        public synchronized void complete(PartitionSink sink) {
+            completed.set(sink.partition, ((PrefixSink) sink).entries);
+            while (lastNeeded == Integer.MAX_VALUE
+                    && frontier < completed.size()
+                    && completed.get(frontier) != null) {
+                gathered += completed.get(frontier).size();
+                if (gathered >= need) {
+                    lastNeeded = frontier;
+                }
+                frontier++;
+            }
+        }
+
+        @Override
+        public synchronized OQLQueryResult toResult(int limit) {
+            List<OQLResultEntry> entries = new ArrayList<>();
+            for (List<OQLResultEntry> partition : completed) {
+                if (partition == null || entries.size() >= need) {
+                    break;
+                }
+                entries.addAll(partition.subList(0, (int) Math.min(partition.size(), need - entries.size())));
+            }
+            boolean hasMore = entries.size() > limit;
+            if (hasMore) {
+                entries = new ArrayList<>(entries.subList(0, limit));
+            }
+            return OQLQueryResult.success(entries, entries.size(), hasMore, 0);
+        }
+    }
+
+    private static final class PrefixSink extends PartitionSink {
+
+        private final long need;
+        private final List<OQLResultEntry> entries = new ArrayList<>();
+
+        PrefixSink(int partition, long need) {
+            super(partition);
+            this.need = need;
+        }
+
+        @Override
+        void accept(Ranked ranked) {
+            entries.add(ranked.entry());
+        }
+
+        @Override
+        boolean full() {
+            return entries.size() >= need;
+        }
+    }
+
+    /**
+     * ORDER BY: every partition keeps its best {@code limit} entries, merged
+     * into one global bound heap. Ties fall back to scan order so the result
+     * matches a stable sort of the full match set.
+     */
+    private static final class TopKResults implements ScanResults {
+
+        private final Comparator<Ranked> rank;
+        private final int limit;
+        private final TopK merged;
+        private long matches;
+
+        TopKResults(Comparator<OQLResultEntry> order, int limit) {
+            this.rank = Comparator.comparing(Ranked::entry, order).thenComparingLong(Ranked::seq);
+            this.limit = limit;
+            this.merged = new TopK(rank, limit);
+        }
+
+        @Override
+        public PartitionSink newSink(int partition) {
+            return new TopKSink(partition, new TopK(rank, limit));
+        }
+
+        @Override
+        public boolean skip(int partition) {
+            return false;
+        }
+
+        @Override
+        public synchronized void complete(PartitionSink sink) {
+            TopKSink topK = (TopKSink) sink;
+            matches += topK.matches;
+            topK.best.drainTo(merged);
+        }
+
+        @Override
+        public synchronized OQLQueryResult toResult(int limit) {
+            List<OQLResultEntry> entries = merged.sorted();
+            return OQLQueryResult.success(entries, entries.size(), matches > limit, 0);
+        }
+    }
+
+    private static final class TopKSink extends PartitionSink {
+
+        private final TopK best;
+        private long matches;
+
+        TopKSink(int partition, TopK best) {
+            super(partition);
+            this.best = best;
+        }
+
+        @Override
+        void accept(Ranked ranked) {
+            matches++;
+            best.offer(ranked);
+        }
+
+        @Override
+        boolean full() {
+            return false;
+        }
+    }
+
+    /** Bounded heap of the {@code k} best entries; the head is the worst one kept. */
+    private static final class TopK {
+
+        private final Comparator<Ranked> rank;
+        private final int k;
+        private final PriorityQueue<Ranked> heap;
+
+        TopK(Comparator<Ranked> rank, int k) {
+            this.rank = rank;
+            this.k = k;
+            this.heap = new PriorityQueue<>(rank.reversed());
+        }
+
+        void offer(Ranked ranked) {
+            if (heap.size() < k) {
+                heap.add(ranked);
+            } else if (rank.compare(ranked, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(ranked);
+            }
+        }
+
+        void drainTo(TopK target) {
+            for (Ranked ranked : heap) {
+                target.offer(ranked);
+            }
+            heap.clear();
+        }
+
+        List<OQLResultEntry> sorted() {
+            return heap.stream().sorted(rank).map(Ranked::entry).toList();
         }
-        entries.sort(cmp);
     }
 }
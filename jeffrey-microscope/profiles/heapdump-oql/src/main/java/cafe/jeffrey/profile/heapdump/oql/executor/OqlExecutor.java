@@ -39,16 +39,25 @@ public final class OqlExecutor {
     }
 
     public static OQLQueryResult execute(ExecutionPlan plan, HeapView view, int limit) throws SQLException {
+        return execute(plan, view, limit, OqlQueryBudget.unlimited());
+    }
+
+    /**
+     * Same as {@link #execute(ExecutionPlan, HeapView, int)}, stopping with an
+     * error result once {@code budget} is exhausted or cancelled.
+     */
+    public static OQLQueryResult execute(ExecutionPlan plan, HeapView view, int limit, OqlQueryBudget budget)
+            throws SQLException {
         return switch (plan) {
-            case SqlPlan p -> SqlExecutor.execute(p, view, limit);
-            case HybridPlan p -> HybridExecutor.execute(p, view, limit);
-            case JavaPlan p -> JavaExecutor.execute(p, view, limit);
-            case StringFallbackPlan p -> StringFallbackExecutor.execute(p, view, limit);
+            case SqlPlan p -> SqlExecutor.execute(p, view, limit, budget);
+            case HybridPlan p -> HybridExecutor.execute(p, view, limit, budget);
+            case JavaPlan p -> JavaExecutor.execute(p, view, limit, budget);
+            case StringFallbackPlan p -> StringFallbackExecutor.execute(p, view, limit, budget);
             case RetainedSetPlan p -> {
                 // Run the inner with an unlimited budget so we get the full
                 // seed set; the expander applies the user's limit on the
                 // post-expansion result.
-                OQLQueryResult inner = execute(p.inner(), view, Integer.MAX_VALUE);
+                OQLQueryResult inner = execute(p.inner(), view, Integer.MAX_VALUE, budget);
                 yield RetainedSetExpander.expand(inner, view, limit);
             }
         };
@@ -0,0 +1,114 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.heapdump.oql.executor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wall-clock budget and cancellation flag shared by every executor (and every
+ * worker thread) running one query. Java-side scans poll {@link #exhausted()}
+ * between rows; SQL executors derive their statement timeout from it and
+ * register the running statement so {@link #cancel()} can abort it.
+ *
+ * <p>Thread-safe.
+ */
+public final class OqlQueryBudget {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final long deadlineNanos;
+    private final Duration timeBudget;
+    private final List<Runnable> cancelHooks = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+
+    private OqlQueryBudget(long deadlineNanos, Duration timeBudget) {
+        this.deadlineNanos = deadlineNanos;
+        this.timeBudget = timeBudget;
+    }
+
+    /** No deadline; only an explicit {@link #cancel()} stops the query. */
+    public static OqlQueryBudget unlimited() {
+        return new OqlQueryBudget(NO_DEADLINE, null);
+    }
+
+    /** Deadline {@code timeBudget} from now. */
+    public static OqlQueryBudget of(Duration timeBudget) {
+        if (timeBudget == null || timeBudget.isNegative() || timeBudget.isZero()) {
+            throw new IllegalArgumentException("timeBudget must be positive: timeBudget=" + timeBudget);
+        }
+        return new OqlQueryBudget(System.nanoTime() + timeBudget.toNanos(), timeBudget);
+    }
+
+    /** Stops the query: scans notice on their next poll, registered statements are cancelled now. */
+    public void cancel() {
+        cancelled = true;
+        for (Runnable hook : cancelHooks) {
+            hook.run();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** True once the query was cancelled or ran past its deadline. */
+    public boolean exhausted() {
+        return cancelled || (deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos > 0);
+    }
+
+    /** Human-readable reason for {@link #exhausted()}, used as the query's error message. */
+    public String exhaustionMessage() {
+        return cancelled
+                ? "Query cancelled"
+                : "Query exceeded its time budget of " + timeBudget.toSeconds() + "s";
+    }
+
+    /**
+     * JDBC statement timeout for the remaining budget, never above
+     * {@code capSeconds} and never below one second (0 would mean "no timeout").
+     */
+    public int statementTimeoutSeconds(int capSeconds) {
+        if (deadlineNanos == NO_DEADLINE) {
+            return capSeconds;
+        }
+        long remainingSeconds = Duration.ofNanos(deadlineNanos - System.nanoTime()).toSeconds();
+        return (int) Math.clamp(remainingSeconds, 1L, capSeconds);
+    }
+
+    /**
+     * Runs {@code hook} on {@link #cancel()} until the returned registration is
+     * closed. Used to abort an in-flight JDBC statement.
+     */
+    public Registration onCancel(Runnable hook) {
+        cancelHooks.add(hook);
+        if (cancelled) {
+            hook.run();
+        }
+        return () -> cancelHooks.remove(hook);
+    }
+
+    /** Handle returned by {@link #onCancel(Runnable)}. */
+    @FunctionalInterface
+    public interface Registration extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -29,8 +29,8 @@ import java.util.List;
 
 /**
  * Executes a {@link SqlPlan} against the heap-dump-index DuckDB. Binds
- * parameters in order, applies a query timeout, and hands the result set off
- * to {@link ResultMapper}.
+ * parameters in order, applies a query timeout (capped by the query's
+ * {@link OqlQueryBudget}), and hands the result set off to {@link ResultMapper}.
  */
 public final class SqlExecutor {
 
@@ -40,14 +40,36 @@ public final class SqlExecutor {
     }
 
     public static OQLQueryResult execute(SqlPlan plan, HeapView view, int limit) throws SQLException {
+        return execute(plan, view, limit, OqlQueryBudget.unlimited());
+    }
+
+    public static OQLQueryResult execute(SqlPlan plan, HeapView view, int limit, OqlQueryBudget budget)
+            throws SQLException {
+        if (budget.exhausted()) {
+            return OQLQueryResult.error(budget.exhaustionMessage(), 0);
+        }
         Connection conn = view.databaseClient().connection();
         String sql = ensureLimit(plan.sql(), limit);
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             OqlQueryBudget.Registration ignored = budget.onCancel(() -> cancelQuietly(stmt))) {
             bindParams(stmt, plan.params());
-            stmt.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            stmt.setQueryTimeout(budget.statementTimeoutSeconds(QUERY_TIMEOUT_SECONDS));
             try (ResultSet rs = stmt.executeQuery()) {
                 return ResultMapper.map(rs, plan.resultShape(), limit);
             }
+        } catch (SQLException e) {
+            if (budget.exhausted()) {
+                return OQLQueryResult.error(budget.exhaustionMessage(), 0);
+            }
+            throw e;
+        }
+    }
+
+    private static void cancelQuietly(PreparedStatement stmt) {
+        try {
+            stmt.cancel();
+        } catch (SQLException ignored) {
+            // Statement already finished or closed — nothing left to cancel.
         }
     }
 
@@ -56,15 +56,23 @@ public final class StringFallbackExecutor {
     }
 
     public static OQLQueryResult execute(StringFallbackPlan plan, HeapView view, int limit) throws SQLException {
+        return execute(plan, view, limit, OqlQueryBudget.unlimited());
+    }
+
+    public static OQLQueryResult execute(StringFallbackPlan plan, HeapView view, int limit, OqlQueryBudget budget)
+            throws SQLException {
         // 1. Primary SQL pushdown — covers in-cap Strings.
-        OQLQueryResult primary = SqlExecutor.execute(plan.primary(), view, limit);
+        OQLQueryResult primary = SqlExecutor.execute(plan.primary(), view, limit, budget);
         if (primary.errorMessage() != null) {
             return primary;
         }
 
         // 2. Iterate uncovered Strings (content NULL), evaluate WHERE in Java.
         OqlQuery query = plan.query();
-        List<OQLResultEntry> fallback = scanUncovered(query, view, limit);
+        List<OQLResultEntry> fallback = scanUncovered(query, view, limit, budget);
+        if (budget.exhausted()) {
+            return OQLQueryResult.error(budget.exhaustionMessage(), 0);
+        }
 
         // 3. Merge with primary, dedupe by instance_id (LinkedHashMap preserves
         //    primary order; fallback rows append after).
@@ -88,7 +96,8 @@ public final class StringFallbackExecutor {
         return OQLQueryResult.success(out, out.size(), hasMore, 0);
     }
 
-    private static List<OQLResultEntry> scanUncovered(OqlQuery query, HeapView view, int limit) throws SQLException {
+    private static List<OQLResultEntry> scanUncovered(
+            OqlQuery query, HeapView view, int limit, OqlQueryBudget budget) throws SQLException {
         Connection conn = view.databaseClient().connection();
         List<OQLResultEntry> entries = new ArrayList<>();
         PathExprEvaluator pathEval = new PathExprEvaluator(view);
@@ -98,7 +107,7 @@ public final class StringFallbackExecutor {
         try (PreparedStatement stmt = conn.prepareStatement(UNCAPPED_STRINGS_SQL);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                if (entries.size() >= limit) {
+                if (entries.size() >= limit || budget.exhausted()) {
                     break;
                 }
                 long instanceId = rs.getLong(1);
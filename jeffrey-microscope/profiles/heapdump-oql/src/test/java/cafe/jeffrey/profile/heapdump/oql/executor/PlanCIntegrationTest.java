@@ -33,6 +33,7 @@ import java.sql.Statement;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -304,6 +305,129 @@ class PlanCIntegrationTest {
         }
     }
 
+    @Nested
+    class OrderedAndBudgetedScan {
+
+        private static final String BY_RETAINED =
+                "SELECT s, rsizeof(s) FROM java.lang.String s WHERE s.value.length > 0 ORDER BY rsizeof(s)";
+
+        private OQLQueryResult runWithLimit(String oql, int limit, OqlQueryBudget budget) throws SQLException {
+            return engine.execute(compile(oql), view, limit, budget);
+        }
+
+        @Test
+        void topKKeepsLargestRowAndReportsMore(Connection conn) throws SQLException {
+            try (Statement st = conn.createStatement()) {
+                st.execute("UPDATE retained_size SET bytes = 64 WHERE instance_id = 101");
+            }
+            OQLQueryResult r = runWithLimit(BY_RETAINED + " DESC", 1, OqlQueryBudget.unlimited());
+
+            assertEquals(1, r.results().size());
+            assertEquals(101L, r.results().get(0).objectId());
+            assertTrue(r.hasMore(), "two Strings matched, one returned");
+        }
+
+        @Test
+        void topKAscendingKeepsSmallestRow(Connection conn) throws SQLException {
+            try (Statement st = conn.createStatement()) {
+                st.execute("UPDATE retained_size SET bytes = 64 WHERE instance_id = 101");
+            }
+            OQLQueryResult r = runWithLimit(BY_RETAINED + " ASC", 1, OqlQueryBudget.unlimited());
+
+            assertEquals(100L, r.results().get(0).objectId());
+        }
+
+        @Test
+        void tiesKeepScanOrder() throws SQLException {
+            // Both Strings retain 32 bytes; the tie falls back to instance order.
+            OQLQueryResult r = runWithLimit(BY_RETAINED + " DESC", 10, OqlQueryBudget.unlimited());
+
+            assertEquals(List.of(100L, 101L), r.results().stream().map(e -> e.objectId()).toList());
+            assertFalse(r.hasMore());
+        }
+
+        @Test
+        void unorderedScanStopsAtLimit() throws SQLException {
+            OQLQueryResult r = runWithLimit(
+                    "SELECT s FROM java.lang.String s WHERE s.value.length > 0", 1, OqlQueryBudget.unlimited());
+
+            assertEquals(1, r.results().size());
+            assertEquals(100L, r.results().get(0).objectId());
+            assertTrue(r.hasMore());
+        }
+
+        @Test
+        void cancelledBudgetReturnsError() throws SQLException {
+            OqlQueryBudget budget = OqlQueryBudget.unlimited();
+            budget.cancel();
+
+            OQLQueryResult r = runWithLimit(BY_RETAINED, 10, budget);
+
+            assertEquals("Query cancelled", r.errorMessage());
+        }
+    }
+
+    @Nested
+    class ParallelScan {
+
+        private static final String OUTBOUNDS = "SELECT outbounds(h) FROM java.util.HashMap h";
+
+        private static final JavaExecutor.ScanSettings SINGLE_THREADED =
+                new JavaExecutor.ScanSettings(Long.MAX_VALUE, 500, 1);
+
+        private static final JavaExecutor.ScanSettings PARALLEL =
+                new JavaExecutor.ScanSettings(0, 500, 4);
+
+        @BeforeEach
+        void seedManyMaps(Connection conn) throws SQLException {
+            // HashMaps 1000..3999, each referencing its own Integer 11000..13999;
+            // enough instances to cut the HashMap class into several id ranges.
+            try (Statement st = conn.createStatement()) {
+                st.execute("INSERT INTO instance SELECT range, 13, 0, 0, 48, NULL, NULL FROM range(1000, 4000)");
+                st.execute("INSERT INTO instance SELECT range, 14, 0, 0, 16, NULL, NULL FROM range(11000, 14000)");
+                st.execute("INSERT INTO outbound_ref SELECT range, range + 10000, 0, 0 FROM range(1000, 4000)");
+            }
+        }
+
+        private OQLQueryResult scan(int limit, JavaExecutor.ScanSettings settings) throws SQLException {
+            ExecutionPlan.JavaPlan plan = assertInstanceOf(ExecutionPlan.JavaPlan.class, compile(OUTBOUNDS));
+            return JavaExecutor.execute(plan, view, limit, OqlQueryBudget.unlimited(), settings);
+        }
+
+        private static List<Long> objectIds(OQLQueryResult result) {
+            return result.results().stream().map(e -> e.objectId()).toList();
+        }
+
+        @Test
+        void parallelScanReturnsSingleThreadedResults() throws SQLException {
+            OQLQueryResult single = scan(10_000, SINGLE_THREADED);
+            OQLQueryResult parallel = scan(10_000, PARALLEL);
+
+            // 130 -> 131 from the base fixture, plus one Integer per seeded HashMap
+            assertEquals(3001, single.results().size());
+            assertEquals(objectIds(single), objectIds(parallel));
+            assertFalse(parallel.hasMore());
+        }
+
+        @Test
+        void parallelScanKeepsTheLeadingRowsUnderLimit() throws SQLException {
+            OQLQueryResult single = scan(100, SINGLE_THREADED);
+            OQLQueryResult parallel = scan(100, PARALLEL);
+
+            assertEquals(100, parallel.results().size());
+            assertEquals(objectIds(single), objectIds(parallel));
+            assertTrue(parallel.hasMore());
+        }
+
+        @Test
+        void resultsFollowInstanceIdOrder() throws SQLException {
+            List<Long> ids = objectIds(scan(10_000, PARALLEL));
+
+            assertEquals(131L, ids.get(0));
+            assertEquals(ids.subList(1, ids.size()).stream().sorted().toList(), ids.subList(1, ids.size()));
+        }
+    }
+
     @Nested
     class Classification {
 
@@ -23,6 +23,7 @@ import cafe.jeffrey.profile.heapdump.view.HeapView;
 import cafe.jeffrey.profile.heapdump.view.HistogramRow;
 import cafe.jeffrey.profile.heapdump.view.InstanceFieldDescriptor;
 import cafe.jeffrey.profile.heapdump.view.InstanceFieldValue;
+import cafe.jeffrey.profile.heapdump.view.InstanceIdSpan;
 import cafe.jeffrey.profile.heapdump.view.InstanceRow;
 import cafe.jeffrey.profile.heapdump.view.JavaClassRow;
 import cafe.jeffrey.profile.heapdump.view.OutboundRefRow;
@@ -49,12 +50,26 @@ import java.util.HashMap;
 final class TestHeapView implements HeapView {
 
     private final Connection connection;
-    private final Map<Long, List<InstanceFieldValue>> cannedFields = new HashMap<>();
-    private final Map<Long, byte[]> cannedPrimitiveArrays = new HashMap<>();
-    private final Map<Long, String> cannedStrings = new HashMap<>();
+    private final boolean ownsConnection;
+    private final Map<Long, List<InstanceFieldValue>> cannedFields;
+    private final Map<Long, byte[]> cannedPrimitiveArrays;
+    private final Map<Long, String> cannedStrings;
 
     TestHeapView(Connection connection) {
+        this(connection, false, new HashMap<>(), new HashMap<>(), new HashMap<>());
+    }
+
+    private TestHeapView(
+            Connection connection,
+            boolean ownsConnection,
+            Map<Long, List<InstanceFieldValue>> cannedFields,
+            Map<Long, byte[]> cannedPrimitiveArrays,
+            Map<Long, String> cannedStrings) {
         this.connection = connection;
+        this.ownsConnection = ownsConnection;
+        this.cannedFields = cannedFields;
+        this.cannedPrimitiveArrays = cannedPrimitiveArrays;
+        this.cannedStrings = cannedStrings;
     }
 
     /** Seed canned instance fields for an instance — used by path-expression tests. */
@@ -148,7 +163,14 @@ final class TestHeapView implements HeapView {
 
     @Override
     public void close() {
-        // Connection lifecycle is owned by @DuckDBTest; nothing to do.
+        // The base connection is owned by @DuckDBTest; only duplicates opened for copies are closed here.
+        if (ownsConnection) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
     }
 
     // ---- Everything else is out of scope for Phase 2 tests --------------
@@ -165,10 +187,18 @@ final class TestHeapView implements HeapView {
 
     @Override
     public Stream<InstanceRow> instances(long classId) throws SQLException {
+        return instances(classId, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Override
+    public Stream<InstanceRow> instances(long classId, long fromInstanceId, long toInstanceId)
+            throws SQLException {
         PreparedStatement stmt = connection.prepareStatement(
                 "SELECT instance_id, class_id, file_offset, record_kind, shallow_size, array_length, primitive_type "
-                        + "FROM instance WHERE class_id = ? ORDER BY instance_id");
+                        + "FROM instance WHERE class_id = ? AND instance_id BETWEEN ? AND ? ORDER BY instance_id");
         stmt.setLong(1, classId);
+        stmt.setLong(2, fromInstanceId);
+        stmt.setLong(3, toInstanceId);
         java.sql.ResultSet rs = stmt.executeQuery();
         java.util.Iterator<InstanceRow> it = new java.util.Iterator<>() {
             private boolean hasNext;
@@ -235,6 +265,23 @@ final class TestHeapView implements HeapView {
                 InstanceRow.Kind.fromOrdinal(kindOrdinal), shallowSize, arrayLength, primitiveType);
     }
 
+    @Override
+    public List<InstanceIdSpan> instanceIdSpans(java.util.Collection<Long> classIds) throws SQLException {
+        List<InstanceIdSpan> spans = new ArrayList<>();
+        for (long classId : classIds) {
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "SELECT COUNT(*), MIN(instance_id), MAX(instance_id) FROM instance WHERE class_id = ?")) {
+                stmt.setLong(1, classId);
+                try (java.sql.ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next() && rs.getLong(1) > 0) {
+                        spans.add(new InstanceIdSpan(classId, rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+                    }
+                }
+            }
+        }
+        return spans;
+    }
+
     @Override
     public long instanceCount(long classId) {
         throw new UnsupportedOperationException();
@@ -381,9 +428,15 @@ final class TestHeapView implements HeapView {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * A view over a duplicated connection to the same in-memory database, so
+     * parallel scan workers never share a connection. The canned content is
+     * shared as-is; tests seed it before running a query.
+     */
     @Override
-    public HeapView openReadOnlyCopy() {
-        throw new UnsupportedOperationException();
+    public HeapView openReadOnlyCopy() throws SQLException {
+        Connection duplicate = connection.unwrap(DuckDBConnection.class).duplicate();
+        return new TestHeapView(duplicate, true, cannedFields, cannedPrimitiveArrays, cannedStrings);
     }
 
     @Override
@@ -26,6 +26,8 @@ import cafe.jeffrey.frameir.Frame;
 import cafe.jeffrey.frameir.RecordsFrameIterator;
 import cafe.jeffrey.profile.common.config.GraphParameters;
 import cafe.jeffrey.profile.common.event.GarbageCollectorType;
+import cafe.jeffrey.shared.common.Schedulers;
+import cafe.jeffrey.shared.common.exception.Exceptions;
 import cafe.jeffrey.shared.common.model.EventSourceResolver;
 import cafe.jeffrey.shared.common.model.EventSummary;
 import cafe.jeffrey.shared.common.model.ProfileInfo;
@@ -35,8 +37,10 @@ import cafe.jeffrey.shared.common.settings.ActiveSetting;
 import cafe.jeffrey.shared.common.settings.ActiveSettings;
 import cafe.jeffrey.profile.guardian.definition.GuardDefinition;
 import cafe.jeffrey.profile.guardian.definition.GuardDefinitions;
+import cafe.jeffrey.profile.guardian.definition.GuardSpecFactory;
 import cafe.jeffrey.profile.guardian.guard.ConfigurableGuard;
 import cafe.jeffrey.profile.guardian.guard.Guard;
+import cafe.jeffrey.profile.guardian.matcher.FrameNameMatchSet;
 import cafe.jeffrey.profile.guardian.preconditions.GuardianInformation;
 import cafe.jeffrey.profile.guardian.preconditions.GuardianInformationBuilder;
 import cafe.jeffrey.profile.guardian.preconditions.Preconditions;
@@ -53,6 +57,10 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 public class Guardian {
@@ -69,6 +77,8 @@ public class Guardian {
     private final ProfileEventTypeRepository eventTypeRepository;
     private final ActiveSettings activeSettings;
     private final GuardDefinitions definitions;
+    private final GuardianRuns runs;
+    private final ExecutorService executor;
 
     public Guardian(
             ProfileInfo profileInfo,
@@ -76,8 +86,30 @@ public class Guardian {
             ProfileEventStreamRepository eventStreamRepository,
             ProfileEventTypeRepository eventTypeRepository,
             ActiveSettings activeSettings,
-            GuardDefinitions definitions) {
+            GuardDefinitions definitions,
+            GuardianRuns runs) {
 
+        this(profileInfo, eventRepository, eventStreamRepository, eventTypeRepository, activeSettings, definitions,
+                runs, Schedulers.sharedBulkParallel());
+    }
+
+    /**
+     * @param runs     registers the evaluation so that deleting the profile cancels it
+     * @param executor runs the per-event-type evaluations; its size bounds how many frame trees are
+     *                 held in memory at once
+     */
+    public Guardian(
+            ProfileInfo profileInfo,
+            ProfileEventRepository eventRepository,
+            ProfileEventStreamRepository eventStreamRepository,
+            ProfileEventTypeRepository eventTypeRepository,
+            ActiveSettings activeSettings,
+            GuardDefinitions definitions,
+            GuardianRuns runs,
+            ExecutorService executor) {
+
+        this.executor = executor;
+        this.runs = runs;
         this.profileInfo = profileInfo;
         this.eventRepository = eventRepository;
         this.eventStreamRepository = eventStreamRepository;
@@ -124,20 +156,60 @@ public class Guardian {
         Map<String, List<GuardDefinition>> byEventType = definitions.all().stream()
                 .collect(Collectors.groupingBy(GuardDefinition::eventType, LinkedHashMap::new, Collectors.toList()));
 
-        for (Map.Entry<String, List<GuardDefinition>> entry : byEventType.entrySet()) {
-            // One span per event type rather than per guard: the cost here is building the frame
-            // tree and traversing it once, which every guard for that type shares. Individual
-            // guards are visitors over that tree, so timing them separately would measure noise.
-            // The event type is part of the name because the set of types is bounded, and a
-            // waterfall of identically-named children could not be told apart without clicking.
-            String spanName = GUARDIAN_SPAN_PREFIX + entry.getKey();
-            results.addAll(Tracer.call(spanName, () ->
-                    evaluateEventType(entry.getKey(), entry.getValue(), samplesByEventType, preconditions)));
-        }
+        // Event types are independent (CPU, allocation, wall-clock and lock trees share nothing), so
+        // each one is built and traversed as its own task on the bounded bulk pool. Results are
+        // collected in the definition order, which keeps the output identical to a serial run.
+        try (GuardianRuns.Run run = runs.start(profileInfo.id())) {
+            List<Future<List<GuardianResult>>> evaluations = new ArrayList<>();
+            for (Map.Entry<String, List<GuardDefinition>> entry : byEventType.entrySet()) {
+                // One span per event type rather than per guard: the cost here is building the frame
+                // tree and traversing it once, which every guard for that type shares. Individual
+                // guards are visitors over that tree, so timing them separately would measure noise.
+                // The event type is part of the name because the set of types is bounded, and a
+                // waterfall of identically-named children could not be told apart without clicking.
+                String spanName = GUARDIAN_SPAN_PREFIX + entry.getKey();
+                Future<List<GuardianResult>> evaluation = executor.submit(Tracer.forkCallable(spanName, () ->
+                        evaluateEventType(entry.getKey(), entry.getValue(), samplesByEventType, preconditions)));
+                evaluations.add(evaluation);
+                run.track(evaluation);
+            }
 
+            results.addAll(awaitAll(evaluations));
+        }
         return results;
     }
 
+    /**
+     * Waits for the per-event-type evaluations in submission order. If the profile's runs are
+     * cancelled in {@link GuardianRuns} (the profile is being deleted), the waiting thread is
+     * interrupted, or any evaluation fails, the remaining ones are cancelled instead of running
+     * their traversals to completion; nothing partial is returned, so no incomplete analysis gets
+     * cached.
+     */
+    private static List<GuardianResult> awaitAll(List<Future<List<GuardianResult>>> evaluations) {
+        List<GuardianResult> results = new ArrayList<>();
+        try {
+            for (Future<List<GuardianResult>> evaluation : evaluations) {
+                results.addAll(evaluation.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Guardian evaluation was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw Exceptions.internal("Guardian evaluation failed", (Exception) e.getCause());
+        } finally {
+            // No-op for the completed ones
+            evaluations.forEach(evaluation -> evaluation.cancel(true));
+        }
+    }
+
     private List<GuardianResult> evaluateEventType(
             String eventType,
             List<GuardDefinition> eventTypeDefinitions,
@@ -145,8 +217,11 @@ public class Guardian {
             Preconditions preconditions) {
 
         Guard.ProfileInfo guardProfileInfo = new Guard.ProfileInfo(profileInfo.id(), Type.fromCode(eventType));
+        // All guards of the event type share one compiled matcher: each frame name is tested against
+        // every guard's predicates in a single pass and memoized, instead of once per guard.
+        FrameNameMatchSet matchSet = GuardSpecFactory.compile(eventTypeDefinitions);
         List<ConfigurableGuard> guards = eventTypeDefinitions.stream()
-                .map(definition -> new ConfigurableGuard(guardProfileInfo, definition))
+                .map(definition -> new ConfigurableGuard(guardProfileInfo, definition, matchSet))
                 .toList();
 
         long availableSamples = samplesByEventType.getOrDefault(eventType, 0L);
@@ -169,6 +244,11 @@ public class Guardian {
                         .build();
                 Frame frame = new RecordsFrameIterator(params, eventStreamRepository).iterate();
                 new FrameTraversal(frame).traverseWith(applicable);
+
+                // The traversal stops early when the task is cancelled, its guards saw only part of the tree
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Guardian evaluation was cancelled: event_type=" + eventType);
+                }
             }
         }
 
@@ -0,0 +1,105 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2024 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.profile.guardian;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+
+/**
+ * The in-flight Guardian evaluations per profile, so that deleting a profile can stop them.
+ *
+ * <p>Process-wide, because the Guardian instances are rebuilt per request and the thread waiting for an
+ * evaluation is a background initializer that nobody interrupts. Cancelling a profile cancels the
+ * per-event-type tasks of its runs, which interrupts their traversals and makes the waiting
+ * {@link Guardian#process()} throw a {@link java.util.concurrent.CancellationException}.</p>
+ */
+public final class GuardianRuns {
+
+    private final ConcurrentMap<String, Set<Run>> runsByProfile = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a new evaluation of the profile. The returned run must be closed once the evaluation
+     * finishes, successfully or not.
+     */
+    public Run start(String profileId) {
+        Run run = new Run(profileId);
+        // The sets are only mutated inside compute(), which makes them safe against a concurrent cancel
+        runsByProfile.compute(profileId, (_, runs) -> {
+            Set<Run> current = runs == null ? new HashSet<>() : runs;
+            current.add(run);
+            return current;
+        });
+        return run;
+    }
+
+    /**
+     * Cancels every in-flight evaluation of the profile, including the tasks those evaluations have not
+     * submitted yet. Evaluations started afterward are not affected.
+     */
+    public void cancel(String profileId) {
+        Set<Run> runs = runsByProfile.remove(profileId);
+        if (runs != null) {
+            runs.forEach(Run::cancel);
+        }
+    }
+
+    /**
+     * One evaluation of a profile: collects the tasks it submits so they can be cancelled together.
+     */
+    public final class Run implements AutoCloseable {
+
+        private final String profileId;
+        private final List<Future<?>> tasks = new ArrayList<>();
+        private boolean cancelled;
+
+        private Run(String profileId) {
+            this.profileId = profileId;
+        }
+
+        /**
+         * Tracks a submitted task of this evaluation; a task submitted after the cancellation is
+         * cancelled right away.
+         */
+        public synchronized void track(Future<?> task) {
+            if (cancelled) {
+                task.cancel(true);
+            } else {
+                tasks.add(task);
+            }
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            tasks.forEach(task -> task.cancel(true));
+        }
+
+        @Override
+        public void close() {
+            runsByProfile.computeIfPresent(profileId, (_, runs) -> {
+                runs.remove(this);
+                return runs.isEmpty() ? null : runs;
+            });
+        }
+    }
+}
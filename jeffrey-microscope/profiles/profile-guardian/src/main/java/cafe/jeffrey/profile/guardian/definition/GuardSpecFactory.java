@@ -20,12 +20,15 @@ package cafe.jeffrey.profile.guardian.definition;
 
 import cafe.jeffrey.profile.guardian.matcher.ExpressionFrameMatcher;
 import cafe.jeffrey.profile.guardian.matcher.FrameMatcher;
+import cafe.jeffrey.profile.guardian.matcher.FrameNameMatchSet;
 import cafe.jeffrey.profile.guardian.traverse.BaseWithMatcherTraverser;
 import cafe.jeffrey.profile.guardian.traverse.CurrentFrameTraverser;
 import cafe.jeffrey.profile.guardian.traverse.NameBasedSingleTraverser;
 import cafe.jeffrey.profile.guardian.traverse.Traversable;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -54,20 +57,49 @@ public final class GuardSpecFactory {
         };
     }
 
+    /**
+     * Compiles the anchors and traversal matchers of all {@code definitions} into one
+     * {@link FrameNameMatchSet}, so a traversal running all of them tests each frame name once.
+     */
+    public static FrameNameMatchSet compile(List<GuardDefinition> definitions) {
+        List<MatchExpr> expressions = new ArrayList<>();
+        for (GuardDefinition definition : definitions) {
+            expressions.add(definition.anchor());
+            if (definition.traversal() instanceof TraversalStrategy.Descend(List<TraversalStrategy.Step> steps)) {
+                for (TraversalStrategy.Step step : steps) {
+                    if (step instanceof TraversalStrategy.Step.ByMatcher(MatchExpr base, MatchExpr target)) {
+                        expressions.add(base);
+                        expressions.add(target);
+                    }
+                }
+            }
+        }
+        return FrameNameMatchSet.compile(expressions);
+    }
+
     /** Builds the supplier of traversers that walk from the anchor frame to the observed frames. */
     public static Supplier<List<Traversable>> toTraversables(TraversalStrategy strategy) {
+        return toTraversables(strategy, GuardSpecFactory::toMatcher);
+    }
+
+    /** Same as {@link #toTraversables(TraversalStrategy)}, resolving matchers through {@code matchers}. */
+    public static Supplier<List<Traversable>> toTraversables(
+            TraversalStrategy strategy, Function<MatchExpr, FrameMatcher> matchers) {
+
         return switch (strategy) {
             case TraversalStrategy.CurrentFrame ignored -> () -> List.of(new CurrentFrameTraverser());
             case TraversalStrategy.Descend(List<TraversalStrategy.Step> steps) ->
-                    () -> steps.stream().map(GuardSpecFactory::toTraverser).toList();
+                    () -> steps.stream().map(step -> toTraverser(step, matchers)).toList();
         };
     }
 
-    private static Traversable toTraverser(TraversalStrategy.Step step) {
+    private static Traversable toTraverser(
+            TraversalStrategy.Step step, Function<MatchExpr, FrameMatcher> matchers) {
+
         return switch (step) {
             case TraversalStrategy.Step.ByName(String frameName) -> new NameBasedSingleTraverser(frameName);
             case TraversalStrategy.Step.ByMatcher(MatchExpr base, MatchExpr target) ->
-                    new BaseWithMatcherTraverser(toMatcher(base), toMatcher(target));
+                    new BaseWithMatcherTraverser(matchers.apply(base), matchers.apply(target));
         };
     }
 }
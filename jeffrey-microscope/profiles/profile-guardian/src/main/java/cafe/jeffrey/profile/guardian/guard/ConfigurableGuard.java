@@ -22,8 +22,11 @@ import cafe.jeffrey.profile.common.analysis.AnalysisResult.Severity;
 import cafe.jeffrey.profile.guardian.Formatter;
 import cafe.jeffrey.profile.guardian.definition.GuardDefinition;
 import cafe.jeffrey.profile.guardian.definition.GuardSpecFactory;
+import cafe.jeffrey.profile.guardian.matcher.FrameNameMatchSet;
 import cafe.jeffrey.profile.guardian.preconditions.Preconditions;
 
+import java.util.List;
+
 /**
  * A single, data-driven guard whose entire behavior comes from a {@link GuardDefinition} loaded from
  * the database. Replaces the ~60 hand-written {@code TraversableGuard} subclasses: the frame matcher,
@@ -35,13 +38,21 @@ public class ConfigurableGuard extends TraversableGuard {
     private final GuardDefinition definition;
 
     public ConfigurableGuard(ProfileInfo profileInfo, GuardDefinition definition) {
+        this(profileInfo, definition, GuardSpecFactory.compile(List.of(definition)));
+    }
+
+    /**
+     * Resolves the anchor and traversal matchers through {@code matchSet}, which must have been
+     * compiled from (at least) this definition — see {@link GuardSpecFactory#compile}.
+     */
+    public ConfigurableGuard(ProfileInfo profileInfo, GuardDefinition definition, FrameNameMatchSet matchSet) {
         super(definition.name(),
                 profileInfo,
                 definition.infoThreshold(),
                 definition.warningThreshold(),
-                GuardSpecFactory.toMatcher(definition.anchor()),
+                matchSet.matcher(definition.anchor()),
                 definition.category(),
-                GuardSpecFactory.toTraversables(definition.traversal()),
+                GuardSpecFactory.toTraversables(definition.traversal(), matchSet::matcher),
                 definition.targetFrameType(),
                 definition.matchingType(),
                 definition.resultType());
@@ -0,0 +1,216 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2024 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.guardian.matcher;
+
+import cafe.jeffrey.profile.guardian.definition.MatchExpr;
+import cafe.jeffrey.profile.guardian.definition.MatchOp;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * All frame-name predicates of one event type's guards compiled together. Literal predicates
+ * (prefix/suffix/contains/equals) go into a single {@link LiteralAutomaton}; regexes that are just an
+ * anchored or {@code .*}-wrapped literal are rewritten into those operators first, the rest stay
+ * {@link Pattern}s. A frame name is evaluated against every predicate at once, the first time it is
+ * seen, and the resulting bit set is memoized — every later guard test on that name is a bit lookup.
+ * <p>
+ * The memo is not synchronized: a match set belongs to one frame-tree traversal.
+ */
+public final class FrameNameMatchSet {
+
+    private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final String ANY = ".*";
+
+    private final Map<MatchExpr.Predicate, Integer> predicateIds;
+    private final LiteralAutomaton automaton;
+    private final int[][] leavesByLiteral;
+    private final int[] literalLengths;
+    private final MatchOp[] leafOps;
+    private final int[] regexLeaves;
+    private final Pattern[] regexes;
+    private final Map<String, BitSet> memo = new HashMap<>();
+
+    private String lastName;
+    private BitSet lastHits;
+
+    private FrameNameMatchSet(List<MatchExpr.Predicate> predicates) {
+        this.predicateIds = new HashMap<>();
+        this.leafOps = new MatchOp[predicates.size()];
+
+        Map<String, List<Integer>> leavesPerLiteral = new LinkedHashMap<>();
+        List<Integer> regexLeaves = new ArrayList<>();
+        List<Pattern> regexes = new ArrayList<>();
+        for (int leaf = 0; leaf < predicates.size(); leaf++) {
+            MatchExpr.Predicate predicate = simplify(predicates.get(leaf));
+            predicateIds.put(predicates.get(leaf), leaf);
+            leafOps[leaf] = predicate.op();
+            if (predicate.op() == MatchOp.REGEX) {
+                regexLeaves.add(leaf);
+                regexes.add(Pattern.compile(predicate.value()));
+            } else {
+                leavesPerLiteral.computeIfAbsent(predicate.value(), k -> new ArrayList<>()).add(leaf);
+            }
+        }
+
+        List<String> literals = List.copyOf(leavesPerLiteral.keySet());
+        this.automaton = literals.isEmpty() ? null : LiteralAutomaton.build(literals);
+        this.leavesByLiteral = new int[literals.size()][];
+        this.literalLengths = new int[literals.size()];
+        for (int i = 0; i < literals.size(); i++) {
+            leavesByLiteral[i] = leavesPerLiteral.get(literals.get(i)).stream().mapToInt(Integer::intValue).toArray();
+            literalLengths[i] = literals.get(i).length();
+        }
+        this.regexLeaves = regexLeaves.stream().mapToInt(Integer::intValue).toArray();
+        this.regexes = regexes.toArray(Pattern[]::new);
+    }
+
+    /**
+     * Compiles every {@link MatchExpr.Predicate} reachable from {@code expressions}; duplicates
+     * across guards are evaluated once.
+     */
+    public static FrameNameMatchSet compile(List<MatchExpr> expressions) {
+        Map<MatchExpr.Predicate, Boolean> predicates = new LinkedHashMap<>();
+        for (MatchExpr expression : expressions) {
+            collect(expression, predicates);
+        }
+        return new FrameNameMatchSet(List.copyOf(predicates.keySet()));
+    }
+
+    /**
+     * Returns a matcher for {@code expr} backed by this set. Every predicate of {@code expr} must
+     * have been part of {@link #compile(List)}.
+     */
+    public FrameMatcher matcher(MatchExpr expr) {
+        return switch (expr) {
+            case MatchExpr.Predicate predicate -> {
+                Integer leaf = predicateIds.get(predicate);
+                if (leaf == null) {
+                    throw new IllegalArgumentException("Predicate was not compiled into this match set: " + predicate);
+                }
+                int bit = leaf;
+                yield frame -> hits(frame.methodName()).get(bit);
+            }
+            case MatchExpr.AnyOf(List<MatchExpr> of) -> of.stream()
+                    .map(this::matcher)
+                    .reduce(FrameMatcher::or)
+                    .orElseThrow();
+            case MatchExpr.AllOf(List<MatchExpr> of) -> of.stream()
+                    .map(this::matcher)
+                    .reduce(FrameMatcher::and)
+                    .orElseThrow();
+            case MatchExpr.Not(MatchExpr inner) -> matcher(inner).negate();
+        };
+    }
+
+    /** Number of distinct predicates compiled into this set. */
+    public int predicateCount() {
+        return leafOps.length;
+    }
+
+    BitSet hits(String name) {
+        // All guards test the same frame back to back, so the last name short-circuits the memo
+        if (name == lastName) {
+            return lastHits;
+        }
+        BitSet hits = memo.computeIfAbsent(name, this::evaluate);
+        lastName = name;
+        lastHits = hits;
+        return hits;
+    }
+
+    private BitSet evaluate(String name) {
+        BitSet hits = new BitSet(leafOps.length);
+        if (automaton != null) {
+            int length = name.length();
+            automaton.scan(name, (literal, end) -> {
+                int start = end - literalLengths[literal];
+                for (int leaf : leavesByLiteral[literal]) {
+                    boolean matched = switch (leafOps[leaf]) {
+                        case CONTAINS -> true;
+                        case PREFIX -> start == 0;
+                        case SUFFIX -> end == length;
+                        case EQUALS -> start == 0 && end == length;
+                        case REGEX -> false;
+                    };
+                    if (matched) {
+                        hits.set(leaf);
+                    }
+                }
+            });
+        }
+        for (int i = 0; i < regexLeaves.length; i++) {
+            if (regexes[i].matcher(name).matches()) {
+                hits.set(regexLeaves[i]);
+            }
+        }
+        return hits;
+    }
+
+    private static void collect(MatchExpr expr, Map<MatchExpr.Predicate, Boolean> predicates) {
+        switch (expr) {
+            case MatchExpr.Predicate predicate -> predicates.putIfAbsent(predicate, Boolean.TRUE);
+            case MatchExpr.AnyOf(List<MatchExpr> of) -> of.forEach(e -> collect(e, predicates));
+            case MatchExpr.AllOf(List<MatchExpr> of) -> of.forEach(e -> collect(e, predicates));
+            case MatchExpr.Not(MatchExpr inner) -> collect(inner, predicates);
+        }
+    }
+
+    /**
+     * Rewrites {@code literal}, {@code literal.*}, {@code .*literal} and {@code .*literal.*} regexes
+     * into the equivalent literal operator so they are matched by the automaton.
+     */
+    static MatchExpr.Predicate simplify(MatchExpr.Predicate predicate) {
+        if (predicate.op() != MatchOp.REGEX) {
+            return predicate;
+        }
+        String regex = predicate.value();
+        boolean leading = regex.startsWith(ANY);
+        String rest = leading ? regex.substring(ANY.length()) : regex;
+        boolean trailing = rest.endsWith(ANY);
+        String literal = trailing ? rest.substring(0, rest.length() - ANY.length()) : rest;
+        if (literal.isBlank() || !isLiteral(literal)) {
+            return predicate;
+        }
+        MatchOp op;
+        if (leading && trailing) {
+            op = MatchOp.CONTAINS;
+        } else if (leading) {
+            op = MatchOp.SUFFIX;
+        } else if (trailing) {
+            op = MatchOp.PREFIX;
+        } else {
+            op = MatchOp.EQUALS;
+        }
+        return new MatchExpr.Predicate(op, literal);
+    }
+
+    private static boolean isLiteral(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(value.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
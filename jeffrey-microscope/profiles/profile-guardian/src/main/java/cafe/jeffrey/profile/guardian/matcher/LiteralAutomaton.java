@@ -0,0 +1,162 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2024 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.guardian.matcher;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over a fixed set of literals. One left-to-right pass over a string reports
+ * every occurrence of every literal, so the cost of matching a frame name no longer grows with the
+ * number of literals the guards use.
+ * <p>
+ * Transitions are kept as sorted {@code char} arrays per state (binary search); output sets are
+ * flattened along the failure links at build time so a match never has to walk them.
+ */
+final class LiteralAutomaton {
+
+    /** Receives the literal id and the exclusive end offset of each occurrence. */
+    @FunctionalInterface
+    interface Occurrence {
+        void found(int literal, int end);
+    }
+
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    private final int[][] outputs;
+
+    private LiteralAutomaton(char[][] labels, int[][] targets, int[] fail, int[][] outputs) {
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Builds the automaton; the id reported for a literal is its index in {@code literals}.
+     */
+    static LiteralAutomaton build(List<String> literals) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(new ArrayList<>());
+
+        for (int id = 0; id < literals.size(); id++) {
+            String literal = literals.get(id);
+            int state = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                Integer next = trie.get(state).get(literal.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(state).put(literal.charAt(i), next);
+                    trie.add(new TreeMap<>());
+                    ends.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            ends.get(state).add(id);
+        }
+
+        int states = trie.size();
+        char[][] labels = new char[states][];
+        int[][] targets = new int[states][];
+        for (int s = 0; s < states; s++) {
+            TreeMap<Character, Integer> edges = trie.get(s);
+            labels[s] = new char[edges.size()];
+            targets[s] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                labels[s][i] = edge.getKey();
+                targets[s][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        // BFS guarantees a state's failure target (strictly shallower) has its outputs complete
+        int[] fail = new int[states];
+        int[][] outputs = new int[states][];
+        outputs[0] = toArray(ends.get(0));
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            fail[child] = 0;
+            queue.add(child);
+        }
+        LiteralAutomaton partial = new LiteralAutomaton(labels, targets, fail, outputs);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = merge(ends.get(state), outputs[fail[state]]);
+            for (int i = 0; i < labels[state].length; i++) {
+                char c = labels[state][i];
+                int child = targets[state][i];
+                fail[child] = partial.transition(fail[state], c);
+                queue.add(child);
+            }
+        }
+        return partial;
+    }
+
+    /**
+     * Reports every literal occurrence in {@code text}, in order of their end offsets.
+     */
+    void scan(String text, Occurrence occurrence) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transition(state, text.charAt(i));
+            for (int literal : outputs[state]) {
+                occurrence.found(literal, i + 1);
+            }
+        }
+    }
+
+    private int transition(int state, char c) {
+        while (true) {
+            int idx = Arrays.binarySearch(labels[state], c);
+            if (idx >= 0) {
+                return targets[state][idx];
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    private static int[] merge(List<Integer> own, int[] inherited) {
+        if (own.isEmpty()) {
+            return inherited;
+        }
+        int[] merged = Arrays.copyOf(toArray(own), own.size() + inherited.length);
+        System.arraycopy(inherited, 0, merged, own.size(), inherited.length);
+        return merged;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        if (values.isEmpty()) {
+            return NO_OUTPUT;
+        }
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
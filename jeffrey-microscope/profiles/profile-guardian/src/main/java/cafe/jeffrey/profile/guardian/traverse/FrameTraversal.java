@@ -37,6 +37,11 @@ public class FrameTraversal {
     }
 
     private Next _traverse(List<? extends Traversable> traversables, Frame frame) {
+        // Cancellation of the evaluating task interrupts the thread, unwind the whole traversal
+        if (Thread.currentThread().isInterrupted()) {
+            return Next.TERMINATE_IMMEDIATELY;
+        }
+
         List<Traversable> continues = new ArrayList<>();
         for (Traversable guard : traversables) {
             Next next = guard.traverse(frame);
@@ -0,0 +1,224 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2024 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.profile.guardian;
+
+import cafe.jeffrey.frameir.Frame;
+import cafe.jeffrey.profile.guardian.definition.GuardDefinition;
+import cafe.jeffrey.profile.guardian.definition.GuardPreconditions;
+import cafe.jeffrey.profile.guardian.definition.MatchExpr;
+import cafe.jeffrey.profile.guardian.definition.TraversalStrategy;
+import cafe.jeffrey.profile.guardian.guard.Guard;
+import cafe.jeffrey.profile.guardian.guard.GuardAnalysisResult;
+import cafe.jeffrey.profile.guardian.traverse.MatchingType;
+import cafe.jeffrey.profile.guardian.traverse.ResultType;
+import cafe.jeffrey.profile.guardian.traverse.TargetFrameType;
+import cafe.jeffrey.provider.profile.api.EventQueryConfigurer;
+import cafe.jeffrey.provider.profile.api.ProfileEventRepository;
+import cafe.jeffrey.provider.profile.api.ProfileEventStreamRepository;
+import cafe.jeffrey.provider.profile.api.ProfileEventTypeRepository;
+import cafe.jeffrey.shared.common.model.EventSubtype;
+import cafe.jeffrey.shared.common.model.EventSummary;
+import cafe.jeffrey.shared.common.model.ProfileInfo;
+import cafe.jeffrey.shared.common.model.RecordingEventSource;
+import cafe.jeffrey.shared.common.model.Type;
+import cafe.jeffrey.shared.common.settings.ActiveSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static cafe.jeffrey.profile.guardian.FrameTreeFactory.node;
+import static cafe.jeffrey.profile.guardian.FrameTreeFactory.withChildren;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Guardian")
+class GuardianTest {
+
+    private static final String PROFILE_ID = "profile-1";
+    private static final Instant T0 = Instant.parse("2026-04-01T10:00:00Z");
+
+    @Mock
+    ProfileEventRepository eventRepository;
+
+    @Mock
+    ProfileEventStreamRepository eventStreamRepository;
+
+    @Mock
+    ProfileEventTypeRepository eventTypeRepository;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final GuardianRuns runs = new GuardianRuns();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Guardian guardian(GuardDefinition... definitions) {
+        when(eventTypeRepository.eventSummaries()).thenReturn(List.of(
+                summary(Type.EXECUTION_SAMPLE), summary(Type.OBJECT_ALLOCATION_SAMPLE)));
+
+        ProfileInfo profileInfo = new ProfileInfo(
+                PROFILE_ID, "proj", "ws", "name", RecordingEventSource.JDK,
+                T0, T0.plusSeconds(120), T0, true, false, "rec");
+
+        return new Guardian(
+                profileInfo, eventRepository, eventStreamRepository, eventTypeRepository,
+                new ActiveSettings(Map.of()), () -> List.of(definitions), runs, executor);
+    }
+
+    private void streamFrames(Answer<Frame> answer) {
+        when(eventStreamRepository.flamegraphStreamer(any(), any())).thenAnswer(answer);
+    }
+
+    private static Type eventTypeOf(EventQueryConfigurer configurer) {
+        return configurer.eventTypes().getFirst();
+    }
+
+    private static EventSummary summary(Type type) {
+        return new EventSummary(type.code(), type.code(), RecordingEventSource.JDK,
+                EventSubtype.EXECUTION_SAMPLE, 100, 100, true, false,
+                List.of(), Map.of(), Map.of());
+    }
+
+    private static GuardDefinition definition(String name, Type eventType) {
+        return new GuardDefinition(
+                name, name, true, false,
+                eventType.code(), Guard.Category.APPLICATION,
+                ResultType.SAMPLES, TargetFrameType.JAVA, MatchingType.FULL_MATCH,
+                0.1, 0.2, 1,
+                MatchExpr.prefix("com.acme"), TraversalStrategy.CURRENT_FRAME,
+                GuardPreconditions.NONE, "Acme activity", "explanation", "solution");
+    }
+
+    private static Frame tree() {
+        return withChildren(
+                node("root", 100, 0),
+                node("com.acme.Service#work", 10, 10),
+                node("org.other.Thing#run", 90, 90));
+    }
+
+    /** The guard names in result order, without the prerequisites that always come first. */
+    private static List<String> guardRules(List<GuardianResult> results) {
+        return results.stream()
+                .map(GuardianResult::analysisItem)
+                .filter(item -> item.category() != Guard.Category.PREREQUISITES)
+                .map(GuardAnalysisResult::rule)
+                .toList();
+    }
+
+    @Nested
+    @DisplayName("process()")
+    class Process {
+
+        @Test
+        @DisplayName("Returns the results in definition order whichever event type finishes first")
+        void resultsFollowDefinitionOrder() {
+            // The execution-sample tree is only handed over once the allocation one was, so the
+            // event type submitted first is the last one to finish
+            CountDownLatch allocationStreamed = new CountDownLatch(1);
+            streamFrames(invocation -> {
+                if (eventTypeOf(invocation.getArgument(0)).equals(Type.OBJECT_ALLOCATION_SAMPLE)) {
+                    allocationStreamed.countDown();
+                } else {
+                    assertTrue(allocationStreamed.await(5, TimeUnit.SECONDS));
+                }
+                return tree();
+            });
+
+            List<GuardianResult> results = guardian(
+                    definition("cpu-first", Type.EXECUTION_SAMPLE),
+                    definition("alloc", Type.OBJECT_ALLOCATION_SAMPLE),
+                    definition("cpu-second", Type.EXECUTION_SAMPLE))
+                    .process();
+
+            assertEquals(List.of("cpu-first", "cpu-second", "alloc"), guardRules(results));
+        }
+
+        @Test
+        @DisplayName("Propagates the failure of a single event type")
+        void failingEventTypePropagates() {
+            streamFrames(invocation -> {
+                if (eventTypeOf(invocation.getArgument(0)).equals(Type.OBJECT_ALLOCATION_SAMPLE)) {
+                    throw new IllegalStateException("allocation tree is broken");
+                }
+                return tree();
+            });
+
+            Guardian guardian = guardian(
+                    definition("cpu", Type.EXECUTION_SAMPLE),
+                    definition("alloc", Type.OBJECT_ALLOCATION_SAMPLE));
+
+            IllegalStateException failure = assertThrows(IllegalStateException.class, guardian::process);
+            assertEquals("allocation tree is broken", failure.getMessage());
+        }
+
+        @Test
+        @DisplayName("Is cancelled together with the profile's runs and interrupts its traversals")
+        void cancelledByProfileRuns() throws Exception {
+            CountDownLatch streaming = new CountDownLatch(1);
+            CountDownLatch interrupted = new CountDownLatch(1);
+            streamFrames(invocation -> {
+                streaming.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    // Hand the tree over like a streamer cut short would, the traversal then unwinds
+                    interrupted.countDown();
+                    Thread.currentThread().interrupt();
+                }
+                return tree();
+            });
+
+            Guardian guardian = guardian(definition("cpu", Type.EXECUTION_SAMPLE));
+            try (ExecutorService caller = Executors.newSingleThreadExecutor()) {
+                Future<List<GuardianResult>> processing = caller.submit(guardian::process);
+                assertTrue(streaming.await(5, TimeUnit.SECONDS));
+
+                runs.cancel(PROFILE_ID);
+
+                ExecutionException failure = assertThrows(
+                        ExecutionException.class, () -> processing.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(CancellationException.class, failure.getCause());
+                assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.profile.guardian.matcher;
+
+import cafe.jeffrey.frameir.Frame;
+import cafe.jeffrey.profile.guardian.definition.MatchExpr;
+import cafe.jeffrey.profile.guardian.definition.MatchOp;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static cafe.jeffrey.profile.guardian.FrameTreeFactory.node;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameNameMatchSetTest {
+
+    private static final List<MatchExpr> PREDICATES = List.of(
+            new MatchExpr.Predicate(MatchOp.PREFIX, "java.util.concurrent"),
+            new MatchExpr.Predicate(MatchOp.PREFIX, "java.util"),
+            new MatchExpr.Predicate(MatchOp.SUFFIX, "#lock"),
+            new MatchExpr.Predicate(MatchOp.CONTAINS, "Lock"),
+            new MatchExpr.Predicate(MatchOp.EQUALS, "java.util.concurrent.locks.ReentrantLock#lock"),
+            new MatchExpr.Predicate(MatchOp.REGEX, ".*Reentrant.*"),
+            new MatchExpr.Predicate(MatchOp.REGEX, "java\\.util\\..*Lock#(un)?lock"));
+
+    private static final List<String> NAMES = List.of(
+            "java.util.concurrent.locks.ReentrantLock#lock",
+            "java.util.concurrent.locks.ReentrantLock#unlock",
+            "java.util.HashMap#get",
+            "com.acme.Lock#lock",
+            "lock",
+            "");
+
+    @Test
+    void agreesWithPerPredicateMatching() {
+        FrameNameMatchSet matchSet = FrameNameMatchSet.compile(PREDICATES);
+
+        for (String name : NAMES) {
+            Frame frame = node(name, 1, 1);
+            for (MatchExpr expr : PREDICATES) {
+                MatchExpr.Predicate predicate = (MatchExpr.Predicate) expr;
+                boolean expected = new ExpressionFrameMatcher(predicate.op(), predicate.value()).matches(frame);
+                assertEquals(expected, matchSet.matcher(expr).matches(frame), predicate + " on '" + name + "'");
+            }
+        }
+    }
+
+    @Test
+    void composesBooleanExpressions() {
+        MatchExpr expr = new MatchExpr.AllOf(List.of(
+                MatchExpr.prefix("java.util"),
+                new MatchExpr.Not(MatchExpr.suffix("#unlock"))));
+        FrameMatcher matcher = FrameNameMatchSet.compile(List.of(expr)).matcher(expr);
+
+        assertTrue(matcher.matches(node("java.util.concurrent.locks.ReentrantLock#lock", 1, 1)));
+        assertFalse(matcher.matches(node("java.util.concurrent.locks.ReentrantLock#unlock", 1, 1)));
+        assertFalse(matcher.matches(node("com.acme.Service#lock", 1, 1)));
+    }
+
+    @Test
+    void deduplicatesPredicatesAcrossExpressions() {
+        FrameNameMatchSet matchSet = FrameNameMatchSet.compile(List.of(
+                MatchExpr.prefix("com.acme"),
+                MatchExpr.anyOf(MatchExpr.prefix("com.acme"), MatchExpr.suffix("#run"))));
+
+        assertEquals(2, matchSet.predicateCount());
+    }
+
+    @Test
+    void memoizesHitsPerName() {
+        FrameNameMatchSet matchSet = FrameNameMatchSet.compile(List.of(MatchExpr.prefix("com.acme")));
+
+        assertSame(matchSet.hits("com.acme.Service#work"), matchSet.hits(new String("com.acme.Service#work")));
+    }
+
+    @Test
+    void rewritesLiteralRegexesIntoLiteralOperators() {
+        assertEquals(new MatchExpr.Predicate(MatchOp.PREFIX, "Reentrant"),
+                FrameNameMatchSet.simplify(new MatchExpr.Predicate(MatchOp.REGEX, "Reentrant.*")));
+        assertEquals(new MatchExpr.Predicate(MatchOp.CONTAINS, "Reentrant"),
+                FrameNameMatchSet.simplify(new MatchExpr.Predicate(MatchOp.REGEX, ".*Reentrant.*")));
+        assertEquals(new MatchExpr.Predicate(MatchOp.EQUALS, "Reentrant"),
+                FrameNameMatchSet.simplify(new MatchExpr.Predicate(MatchOp.REGEX, "Reentrant")));
+
+        MatchExpr.Predicate dotted = new MatchExpr.Predicate(MatchOp.REGEX, "java.util.*");
+        assertSame(dotted, FrameNameMatchSet.simplify(dotted));
+    }
+
+    @Test
+    void rejectsUncompiledPredicate() {
+        FrameNameMatchSet matchSet = FrameNameMatchSet.compile(List.of(MatchExpr.prefix("com.acme")));
+
+        assertThrows(IllegalArgumentException.class, () -> matchSet.matcher(MatchExpr.suffix("#run")));
+    }
+}
@@ -18,6 +18,8 @@
 
 package cafe.jeffrey.profile.manager.heapdump;
 
+import cafe.jeffrey.profile.heapdump.parser.HprofMappedFile;
+import cafe.jeffrey.shared.common.compression.GzipDecompressor;
 import cafe.jeffrey.shared.common.measure.Elapsed;
 import cafe.jeffrey.shared.common.measure.Measuring;
 import cafe.jeffrey.shared.common.model.repository.FileExtensions;
@@ -25,25 +27,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.UUID;
-import java.util.zip.GZIPInputStream;
 
 /**
  * Resolves the analyzable {@code .hprof} path for a heap dump that may have
  * been captured gzip-compressed ({@code .hprof.gz}). The native parser mmaps
  * raw HPROF bytes, so a gzipped dump is decompressed once into a sibling
- * {@code .hprof} file; that sibling then owns the DuckDB index sidecar and is
- * the path every analysis opens.
+ * {@code .hprof} file by the pipelined {@link GzipDecompressor}; that sibling
+ * then owns the DuckDB index sidecar and is the path every analysis opens.
  *
  * <p>Decompression is idempotent: the sibling is reused while it is at least
  * as new as the gzipped source. Concurrent callers may decompress twice, but
  * each writes to a unique temp file and atomically moves it into place, so
  * readers never observe a partially written dump.</p>
+ *
+ * <p>A dump written with {@code -XX:HeapDumpGzipLevel} consists of independent
+ * gzip members that {@link HprofMappedFile} reads in place, so such a file is
+ * its own analyzable path and is never decompressed.</p>
  */
 public final class HeapDumpDecompressor {
 
@@ -64,12 +68,40 @@ public final class HeapDumpDecompressor {
         return heapDumpPath.getFileName().toString().toLowerCase().endsWith(GZIPPED_HPROF_SUFFIX);
     }
 
+    /**
+     * {@code true} for a gzipped dump made of independent gzip members, which
+     * is analyzed in place. Reads only the first gzip header; a missing or
+     * unreadable file is reported as not random-access.
+     */
+    public static boolean isRandomAccess(Path heapDumpPath) {
+        if (!isGzipped(heapDumpPath) || !Files.isRegularFile(heapDumpPath)) {
+            return false;
+        }
+        try {
+            return HprofMappedFile.isRandomAccessGzip(heapDumpPath);
+        } catch (IOException e) {
+            LOG.warn("Cannot probe gzipped heap dump header: path={} error={}", heapDumpPath, e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * The path analyses (and the index sidecar) are keyed on: the sibling
-     * {@code .hprof} for a gzipped dump, the path itself otherwise. Does not
-     * touch the filesystem.
+     * {@code .hprof} for a gzipped dump, the path itself for a plain or a
+     * random-access gzipped dump.
      */
     public static Path analyzablePath(Path heapDumpPath) {
+        if (!isGzipped(heapDumpPath) || isRandomAccess(heapDumpPath)) {
+            return heapDumpPath;
+        }
+        return decompressedPath(heapDumpPath);
+    }
+
+    /**
+     * The sibling {@code .hprof} a gzipped dump decompresses into, whether or
+     * not the dump is actually decompressed. Does not touch the filesystem.
+     */
+    public static Path decompressedPath(Path heapDumpPath) {
         if (!isGzipped(heapDumpPath)) {
             return heapDumpPath;
         }
@@ -86,8 +118,12 @@ public final class HeapDumpDecompressor {
         if (!isGzipped(heapDumpPath)) {
             return heapDumpPath;
         }
+        if (isRandomAccess(heapDumpPath)) {
+            LOG.debug("Reading chunked gzip heap dump in place: path={}", heapDumpPath);
+            return heapDumpPath;
+        }
 
-        Path target = analyzablePath(heapDumpPath);
+        Path target = decompressedPath(heapDumpPath);
         if (isUpToDate(target, heapDumpPath)) {
             return target;
         }
@@ -116,8 +152,8 @@ public final class HeapDumpDecompressor {
     }
 
     private static long decompressToFile(Path gzSource, Path targetFile) {
-        try (InputStream gzipStream = new GZIPInputStream(Files.newInputStream(gzSource))) {
-            return Files.copy(gzipStream, targetFile);
+        try {
+            return GzipDecompressor.decompress(gzSource, targetFile);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
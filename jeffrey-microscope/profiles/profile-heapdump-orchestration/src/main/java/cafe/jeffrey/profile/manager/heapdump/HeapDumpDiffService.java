@@ -20,11 +20,17 @@ package cafe.jeffrey.profile.manager.heapdump;
 
 import cafe.jeffrey.profile.heapdump.model.ClassDiffEntry;
 import cafe.jeffrey.profile.heapdump.model.ClassHistogramEntry;
+import cafe.jeffrey.profile.heapdump.model.DominatorPathDiffEntry;
 import cafe.jeffrey.profile.heapdump.model.HeapDumpDiffReport;
+import cafe.jeffrey.profile.heapdump.model.HeapDumpPathDiffReport;
 import cafe.jeffrey.profile.heapdump.model.HeapSummary;
 import cafe.jeffrey.profile.heapdump.model.SortBy;
+import cafe.jeffrey.profile.heapdump.persistence.DominatorPathDiff;
 import cafe.jeffrey.shared.common.exception.Exceptions;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -34,6 +40,8 @@ import java.util.Map;
  * Compares two profiles' heap dumps by class histogram — the before/after leak
  * workflow. Mirrors the differential-flamegraph pattern: both sides keep their
  * own index database and the merge happens in Java keyed by class name.
+ * The object-level {@link #diffPaths} variant instead joins the two indexes'
+ * dominator-path tables inside DuckDB.
  */
 public final class HeapDumpDiffService {
 
@@ -84,6 +92,39 @@ public final class HeapDumpDiffService {
                 primarySummary, baselineSummary, instanceCountDelta, shallowBytesDelta, entries);
     }
 
+    /**
+     * Builds the object-level diff: dominator subtrees of both dumps matched by
+     * GC-root kind and class path, ranked by retained-size growth. Builds the
+     * dominator tree of either side first when it is missing.
+     *
+     * @param topN cap for the returned entries (ordered by absolute
+     *             retained-bytes delta descending)
+     */
+    public static HeapDumpPathDiffReport diffPaths(HeapDumpManager primary, HeapDumpManager baseline, int topN) {
+        if (topN <= 0) {
+            throw new IllegalArgumentException("topN must be positive: topN=" + topN);
+        }
+        requireInitialized(primary, "primary");
+        requireInitialized(baseline, "baseline");
+
+        Path primaryIndex = requireIndex(primary, "primary");
+        Path baselineIndex = requireIndex(baseline, "baseline");
+
+        List<DominatorPathDiffEntry> entries;
+        try {
+            entries = DominatorPathDiff.diff(primaryIndex, baselineIndex, topN);
+        } catch (SQLException | IOException e) {
+            throw Exceptions.internal("Failed to diff dominator paths of the heap dumps", e);
+        }
+        return new HeapDumpPathDiffReport(primary.getSummary(), baseline.getSummary(), entries);
+    }
+
+    private static Path requireIndex(HeapDumpManager manager, String side) {
+        return manager.getDominatorIndexPath()
+                .orElseThrow(() -> Exceptions.invalidRequest(
+                        "No heap dump available for the " + side + " profile"));
+    }
+
     private static void requireInitialized(HeapDumpManager manager, String side) {
         if (!manager.heapDumpExists()) {
             throw Exceptions.invalidRequest(
@@ -19,6 +19,7 @@
 package cafe.jeffrey.profile.manager.heapdump;
 
 import cafe.jeffrey.profile.heapdump.model.ClassHistogramEntry;
+import cafe.jeffrey.profile.heapdump.model.ClassRetainedSizeEntry;
 import cafe.jeffrey.profile.heapdump.model.IndexBuildProgressListener;
 import cafe.jeffrey.profile.heapdump.model.ClassInstancesResponse;
 import cafe.jeffrey.profile.heapdump.model.ClassLoaderDetail;
@@ -44,6 +45,7 @@ import cafe.jeffrey.profile.heapdump.model.BiggestObjectsReport;
 import cafe.jeffrey.profile.heapdump.model.LeakSuspectsReport;
 import cafe.jeffrey.profile.heapdump.model.OQLQueryRequest;
 import cafe.jeffrey.profile.heapdump.model.OQLQueryResult;
+import cafe.jeffrey.profile.heapdump.model.RetainedSizeEstimate;
 import cafe.jeffrey.profile.heapdump.model.SortBy;
 import cafe.jeffrey.profile.heapdump.model.ConsumerReport;
 import cafe.jeffrey.profile.heapdump.model.DuplicateDataReport;
@@ -54,6 +56,7 @@ import cafe.jeffrey.profile.heapdump.model.ThreadStackFrame;
 import cafe.jeffrey.shared.common.model.ProfileInfo;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -128,6 +131,26 @@ public interface HeapDumpManager {
      */
     List<ClassHistogramEntry> getClassHistogram(int topN, SortBy sortBy);
 
+    /**
+     * Get retained sizes of the top classes by shallow size without waiting
+     * for the dominator tree. When the tree is not built yet, schedules its
+     * build in the background and answers from bounded sub-graph walks;
+     * entries whose walk hit the node budget are flagged as approximate.
+     *
+     * @param topN number of top classes (by shallow size) to estimate
+     * @return list of class entries with their retained sizes
+     */
+    List<ClassRetainedSizeEntry> getClassRetainedSizes(int topN);
+
+    /**
+     * Get the retained size of a single instance: exact once the dominator tree
+     * exists, otherwise an estimate (and a background build is scheduled).
+     *
+     * @param objectId instance id
+     * @return retained size estimate, or null when no heap dump is available
+     */
+    RetainedSizeEstimate getRetainedSizeEstimate(long objectId);
+
     /**
      * Execute an OQL query.
      *
@@ -272,6 +295,15 @@ public interface HeapDumpManager {
      */
     List<SubPhaseTiming> runComputeDominator();
 
+    /**
+     * Builds the dominator tree if needed and returns the path of the index
+     * database holding it, so two dumps can be diffed directly on their
+     * {@code dominator_path} tables.
+     *
+     * @return index database path, or empty when no heap dump is available
+     */
+    Optional<Path> getDominatorIndexPath();
+
     /**
      * Get detailed information about an instance including all its fields.
      *
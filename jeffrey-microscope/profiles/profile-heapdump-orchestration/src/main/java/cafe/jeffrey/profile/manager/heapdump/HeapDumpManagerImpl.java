@@ -18,6 +18,7 @@
 
 package cafe.jeffrey.profile.manager.heapdump;
 
+import cafe.jeffrey.profile.heapdump.analyzer.heapview.ApproximateRetainedSizeAnalyzer;
 import cafe.jeffrey.profile.heapdump.analyzer.heapview.ClassHistogramAnalyzer;
 import cafe.jeffrey.profile.manager.additional.AdditionalFilesManager;
 import cafe.jeffrey.profile.heapdump.analyzer.heapview.ClassInstanceBrowserAnalyzer;
@@ -38,6 +39,7 @@ import cafe.jeffrey.profile.heapdump.model.BiggestCollectionsReport;
 import cafe.jeffrey.profile.heapdump.model.IndexBuildProgressListener;
 import cafe.jeffrey.profile.heapdump.model.BiggestObjectsReport;
 import cafe.jeffrey.profile.heapdump.model.ClassHistogramEntry;
+import cafe.jeffrey.profile.heapdump.model.ClassRetainedSizeEntry;
 import cafe.jeffrey.profile.heapdump.model.ClassInstancesResponse;
 import cafe.jeffrey.profile.heapdump.model.ClassLoaderDetail;
 import cafe.jeffrey.profile.heapdump.model.ClassLoaderReport;
@@ -64,6 +66,7 @@ import cafe.jeffrey.profile.heapdump.model.InstanceTreeResponse;
 import cafe.jeffrey.profile.heapdump.model.LeakSuspectsReport;
 import cafe.jeffrey.profile.heapdump.model.OQLQueryRequest;
 import cafe.jeffrey.profile.heapdump.model.OQLQueryResult;
+import cafe.jeffrey.profile.heapdump.model.RetainedSizeEstimate;
 import cafe.jeffrey.profile.heapdump.model.SortBy;
 import cafe.jeffrey.profile.heapdump.model.StringAnalysisReport;
 import cafe.jeffrey.profile.common.pipeline.SubPhaseTiming;
@@ -73,6 +76,7 @@ import cafe.jeffrey.profile.heapdump.oql.OqlEngine;
 import cafe.jeffrey.profile.heapdump.oql.ast.OqlStatement;
 import cafe.jeffrey.profile.heapdump.oql.compiler.ExecutionPlan;
 import cafe.jeffrey.profile.heapdump.oql.compiler.OqlCompileOptions;
+import cafe.jeffrey.profile.heapdump.oql.executor.OqlQueryBudget;
 import cafe.jeffrey.profile.heapdump.oql.parser.OqlParseException;
 import cafe.jeffrey.profile.heapdump.persistence.HeapDumpSession;
 import cafe.jeffrey.profile.heapdump.view.HeapView;
@@ -99,7 +103,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -127,6 +133,12 @@ public class HeapDumpManagerImpl implements HeapDumpManager {
 
     private static final int MAX_QUERY_LIMIT = 100;
 
+    /**
+     * Wall-clock cap for one OQL query across all its stages (SQL pushdown,
+     * Java-side scan workers, large-String fallback).
+     */
+    private static final Duration OQL_TIME_BUDGET = Duration.ofMinutes(2);
+
     private static final long DOMINATOR_ROOT_ID = 0L;
 
     private static final DominatorTreeResponse EMPTY_DOMINATOR_TREE =
@@ -215,6 +227,32 @@ public class HeapDumpManagerImpl implements HeapDumpManager {
                 .orElse(List.of());
     }
 
+    @Override
+    public List<ClassRetainedSizeEntry> getClassRetainedSizes(int topN) {
+        return withSession(session -> {
+            scheduleDominatorTreeIfMissing(session.view());
+            return ApproximateRetainedSizeAnalyzer.topClasses(session.view(), topN);
+        }).orElse(List.of());
+    }
+
+    @Override
+    public RetainedSizeEstimate getRetainedSizeEstimate(long objectId) {
+        return withSession(session -> {
+            scheduleDominatorTreeIfMissing(session.view());
+            return ApproximateRetainedSizeAnalyzer.estimateInstance(session.view(), objectId);
+        }).orElse(null);
+    }
+
+    /**
+     * Kicks off the full dominator build behind the current request, so the
+     * approximation served now is replaced by exact figures on later calls.
+     */
+    private void scheduleDominatorTreeIfMissing(HeapView view) throws SQLException {
+        if (!view.hasDominatorTree()) {
+            sessions.buildDominatorTreeInBackground();
+        }
+    }
+
     // --- OQL execution against the heap-dump-index DuckDB ---------------
 
     @Override
@@ -245,7 +283,7 @@ public class HeapDumpManagerImpl implements HeapDumpManager {
                 session.buildDominatorTreeIfNeeded();
             }
             try {
-                return oqlEngine.execute(plan, session.view(), effectiveLimit);
+                return oqlEngine.execute(plan, session.view(), effectiveLimit, OqlQueryBudget.of(OQL_TIME_BUDGET));
             } catch (SQLException e) {
                 LOG.warn("OQL execution failed: query={} error={}", query, e.getMessage());
                 return OQLQueryResult.error("Query failed: " + e.getMessage(), 0);
@@ -394,6 +432,14 @@ public class HeapDumpManagerImpl implements HeapDumpManager {
                 .orElse(List.<SubPhaseTiming>of());
     }
 
+    @Override
+    public Optional<Path> getDominatorIndexPath() {
+        return withSession(session -> {
+            session.buildDominatorTreeIfNeeded();
+            return session.indexDbPath();
+        });
+    }
+
     // --- Instance browsing -----------------------------------------------
 
     @Override
@@ -19,6 +19,7 @@
 package cafe.jeffrey.profile.manager.heapdump;
 
 import cafe.jeffrey.profile.heapdump.model.IndexBuildProgressListener;
+import cafe.jeffrey.profile.heapdump.persistence.DominatorTreeBuilder;
 import cafe.jeffrey.profile.heapdump.persistence.HeapDumpIndexPaths;
 import cafe.jeffrey.profile.heapdump.persistence.HeapDumpSession;
 import org.slf4j.Logger;
@@ -27,11 +28,14 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.sql.SQLException;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
@@ -70,11 +74,22 @@ public final class HeapDumpSessionCache implements AutoCloseable {
 
     private static final String EVICTOR_THREAD_NAME = "heap-dump-session-evictor";
 
+    private static final String DOMINATOR_BUILDER_THREAD_NAME = "heap-dump-dominator-builder";
+
     @FunctionalInterface
     public interface SessionWork<R> {
         R apply(HeapDumpSession session) throws SQLException, IOException;
     }
 
+    /** Builds the dominator tree into the given index database. */
+    @FunctionalInterface
+    interface DominatorTreeBuild {
+        void build(Path indexDbPath) throws SQLException, IOException;
+    }
+
+    private record IndexCopy(Path path, FileTime sourceMtime) {
+    }
+
     private static final class Entry {
         private final ReentrantLock lock = new ReentrantLock();
         private HeapDumpSession session;
@@ -88,13 +103,22 @@ public final class HeapDumpSessionCache implements AutoCloseable {
 
     private final ConcurrentMap<Path, Entry> entries = new ConcurrentHashMap<>();
 
+    /** Dumps with a background dominator build scheduled or running. */
+    private final Set<Path> backgroundBuilds = ConcurrentHashMap.newKeySet();
+
     private final ScheduledExecutorService evictor;
 
+    private final DominatorTreeBuild dominatorTreeBuild;
+
     public HeapDumpSessionCache(Clock clock) {
         this(clock, DEFAULT_IDLE_TIMEOUT);
     }
 
     public HeapDumpSessionCache(Clock clock, Duration idleTimeout) {
+        this(clock, idleTimeout, DominatorTreeBuilder::build);
+    }
+
+    HeapDumpSessionCache(Clock clock, Duration idleTimeout, DominatorTreeBuild dominatorTreeBuild) {
         if (clock == null) {
             throw new IllegalArgumentException("clock must not be null");
         }
@@ -103,6 +127,7 @@ public final class HeapDumpSessionCache implements AutoCloseable {
         }
         this.clock = clock;
         this.idleTimeout = idleTimeout;
+        this.dominatorTreeBuild = dominatorTreeBuild;
         this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
             Thread thread = new Thread(runnable, EVICTOR_THREAD_NAME);
             thread.setDaemon(true);
@@ -150,6 +175,58 @@ public final class HeapDumpSessionCache implements AutoCloseable {
         }
     }
 
+    /**
+     * Builds the dominator tree of {@code hprofPath} on a virtual thread so the
+     * caller can answer from approximations in the meantime. At most one
+     * background build per dump is in flight. The build runs on a copy of the
+     * index with its own connection; the session is held only to take the copy
+     * and to swap the finished index in, so other work units on the dump are
+     * served while the tree is being built.
+     *
+     * @return true when a build was scheduled, false when one is already pending
+     */
+    public boolean buildDominatorTreeInBackground(Path hprofPath) {
+        Path key = cacheKey(hprofPath);
+        if (!backgroundBuilds.add(key)) {
+            return false;
+        }
+        Thread.ofVirtual().name(DOMINATOR_BUILDER_THREAD_NAME).start(() -> {
+            try {
+                buildDominatorTreeOnCopy(key);
+            } catch (IOException | SQLException | RuntimeException e) {
+                LOG.warn("Background dominator tree build failed: path={} error={}", key, e.getMessage());
+            } finally {
+                backgroundBuilds.remove(key);
+            }
+        });
+        return true;
+    }
+
+    private void buildDominatorTreeOnCopy(Path key) throws IOException, SQLException {
+        Optional<IndexCopy> copy = withSession(key, session -> {
+            FileTime sourceMtime = Files.getLastModifiedTime(session.indexDbPath());
+            return session.copyIndexForDominatorBuild().map(path -> new IndexCopy(path, sourceMtime));
+        });
+        if (copy.isEmpty()) {
+            return;
+        }
+
+        Path copyPath = copy.get().path();
+        try {
+            dominatorTreeBuild.build(copyPath);
+            boolean installed = withSession(key, session -> {
+                // The index was rebuilt or rewritten while the copy was being built: the copy is stale
+                if (!Files.getLastModifiedTime(session.indexDbPath()).equals(copy.get().sourceMtime())) {
+                    return false;
+                }
+                return session.installDominatorTree(copyPath);
+            });
+            LOG.debug("Background dominator tree build finished: path={} installed={}", key, installed);
+        } finally {
+            HeapDumpSession.deleteDatabase(copyPath);
+        }
+    }
+
     /**
      * Closes and discards the cached session for {@code hprofPath}, waiting
      * for any in-flight work unit on it to finish first. Callers must
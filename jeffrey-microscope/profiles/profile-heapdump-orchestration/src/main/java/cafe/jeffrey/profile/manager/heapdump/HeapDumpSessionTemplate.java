@@ -87,6 +87,18 @@ public final class HeapDumpSessionTemplate {
         }
     }
 
+    /**
+     * Schedules a background dominator-tree build for the profile's heap dump;
+     * see {@link HeapDumpSessionCache#buildDominatorTreeInBackground(Path)}.
+     * Meant to be called after a session has been opened, so the analyzable
+     * dump is already materialized.
+     */
+    public void buildDominatorTreeInBackground() {
+        additionalFilesManager.getHeapDumpPath()
+                .map(HeapDumpDecompressor::analyzablePath)
+                .ifPresent(sessionCache::buildDominatorTreeInBackground);
+    }
+
     public boolean heapDumpExists() {
         return additionalFilesManager.heapDumpExists();
     }
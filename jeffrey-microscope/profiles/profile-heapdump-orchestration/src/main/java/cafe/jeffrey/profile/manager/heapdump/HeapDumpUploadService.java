@@ -138,7 +138,10 @@ public final class HeapDumpUploadService {
         Path gzPath = null;
         if (HeapDumpDecompressor.isGzipped(path)) {
             gzPath = path;
-            hprofPath = HeapDumpDecompressor.analyzablePath(path);
+            hprofPath = HeapDumpDecompressor.decompressedPath(path);
+            // A chunked gzip dump is indexed in place, keyed on the .gz itself
+            sessionCache.invalidate(gzPath);
+            deleteIndex(gzPath);
         } else {
             hprofPath = path;
             Path potentialGz = path.resolveSibling(path.getFileName() + GZ_EXTENSION);
@@ -22,13 +22,20 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
 import java.time.Instant;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -51,6 +58,29 @@ class HeapDumpDecompressorTest {
         return gzPath;
     }
 
+    /**
+     * Single-member dump in the {@code -XX:HeapDumpGzipLevel} layout: the gzip
+     * header carries the {@code HPROF BLOCKSIZE=} comment.
+     */
+    private Path writeChunkedGzippedDump(String fileName) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[]{0x1f, (byte) 0x8b, 8, 16, 0, 0, 0, 0, 0, 3});
+        out.write("HPROF BLOCKSIZE=1048576".getBytes(StandardCharsets.ISO_8859_1));
+        out.write(0);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, true))) {
+            deflate.write(DUMP_CONTENT);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(DUMP_CONTENT);
+        ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        trailer.putInt((int) crc.getValue()).putInt(DUMP_CONTENT.length);
+
+        Path gzPath = tempDir.resolve(fileName);
+        Files.write(gzPath, out.toByteArray());
+        Files.write(gzPath, trailer.array(), StandardOpenOption.APPEND);
+        return gzPath;
+    }
+
     @Nested
     class PathResolution {
 
@@ -76,6 +106,16 @@ class HeapDumpDecompressorTest {
     @Nested
     class Decompression {
 
+        @Test
+        void keepsChunkedGzipDumpInPlace() throws IOException {
+            Path gzPath = writeChunkedGzippedDump("heap-dump.hprof.gz");
+
+            assertTrue(HeapDumpDecompressor.isRandomAccess(gzPath));
+            assertEquals(gzPath, HeapDumpDecompressor.analyzablePath(gzPath));
+            assertEquals(gzPath, HeapDumpDecompressor.ensureDecompressed(gzPath));
+            assertFalse(Files.exists(tempDir.resolve("heap-dump.hprof")));
+        }
+
         @Test
         void decompressesGzippedDumpToSibling() throws IOException {
             Path gzPath = writeGzippedDump("heap-dump.hprof.gz");
@@ -32,8 +32,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -148,6 +150,33 @@ class HeapDumpDiffServiceTest {
             assertThrows(IllegalArgumentException.class,
                     () -> HeapDumpDiffService.diff(primary, baseline, 0));
         }
+
+        @Test
+        void pathDiffRejectsUninitializedPrimary() {
+            when(primary.heapDumpExists()).thenReturn(true);
+            when(primary.isCacheReady()).thenReturn(false);
+            ready(baseline);
+
+            assertThrows(JeffreyException.class,
+                    () -> HeapDumpDiffService.diffPaths(primary, baseline, 10));
+        }
+
+        @Test
+        void pathDiffRejectsMissingBaselineIndex() {
+            ready(primary);
+            ready(baseline);
+            when(primary.getDominatorIndexPath()).thenReturn(Optional.of(Path.of("primary.idx.duckdb")));
+            when(baseline.getDominatorIndexPath()).thenReturn(Optional.empty());
+
+            assertThrows(JeffreyException.class,
+                    () -> HeapDumpDiffService.diffPaths(primary, baseline, 10));
+        }
+
+        @Test
+        void pathDiffRejectsNonPositiveTopN() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> HeapDumpDiffService.diffPaths(primary, baseline, 0));
+        }
     }
 
     private static ClassDiffEntry findEntry(HeapDumpDiffReport report, String className) {
@@ -18,8 +18,10 @@
 
 package cafe.jeffrey.profile.manager.heapdump;
 
+import cafe.jeffrey.profile.heapdump.persistence.DominatorTreeBuilder;
 import cafe.jeffrey.profile.heapdump.persistence.HeapDumpIndexPaths;
 import cafe.jeffrey.profile.heapdump.persistence.HeapDumpSession;
+import cafe.jeffrey.profile.heapdump.view.HistogramRow;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -35,9 +37,14 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class HeapDumpSessionCacheTest {
@@ -185,4 +192,70 @@ class HeapDumpSessionCacheTest {
         }
     }
 
+    @Nested
+    class BackgroundDominatorBuild {
+
+        private final CountDownLatch buildStarted = new CountDownLatch(1);
+
+        private final CountDownLatch releaseBuild = new CountDownLatch(1);
+
+        private final HeapDumpSessionCache blockingCache = new HeapDumpSessionCache(clock, IDLE_TIMEOUT, indexDb -> {
+            buildStarted.countDown();
+            try {
+                if (!releaseBuild.await(30, TimeUnit.SECONDS)) {
+                    throw new IOException("Build was never released");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            DominatorTreeBuilder.build(indexDb);
+        });
+
+        @AfterEach
+        void closeBlockingCache() {
+            releaseBuild.countDown();
+            blockingCache.close();
+        }
+
+        @Test
+        void histogramIsServedWhileTheTreeIsBeingBuilt() throws Exception {
+            Path hprof = writeSyntheticDump("background.hprof");
+            blockingCache.withSession(hprof, session -> session);
+
+            assertTrue(blockingCache.buildDominatorTreeInBackground(hprof));
+            assertTrue(buildStarted.await(30, TimeUnit.SECONDS), "build must start");
+
+            List<HistogramRow> histogram = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> blockingCache.withSession(hprof, session -> session.view().classHistogram()));
+            assertFalse(histogram.isEmpty());
+            assertFalse(blockingCache.withSession(hprof, session -> session.view().hasDominatorTree()));
+
+            releaseBuild.countDown();
+            awaitDominatorTree(hprof);
+            assertFalse(Files.exists(HeapDumpIndexPaths.dominatorBuildFor(hprof)), "the built copy must be moved in");
+        }
+
+        @Test
+        void onlyOneBuildIsPendingPerDump() throws Exception {
+            Path hprof = writeSyntheticDump("pending.hprof");
+            blockingCache.withSession(hprof, session -> session);
+
+            assertTrue(blockingCache.buildDominatorTreeInBackground(hprof));
+            assertTrue(buildStarted.await(30, TimeUnit.SECONDS), "build must start");
+            assertFalse(blockingCache.buildDominatorTreeInBackground(hprof));
+
+            releaseBuild.countDown();
+            awaitDominatorTree(hprof);
+        }
+
+        private void awaitDominatorTree(Path hprof) throws Exception {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (!blockingCache.withSession(hprof, session -> session.view().hasDominatorTree())) {
+                assertTrue(System.nanoTime() < deadline, "dominator tree must be installed");
+                Thread.sleep(20);
+            }
+        }
+    }
+
 }
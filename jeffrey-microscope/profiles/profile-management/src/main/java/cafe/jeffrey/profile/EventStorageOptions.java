@@ -0,0 +1,34 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.profile;
+
+/**
+ * Opt-in storage layouts applied to the events of a profile once ingest is complete.
+ *
+ * @param dictionaryEncoding dictionary-encode the low-cardinality string columns of {@code events}
+ *                           (event type, weight entity) into ENUMs during the re-cluster rewrite
+ * @param typedFieldTables   move the fields of the high-volume event types into typed side tables,
+ *                           so their dashboards don't parse the JSON {@code fields} column and the
+ *                           fields are not stored twice
+ */
+public record EventStorageOptions(boolean dictionaryEncoding, boolean typedFieldTables) {
+
+    public static final EventStorageOptions DEFAULT = new EventStorageOptions(false, false);
+}
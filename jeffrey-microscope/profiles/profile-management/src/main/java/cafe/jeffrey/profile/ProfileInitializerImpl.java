@@ -31,6 +31,7 @@ import cafe.jeffrey.provider.profile.api.ProfileRepositories;
 import cafe.jeffrey.provider.profile.api.TraceAttributeRepository;
 import cafe.jeffrey.provider.profile.api.TraceRepository;
 import cafe.jeffrey.shared.common.model.ProfileInfo;
+import cafe.jeffrey.shared.common.model.Type;
 import cafe.jeffrey.shared.common.measure.Measuring;
 import cafe.jeffrey.jfr.events.trace.SpanKind;
 import cafe.jeffrey.jfr.events.trace.Tracer;
@@ -54,10 +55,12 @@ public class ProfileInitializerImpl implements ProfileInitializer {
 
     private static final String SPAN_INITIALIZE = "profile.initialize";
     private static final String SPAN_PROFILE_INFO = "profile-info.insert";
+    private static final String SPAN_CACHE_CLEAR = "profile-cache.clear";
     private static final String SPAN_RECORDING_PARSE = "recording.parse";
     private static final String SPAN_EVENTS_FLUSH = "events.flush";
     private static final String SPAN_DATA_INIT = "profile.data-init";
     private static final String SPAN_TRACES_DERIVE = "traces.derive";
+    private static final String SPAN_TYPED_FIELDS = "events.typed-fields";
     private static final String SPAN_ADDITIONAL_FILES = "additional-files.process";
     private static final String SPAN_EVENTS_RECLUSTER = "events.recluster";
     private static final String SPAN_WAL_CHECKPOINT = "db.wal-checkpoint";
@@ -70,6 +73,14 @@ public class ProfileInitializerImpl implements ProfileInitializer {
     private static final List<String> EVENTS_CLUSTERING_COLUMNS =
             List.of("event_type", "start_timestamp_from_beginning");
 
+    /**
+     * String columns of the events table that are dictionary-encoded (ENUM) during the re-cluster rewrite
+     * when enabled. A profile has a few dozen event types, but weight entities are the allocated or blocking
+     * classes and run into thousands; that still fits two-byte ordinals, and a column past
+     * {@link cafe.jeffrey.shared.persistence.client.DatabaseClient#MAX_DICTIONARY_VALUES} stays VARCHAR.
+     */
+    private static final List<String> EVENTS_DICTIONARY_COLUMNS = List.of("event_type", "weight_entity");
+
     private final ProfileRepositories profileRepositories;
     private final DatabaseManager databaseManager;
     private final RecordingEventParserResolver recordingEventParserResolver;
@@ -77,6 +88,7 @@ public class ProfileInitializerImpl implements ProfileInitializer {
     private final ProfileManager.Factory profileManagerFactory;
     private final ProfileDataInitializer profileDataInitializer;
     private final Clock clock;
+    private final EventStorageOptions eventStorageOptions;
 
     public ProfileInitializerImpl(
             ProfileRepositories profileRepositories,
@@ -87,6 +99,20 @@ public class ProfileInitializerImpl implements ProfileInitializer {
             ProfileDataInitializer profileDataInitializer,
             Clock clock) {
 
+        this(profileRepositories, databaseManager, recordingEventParserResolver, eventWriterFactory,
+                profileManagerFactory, profileDataInitializer, clock, EventStorageOptions.DEFAULT);
+    }
+
+    public ProfileInitializerImpl(
+            ProfileRepositories profileRepositories,
+            DatabaseManager databaseManager,
+            RecordingEventParserResolver recordingEventParserResolver,
+            EventWriter.Factory eventWriterFactory,
+            ProfileManager.Factory profileManagerFactory,
+            ProfileDataInitializer profileDataInitializer,
+            Clock clock,
+            EventStorageOptions eventStorageOptions) {
+
         this.profileRepositories = profileRepositories;
         this.databaseManager = databaseManager;
         this.recordingEventParserResolver = recordingEventParserResolver;
@@ -94,6 +120,7 @@ public class ProfileInitializerImpl implements ProfileInitializer {
         this.profileManagerFactory = profileManagerFactory;
         this.profileDataInitializer = profileDataInitializer;
         this.clock = clock;
+        this.eventStorageOptions = eventStorageOptions;
     }
 
     @Override
@@ -125,6 +152,10 @@ public class ProfileInitializerImpl implements ProfileInitializer {
                     });
                 }
 
+                // A re-initialized profile reuses its database file: whatever was cached for the previous
+                // content (generated flamegraphs, pre-computed views) must not outlive it.
+                Tracer.run(SPAN_CACHE_CLEAR, () -> profileRepositories.newProfileCacheRepository(dataSource).clearAll());
+
                 // Parse recording and store events into the database
                 // The profiling start is the zero point of the relative event timeline persisted with every event
                 EventWriter eventWriter = eventWriterFactory.create(dataSource, profileInfo.profilingStartedAt());
@@ -147,6 +178,18 @@ public class ProfileInitializerImpl implements ProfileInitializer {
                     attributeRepository.derive();
                 });
 
+                // Move the fields of the hot event types into typed side tables before the data
+                // initializer pre-generates the views that read them. Strictly after the trace
+                // derivation, which reads the JSON fields of the traced events out of `events`.
+                if (eventStorageOptions.typedFieldTables()) {
+                    Tracer.run(SPAN_TYPED_FIELDS, () -> {
+                        List<Type> typedEventTypes =
+                                profileRepositories.newEventRepository(dataSource).materializeTypedFields();
+                        LOG.debug("Typed event field tables materialized: profile_id={} event_types={}",
+                                profileInfo.id(), typedEventTypes.size());
+                    });
+                }
+
                 ProfileManager profileManager = profileManagerFactory.apply(profileInfo);
 
                 // Initialize profile data (Event Viewer, Thread Viewer, Guardian, ...)
@@ -170,10 +213,14 @@ public class ProfileInitializerImpl implements ProfileInitializer {
 
                 // Re-cluster the events table by (event_type, time) once all writers are done. Row-group
                 // zone maps then prune scans by event type and time range — replacing the ART indexes.
+                // The events table is final from here on, so its string keys can be frozen into ENUMs.
+                boolean dictionaryEncoding = eventStorageOptions.dictionaryEncoding();
+                List<String> dictionaryColumns = dictionaryEncoding ? EVENTS_DICTIONARY_COLUMNS : List.of();
                 Duration clusteringElapsed = Measuring.r(() -> Tracer.run(SPAN_EVENTS_RECLUSTER,
-                        () -> infrastructureClient.recreateTableClustered(EVENTS_TABLE, EVENTS_CLUSTERING_COLUMNS)));
-                LOG.debug("Events table re-clustered: profile_id={} duration_in_ms={}",
-                        profileInfo.id(), clusteringElapsed.toMillis());
+                        () -> infrastructureClient.recreateTableClustered(
+                                EVENTS_TABLE, EVENTS_CLUSTERING_COLUMNS, dictionaryColumns)));
+                LOG.debug("Events table re-clustered: profile_id={} dictionary_encoded={} duration_in_ms={}",
+                        profileInfo.id(), dictionaryEncoding, clusteringElapsed.toMillis());
 
                 // Ensure all data is flushed to disk - especially important for WAL mode databases
                 // WAL checkpointing merges the WAL (Write-Ahead Log) into the main database file
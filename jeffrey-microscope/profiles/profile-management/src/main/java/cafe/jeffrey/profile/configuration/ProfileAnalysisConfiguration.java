@@ -23,6 +23,7 @@ import org.springframework.context.annotation.Bean;
 import cafe.jeffrey.profile.guardian.CachingGuardianProvider;
 import cafe.jeffrey.profile.guardian.Guardian;
 import cafe.jeffrey.profile.guardian.GuardianProvider;
+import cafe.jeffrey.profile.guardian.GuardianRuns;
 import cafe.jeffrey.profile.guardian.ParsingGuardianProvider;
 import cafe.jeffrey.profile.guardian.definition.GuardDefinitions;
 import cafe.jeffrey.profile.manager.AutoAnalysisManager;
@@ -86,10 +87,16 @@ public class ProfileAnalysisConfiguration {
                 samplerHealthFactory);
     }
 
+    @Bean
+    public GuardianRuns guardianRuns() {
+        return new GuardianRuns();
+    }
+
     @Bean
     public GuardianManager.Factory guardianFactory(
             ActiveSettingsProvider.Factory settingsProviderFactory,
-            GuardDefinitions guardDefinitions) {
+            GuardDefinitions guardDefinitions,
+            GuardianRuns guardianRuns) {
         return (profileInfo) -> {
             DataSource profileDb = databaseManagerResolver.open(profileInfo);
             ProfileEventRepository eventsRepository = profileRepositories.newEventRepository(profileDb);
@@ -100,7 +107,7 @@ public class ProfileAnalysisConfiguration {
 
             Guardian guardian = new Guardian(
                     profileInfo, eventsRepository, eventsStreamRepository, eventsTypeRepository,
-                    settingsProvider.get(), guardDefinitions);
+                    settingsProvider.get(), guardDefinitions, guardianRuns);
 
             GuardianProvider guardianProvider = new CachingGuardianProvider(
                     cacheRepository, new ParsingGuardianProvider(guardian), guardDefinitions);
@@ -22,6 +22,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import cafe.jeffrey.profile.ProfileInitializer;
+import cafe.jeffrey.profile.EventStorageOptions;
 import cafe.jeffrey.profile.ProfileInitializerImpl;
 import cafe.jeffrey.profile.manager.additional.AdditionalFilesManager;
 import cafe.jeffrey.profile.manager.additional.AdditionalFilesManagerImpl;
@@ -42,6 +43,7 @@ import cafe.jeffrey.profile.manager.custom.HttpManager;
 import cafe.jeffrey.profile.manager.custom.JdbcPoolManager;
 import cafe.jeffrey.profile.manager.custom.JdbcStatementManager;
 import cafe.jeffrey.profile.manager.custom.MethodTracingManager;
+import cafe.jeffrey.profile.guardian.GuardianRuns;
 import cafe.jeffrey.profile.manager.registry.AnalysisFactories;
 import cafe.jeffrey.profile.manager.registry.JvmInsightFactories;
 import cafe.jeffrey.profile.manager.registry.ProfileManagerFactoryRegistry;
@@ -91,12 +93,14 @@ public class ProfileCoreConfiguration {
     public ProfileManager.Factory profileManager(
             MicroscopeCorePersistenceProvider localCorePersistenceProvider,
             ProfileManagerFactoryRegistry registry,
+            GuardianRuns guardianRuns,
             @Qualifier(ProfilesConfiguration.PROFILES_PATH) Path profilesPath) {
 
         return profileInfo -> new ProfileManagerImpl(
                 profileInfo,
                 localCorePersistenceProvider.localCoreRepositories().newProfileRepository(profileInfo.id()),
                 registry,
+                guardianRuns,
                 profilesPath);
     }
 
@@ -225,7 +229,9 @@ public class ProfileCoreConfiguration {
             ProfileManager.Factory profileManagerFactory,
             ProfileDataInitializer profileDataInitializer,
             TempDirFactory tempDirFactory,
-            Clock clock) {
+            Clock clock,
+            @Value("${jeffrey.microscope.profile.events.dictionary-encoding:false}") boolean dictionaryEncoding,
+            @Value("${jeffrey.microscope.profile.events.typed-field-tables:false}") boolean typedFieldTables) {
         RecordingEventParser jfrParser =
                 new JfrRecordingEventParser(tempDirFactory, new Lz4Compressor(tempDirFactory));
         RecordingEventParserResolver parserResolver = RecordingEventParserResolver.of(
@@ -241,7 +247,8 @@ public class ProfileCoreConfiguration {
                 eventWriterFactory,
                 profileManagerFactory,
                 profileDataInitializer,
-                clock);
+                clock,
+                new EventStorageOptions(dictionaryEncoding, typedFieldTables));
     }
 
     @Bean
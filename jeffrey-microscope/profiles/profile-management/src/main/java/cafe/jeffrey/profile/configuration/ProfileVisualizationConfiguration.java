@@ -18,9 +18,12 @@
 
 package cafe.jeffrey.profile.configuration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import cafe.jeffrey.flamegraph.ai.AiExportConfig;
 import cafe.jeffrey.flamegraph.api.DbBasedFlamegraphGenerator;
+import cafe.jeffrey.flamegraph.api.FlamegraphResultCache;
+import cafe.jeffrey.flamegraph.api.ProfileFlamegraphCache;
 import cafe.jeffrey.flamegraph.diff.DbBasedDiffgraphGenerator;
 import cafe.jeffrey.subsecond.db.api.DbBasedSubSecondGeneratorImpl;
 import cafe.jeffrey.profile.manager.DiffFlamegraphManagerImpl;
@@ -85,21 +88,33 @@ public class ProfileVisualizationConfiguration {
                 timeseriesDiffFactory);
     }
 
+    @Bean
+    public FlamegraphResultCache flamegraphResultCache(
+            @Value("${jeffrey.microscope.flamegraph.result-cache.max-size-mb:256}") long maxSizeMb) {
+        return new FlamegraphResultCache(maxSizeMb * 1024 * 1024);
+    }
+
     /**
      * The thresholds are read inside the lambda, not captured around it. A factory is invoked once per
      * flamegraph request, so reading there is what makes an edit in the settings page apply to the very
-     * next graph instead of the next restart.
+     * next graph instead of the next restart. The threshold is part of the result-cache key for the
+     * same reason.
      */
     @Bean
-    public FlamegraphManager.Factory flamegraphFactory(SettingsStore settingsStore) {
+    public FlamegraphManager.Factory flamegraphFactory(
+            SettingsStore settingsStore,
+            FlamegraphResultCache flamegraphResultCache) {
+
         return profileInfo -> {
             DataSource profileDb = databaseManagerResolver.open(profileInfo);
             ProfileEventTypeRepository eventTypeRepository = profileRepositories.newEventTypeRepository(profileDb);
             ProfileEventStreamRepository eventRepository = profileRepositories.newEventStreamRepository(profileDb);
+            ProfileFlamegraphCache resultCache = flamegraphResultCache.forProfile(
+                    profileInfo.id(), profileRepositories.newProfileCacheRepository(profileDb));
             AiExportConfig aiExportConfig = new AiExportConfig(aiExportMinFrameThresholdPct(settingsStore));
             return new PrimaryFlamegraphManager(eventTypeRepository,
                     new DbBasedFlamegraphGenerator(
-                            eventRepository, minFrameThresholdPct(settingsStore), aiExportConfig));
+                            eventRepository, minFrameThresholdPct(settingsStore), aiExportConfig, resultCache));
         };
     }
 
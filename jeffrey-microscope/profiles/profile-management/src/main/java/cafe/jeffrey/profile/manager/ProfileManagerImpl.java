@@ -37,6 +37,7 @@ import cafe.jeffrey.profile.tools.pprof.PprofExportManager;
 
 
 import cafe.jeffrey.microscope.persistence.api.ProfileRepository;
+import cafe.jeffrey.profile.guardian.GuardianRuns;
 import cafe.jeffrey.shared.common.filesystem.FileSystemUtils;
 import cafe.jeffrey.shared.common.model.ProfileInfo;
 
@@ -49,17 +50,20 @@ public class ProfileManagerImpl implements ProfileManager {
     private final ProfileInfo profileInfo;
     private final ProfileRepository profileRepository;
     private final ProfileManagerFactoryRegistry registry;
+    private final GuardianRuns guardianRuns;
     private final Path profilesBaseDir;
 
     public ProfileManagerImpl(
             ProfileInfo profileInfo,
             ProfileRepository profileRepository,
             ProfileManagerFactoryRegistry registry,
+            GuardianRuns guardianRuns,
             Path profilesBaseDir) {
 
         this.profileInfo = profileInfo;
         this.profileRepository = profileRepository;
         this.registry = registry;
+        this.guardianRuns = guardianRuns;
         this.profilesBaseDir = profilesBaseDir;
     }
 
@@ -294,9 +298,11 @@ public class ProfileManagerImpl implements ProfileManager {
     @Override
     public void delete() {
         LOG.debug("Deleting profile: profileId={} name={}", profileInfo.id(), profileInfo.name());
-        // 1. Delete profile metadata from platform database
+        // 1. Stop a Guardian analysis still traversing the profile's events in the background
+        guardianRuns.cancel(profileInfo.id());
+        // 2. Delete profile metadata from platform database
         this.profileRepository.delete();
-        // 2. Delete profile database and directory
+        // 3. Delete profile database and directory
         Path profileDirectory = profilesBaseDir.resolve(profileInfo.id());
         FileSystemUtils.removeDirectory(profileDirectory);
 
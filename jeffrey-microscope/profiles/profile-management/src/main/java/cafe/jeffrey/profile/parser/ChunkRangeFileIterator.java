@@ -0,0 +1,65 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2025 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.profile.parser;
+
+import cafe.jeffrey.jfrparser.jdk.Collector;
+import cafe.jeffrey.jfrparser.jdk.EventProcessor;
+import cafe.jeffrey.jfrparser.jdk.JdkRecordingFileIterator;
+import cafe.jeffrey.jfrparser.jdk.RecordingFileIterator;
+import cafe.jeffrey.jfrparser.raw.JfrChunkRange;
+import cafe.jeffrey.jfrparser.raw.JfrParser;
+import cafe.jeffrey.shared.common.filesystem.FileSystemUtils;
+
+import java.nio.file.Path;
+
+/**
+ * Parses one chunk of a plain recording. The JDK parser only reads whole files, so the chunk's
+ * byte range is extracted right before parsing, on the worker thread that parses it, and removed
+ * right after. Chunks are therefore copied in parallel and only those currently being parsed
+ * occupy the temporary directory, instead of the whole recording being disassembled upfront.
+ */
+class ChunkRangeFileIterator<PARTIAL> implements RecordingFileIterator<PARTIAL, PARTIAL> {
+
+    private final Path recording;
+    private final JfrChunkRange range;
+    private final Path chunksDir;
+    private final EventProcessor<PARTIAL> processor;
+
+    ChunkRangeFileIterator(Path recording, JfrChunkRange range, Path chunksDir, EventProcessor<PARTIAL> processor) {
+        this.recording = recording;
+        this.range = range;
+        this.chunksDir = chunksDir;
+        this.processor = processor;
+    }
+
+    @Override
+    public PARTIAL collect(Collector<PARTIAL, PARTIAL> collector) {
+        return collector.finisher(partialCollect(collector));
+    }
+
+    @Override
+    public PARTIAL partialCollect(Collector<PARTIAL, ?> collector) {
+        Path chunk = JfrParser.extractChunk(recording, range, chunksDir);
+        try {
+            return new JdkRecordingFileIterator<PARTIAL, PARTIAL>(chunk, processor).partialCollect(collector);
+        } finally {
+            FileSystemUtils.removeFile(chunk);
+        }
+    }
+}
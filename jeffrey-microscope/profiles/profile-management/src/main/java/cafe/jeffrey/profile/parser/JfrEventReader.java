@@ -18,34 +18,94 @@
 
 package cafe.jeffrey.profile.parser;
 
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.node.ObjectNode;
+import jdk.jfr.ValueDescriptor;
 import jdk.jfr.consumer.*;
+import cafe.jeffrey.shared.common.Json;
+import cafe.jeffrey.shared.common.RecordedClassMapper;
+import cafe.jeffrey.shared.common.model.EventTypeName;
 import cafe.jeffrey.shared.common.model.StacktraceTag;
 import cafe.jeffrey.shared.common.model.StacktraceType;
 import cafe.jeffrey.shared.common.model.Type;
 import cafe.jeffrey.jfrparser.jdk.EventProcessor;
 import cafe.jeffrey.jfrparser.jdk.ProcessableEvents;
+import cafe.jeffrey.jfrparser.raw.JfrChunkParsingException;
+import cafe.jeffrey.jfrparser.raw.JfrChunkRange;
+import cafe.jeffrey.jfrparser.raw.JfrParser;
+import cafe.jeffrey.jfrparser.raw.RawChunkDecoder;
+import cafe.jeffrey.jfrparser.raw.RawField;
+import cafe.jeffrey.jfrparser.raw.RawFrame;
+import cafe.jeffrey.jfrparser.raw.RawSample;
+import cafe.jeffrey.jfrparser.raw.RawSampleType;
+import cafe.jeffrey.jfrparser.raw.RawStackTrace;
+import cafe.jeffrey.jfrparser.raw.RawThread;
 import cafe.jeffrey.provider.profile.api.SingleThreadedEventWriter;
 import cafe.jeffrey.provider.profile.api.*;
 import cafe.jeffrey.shared.common.jfr.EventFieldsMapper;
 import cafe.jeffrey.shared.common.jfr.EventFieldsToJsonMapper;
 import cafe.jeffrey.profile.parser.fields.EventTypeUtils;
+import cafe.jeffrey.profile.parser.stacktrace.StacktraceCache;
+import cafe.jeffrey.profile.parser.stacktrace.StacktraceFingerprinter;
+import cafe.jeffrey.profile.parser.stacktrace.StacktraceKey;
 import cafe.jeffrey.profile.parser.stacktrace.StacktraceTypeResolver;
 import cafe.jeffrey.profile.parser.stacktrace.StacktraceTypeResolverImpl;
 import cafe.jeffrey.profile.parser.tag.IdleStacktraceTagResolver;
 import cafe.jeffrey.profile.parser.tag.StacktraceTagResolver;
 import cafe.jeffrey.profile.parser.tag.UnsafeAllocationStacktraceTagResolver;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.Supplier;
-
+import java.util.stream.Collectors;
+
+/**
+ * Maps the events of a single-chunk recording to the writer. The high-volume sample types
+ * ({@link RawSampleType#DEFAULTS}) are read straight from the chunk's bytes by {@link RawChunkDecoder},
+ * without the {@code RecordedEvent} graph of {@code jdk.jfr.consumer}; everything else, and the sample
+ * types the raw decoder cannot read, comes through {@link #onEvent(RecordedEvent)}. Both paths write
+ * the same events, threads and stacktraces.
+ */
 public class JfrEventReader implements EventProcessor<Void> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(JfrEventReader.class);
+
     private static final String SAMPLED_THREAD_FIELD = "sampledThread";
     private static final String THREAD_FIELD = "thread";
+    private static final String TRACE_ID_FIELD = "traceId";
+    private static final String SPAN_ID_FIELD = "spanId";
+    private static final String PARENT_SPAN_ID_FIELD = "parentSpanId";
+    private static final String STACKTRACE_FIELD = "stackTrace";
+    private static final String DURATION_FIELD = "duration";
+    private static final String SAMPLES_FIELD = "samples";
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    /**
+     * The fields the weight and its entity come from for the raw sample types, the same ones
+     * {@link WeightExtractorRegistry} reads out of their {@code RecordedEvent}. Types missing here
+     * have neither.
+     */
+    private record RawWeight(String weightField, String entityField) {
+    }
+
+    private static final Map<String, RawWeight> RAW_WEIGHTS = Map.of(
+            EventTypeName.OBJECT_ALLOCATION_SAMPLE, new RawWeight("weight", "objectClass"),
+            EventTypeName.OBJECT_ALLOCATION_IN_NEW_TLAB, new RawWeight("tlabSize", "objectClass"),
+            EventTypeName.OBJECT_ALLOCATION_OUTSIDE_TLAB, new RawWeight("allocationSize", "objectClass"),
+            EventTypeName.MALLOC, new RawWeight("size", "address"),
+            EventTypeName.FREE, new RawWeight(null, "address"));
+
+    /**
+     * Positions of the fields a raw sample type is mapped from, {@code -1} for the missing ones.
+     * Resolved once per chunk and type.
+     */
+    private record RawPlan(Type type, int durationIndex, int samplesIndex, int weightIndex, int entityIndex) {
+    }
 
     private static final List<StacktraceTagResolver> tagResolvers = List.of(
             new UnsafeAllocationStacktraceTagResolver(),
@@ -62,14 +122,36 @@ public class JfrEventReader implements EventProcessor<Void> {
         EVENT_THREAD
     }
 
+    /**
+     * Whether an event is a span, and which of the identity fields it carries. An event type is a
+     * span when it declares an integral {@code spanId} (and a {@code traceId} to place it in), the
+     * same structural rule the trace derivation discovers span types by. Resolved once per JFR
+     * event type and cached.
+     */
+    private enum SpanShape {
+        NONE,
+        WITHOUT_PARENT,
+        WITH_PARENT
+    }
+
     private final SingleThreadedEventWriter writer;
     private final ProcessableEvents processableEvents;
+    private final StacktraceCache stacktraceCache;
+    private final StacktraceFingerprinter stacktraceFingerprinter = new StacktraceFingerprinter();
 
     private final Map<Long, EventThread> threads = new HashMap<>();
     private final Map<RecordedStackTrace, Long> stacktracesById = new IdentityHashMap<>();
     private final Map<RecordedThread, Long> threadsById = new IdentityHashMap<>();
     private final Map<String, Type> typesByEventName = new HashMap<>();
     private final Map<Long, ThreadSource> threadSourcesByTypeId = new HashMap<>();
+    private final Map<Long, SpanShape> spanShapesByTypeId = new HashMap<>();
+    private final SpanSelfTimes spanSelfTimes = new SpanSelfTimes();
+
+    // constant pool keys of the chunk -> ids handed back by the writer, for the raw samples
+    private final List<RawSampleType> rawSampleTypes;
+    private final LongObjectHashMap<Long> rawThreadIds = new LongObjectHashMap<>();
+    private final LongObjectHashMap<String> rawThreadNames = new LongObjectHashMap<>();
+    private final LongObjectHashMap<Long> rawStacktraceIds = new LongObjectHashMap<>();
 
     private final Supplier<StacktraceTypeResolver> stacktraceTypeResolverSupplier = StacktraceTypeResolverImpl::new;
 
@@ -79,13 +161,39 @@ public class JfrEventReader implements EventProcessor<Void> {
     private final Map<String, jdk.jfr.EventType> eventTypeMap = new HashMap<>();
 
     public JfrEventReader(SingleThreadedEventWriter writer) {
-        this(writer, ProcessableEvents.all());
+        this(writer, ProcessableEvents.all(), new StacktraceCache());
     }
 
-    public JfrEventReader(SingleThreadedEventWriter writer, ProcessableEvents processableEvents) {
+    public JfrEventReader(SingleThreadedEventWriter writer, StacktraceCache stacktraceCache) {
+        this(writer, ProcessableEvents.all(), stacktraceCache);
+    }
+
+    public JfrEventReader(
+            SingleThreadedEventWriter writer,
+            ProcessableEvents processableEvents,
+            StacktraceCache stacktraceCache) {
+
+        this(writer, processableEvents, stacktraceCache, RawSampleType.DEFAULTS);
+    }
+
+    /**
+     * @param rawSampleTypes sample types read straight from the chunk's bytes, an empty list reads
+     *                       every event with {@code jdk.jfr.consumer}
+     */
+    public JfrEventReader(
+            SingleThreadedEventWriter writer,
+            ProcessableEvents processableEvents,
+            StacktraceCache stacktraceCache,
+            List<RawSampleType> rawSampleTypes) {
+
         this.writer = writer;
         this.processableEvents = processableEvents;
+        this.stacktraceCache = stacktraceCache;
         this.eventFieldsMapper = new EventFieldsToJsonMapper();
+        this.rawSampleTypes = rawSampleTypes.stream()
+                .filter(type -> processableEvents.isProcessableAll()
+                        || processableEvents.events().contains(Type.fromCode(type.name())))
+                .toList();
     }
 
     @Override
@@ -98,6 +206,49 @@ public class JfrEventReader implements EventProcessor<Void> {
         this.writer.onThreadStart();
     }
 
+    /**
+     * Reads the raw sample types of the chunk before {@code jdk.jfr.consumer} streams the rest.
+     * A type is read here only when the decoder can read all its fields; a file of more chunks, or
+     * a chunk the decoder cannot open, is left to {@code jdk.jfr.consumer} entirely.
+     */
+    @Override
+    public Set<String> onRecording(Path recording) {
+        if (rawSampleTypes.isEmpty()) {
+            return Set.of();
+        }
+        List<JfrChunkRange> chunks = JfrParser.chunkRanges(recording);
+        if (chunks.size() != 1) {
+            return Set.of();
+        }
+
+        RawChunkDecoder decoder;
+        try {
+            decoder = JfrParser.openRawChunk(recording, chunks.getFirst());
+        } catch (JfrChunkParsingException e) {
+            LOG.warn("Cannot decode the chunk, reading its samples with jdk.jfr: recording={}", recording, e);
+            return Set.of();
+        }
+
+        Map<RawSampleType, RawPlan> plans = new IdentityHashMap<>();
+        for (RawSampleType sampleType : rawSampleTypes) {
+            List<RawField> fields = decoder.fields(sampleType.name());
+            RawPlan plan = fields != null ? rawPlan(sampleType, fields) : null;
+            if (plan != null) {
+                plans.put(sampleType, plan);
+            }
+        }
+        if (plans.isEmpty()) {
+            return Set.of();
+        }
+
+        decoder.decodeSamples(List.copyOf(plans.keySet()),
+                sample -> onRawSample(decoder, plans.get(sample.type()), sample));
+
+        return plans.keySet().stream()
+                .map(RawSampleType::name)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
     @Override
     public void onMetadata(List<jdk.jfr.EventType> eventTypes) {
         eventTypes.forEach(e -> eventTypeMap.put(e.getName(), e));
@@ -140,16 +291,17 @@ public class JfrEventReader implements EventProcessor<Void> {
         }
 
         /*
-         * Resolve stacktrace and cache it to deduplicate the same stacktraces.
+         * Resolve stacktrace and cache it to deduplicate the same stacktraces. The identity map
+         * catches repeated instances inside the current chunk, the content-addressed cache catches
+         * the same stack coming back as a fresh instance in a later chunk.
          */
         RecordedStackTrace stackTrace = event.getStackTrace();
         Long stacktraceId = null;
         if (stackTrace != null && threadId != null) {
             EventThread eventThread = threads.get(threadId);
             stacktraceId = stacktracesById.computeIfAbsent(stackTrace, st -> {
-                EventStacktrace eventStacktrace = mapStacktrace(type, eventThread, st);
-                eventStacktrace.addStacktraceTags(resolveStacktraceTags(stackTrace));
-                return writer.onEventStacktrace(eventStacktrace);
+                StacktraceKey key = stacktraceFingerprinter.fingerprint(st);
+                return stacktraceCache.computeIfAbsent(key, _ -> writeStacktrace(type, eventThread, mapFrames(st)));
             });
         }
 
@@ -169,36 +321,270 @@ public class JfrEventReader implements EventProcessor<Void> {
                 eventFields);
 
         writer.onEvent(newEvent);
+
+        SpanShape spanShape = resolveSpanShape(event);
+        if (spanShape != SpanShape.NONE) {
+            writeSpan(event, spanShape, newEvent);
+        }
         return Result.CONTINUE;
     }
 
-    private EventStacktrace mapStacktrace(Type type, EventThread eventThread, RecordedStackTrace stacktrace) {
-        StacktraceTypeResolver stacktraceTypeResolver = stacktraceTypeResolverSupplier.get();
-        stacktraceTypeResolver.start(type);
-        stacktraceTypeResolver.applyThread(eventThread);
+    /**
+     * Lifts the trace identity out of the event's typed fields while the event is at hand, so the
+     * trace derivation neither parses it back out of the JSON nor joins every span against its
+     * children to find its self time. An event whose ids are 0 was never part of a trace.
+     */
+    private void writeSpan(RecordedEvent event, SpanShape spanShape, Event newEvent) {
+        long traceId = event.getLong(TRACE_ID_FIELD);
+        long spanId = event.getLong(SPAN_ID_FIELD);
+        if (traceId == 0 || spanId == 0) {
+            return;
+        }
+        long parent = spanShape == SpanShape.WITH_PARENT ? event.getLong(PARENT_SPAN_ID_FIELD) : 0;
+        Long parentSpanId = parent == 0 ? null : parent;
+        long duration = newEvent.duration() != null ? newEvent.duration() : 0;
+
+        SpanSelfTimes.SelfTime selfTime = spanSelfTimes.finish(
+                newEvent.threadId(), traceId, spanId, parentSpanId, newEvent.startTimestamp(), duration);
+
+        writer.onEventSpan(new EventSpan(
+                newEvent.eventType(),
+                newEvent.startTimestamp(),
+                duration,
+                selfTime.selfDuration(),
+                selfTime.countedChildren(),
+                traceId,
+                spanId,
+                parentSpanId,
+                newEvent.threadId(),
+                newEvent.fields()));
+    }
+
+    private RawPlan rawPlan(RawSampleType sampleType, List<RawField> fields) {
+        for (RawField field : fields) {
+            boolean readable = switch (field.kind()) {
+                // Any other stacktrace field would be a column of the event
+                case STACKTRACE -> field.name().equals(STACKTRACE_FIELD);
+                case UNSUPPORTED -> false;
+                default -> true;
+            };
+            if (!readable) {
+                return null;
+            }
+        }
+
+        Type type = typesByEventName.computeIfAbsent(sampleType.name(), Type::fromCode);
+        int samplesIndex = -1;
+        if (type == Type.WALL_CLOCK_SAMPLE) {
+            samplesIndex = rawFieldIndex(fields, SAMPLES_FIELD, RawField.Kind.LONG);
+            if (samplesIndex < 0) {
+                return null;
+            }
+        }
+
+        int weightIndex = -1;
+        int entityIndex = -1;
+        RawWeight rawWeight = RAW_WEIGHTS.get(sampleType.name());
+        if (rawWeight != null) {
+            if (rawWeight.weightField() != null) {
+                weightIndex = rawFieldIndex(fields, rawWeight.weightField(), RawField.Kind.LONG);
+                if (weightIndex < 0) {
+                    return null;
+                }
+            }
+            entityIndex = rawFieldIndex(fields, rawWeight.entityField(), RawField.Kind.CLASS);
+            if (entityIndex < 0) {
+                entityIndex = rawFieldIndex(fields, rawWeight.entityField(), RawField.Kind.LONG);
+            }
+            if (entityIndex < 0) {
+                return null;
+            }
+        }
+
+        int durationIndex = rawFieldIndex(fields, DURATION_FIELD, RawField.Kind.TIMESPAN);
+        return new RawPlan(type, durationIndex, samplesIndex, weightIndex, entityIndex);
+    }
+
+    private static int rawFieldIndex(List<RawField> fields, String name, RawField.Kind kind) {
+        for (int i = 0; i < fields.size(); i++) {
+            RawField field = fields.get(i);
+            if (field.name().equals(name) && field.kind() == kind) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
+    /**
+     * The raw counterpart of {@link #onEvent(RecordedEvent)}: the sample is mapped to the same event,
+     * thread and stacktrace.
+     */
+    private void onRawSample(RawChunkDecoder decoder, RawPlan plan, RawSample sample) {
+        Long threadId = rawThreadId(decoder, sample.threadId());
+
+        Long stacktraceId = null;
+        if (sample.stackTraceId() != 0 && threadId != null) {
+            stacktraceId = rawStacktraceId(decoder, plan.type(), threads.get(threadId), sample.stackTraceId());
+        }
+
+        long samples = plan.samplesIndex() >= 0 ? sample.value(plan.samplesIndex()) : 1;
+        Long weight = plan.weightIndex() >= 0 ? sample.value(plan.weightIndex()) : null;
+        String weightEntity = plan.entityIndex() >= 0 ? rawWeightEntity(decoder, sample, plan.entityIndex()) : null;
+        long duration = plan.durationIndex() >= 0 ? sample.value(plan.durationIndex()) : 0;
+
+        writer.onEvent(new Event(
+                plan.type().code(),
+                Instant.ofEpochSecond(0, sample.timestampNanos()),
+                duration == 0 ? null : duration,
+                samples,
+                weight,
+                weightEntity,
+                stacktraceId,
+                threadId,
+                rawFields(decoder, sample)));
+    }
+
+    private Long rawThreadId(RawChunkDecoder decoder, long threadKey) {
+        Long threadId = rawThreadIds.get(threadKey);
+        if (threadId == null) {
+            RawThread rawThread = decoder.thread(threadKey);
+            if (rawThread == null) {
+                return null;
+            }
+            EventThread thread = mapThread(
+                    rawThread.javaName(),
+                    rawThread.osName(),
+                    rawThread.osThreadId(),
+                    rawThread.javaThreadId(),
+                    rawThread.virtual());
+            threadId = writer.onEventThread(thread);
+            threads.put(threadId, thread);
+            rawThreadIds.put(threadKey, threadId);
+        }
+        return threadId;
+    }
+
+    private Long rawStacktraceId(RawChunkDecoder decoder, Type type, EventThread eventThread, long stackTraceKey) {
+        Long stacktraceId = rawStacktraceIds.get(stackTraceKey);
+        if (stacktraceId == null) {
+            RawStackTrace stackTrace = decoder.stackTrace(stackTraceKey);
+            if (stackTrace == null) {
+                return null;
+            }
+            StacktraceKey key = stacktraceFingerprinter.fingerprint(stackTrace);
+            stacktraceId = stacktraceCache.computeIfAbsent(key, _ -> writeStacktrace(type, eventThread, mapFrames(stackTrace)));
+            rawStacktraceIds.put(stackTraceKey, stacktraceId);
+        }
+        return stacktraceId;
+    }
+
+    private static String rawWeightEntity(RawChunkDecoder decoder, RawSample sample, int entityIndex) {
+        long value = sample.value(entityIndex);
+        return sample.fields().get(entityIndex).kind() == RawField.Kind.CLASS
+                ? decoder.className(value)
+                : String.valueOf(value);
+    }
+
+    /**
+     * Builds the same fields {@link EventFieldsToJsonMapper} builds out of the {@code RecordedEvent}.
+     */
+    private ObjectNode rawFields(RawChunkDecoder decoder, RawSample sample) {
+        ObjectNode node = Json.createObject();
+        List<RawField> fields = sample.fields();
+        for (int i = 0; i < fields.size(); i++) {
+            RawField field = fields.get(i);
+            long value = sample.value(i);
+            switch (field.kind()) {
+                case TIMESTAMP -> node.put(field.name(), Math.floorDiv(value, NANOS_PER_MILLI));
+                case TIMESPAN -> node.put(field.name(), value > 0 ? value : null);
+                case THREAD -> node.put(field.name(), rawThreadName(decoder, value));
+                case CLASS -> {
+                    String className = decoder.className(value);
+                    node.put(field.name(), className != null ? RecordedClassMapper.map(className) : null);
+                }
+                case LONG -> node.put(field.name(), value);
+                case BOOLEAN -> node.put(field.name(), value != 0);
+                case STRING -> node.put(field.name(), decoder.string(field, value));
+                case STACKTRACE, UNSUPPORTED -> {
+                }
+            }
+        }
+        return node;
+    }
+
+    /**
+     * @return the name of the thread as a field of the event, see {@link EventFieldsToJsonMapper}
+     */
+    private String rawThreadName(RawChunkDecoder decoder, long threadKey) {
+        String name = rawThreadNames.get(threadKey);
+        if (name == null) {
+            RawThread thread = decoder.thread(threadKey);
+            if (thread == null) {
+                return null;
+            }
+            name = thread.javaName() == null ? thread.osName() : thread.javaName();
+            if (thread.virtual()) {
+                name = name + " (Virtual)";
+            }
+            rawThreadNames.put(threadKey, name);
+        }
+        return name;
+    }
+
+    /**
+     * @return frames of the stacktrace, the bottom frame first
+     */
+    private static List<EventFrame> mapFrames(RecordedStackTrace stacktrace) {
         List<EventFrame> eventFrames = new ArrayList<>();
         for (RecordedFrame recordedFrame : stacktrace.getFrames().reversed()) {
             RecordedMethod method = recordedFrame.getMethod();
-            EventFrame eventFrame = new EventFrame(
+            eventFrames.add(new EventFrame(
                     method.getType().getName(),
                     method.getName(),
                     recordedFrame.getType(),
                     recordedFrame.getBytecodeIndex(),
-                    recordedFrame.getLineNumber());
+                    recordedFrame.getLineNumber()));
+        }
+        return eventFrames;
+    }
 
-            eventFrames.add(eventFrame);
+    /**
+     * @return frames of the stacktrace, the bottom frame first
+     */
+    private static List<EventFrame> mapFrames(RawStackTrace stacktrace) {
+        List<EventFrame> eventFrames = new ArrayList<>();
+        for (RawFrame rawFrame : stacktrace.frames().reversed()) {
+            eventFrames.add(new EventFrame(
+                    rawFrame.className(),
+                    rawFrame.methodName(),
+                    rawFrame.frameType(),
+                    rawFrame.bytecodeIndex(),
+                    rawFrame.lineNumber()));
+        }
+        return eventFrames;
+    }
+
+    private long writeStacktrace(Type type, EventThread eventThread, List<EventFrame> eventFrames) {
+        StacktraceTypeResolver stacktraceTypeResolver = stacktraceTypeResolverSupplier.get();
+        stacktraceTypeResolver.start(type);
+        stacktraceTypeResolver.applyThread(eventThread);
+        for (EventFrame eventFrame : eventFrames) {
             stacktraceTypeResolver.applyFrame(eventFrame);
         }
 
         StacktraceType stacktraceType = stacktraceTypeResolver.resolve();
-        return new EventStacktrace(stacktraceType, eventFrames);
+        EventStacktrace eventStacktrace = new EventStacktrace(stacktraceType, eventFrames);
+        eventStacktrace.addStacktraceTags(resolveStacktraceTags(eventFrames.reversed()));
+        return writer.onEventStacktrace(eventStacktrace);
     }
 
-    private static Set<StacktraceTag> resolveStacktraceTags(RecordedStackTrace stacktrace) {
+    /**
+     * @param frames frames of the stacktrace, the top frame first
+     */
+    private static Set<StacktraceTag> resolveStacktraceTags(List<EventFrame> frames) {
         Set<StacktraceTag> tags = new HashSet<>();
         for (StacktraceTagResolver tagResolver : tagResolvers) {
-            StacktraceTag tag = tagResolver.apply(stacktrace);
+            StacktraceTag tag = tagResolver.apply(frames);
             if (tag != null) {
                 tags.add(tag);
             }
@@ -207,9 +593,18 @@ public class JfrEventReader implements EventProcessor<Void> {
     }
 
     private EventThread mapThread(RecordedThread thread) {
-        long osThreadId = thread.getOSThreadId();
-        long javaThreadId = thread.getJavaThreadId();
-        String name = thread.getJavaName() != null ? thread.getJavaName() : thread.getOSName();
+        return mapThread(
+                thread.getJavaName(),
+                thread.getOSName(),
+                thread.getOSThreadId(),
+                thread.getJavaThreadId(),
+                thread.isVirtual());
+    }
+
+    private static EventThread mapThread(
+            String javaName, String osName, long osThreadId, long javaThreadId, boolean virtual) {
+
+        String name = javaName != null ? javaName : osName;
         if (name == null) {
             // it's a default format for threads without a name for AsyncProfiler
             // there is a mechanism to resolve the real name of the thread later
@@ -220,7 +615,7 @@ public class JfrEventReader implements EventProcessor<Void> {
                 name,
                 osThreadId < 0 ? null : osThreadId,
                 javaThreadId < 0 ? null : javaThreadId,
-                thread.isVirtual());
+                virtual);
     }
 
     @Override
@@ -267,6 +662,28 @@ public class JfrEventReader implements EventProcessor<Void> {
         };
     }
 
+    private SpanShape resolveSpanShape(RecordedEvent event) {
+        return spanShapesByTypeId.computeIfAbsent(event.getEventType().getId(), _ -> {
+            jdk.jfr.EventType eventType = event.getEventType();
+            if (!isIntegral(eventType.getField(SPAN_ID_FIELD)) || !isIntegral(eventType.getField(TRACE_ID_FIELD))) {
+                return SpanShape.NONE;
+            }
+            return isIntegral(eventType.getField(PARENT_SPAN_ID_FIELD))
+                    ? SpanShape.WITH_PARENT
+                    : SpanShape.WITHOUT_PARENT;
+        });
+    }
+
+    private static boolean isIntegral(ValueDescriptor field) {
+        if (field == null) {
+            return false;
+        }
+        return switch (field.getTypeName()) {
+            case "long", "int", "short", "byte" -> true;
+            default -> false;
+        };
+    }
+
     private long calculateSamples(RecordedEvent event, Type eventType) {
         if (eventType != Type.WALL_CLOCK_SAMPLE) {
             return 1;
@@ -22,14 +22,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import cafe.jeffrey.jfrparser.jdk.EventProcessor;
 import cafe.jeffrey.jfrparser.jdk.JdkRecordingIterators;
+import cafe.jeffrey.jfrparser.jdk.JdkRecordingIterators.NoopCollector;
+import cafe.jeffrey.jfrparser.jdk.RecordingFileIterator;
+import cafe.jeffrey.jfrparser.raw.JfrChunkRange;
 import cafe.jeffrey.jfrparser.raw.JfrParser;
+import cafe.jeffrey.profile.parser.stacktrace.StacktraceCache;
 import cafe.jeffrey.provider.profile.api.EventWriter;
 import cafe.jeffrey.provider.profile.api.RecordingEventParser;
 import cafe.jeffrey.shared.common.compression.Lz4Compressor;
+import cafe.jeffrey.shared.common.filesystem.FileSystemUtils;
 import cafe.jeffrey.shared.common.filesystem.TempDirFactory;
 import cafe.jeffrey.shared.common.filesystem.TempDirectory;
 
 import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.List;
 import java.util.function.Supplier;
 
@@ -53,25 +59,71 @@ public class JfrRecordingEventParser implements RecordingEventParser {
         try (TempDirectory tempDir = tempDirFactory.newTempDir()) {
             LOG.info("Created the profile's temporary folder: {}", tempDir.path());
 
-            List<Path> recordingChunks = disassembleToChunks(recording, tempDir);
+            // One cache for all chunks of the recording: every chunk hands over fresh
+            // RecordedStackTrace instances, only the content identifies the same stack again.
+            StacktraceCache stacktraceCache = new StacktraceCache();
             Supplier<EventProcessor<Void>> eventProcessor =
-                    () -> new JfrEventReader(eventWriter.newSingleThreadedWriter());
+                    () -> new JfrEventReader(eventWriter.newSingleThreadedWriter(), stacktraceCache);
 
-            JdkRecordingIterators.parallelAndWait(recordingChunks, eventProcessor);
+            int chunks = Lz4Compressor.isLz4Compressed(recording)
+                    ? parseCompressed(recording, tempDir, eventProcessor)
+                    : parsePlain(recording, tempDir, eventProcessor);
+
+            LOG.info("Recording parsed: recording={} chunks={} stacktrace_cache_hits={} " +
+                            "stacktrace_cache_misses={} stacktrace_cache_size={}",
+                    recording, chunks, stacktraceCache.hits(), stacktraceCache.misses(),
+                    stacktraceCache.size());
         }
     }
 
     /**
-     * Disassembles the recording into chunk files. LZ4 compressed recordings are streamed
+     * Parses a plain recording straight from its chunk boundaries. A recording made of a single chunk
+     * is parsed in place without any copy. Otherwise, every chunk is extracted by the worker that parses
+     * it (see {@link ChunkRangeFileIterator}), the biggest chunks first so an oversized chunk does not
+     * start last and become the tail of the whole parsing.
+     */
+    private static int parsePlain(
+            Path recording, TempDirectory tempDir, Supplier<EventProcessor<Void>> eventProcessor) {
+
+        List<JfrChunkRange> ranges = JfrParser.chunkRanges(recording);
+        if (ranges.size() == 1 && ranges.getFirst().size() == FileSystemUtils.size(recording)) {
+            JdkRecordingIterators.<Void, Void>single(recording, eventProcessor.get()).collect(new NoopCollector());
+            return 1;
+        }
+
+        Path chunksDir = tempDir.path().resolve(CHUNKS_DIR);
+        List<Supplier<RecordingFileIterator<Void, Void>>> iterators = ranges.stream()
+                .sorted(Comparator.comparingLong(JfrChunkRange::size).reversed())
+                .<Supplier<RecordingFileIterator<Void, Void>>>map(range ->
+                        () -> new ChunkRangeFileIterator<>(recording, range, chunksDir, eventProcessor.get()))
+                .toList();
+
+        JdkRecordingIterators.<Void, Void>parallel(iterators).collect(new NoopCollector());
+        return ranges.size();
+    }
+
+    /**
+     * LZ4 compressed recordings have no random access, the chunks are streamed into files first.
+     * They are then parsed the biggest first, the same as the plain recordings.
+     */
+    private int parseCompressed(
+            Path recording, TempDirectory tempDir, Supplier<EventProcessor<Void>> eventProcessor) {
+
+        List<Path> recordingChunks = disassembleToChunks(recording, tempDir).stream()
+                .sorted(Comparator.comparingLong(FileSystemUtils::size).reversed())
+                .toList();
+
+        JdkRecordingIterators.parallelAndWait(recordingChunks, eventProcessor);
+        return recordingChunks.size();
+    }
+
+    /**
+     * Disassembles the LZ4 compressed recording into chunk files. The recording is streamed
      * directly into the chunk files (single pass over the compressed data, no intermediate
      * decompressed copy on disk). If streaming fails, it falls back to the eager
      * decompress-to-dir path, mirroring {@link JfrRecordingInformationParser}.
      */
     private List<Path> disassembleToChunks(Path recording, TempDirectory tempDir) {
-        if (!Lz4Compressor.isLz4Compressed(recording)) {
-            return JfrParser.disassemble(recording, tempDir.path().resolve(CHUNKS_DIR));
-        }
-
         try {
             return JfrParser.disassemble(recording, tempDir.path().resolve(CHUNKS_DIR));
         } catch (Exception e) {
@@ -0,0 +1,175 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.profile.parser;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Works out each span's self time while the recording streams, so the trace derivation does not
+ * have to join every span against its children afterwards.
+ * <p>
+ * JFR writes an event when it ends, and a span ends after the children it waited for on its own
+ * thread. So instead of a stack of open spans, which a stream of finished events never shows, this
+ * keeps the finished children per thread until their parent arrives: the parent then subtracts
+ * the stretches they covered — clipped to its window and merged, so concurrent children count
+ * once — and the children are forgotten.
+ * <p>
+ * A child whose parent never arrives here (another thread, another chunk, not recorded) or that
+ * arrives after its parent is simply not counted; the derivation sees that the parent's counted
+ * children do not match the table and resolves that parent itself. The arithmetic is in the same
+ * microseconds the derivation uses, so both arrive at the same number for the same children.
+ * <p>
+ * Children waiting for a parent that never arrives would otherwise stay for the whole chunk, so the
+ * number of awaited parents is bounded: past the bound the parent awaited longest is dropped, and
+ * its children go uncounted the same way.
+ * <p>
+ * One instance per chunk reader, driven by a single thread.
+ */
+final class SpanSelfTimes {
+
+    /**
+     * @param selfDuration    the span's duration minus what its counted children covered, in nanos
+     * @param countedChildren how many distinct children were subtracted
+     */
+    record SelfTime(long selfDuration, int countedChildren) {
+    }
+
+    private record SpanKey(long threadHash, long traceId, long spanId) {
+    }
+
+    private record FinishedChild(long spanId, long startMicros, long durationNanos) {
+    }
+
+    /**
+     * The child the derivation keeps when a span id repeats: earliest start, shortest duration.
+     */
+    private static final Comparator<FinishedChild> DEDUPE_ORDER =
+            Comparator.comparingLong(FinishedChild::startMicros).thenComparingLong(FinishedChild::durationNanos);
+
+    private static final long NANOS_PER_MICRO = 1_000L;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    /**
+     * Parents awaited at the same time. A parent arrives right after the children it waited for on
+     * its thread, so only spans open across many threads at once come anywhere near it.
+     */
+    static final int DEFAULT_MAX_WAITING_PARENTS = 65_536;
+
+    private final Map<SpanKey, List<FinishedChild>> waitingForParent;
+
+    SpanSelfTimes() {
+        this(DEFAULT_MAX_WAITING_PARENTS);
+    }
+
+    SpanSelfTimes(int maxWaitingParents) {
+        if (maxWaitingParents < 1) {
+            throw new IllegalArgumentException("At least one waiting parent must be allowed: " + maxWaitingParents);
+        }
+        this.waitingForParent = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SpanKey, List<FinishedChild>> eldest) {
+                return size() > maxWaitingParents;
+            }
+        };
+    }
+
+    /**
+     * Number of parents some finished children are still waiting for.
+     */
+    int waitingParents() {
+        return waitingForParent.size();
+    }
+
+    /**
+     * Resolves the self time of a span that has just finished and, if it has a parent, keeps it
+     * around as that parent's child.
+     *
+     * @param threadHash    thread the span ran on, {@code null} when it did not resolve
+     * @param parentSpanId  {@code null} for a root span
+     * @param durationNanos {@code 0} when the event recorded no duration
+     */
+    SelfTime finish(
+            Long threadHash,
+            long traceId,
+            long spanId,
+            Long parentSpanId,
+            Instant startTime,
+            long durationNanos) {
+
+        long thread = threadHash != null ? threadHash : 0;
+        long startMicros = toMicros(startTime);
+
+        List<FinishedChild> children = waitingForParent.remove(new SpanKey(thread, traceId, spanId));
+        SelfTime selfTime = children == null
+                ? new SelfTime(durationNanos, 0)
+                : subtract(children, startMicros, durationNanos);
+
+        if (parentSpanId != null) {
+            waitingForParent
+                    .computeIfAbsent(new SpanKey(thread, traceId, parentSpanId), _ -> new ArrayList<>(2))
+                    .add(new FinishedChild(spanId, startMicros, durationNanos));
+        }
+        return selfTime;
+    }
+
+    private static SelfTime subtract(List<FinishedChild> children, long startMicros, long durationNanos) {
+        Map<Long, FinishedChild> distinct = new HashMap<>();
+        for (FinishedChild child : children) {
+            distinct.merge(child.spanId(), child, (a, b) -> DEDUPE_ORDER.compare(a, b) <= 0 ? a : b);
+        }
+
+        long endMicros = startMicros + durationNanos / NANOS_PER_MICRO;
+        List<long[]> windows = new ArrayList<>(distinct.size());
+        for (FinishedChild child : distinct.values()) {
+            long from = Math.max(child.startMicros(), startMicros);
+            long to = Math.min(child.startMicros() + child.durationNanos() / NANOS_PER_MICRO, endMicros);
+            if (to > from) {
+                windows.add(new long[]{from, to});
+            }
+        }
+        windows.sort(Comparator.<long[]>comparingLong(w -> w[0]).thenComparingLong(w -> w[1]));
+
+        long coveredMicros = 0;
+        long islandFrom = 0;
+        long islandTo = Long.MIN_VALUE;
+        for (long[] window : windows) {
+            if (window[0] > islandTo) {
+                coveredMicros += Math.max(0, islandTo - islandFrom);
+                islandFrom = window[0];
+                islandTo = window[1];
+            } else {
+                islandTo = Math.max(islandTo, window[1]);
+            }
+        }
+        coveredMicros += Math.max(0, islandTo - islandFrom);
+
+        long selfDuration = Math.max(0, durationNanos - coveredMicros * NANOS_PER_MICRO);
+        return new SelfTime(selfDuration, distinct.size());
+    }
+
+    private static long toMicros(Instant instant) {
+        return instant.getEpochSecond() * MICROS_PER_SECOND + instant.getNano() / NANOS_PER_MICRO;
+    }
+}
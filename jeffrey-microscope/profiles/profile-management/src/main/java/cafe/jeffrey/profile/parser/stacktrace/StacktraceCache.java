@@ -0,0 +1,115 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.profile.parser.stacktrace;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded, content-addressed cache of stacktraces which were already handed over to the writer,
+ * mapping {@link StacktraceKey} to the stacktrace id the writer returned. One instance is shared
+ * by all chunk readers of a single recording, so a stack seen in the first chunk is not mapped to
+ * frames and hashed again in every following chunk.
+ *
+ * <p>The cache is split into independently locked LRU segments to keep the parallel chunk readers
+ * from contending on one lock. The loader is called outside the lock: two readers missing the same
+ * key at the same time both load it, which is harmless because the writer deduplicates stacktraces
+ * on its own.
+ */
+public class StacktraceCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1_000_000;
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public StacktraceCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public StacktraceCache(int maxEntries) {
+        if (maxEntries < SEGMENTS) {
+            throw new IllegalArgumentException("Max entries must be at least " + SEGMENTS + ": " + maxEntries);
+        }
+
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            this.segments[i] = new Segment(maxEntries / SEGMENTS);
+        }
+    }
+
+    public long computeIfAbsent(StacktraceKey key, ToLongFunction<StacktraceKey> loader) {
+        Segment segment = segments[(int) (key.high() & (SEGMENTS - 1))];
+
+        Long cached;
+        synchronized (segment) {
+            cached = segment.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        long stacktraceId = loader.applyAsLong(key);
+        synchronized (segment) {
+            segment.put(key, stacktraceId);
+        }
+        return stacktraceId;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private static final class Segment extends LinkedHashMap<StacktraceKey, Long> {
+
+        private final int maxEntries;
+
+        private Segment(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<StacktraceKey, Long> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.profile.parser.stacktrace;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import cafe.jeffrey.jfrparser.raw.RawFrame;
+import cafe.jeffrey.jfrparser.raw.RawStackTrace;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Computes {@link StacktraceKey}s out of {@link RecordedStackTrace}s. The JDK parser keeps one
+ * {@link RecordedMethod} instance per constant-pool entry of a chunk, so the method fingerprint
+ * (the expensive part, it walks the class and method names) is computed once per method and chunk
+ * and every frame afterwards costs only a few multiplications. A {@link RawStackTrace} of the same
+ * frames gets the same key, so stacks read by either parser share the entries of the cache.
+ *
+ * <p>Not thread-safe, one instance belongs to one chunk reader.
+ */
+public class StacktraceFingerprinter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final long HIGH_SEED = 0x9E3779B97F4A7C15L;
+    private static final long LOW_SEED = 0xC2B2AE3D27D4EB4FL;
+    private static final long TRUNCATED = 0x165667B19E3779F9L;
+
+    private final Map<RecordedMethod, Long> methodFingerprints = new IdentityHashMap<>();
+
+    private long high;
+    private long low;
+
+    public StacktraceKey fingerprint(RecordedStackTrace stacktrace) {
+        List<RecordedFrame> frames = stacktrace.getFrames();
+
+        start();
+        for (int i = 0; i < frames.size(); i++) {
+            RecordedFrame frame = frames.get(i);
+            long method = methodFingerprints.computeIfAbsent(frame.getMethod(), StacktraceFingerprinter::methodFingerprint);
+            addFrame(method, frame.getBytecodeIndex(), frame.getLineNumber(), frame.getType());
+        }
+        return finish(stacktrace.isTruncated(), frames.size());
+    }
+
+    /**
+     * The raw decoder resolves every distinct stacktrace once per chunk, its methods are hashed
+     * right away without being cached.
+     */
+    public StacktraceKey fingerprint(RawStackTrace stacktrace) {
+        List<RawFrame> frames = stacktrace.frames();
+
+        start();
+        for (int i = 0; i < frames.size(); i++) {
+            RawFrame frame = frames.get(i);
+            long method = methodFingerprint(frame.className(), frame.methodName());
+            addFrame(method, frame.bytecodeIndex(), frame.lineNumber(), frame.frameType());
+        }
+        return finish(stacktrace.truncated(), frames.size());
+    }
+
+    private void start() {
+        high = HIGH_SEED;
+        low = LOW_SEED;
+    }
+
+    private void addFrame(long method, int bytecodeIndex, int lineNumber, String type) {
+        long position = ((long) bytecodeIndex << 32) ^ (lineNumber & 0xFFFFFFFFL);
+        long frameType = Objects.hashCode(type);
+
+        high = mix(high * 31 + method) ^ mix(position + frameType);
+        low = mix(low ^ Long.rotateLeft(method, 29)) * FNV_PRIME + (position ^ (frameType << 48));
+    }
+
+    private StacktraceKey finish(boolean truncated, int depth) {
+        if (truncated) {
+            // The JVM cut the stack at its depth limit, the same frames are a different stack than a complete one
+            high ^= TRUNCATED;
+            low ^= TRUNCATED;
+        }
+        return new StacktraceKey(mix(high), mix(low), depth);
+    }
+
+    private static long methodFingerprint(RecordedMethod method) {
+        return methodFingerprint(method.getType().getName(), method.getName());
+    }
+
+    /**
+     * FNV-1a over the characters of the class and method names, with a separator so that
+     * {@code a.B#cd} and {@code a.Bc#d} do not collide.
+     */
+    private static long methodFingerprint(String className, String methodName) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hashChars(hash, className);
+        hash = (hash ^ '#') * FNV_PRIME;
+        hash = hashChars(hash, methodName);
+        return hash;
+    }
+
+    private static long hashChars(long hash, String value) {
+        if (value == null) {
+            return hash;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
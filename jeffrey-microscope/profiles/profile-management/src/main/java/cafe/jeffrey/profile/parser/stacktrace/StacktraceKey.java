@@ -0,0 +1,34 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.profile.parser.stacktrace;
+
+/**
+ * Content-based identity of a stacktrace: two independent 64-bit lanes folded over the
+ * (method, frame type, bytecode index, line number) tuples of all frames and the truncation flag.
+ * Unlike the {@link jdk.jfr.consumer.RecordedStackTrace} instance it is computed from, the key is
+ * stable across chunks and recordings, so the same stack read from two different chunks resolves
+ * to the same key.
+ *
+ * @param high  first hash lane
+ * @param low   second hash lane, seeded and mixed independently of the first one
+ * @param depth number of frames, a cheap extra discriminator
+ */
+public record StacktraceKey(long high, long low, int depth) {
+}
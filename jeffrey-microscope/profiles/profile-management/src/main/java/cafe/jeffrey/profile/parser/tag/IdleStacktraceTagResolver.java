@@ -18,11 +18,8 @@
 
 package cafe.jeffrey.profile.parser.tag;
 
-import jdk.jfr.consumer.RecordedClass;
-import jdk.jfr.consumer.RecordedFrame;
-import jdk.jfr.consumer.RecordedMethod;
-import jdk.jfr.consumer.RecordedStackTrace;
 import cafe.jeffrey.profile.common.model.FrameType;
+import cafe.jeffrey.provider.profile.api.EventFrame;
 import cafe.jeffrey.shared.common.model.StacktraceTag;
 
 import java.util.List;
@@ -32,21 +29,20 @@ public class IdleStacktraceTagResolver implements StacktraceTagResolver {
     private static final String UNSAFE_CLASS = "jdk.internal.misc.Unsafe";
 
     @Override
-    public StacktraceTag apply(RecordedStackTrace stacktrace) {
-        if (isIdleSample(stacktrace)) {
+    public StacktraceTag apply(List<EventFrame> frames) {
+        if (isIdleSample(frames)) {
             return StacktraceTag.EXCLUDE_IDLE;
         }
 
         return null;
     }
 
-    private static boolean isIdleSample(RecordedStackTrace stackTrace) {
-        List<RecordedFrame> frames = stackTrace.getFrames();
+    private static boolean isIdleSample(List<EventFrame> frames) {
         for (int i = 0; i < frames.size(); i++) {
-            RecordedFrame frame = frames.get(i);
-            FrameType frameType = FrameType.fromCode(frame.getType());
+            EventFrame frame = frames.get(i);
+            FrameType frameType = FrameType.fromCode(frame.type());
             if (frameType.isJavaFrame()) {
-                String className = frame.getMethod().getType().getName();
+                String className = frame.clazz();
                 if (className.equals(UNSAFE_CLASS)) {
                     return findExecutor(frames, i);
                 }
@@ -57,17 +53,16 @@ public class IdleStacktraceTagResolver implements StacktraceTagResolver {
         return false;
     }
 
-    private static boolean findExecutor(List<RecordedFrame> frames, int index) {
+    private static boolean findExecutor(List<EventFrame> frames, int index) {
         for (int i = index; i < frames.size(); ++i) {
-            RecordedFrame frame = frames.get(i);
-            FrameType frameType = FrameType.fromCode(frame.getType());
+            EventFrame frame = frames.get(i);
+            FrameType frameType = FrameType.fromCode(frame.type());
 
             if (frameType.isJavaFrame()) {
-                RecordedMethod method = frame.getMethod();
-                RecordedClass clazz = method.getType();
+                String clazz = frame.clazz();
 
                 // Cannot leave the `java.util.concurrent` package
-                if (clazz.getName().startsWith("java.util.concurrent")) {
+                if (clazz.startsWith("java.util.concurrent")) {
                     if (matchesForkJoinPool(clazz) || matchesExecutor(clazz)) {
                         return true;
                     }
@@ -82,11 +77,11 @@ public class IdleStacktraceTagResolver implements StacktraceTagResolver {
         return false;
     }
 
-    private static boolean matchesForkJoinPool(RecordedClass clazz) {
-        return clazz.getName().equals("java.util.concurrent.ForkJoinPool");
+    private static boolean matchesForkJoinPool(String clazz) {
+        return clazz.equals("java.util.concurrent.ForkJoinPool");
     }
 
-    private static boolean matchesExecutor(RecordedClass clazz) {
-        return clazz.getName().endsWith("Executor");
+    private static boolean matchesExecutor(String clazz) {
+        return clazz.endsWith("Executor");
     }
 }
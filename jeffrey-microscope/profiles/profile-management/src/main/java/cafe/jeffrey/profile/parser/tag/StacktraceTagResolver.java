@@ -18,10 +18,14 @@
 
 package cafe.jeffrey.profile.parser.tag;
 
-import jdk.jfr.consumer.RecordedStackTrace;
+import cafe.jeffrey.provider.profile.api.EventFrame;
 import cafe.jeffrey.shared.common.model.StacktraceTag;
 
+import java.util.List;
 import java.util.function.Function;
 
-public interface StacktraceTagResolver extends Function<RecordedStackTrace, StacktraceTag> {
+/**
+ * Resolves a tag of a stacktrace out of its frames, the top frame first.
+ */
+public interface StacktraceTagResolver extends Function<List<EventFrame>, StacktraceTag> {
 }
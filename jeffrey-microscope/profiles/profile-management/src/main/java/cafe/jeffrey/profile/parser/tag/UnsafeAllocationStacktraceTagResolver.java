@@ -18,20 +18,21 @@
 
 package cafe.jeffrey.profile.parser.tag;
 
-import jdk.jfr.consumer.RecordedFrame;
-import jdk.jfr.consumer.RecordedStackTrace;
 import cafe.jeffrey.profile.common.model.FrameType;
+import cafe.jeffrey.provider.profile.api.EventFrame;
 import cafe.jeffrey.shared.common.model.StacktraceTag;
 
+import java.util.List;
+
 public class UnsafeAllocationStacktraceTagResolver implements StacktraceTagResolver {
 
     public static final String UNSAFE_ALLOCATE_MEMORY = "Unsafe_AllocateMemory";
 
     @Override
-    public StacktraceTag apply(RecordedStackTrace stacktrace) {
-        RecordedFrame firstNativeFrame = findFirstNativeFrame(stacktrace);
+    public StacktraceTag apply(List<EventFrame> frames) {
+        EventFrame firstNativeFrame = findFirstNativeFrame(frames);
         if (firstNativeFrame != null) {
-            boolean isUnsafeAlloc = firstNativeFrame.getMethod().getName().startsWith(UNSAFE_ALLOCATE_MEMORY);
+            boolean isUnsafeAlloc = firstNativeFrame.method().startsWith(UNSAFE_ALLOCATE_MEMORY);
             if (isUnsafeAlloc) {
                 return StacktraceTag.UNSAFE_ALLOCATION;
             }
@@ -39,9 +40,9 @@ public class UnsafeAllocationStacktraceTagResolver implements StacktraceTagResol
         return null;
     }
 
-    private static RecordedFrame findFirstNativeFrame(RecordedStackTrace stackTrace) {
-        for (RecordedFrame frame : stackTrace.getFrames()) {
-            FrameType frameType = FrameType.fromCode(frame.getType());
+    private static EventFrame findFirstNativeFrame(List<EventFrame> frames) {
+        for (EventFrame frame : frames) {
+            FrameType frameType = FrameType.fromCode(frame.type());
             // Iterate from the bottom to up the stack trace, ignore CPP and Kernel frames
             // return NULL if the Java frame is hit before the NATIVE one
             if (frameType == FrameType.NATIVE) {
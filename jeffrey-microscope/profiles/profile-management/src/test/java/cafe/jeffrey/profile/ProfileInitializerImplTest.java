@@ -21,6 +21,7 @@ package cafe.jeffrey.profile;
 import cafe.jeffrey.profile.manager.ProfileManager;
 import cafe.jeffrey.profile.manager.action.ProfileDataInitializer;
 import cafe.jeffrey.provider.profile.api.EventWriter;
+import cafe.jeffrey.provider.profile.api.ProfileCacheRepository;
 import cafe.jeffrey.provider.profile.api.ProfileRepositories;
 import cafe.jeffrey.provider.profile.api.RecordingEventParser;
 import cafe.jeffrey.provider.profile.api.RecordingEventParserResolver;
@@ -93,6 +94,9 @@ class ProfileInitializerImplTest {
     @Mock
     RecordingEventParser recordingEventParser;
 
+    @Mock
+    ProfileCacheRepository profileCacheRepository;
+
     private ProfileInitializerImpl initializer(ProfileInfo profileInfo) {
         DataSource dataSource = mock(DataSource.class);
         DatabaseLease lease = mock(DatabaseLease.class);
@@ -104,6 +108,7 @@ class ProfileInitializerImplTest {
         when(profileRepositories.newTraceRepository(dataSource)).thenReturn(traceRepository);
         when(profileRepositories.newTraceAttributeRepository(dataSource))
                 .thenReturn(traceAttributeRepository);
+        when(profileRepositories.newProfileCacheRepository(dataSource)).thenReturn(profileCacheRepository);
 
         // The re-cluster and checkpoint steps at the tail run through the infrastructure client.
         DatabaseClientProvider clientProvider = mock(DatabaseClientProvider.class);
@@ -138,4 +143,19 @@ class ProfileInitializerImplTest {
         inOrder.verify(traceAttributeRepository).derive();
         inOrder.verify(profileDataInitializer).initialize(any());
     }
+
+    @Test
+    @DisplayName("drops the cached results of the previous content before parsing")
+    void clearsProfileCacheBeforeParsing() {
+        ProfileInfo profileInfo = mock(ProfileInfo.class);
+        when(profileInfo.id()).thenReturn("profile-1");
+
+        initializer(profileInfo).initialize(profileInfo, null, Path.of("recording.jfr"));
+
+        // Cached flamegraphs are keyed only by their parameters; kept across a re-initialization
+        // they would keep showing the graphs of the recording that was parsed before.
+        InOrder inOrder = inOrder(profileCacheRepository, recordingEventParser);
+        inOrder.verify(profileCacheRepository).clearAll();
+        inOrder.verify(recordingEventParser).start(any(), any());
+    }
 }
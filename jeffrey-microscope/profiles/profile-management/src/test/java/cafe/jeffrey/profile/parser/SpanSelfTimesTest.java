@@ -0,0 +1,170 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.profile.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("SpanSelfTimes")
+class SpanSelfTimesTest {
+
+    private static final long MS = 1_000_000L;
+    private static final long US = 1_000L;
+    private static final Long THREAD = 3001L;
+    private static final Long OTHER_THREAD = 3002L;
+    private static final long TRACE = 8001L;
+    private static final Instant ORIGIN = Instant.parse("2025-01-15T10:00:00Z");
+
+    private static Instant at(long nanos) {
+        return ORIGIN.plusNanos(nanos);
+    }
+
+    @Test
+    @DisplayName("Subtracts a child that finished before its parent on the same thread")
+    void subtractsFinishedChild() {
+        SpanSelfTimes selfTimes = new SpanSelfTimes();
+
+        SpanSelfTimes.SelfTime child = selfTimes.finish(THREAD, TRACE, 2, 1L, at(10 * MS), 30 * MS);
+        SpanSelfTimes.SelfTime parent = selfTimes.finish(THREAD, TRACE, 1, null, at(0), 100 * MS);
+
+        assertEquals(new SpanSelfTimes.SelfTime(30 * MS, 0), child);
+        assertEquals(new SpanSelfTimes.SelfTime(70 * MS, 1), parent);
+    }
+
+    @Test
+    @DisplayName("Subtracts overlapping children once")
+    void mergesOverlappingChildren() {
+        SpanSelfTimes selfTimes = new SpanSelfTimes();
+
+        selfTimes.finish(THREAD, TRACE, 2, 1L, at(10 * MS), 30 * MS);
+        selfTimes.finish(THREAD, TRACE, 3, 1L, at(20 * MS), 30 * MS);
+        SpanSelfTimes.SelfTime parent = selfTimes.finish(THREAD, TRACE, 1, null, at(0), 100 * MS);
+
+        assertEquals(new SpanSelfTimes.SelfTime(60 * MS, 2), parent);
+    }
+
+    @Test
+    @DisplayName("Clips a child outliving its parent to the stretch the two shared")
+    void clipsToParentWindow() {
+        SpanSelfTimes selfTimes = new SpanSelfTimes();
+
+        selfTimes.finish(THREAD, TRACE, 2, 1L, at(20 * MS), 80 * MS);
+        SpanSelfTimes.SelfTime parent = selfTimes.finish(THREAD, TRACE, 1, null, at(0), 50 * MS);
+
+        assertEquals(new SpanSelfTimes.SelfTime(20 * MS, 1), parent);
+    }
+
+    @Test
+    @DisplayName("Keeps sub-millisecond children at microsecond precision")
+    void subtractsSubMillisecondChildren() {
+        SpanSelfTimes selfTimes = new SpanSelfTimes();
+
+        selfTimes.finish(THREAD, TRACE, 2, 1L, at(500 * US), 600 * US);
+        selfTimes.finish(THREAD, TRACE, 3, 1L, at(2_000 * US), 400 * US);
+        SpanSelfTimes.SelfTime parent = selfTimes.finish(THREAD, TRACE, 1, null, at(0), 4_000 * US);
+
+        assertEquals(new SpanSelfTimes.SelfTime(3_000 * US, 2), parent);
+    }
+
+    @Test
+    @DisplayName("Leaves a child on another thread uncounted")
+    void ignoresOtherThreads() {
+        SpanSelfTimes selfTimes = new SpanSelfTimes();
+
+        selfTimes.finish(OTHER_THREAD, TRACE, 2, 1L, at(10 * MS), 30 * MS);
+        SpanSelfTimes.SelfTime parent = selfTimes.finish(THREAD, TRACE, 1, null, at(0), 100 * MS);
+
+        assertEquals(new SpanSelfTimes.SelfTime(100 * MS, 0), parent);
+    }
+
+    @Test
+    @DisplayName("Leaves a child finishing after its parent uncounted")
+    void ignoresLateChildren() {
+        SpanSelfTimes selfTimes = new SpanSelfTimes();
+
+        SpanSelfTimes.SelfTime parent = selfTimes.finish(THREAD, TRACE, 1, null, at(0), 100 * MS);
+        selfTimes.finish(THREAD, TRACE, 2, 1L, at(10 * MS), 30 * MS);
+
+        assertEquals(new SpanSelfTimes.SelfTime(100 * MS, 0), parent);
+    }
+
+    @Test
+    @DisplayName("Counts a repeated child span id once")
+    void countsDuplicatedChildOnce() {
+        SpanSelfTimes selfTimes = new SpanSelfTimes();
+
+        selfTimes.finish(THREAD, TRACE, 2, 1L, at(10 * MS), 30 * MS);
+        selfTimes.finish(THREAD, TRACE, 2, 1L, at(10 * MS), 30 * MS);
+        SpanSelfTimes.SelfTime parent = selfTimes.finish(THREAD, TRACE, 1, null, at(0), 100 * MS);
+
+        assertEquals(new SpanSelfTimes.SelfTime(70 * MS, 1), parent);
+    }
+
+    @Test
+    @DisplayName("Forgets the children of the parent awaited longest once the bound is reached")
+    void boundsWaitingParents() {
+        SpanSelfTimes selfTimes = new SpanSelfTimes(2);
+
+        // Children of three different parents, none of which has arrived yet
+        selfTimes.finish(THREAD, TRACE, 11, 1L, at(10 * MS), 30 * MS);
+        selfTimes.finish(THREAD, TRACE, 12, 2L, at(10 * MS), 30 * MS);
+        selfTimes.finish(THREAD, TRACE, 13, 3L, at(10 * MS), 30 * MS);
+        assertEquals(2, selfTimes.waitingParents());
+
+        SpanSelfTimes.SelfTime evicted = selfTimes.finish(THREAD, TRACE, 1, null, at(0), 100 * MS);
+        SpanSelfTimes.SelfTime kept = selfTimes.finish(THREAD, TRACE, 3, null, at(0), 100 * MS);
+
+        assertEquals(new SpanSelfTimes.SelfTime(100 * MS, 0), evicted);
+        assertEquals(new SpanSelfTimes.SelfTime(70 * MS, 1), kept);
+        assertEquals(1, selfTimes.waitingParents());
+    }
+
+    @Test
+    @DisplayName("Forgets the children once their parent arrived")
+    void releasesResolvedParents() {
+        SpanSelfTimes selfTimes = new SpanSelfTimes();
+
+        selfTimes.finish(THREAD, TRACE, 2, 1L, at(10 * MS), 30 * MS);
+        selfTimes.finish(THREAD, TRACE, 1, null, at(0), 100 * MS);
+
+        assertEquals(0, selfTimes.waitingParents());
+    }
+
+    @Test
+    @DisplayName("Rejects a bound without any waiting parent")
+    void rejectsZeroBound() {
+        assertThrows(IllegalArgumentException.class, () -> new SpanSelfTimes(0));
+    }
+
+    @Test
+    @DisplayName("Matches children to their parent within the same trace only")
+    void separatesTraces() {
+        SpanSelfTimes selfTimes = new SpanSelfTimes();
+
+        selfTimes.finish(THREAD, TRACE + 1, 2, 1L, at(10 * MS), 30 * MS);
+        SpanSelfTimes.SelfTime parent = selfTimes.finish(THREAD, TRACE, 1, null, at(0), 100 * MS);
+
+        assertEquals(new SpanSelfTimes.SelfTime(100 * MS, 0), parent);
+    }
+}
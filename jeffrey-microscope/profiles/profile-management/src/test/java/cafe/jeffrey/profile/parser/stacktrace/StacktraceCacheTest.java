@@ -0,0 +1,89 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.profile.parser.stacktrace;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("StacktraceCache")
+class StacktraceCacheTest {
+
+    @Test
+    @DisplayName("Loads a key only once and counts hits and misses")
+    void loadsOnceAndCountsHits() {
+        StacktraceCache cache = new StacktraceCache();
+        AtomicInteger loads = new AtomicInteger();
+        StacktraceKey key = new StacktraceKey(1L, 2L, 3);
+
+        long first = cache.computeIfAbsent(key, _ -> {
+            loads.incrementAndGet();
+            return 42L;
+        });
+        long second = cache.computeIfAbsent(new StacktraceKey(1L, 2L, 3), _ -> {
+            loads.incrementAndGet();
+            return 43L;
+        });
+
+        assertEquals(42L, first);
+        assertEquals(42L, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    @DisplayName("Keys differing in any lane are distinct entries")
+    void distinctKeys() {
+        StacktraceCache cache = new StacktraceCache();
+
+        cache.computeIfAbsent(new StacktraceKey(1L, 2L, 3), _ -> 1L);
+        cache.computeIfAbsent(new StacktraceKey(1L, 5L, 3), _ -> 2L);
+        cache.computeIfAbsent(new StacktraceKey(1L, 2L, 4), _ -> 3L);
+
+        assertEquals(3, cache.size());
+        assertEquals(0, cache.hits());
+        assertEquals(3, cache.misses());
+    }
+
+    @Test
+    @DisplayName("Evicts the least recently used entries when the bound is reached")
+    void boundedSize() {
+        int maxEntries = 64;
+        StacktraceCache cache = new StacktraceCache(maxEntries);
+
+        for (long i = 0; i < 10_000; i++) {
+            long id = i;
+            cache.computeIfAbsent(new StacktraceKey(i, i, 1), _ -> id);
+        }
+
+        assertEquals(maxEntries, cache.size());
+    }
+
+    @Test
+    @DisplayName("Rejects a bound smaller than the number of segments")
+    void rejectsTooSmallBound() {
+        assertThrows(IllegalArgumentException.class, () -> new StacktraceCache(1));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.profile.parser.stacktrace;
+
+import cafe.jeffrey.jfrparser.raw.RawFrame;
+import cafe.jeffrey.jfrparser.raw.RawStackTrace;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("StacktraceFingerprinter")
+class StacktraceFingerprinterTest {
+
+    private static final String JIT = "JIT compiled";
+    private static final String INTERPRETED = "Interpreted";
+
+    /**
+     * Every call creates new {@link RecordedMethod} and {@link RecordedClass} instances, the same way
+     * every chunk of a recording hands over its own constant-pool objects.
+     */
+    private static RecordedFrame frame(String className, String methodName, int bci, int line, String type) {
+        RecordedClass clazz = mock(RecordedClass.class);
+        when(clazz.getName()).thenReturn(className);
+
+        RecordedMethod method = mock(RecordedMethod.class);
+        when(method.getType()).thenReturn(clazz);
+        when(method.getName()).thenReturn(methodName);
+
+        RecordedFrame frame = mock(RecordedFrame.class);
+        when(frame.getMethod()).thenReturn(method);
+        when(frame.getBytecodeIndex()).thenReturn(bci);
+        when(frame.getLineNumber()).thenReturn(line);
+        when(frame.getType()).thenReturn(type);
+        return frame;
+    }
+
+    private static RecordedStackTrace stacktrace(boolean truncated, RecordedFrame... frames) {
+        RecordedStackTrace stacktrace = mock(RecordedStackTrace.class);
+        when(stacktrace.getFrames()).thenReturn(List.of(frames));
+        when(stacktrace.isTruncated()).thenReturn(truncated);
+        return stacktrace;
+    }
+
+    private static RecordedStackTrace stacktrace(RecordedFrame top) {
+        return stacktrace(false,
+                top,
+                frame("com.example.Service", "handle", 12, 40, JIT),
+                frame("java.lang.Thread", "run", 1, 1583, INTERPRETED));
+    }
+
+    private static StacktraceKey fingerprint(RecordedStackTrace stacktrace) {
+        return new StacktraceFingerprinter().fingerprint(stacktrace);
+    }
+
+    @Test
+    @DisplayName("Equal frames from different stacktrace instances give the same key")
+    void equalFramesOfDifferentInstances() {
+        StacktraceFingerprinter fingerprinter = new StacktraceFingerprinter();
+
+        StacktraceKey first = fingerprinter.fingerprint(stacktrace(frame("com.example.Dao", "load", 5, 21, JIT)));
+        StacktraceKey second = fingerprinter.fingerprint(stacktrace(frame("com.example.Dao", "load", 5, 21, JIT)));
+
+        assertEquals(first, second);
+        assertEquals(3, first.depth());
+    }
+
+    @Test
+    @DisplayName("Equal frames read from different chunks give the same key")
+    void equalFramesOfDifferentChunks() {
+        // One fingerprinter belongs to one chunk reader, its method fingerprints are not shared
+        StacktraceKey firstChunk = new StacktraceFingerprinter()
+                .fingerprint(stacktrace(frame("com.example.Dao", "load", 5, 21, JIT)));
+        StacktraceKey secondChunk = new StacktraceFingerprinter()
+                .fingerprint(stacktrace(frame("com.example.Dao", "load", 5, 21, JIT)));
+
+        assertEquals(firstChunk, secondChunk);
+    }
+
+    @Test
+    @DisplayName("Frames differing only in the line number give distinct keys")
+    void differentLineNumber() {
+        assertNotEquals(
+                fingerprint(stacktrace(frame("com.example.Dao", "load", 5, 21, JIT))),
+                fingerprint(stacktrace(frame("com.example.Dao", "load", 5, 22, JIT))));
+    }
+
+    @Test
+    @DisplayName("Frames differing only in the bytecode index give distinct keys")
+    void differentBytecodeIndex() {
+        assertNotEquals(
+                fingerprint(stacktrace(frame("com.example.Dao", "load", 5, 21, JIT))),
+                fingerprint(stacktrace(frame("com.example.Dao", "load", 6, 21, JIT))));
+    }
+
+    @Test
+    @DisplayName("Frames differing only in the frame type give distinct keys")
+    void differentFrameType() {
+        assertNotEquals(
+                fingerprint(stacktrace(frame("com.example.Dao", "load", 5, 21, JIT))),
+                fingerprint(stacktrace(frame("com.example.Dao", "load", 5, 21, INTERPRETED))));
+    }
+
+    @Test
+    @DisplayName("A truncated stacktrace and a complete one with the same frames give distinct keys")
+    void differentTruncation() {
+        RecordedFrame top = frame("com.example.Dao", "load", 5, 21, JIT);
+
+        StacktraceKey complete = fingerprint(stacktrace(false, top));
+        StacktraceKey truncated = fingerprint(stacktrace(true, top));
+
+        assertNotEquals(complete, truncated);
+        assertEquals(complete.depth(), truncated.depth());
+    }
+
+    @Test
+    @DisplayName("A stacktrace read by the raw chunk decoder gives the key of the same recorded stacktrace")
+    void rawStacktrace() {
+        StacktraceFingerprinter fingerprinter = new StacktraceFingerprinter();
+
+        StacktraceKey recorded = fingerprinter.fingerprint(stacktrace(frame("com.example.Dao", "load", 5, 21, JIT)));
+        StacktraceKey raw = fingerprinter.fingerprint(new RawStackTrace(List.of(
+                new RawFrame("com.example.Dao", "load", JIT, 21, 5),
+                new RawFrame("com.example.Service", "handle", JIT, 40, 12),
+                new RawFrame("java.lang.Thread", "run", INTERPRETED, 1583, 1)), false));
+
+        assertEquals(recorded, raw);
+    }
+
+    @Test
+    @DisplayName("Class and method names are separated, a.B#cd and a.Bc#d give distinct keys")
+    void methodNameBoundary() {
+        assertNotEquals(
+                fingerprint(stacktrace(false, frame("a.B", "cd", 0, 1, JIT))),
+                fingerprint(stacktrace(false, frame("a.Bc", "d", 0, 1, JIT))));
+    }
+}
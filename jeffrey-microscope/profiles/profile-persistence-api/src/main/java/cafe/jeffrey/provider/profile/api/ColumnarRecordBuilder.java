@@ -0,0 +1,37 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2025 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.provider.profile.api;
+
+/**
+ * A {@link RecordBuilder} that can consume whole column batches instead of one record object per row.
+ * Streamers of purely numeric rows (timeseries, sub-second) hand such a builder {@link LongColumnBatch}es
+ * and never call {@link #onRecord}; other streamers keep calling {@link #onRecord} as before.
+ * <p>
+ * The columns follow the components of the record type:
+ * <ul>
+ *     <li>{@link TimeseriesRecord} - second, value</li>
+ *     <li>{@link TimeseriesSearchRecord} - second, total, matched</li>
+ *     <li>{@link SecondValue} - second, value</li>
+ *     <li>{@link SubSecondRecord} - timestampFromStart, value</li>
+ * </ul>
+ */
+public interface ColumnarRecordBuilder<T, R> extends RecordBuilder<T, R> {
+
+    void onBatch(LongColumnBatch batch);
+}
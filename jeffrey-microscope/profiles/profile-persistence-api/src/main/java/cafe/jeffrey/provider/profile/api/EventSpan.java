@@ -0,0 +1,51 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2025 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.provider.profile.api;
+
+import tools.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+
+/**
+ * A span lifted out of an instrumented event while the recording is being parsed, with its trace
+ * identity read from the event's typed fields instead of from its JSON {@code fields} later on.
+ * <p>
+ * {@code selfDuration} is already net of the same-thread children the parser saw before the span
+ * closed, and {@code countedChildren} says how many distinct children that was. The trace
+ * derivation recomputes the self time only of spans whose children in the table do not agree with
+ * that count: a child on another chunk, one that arrived after its parent, a synthesized leaf.
+ *
+ * @param parentSpanId    {@code null} for a root span
+ * @param duration        in nanoseconds, {@code 0} when the event recorded none
+ * @param selfDuration    in nanoseconds, the duration minus the covered stretches of counted children
+ * @param countedChildren distinct same-thread children already subtracted from {@code selfDuration}
+ * @param fields          the same JSON fields the event itself was written with
+ */
+public record EventSpan(
+        String eventType,
+        Instant startTimestamp,
+        long duration,
+        long selfDuration,
+        int countedChildren,
+        long traceId,
+        long spanId,
+        Long parentSpanId,
+        Long threadId,
+        ObjectNode fields) {
+}
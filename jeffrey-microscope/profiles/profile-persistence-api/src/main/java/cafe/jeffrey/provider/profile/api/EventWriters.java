@@ -26,6 +26,8 @@ public interface EventWriters extends AutoCloseable {
 
     DatabaseWriter<Event> events();
 
+    DatabaseWriter<EventSpan> spans();
+
     DatabaseWriter<EventStacktraceWithHash> stacktraces();
 
     DatabaseWriter<EventThreadWithHash> threads();
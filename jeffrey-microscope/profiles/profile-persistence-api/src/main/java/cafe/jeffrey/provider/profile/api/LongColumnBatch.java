@@ -0,0 +1,34 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2025 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.provider.profile.api;
+
+/**
+ * A batch of streamed rows laid out as primitive columns; only the first {@code size} slots of each column
+ * are valid. The column arrays are reused by the producer for the next batch, so a consumer must not keep
+ * them beyond {@link ColumnarRecordBuilder#onBatch}.
+ *
+ * @param size    number of rows in this batch
+ * @param columns one array per column, in the order documented by the streamer
+ */
+public record LongColumnBatch(int size, long[][] columns) {
+
+    public long[] column(int index) {
+        return columns[index];
+    }
+}
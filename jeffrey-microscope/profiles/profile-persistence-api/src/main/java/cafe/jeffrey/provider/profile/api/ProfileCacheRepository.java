@@ -32,5 +32,12 @@ public interface ProfileCacheRepository {
 
     <T> Optional<T> get(String key, TypeReference<T> type);
 
+    /**
+     * Stores already serialized content as it is, without the JSON round-trip of {@link #put(String, Object)}.
+     */
+    void putBytes(String key, byte[] content);
+
+    Optional<byte[]> getBytes(String key);
+
     void clearAll();
 }
@@ -67,4 +67,13 @@ public interface ProfileEventRepository {
      * @return list of all JVM flags with their latest values and change indicators
      */
     List<JvmFlagDetail> getAllFlags();
+
+    /**
+     * Copies the fields of the high-volume event types (HTTP, gRPC, JDBC, GC, socket I/O) from the
+     * JSON {@code fields} column into typed side tables, which the dashboards then read instead of
+     * parsing JSON. Intended as a one-time post-ingest step; the JSON column is left untouched.
+     *
+     * @return event types covered by the created side tables
+     */
+    List<Type> materializeTypedFields();
 }
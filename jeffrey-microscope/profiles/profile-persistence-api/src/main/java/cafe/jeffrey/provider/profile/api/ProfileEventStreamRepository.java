@@ -18,8 +18,12 @@
 
 package cafe.jeffrey.provider.profile.api;
 
+import cafe.jeffrey.jfrparser.api.type.JfrStackFrame;
 import cafe.jeffrey.provider.profile.api.*;
 
+import java.util.List;
+import java.util.function.Function;
+
 public interface ProfileEventStreamRepository {
 
     <T> T genericStreaming(EventQueryConfigurer configurer, RecordBuilder<GenericRecord, T> builder);
@@ -30,14 +34,24 @@ public interface ProfileEventStreamRepository {
 
     <T> T timeseriesSearchingStreamer(EventQueryConfigurer configurer, RecordBuilder<TimeseriesSearchRecord, T> builder);
 
-    <T> T filterableTimeseriesStreamer(EventQueryConfigurer configurer, RecordBuilder<SecondValue, T> builder);
+    /**
+     * Like {@link #timeseriesSearchingStreamer} but a stacktrace is matched when its frames start with
+     * any of {@code framePaths} (frame names from the root of the stacktrace). The names are resolved to
+     * frame hashes once, against the profile's frames, using {@code frameNamer}; the split into matched
+     * and unmatched values is then aggregated in the database without materializing any stacktrace.
+     */
+    <T> T timeseriesPathMatchingStreamer(
+            EventQueryConfigurer configurer,
+            List<List<String>> framePaths,
+            Function<JfrStackFrame, String> frameNamer,
+            RecordBuilder<TimeseriesSearchRecord, T> builder);
 
-    <T> T frameBasedTimeseriesStreamer(EventQueryConfigurer configurer, RecordBuilder<TimeseriesRecord, T> builder);
+    <T> T filterableTimeseriesStreamer(EventQueryConfigurer configurer, RecordBuilder<SecondValue, T> builder);
 
     /**
-     * Like {@link #frameBasedTimeseriesStreamer} but emits one {@link SecondValue} per original event instead
-     * of per-second buckets — the {@code SecondValue.second} slot then carries milliseconds-from-start, not a
-     * second index. Used by the weighted OTLP export so the exact per-sample count round-trips.
+     * Streams one {@link TimeseriesRecord} per stacktrace, with its resolved frames and one {@link SecondValue}
+     * per original event — the {@code SecondValue.second} slot carries milliseconds-from-start, not a second
+     * index. Used by the weighted OTLP export so the exact per-sample count round-trips.
      */
     <T> T frameBasedEventStreamer(EventQueryConfigurer configurer, RecordBuilder<TimeseriesRecord, T> builder);
 
@@ -39,6 +39,8 @@ package cafe.jeffrey.provider.profile.api;
  *       that reuses the same thread/stacktrace. Reuses arrive as {@link #onEvent(Event)} only — there is
  *       <em>no</em> re-announce. An implementation that needs the thread/stacktrace at {@code onEvent}
  *       time must therefore retain it, keyed by the id it handed back.</li>
+ *   <li>{@link #onEventSpan(EventSpan)} follows the {@link #onEvent(Event)} of an instrumented event
+ *       that carries a trace identity; the span is that same event, not another one.</li>
  *   <li>{@link #onEventSetting(EventSetting)} and {@link #onEventType(EventType)} may arrive at any
  *       point and may be delivered more than once.</li>
  *   <li>{@link #onThreadComplete()} once, after the last event.</li>
@@ -60,6 +62,15 @@ public interface SingleThreadedEventWriter {
     default void onEvent(Event event) {
     }
 
+    /**
+     * Called right after {@link #onEvent(Event)} for an event whose type declares a {@code spanId}
+     * and which was part of a trace.
+     *
+     * @param span the span carried by the event just written
+     */
+    default void onEventSpan(EventSpan span) {
+    }
+
     /**
      * This method is called when an event setting is received.
      * {@link EventSetting} can be received multiple times and duplicated.
@@ -27,15 +27,16 @@ import java.util.Optional;
  * Reads the traces derived from a profile's events.
  * <p>
  * Spans arrive in the {@code events} table like any other JFR event, with their trace identity in
- * the JSON {@code fields}. {@link #derive()} lifts them once into typed {@code trace_spans} and
- * {@code traces} tables, after which every read here is a plain scan of BIGINT columns rather than
- * repeated JSON extraction — which is what makes the trace list and the tree queries cheap enough
- * to serve interactively.
+ * the JSON {@code fields}, and next to it as {@link EventSpan}s with that identity already typed.
+ * {@link #derive()} lifts them once into typed {@code trace_spans} and {@code traces} tables, after
+ * which every read here is a plain scan of BIGINT columns rather than repeated JSON extraction —
+ * which is what makes the trace list and the tree queries cheap enough to serve interactively.
  */
 public interface TraceRepository {
 
     /**
-     * Derives {@code trace_spans} and {@code traces} from the events already written to the profile.
+     * Derives {@code trace_spans} and {@code traces} from the spans already written to the profile,
+     * falling back to the span events in {@code events} when the writer recorded none.
      * Runs once, after parsing completes and before anything reads a trace. Safe to call on a
      * profile with no traced events: both tables simply stay empty.
      */
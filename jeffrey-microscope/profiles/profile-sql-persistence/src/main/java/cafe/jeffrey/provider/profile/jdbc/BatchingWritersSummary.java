@@ -0,0 +1,77 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2025 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.provider.profile.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Statistics of the batching writers of one profile. Every parser thread has its own writers, their
+ * statistics are merged per table when the writers close and the summary is logged once the whole
+ * profile is written.
+ */
+public class BatchingWritersSummary {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchingWritersSummary.class);
+
+    private final Map<String, DuckDBBatchingWriter.Statistics> tables = new ConcurrentSkipListMap<>();
+
+    public void add(DuckDBBatchingWriter.Statistics statistics) {
+        if (statistics.batches() > 0) {
+            tables.merge(statistics.tableName(), statistics, BatchingWritersSummary::merge);
+        }
+    }
+
+    /**
+     * Merged statistics of the tables that received at least one batch, ordered by the table name.
+     */
+    public Map<String, DuckDBBatchingWriter.Statistics> tables() {
+        return Map.copyOf(tables);
+    }
+
+    public void log() {
+        if (tables.isEmpty()) {
+            return;
+        }
+
+        StringJoiner summary = new StringJoiner(" ");
+        for (DuckDBBatchingWriter.Statistics statistics : tables.values()) {
+            summary.add(statistics.tableName() + "={batches=" + statistics.batches()
+                    + " max_in_flight=" + statistics.maxInFlight()
+                    + " blocked_ms=" + statistics.blockedTime().toMillis() + "}");
+        }
+        LOG.info("Profile data written: {}", summary);
+    }
+
+    private static DuckDBBatchingWriter.Statistics merge(
+            DuckDBBatchingWriter.Statistics first, DuckDBBatchingWriter.Statistics second) {
+
+        return new DuckDBBatchingWriter.Statistics(
+                first.tableName(),
+                first.batches() + second.batches(),
+                first.bufferCount(),
+                first.inFlightBatches() + second.inFlightBatches(),
+                Math.max(first.maxInFlight(), second.maxInFlight()),
+                first.blockedTime().plus(second.blockedTime()));
+    }
+}
@@ -20,6 +20,8 @@ package cafe.jeffrey.provider.profile.jdbc;
 
 import cafe.jeffrey.provider.profile.api.EventQueryConfigurer;
 
+import java.util.List;
+
 /**
  * SQL providers for the complex analytical queries (flamegraph, timeseries, sub-second). Every
  * method renders the SQL for one particular execution: the configurer decides which optional filter
@@ -44,12 +46,16 @@ public interface ComplexQueries {
 
         String simpleSearch(EventQueryConfigurer configurer);
 
-        String filterable(EventQueryConfigurer configurer);
+        /**
+         * Same split as {@link #simpleSearch} but matching stacktraces by frame path: each path lists,
+         * per position from the root, the frame hashes accepted there.
+         */
+        String pathSearch(EventQueryConfigurer configurer, List<long[][]> framePaths);
 
-        String frameBased(EventQueryConfigurer configurer);
+        String filterable(EventQueryConfigurer configurer);
 
         /**
-         * Like {@link #frameBased} but WITHOUT per-second bucketing: one {@code event_values} entry per
+         * Resolved frames of every stacktrace together with one {@code event_values} entry per
          * event ({@code (timestampFromStartMs, value)}), so a weighted export can emit one OTLP observation
          * per sample and preserve the exact sample count. The {@code second} struct slot carries
          * milliseconds-from-start, not a second index.
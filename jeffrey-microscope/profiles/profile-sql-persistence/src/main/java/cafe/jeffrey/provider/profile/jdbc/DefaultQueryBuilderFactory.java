@@ -22,6 +22,8 @@ import cafe.jeffrey.provider.profile.api.*;
 
 import cafe.jeffrey.provider.profile.api.EventQueryConfigurer;
 
+import java.util.List;
+
 public class DefaultQueryBuilderFactory implements QueryBuilderFactory {
 
     private final SQLFormatter sqlFormatter;
@@ -37,6 +39,18 @@ public class DefaultQueryBuilderFactory implements QueryBuilderFactory {
         return new GenericQueryBuilder(sqlFormatter, configurer);
     }
 
+    @Override
+    public GenericQueryBuilder createGenericQueryBuilder(EventQueryConfigurer configurer, TypedEventTable typedTable) {
+        return new GenericQueryBuilder(sqlFormatter, configurer, typedTable);
+    }
+
+    @Override
+    public GenericQueryBuilder createGenericQueryBuilder(
+            EventQueryConfigurer configurer, List<TypedEventTable> typedTables) {
+        return new GenericQueryBuilder(
+                sqlFormatter, configurer, TypedEventTables.eventsSource(typedTables, configurer.eventTypes()));
+    }
+
     @Override
     public ComplexQueries complexQueries() {
         return complexQueries;
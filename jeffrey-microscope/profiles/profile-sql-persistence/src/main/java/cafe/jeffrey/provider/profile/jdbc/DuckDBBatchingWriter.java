@@ -32,22 +32,69 @@ import java.sql.Connection;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Batches inserted items and writes every full batch asynchronously on the given executor.
+ *
+ * <p>Batches live in a bounded ring of reusable buffers: one is being filled by the producer, the
+ * others are being written. When all of them are in flight, the producer blocks until a write
+ * completes and hands its buffer back — so a database slower than the parser applies backpressure
+ * instead of piling up batches on the heap, and no batch is ever copied. The number of buffers in
+ * flight is the number of concurrent writes (writer threads) of this table.
+ */
 public abstract class DuckDBBatchingWriter<T> implements DatabaseWriter<T> {
 
     private static final Logger LOG = LoggerFactory.getLogger(DuckDBBatchingWriter.class);
 
+    /**
+     * Default number of batches of one table written concurrently.
+     */
+    public static final int DEFAULT_WRITER_THREADS = 2;
+
+    /**
+     * Occupancy of the buffer ring and the time the producer spent waiting for a free buffer.
+     * A large blocked time means ingest is bound by the database writes, not by parsing.
+     *
+     * @param tableName       target table
+     * @param batches         batches submitted for writing
+     * @param bufferCount     capacity of the ring (writer threads + the buffer being filled)
+     * @param inFlightBatches batches currently being written
+     * @param maxInFlight     highest number of batches written at the same time
+     * @param blockedTime     time the producer was blocked on a full ring
+     */
+    public record Statistics(
+            String tableName,
+            long batches,
+            int bufferCount,
+            int inFlightBatches,
+            int maxInFlight,
+            Duration blockedTime) {
+    }
+
     private final Executor executor;
     private final String tableName;
     private final DataSource dataSource;
     private final int batchSize;
+    private final int bufferCount;
     private final StatementLabel statementLabel;
 
-    private final List<T> batch = new ArrayList<>();
+    private final BlockingQueue<List<T>> freeBuffers;
     private final List<CompletableFuture<Void>> pendingBatches = new ArrayList<>();
+    private final AtomicInteger inFlightBatches = new AtomicInteger();
+
+    // Producer-side state, only touched by the thread inserting the items.
+    // Buffers are allocated lazily (up to bufferCount), so writers of small tables stay cheap.
+    private List<T> batch;
+    private int allocatedBuffers = 1;
+    private long submittedBatches;
+    private int maxInFlight;
+    private long blockedNanos;
 
     // First failure of an async batch insert. Once set, no further batches are submitted and the
     // failure is rethrown at the synchronization point (close) — otherwise events would be lost silently.
@@ -60,18 +107,36 @@ public abstract class DuckDBBatchingWriter<T> implements DatabaseWriter<T> {
             int batchSize,
             StatementLabel statementLabel) {
 
+        this(executor, tableName, dataSource, batchSize, DEFAULT_WRITER_THREADS, statementLabel);
+    }
+
+    public DuckDBBatchingWriter(
+            Executor executor,
+            String tableName,
+            DataSource dataSource,
+            int batchSize,
+            int writerThreads,
+            StatementLabel statementLabel) {
+
+        if (writerThreads < 1) {
+            throw new IllegalArgumentException("At least one writer thread is required: " + writerThreads);
+        }
+
         this.executor = executor;
         this.tableName = tableName;
         this.dataSource = dataSource;
         this.batchSize = batchSize;
+        this.bufferCount = writerThreads + 1;
         this.statementLabel = statementLabel;
+        this.freeBuffers = new ArrayBlockingQueue<>(bufferCount);
+        this.batch = new ArrayList<>();
     }
 
     @Override
     public void insert(T event) {
         batch.add(event);
         if (batch.size() >= batchSize) {
-            sendBatch(batch);
+            sendBatch();
         }
     }
 
@@ -79,53 +144,111 @@ public abstract class DuckDBBatchingWriter<T> implements DatabaseWriter<T> {
     public void insertBatch(List<T> events) {
         batch.addAll(events);
         if (batch.size() >= batchSize) {
-            sendBatch(batch);
+            sendBatch();
         }
     }
 
     protected abstract void execute(DuckDBConnection connection, List<T> events) throws Exception;
 
-    private void sendBatch(List<T> batch) {
-        if (batch.isEmpty()) {
+    /**
+     * Current occupancy of the buffer ring and the accumulated backpressure of the producer. Meant to be
+     * read by the producer thread, typically once the writer is closed.
+     */
+    public Statistics statistics() {
+        return new Statistics(
+                tableName,
+                submittedBatches,
+                bufferCount,
+                inFlightBatches.get(),
+                maxInFlight,
+                Duration.ofNanos(blockedNanos));
+    }
+
+    private void sendBatch() {
+        List<T> fullBatch = this.batch;
+        if (fullBatch.isEmpty()) {
             LOG.debug("Batch of items is empty: type={}", tableName);
             return;
         }
 
         if (firstFailure.get() != null) {
             // A previous batch already failed — the whole write is doomed, don't submit more work.
-            this.batch.clear();
+            fullBatch.clear();
             return;
         }
 
-        List<T> copiedBatch = List.copyOf(batch);
+        // Take the next buffer before submitting, so at most (bufferCount - 1) batches are ever written
+        // at the same time and the producer waits here when all of them are busy.
+        List<T> nextBatch = acquireBuffer();
+
+        int inFlight = inFlightBatches.incrementAndGet();
+        maxInFlight = Math.max(maxInFlight, inFlight);
+        submittedBatches++;
+
         CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
             long start = System.nanoTime();
+            int size = fullBatch.size();
 
             try (Connection conn = dataSource.getConnection()) {
                 DuckDBConnection duckDBConnection = DataSourceUtils.unwrapConnection(conn, DuckDBConnection.class);
-                execute(duckDBConnection, copiedBatch);
+                execute(duckDBConnection, fullBatch);
             } catch (Exception e) {
-                LOG.error("Failed to insert batch of items: type={} size={}",
-                        tableName, copiedBatch.size(), e);
+                LOG.error("Failed to insert batch of items: type={} size={}", tableName, size, e);
                 firstFailure.compareAndSet(null, e);
                 return;
+            } finally {
+                releaseBuffer(fullBatch);
             }
 
             long millis = Duration.ofNanos(System.nanoTime() - start).toMillis();
             LOG.debug("Batch of items has been flushed: type={} size={} elapsed_ms={}",
-                    tableName, copiedBatch.size(), millis);
+                    tableName, size, millis);
         }, executor);
 
         pendingBatches.removeIf(CompletableFuture::isDone);
         pendingBatches.add(future);
-        this.batch.clear();
+        this.batch = nextBatch;
+    }
+
+    private void releaseBuffer(List<T> buffer) {
+        // Cleared list keeps its capacity for the next batch
+        buffer.clear();
+        inFlightBatches.decrementAndGet();
+        freeBuffers.offer(buffer);
+    }
+
+    private List<T> acquireBuffer() {
+        List<T> buffer = freeBuffers.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        if (allocatedBuffers < bufferCount) {
+            allocatedBuffers++;
+            return new ArrayList<>(batchSize);
+        }
+
+        // All buffers are being written: wait until the first of the writes hands its buffer back (backpressure)
+        long start = System.nanoTime();
+        try {
+            return freeBuffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free batch buffer: type=" + tableName, e);
+        } finally {
+            blockedNanos += System.nanoTime() - start;
+        }
     }
 
     @Override
     public void close() {
-        sendBatch(batch);
+        sendBatch();
         awaitPendingBatches();
 
+        if (submittedBatches > 0) {
+            LOG.debug("Batching writer closed: type={} batches={} buffers={} max_in_flight={} blocked_ms={}",
+                    tableName, submittedBatches, bufferCount, maxInFlight, Duration.ofNanos(blockedNanos).toMillis());
+        }
+
         Throwable failure = firstFailure.get();
         if (failure != null) {
             throw new IllegalStateException(
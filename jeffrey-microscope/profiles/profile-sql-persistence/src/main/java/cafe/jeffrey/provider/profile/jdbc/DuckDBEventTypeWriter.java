@@ -36,7 +36,11 @@ import static cafe.jeffrey.provider.profile.jdbc.DuckDBAppenderUtils.nullableApp
 public class DuckDBEventTypeWriter extends DuckDBBatchingWriter<EnhancedEventType> {
 
     public DuckDBEventTypeWriter(Executor executor, DataSource dataSource, int batchSize) {
-        super(executor, "event_types", dataSource, batchSize, StatementLabel.INSERT_EVENT_TYPES);
+        this(executor, dataSource, batchSize, DEFAULT_WRITER_THREADS);
+    }
+
+    public DuckDBEventTypeWriter(Executor executor, DataSource dataSource, int batchSize, int writerThreads) {
+        super(executor, "event_types", dataSource, batchSize, writerThreads, StatementLabel.INSERT_EVENT_TYPES);
     }
 
     @Override
@@ -43,7 +43,12 @@ public class DuckDBEventWriter extends DuckDBBatchingWriter<Event> {
     private final long profilingStartedAtMillis;
 
     public DuckDBEventWriter(Executor executor, DataSource dataSource, int batchSize, Instant profilingStartedAt) {
-        super(executor, "events", dataSource, batchSize, StatementLabel.INSERT_EVENTS);
+        this(executor, dataSource, batchSize, DEFAULT_WRITER_THREADS, profilingStartedAt);
+    }
+
+    public DuckDBEventWriter(
+            Executor executor, DataSource dataSource, int batchSize, int writerThreads, Instant profilingStartedAt) {
+        super(executor, "events", dataSource, batchSize, writerThreads, StatementLabel.INSERT_EVENTS);
         Objects.requireNonNull(profilingStartedAt, "profilingStartedAt must be provided to compute relative event timestamps");
         this.profilingStartedAtMillis = profilingStartedAt.toEpochMilli();
     }
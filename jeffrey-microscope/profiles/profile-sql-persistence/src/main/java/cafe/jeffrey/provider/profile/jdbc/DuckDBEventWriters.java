@@ -25,22 +25,55 @@ import cafe.jeffrey.provider.profile.jdbc.*;
 
 import javax.sql.DataSource;
 import java.time.Instant;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 
 public class DuckDBEventWriters implements EventWriters {
 
     private final DuckDBEventWriter eventWriter;
+    private final DuckDBSpanEventWriter spanWriter;
     private final DuckDBEventTypeWriter eventTypeWriter;
     private final DuckDBStacktraceWriter stacktraceWriter;
     private final DuckDBThreadWriter threadWriter;
     private final DuckDBFrameWriter frameWriter;
+    private final BatchingWritersSummary summary;
 
     public DuckDBEventWriters(ExecutorService executor, DataSource dataSource, int batchSize, Instant profilingStartedAt) {
-        this.eventWriter = new DuckDBEventWriter(executor, dataSource, batchSize, profilingStartedAt);
-        this.eventTypeWriter = new DuckDBEventTypeWriter(executor, dataSource, batchSize);
-        this.stacktraceWriter = new DuckDBStacktraceWriter(executor, dataSource, batchSize);
-        this.threadWriter = new DuckDBThreadWriter(executor, dataSource, batchSize);
-        this.frameWriter = new DuckDBFrameWriter(executor, dataSource, batchSize);
+        this(executor, dataSource, batchSize, DuckDBBatchingWriter.DEFAULT_WRITER_THREADS, profilingStartedAt);
+    }
+
+    /**
+     * @param writerThreads number of batches written concurrently per table; a parser thread blocks
+     *                      once that many batches of one table are in flight
+     */
+    public DuckDBEventWriters(
+            ExecutorService executor,
+            DataSource dataSource,
+            int batchSize,
+            int writerThreads,
+            Instant profilingStartedAt) {
+
+        this(executor, dataSource, batchSize, writerThreads, profilingStartedAt, new BatchingWritersSummary());
+    }
+
+    /**
+     * @param summary statistics of the profile's writers, the writers add theirs once they are closed
+     */
+    public DuckDBEventWriters(
+            ExecutorService executor,
+            DataSource dataSource,
+            int batchSize,
+            int writerThreads,
+            Instant profilingStartedAt,
+            BatchingWritersSummary summary) {
+
+        this.summary = summary;
+        this.eventWriter = new DuckDBEventWriter(executor, dataSource, batchSize, writerThreads, profilingStartedAt);
+        this.spanWriter = new DuckDBSpanEventWriter(executor, dataSource, batchSize, writerThreads, profilingStartedAt);
+        this.eventTypeWriter = new DuckDBEventTypeWriter(executor, dataSource, batchSize, writerThreads);
+        this.stacktraceWriter = new DuckDBStacktraceWriter(executor, dataSource, batchSize, writerThreads);
+        this.threadWriter = new DuckDBThreadWriter(executor, dataSource, batchSize, writerThreads);
+        this.frameWriter = new DuckDBFrameWriter(executor, dataSource, batchSize, writerThreads);
     }
 
     @Override
@@ -48,6 +81,11 @@ public class DuckDBEventWriters implements EventWriters {
         return eventWriter;
     }
 
+    @Override
+    public DuckDBSpanEventWriter spans() {
+        return spanWriter;
+    }
+
     @Override
     public DuckDBEventTypeWriter eventTypes() {
         return eventTypeWriter;
@@ -72,8 +110,14 @@ public class DuckDBEventWriters implements EventWriters {
     public void close() {
         eventTypeWriter.close();
         eventWriter.close();
+        spanWriter.close();
         stacktraceWriter.close();
         threadWriter.close();
         frameWriter.close();
+
+        for (DuckDBBatchingWriter<?> writer : List.of(
+                eventTypeWriter, eventWriter, spanWriter, stacktraceWriter, threadWriter, frameWriter)) {
+            summary.add(writer.statistics());
+        }
     }
 }
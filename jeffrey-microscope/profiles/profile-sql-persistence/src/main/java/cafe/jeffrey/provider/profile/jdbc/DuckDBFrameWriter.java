@@ -33,7 +33,11 @@ import java.util.concurrent.Executor;
 public class DuckDBFrameWriter extends DuckDBBatchingWriter<EventFrameWithHash> {
 
     public DuckDBFrameWriter(Executor executor, DataSource dataSource, int batchSize) {
-        super(executor, "frames", dataSource, batchSize, StatementLabel.INSERT_FRAMES);
+        this(executor, dataSource, batchSize, DEFAULT_WRITER_THREADS);
+    }
+
+    public DuckDBFrameWriter(Executor executor, DataSource dataSource, int batchSize, int writerThreads) {
+        super(executor, "frames", dataSource, batchSize, writerThreads, StatementLabel.INSERT_FRAMES);
     }
 
     @Override
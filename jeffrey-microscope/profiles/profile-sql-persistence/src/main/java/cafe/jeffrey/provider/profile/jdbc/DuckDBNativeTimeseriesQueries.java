@@ -21,6 +21,8 @@ package cafe.jeffrey.provider.profile.jdbc;
 import cafe.jeffrey.provider.profile.api.EventQueryConfigurer;
 import cafe.jeffrey.shared.common.model.EventTypeName;
 
+import java.util.List;
+
 public class DuckDBNativeTimeseriesQueries implements ComplexQueries.Timeseries {
 
     private static final DuckDBTimeseriesQueries QUERIES = DuckDBTimeseriesQueries.of(
@@ -37,13 +39,13 @@ public class DuckDBNativeTimeseriesQueries implements ComplexQueries.Timeseries
     }
 
     @Override
-    public String filterable(EventQueryConfigurer configurer) {
-        return QUERIES.filterable(configurer);
+    public String pathSearch(EventQueryConfigurer configurer, List<long[][]> framePaths) {
+        return QUERIES.pathSearch(configurer, framePaths);
     }
 
     @Override
-    public String frameBased(EventQueryConfigurer configurer) {
-        return QUERIES.frameBased(configurer);
+    public String filterable(EventQueryConfigurer configurer) {
+        return QUERIES.filterable(configurer);
     }
 
     @Override
@@ -32,19 +32,21 @@ import java.time.Clock;
 
 public class DuckDBProfilePersistenceProvider implements ProfilePersistenceProvider {
 
-    private static final int DEFAULT_BATCH_SIZE = 10000;
+    public static final int DEFAULT_BATCH_SIZE = 10000;
 
     private final int batchSize;
+    private final int writerThreads;
     private final DatabaseManager databaseManager;
     private final FrameResolutionMode frameResolutionMode;
 
     public DuckDBProfilePersistenceProvider(Path profilesDir, FrameResolutionMode frameResolutionMode, Clock clock) {
-        this(profilesDir, frameResolutionMode, clock, DEFAULT_BATCH_SIZE);
+        this(profilesDir, frameResolutionMode, clock, DEFAULT_BATCH_SIZE, DuckDBBatchingWriter.DEFAULT_WRITER_THREADS);
     }
 
     public DuckDBProfilePersistenceProvider(
-            Path profilesDir, FrameResolutionMode frameResolutionMode, Clock clock, int batchSize) {
+            Path profilesDir, FrameResolutionMode frameResolutionMode, Clock clock, int batchSize, int writerThreads) {
         this.batchSize = batchSize;
+        this.writerThreads = writerThreads;
         // Per-profile pools are cached so several profiles can be initialized and read concurrently;
         // each pool is closed only after it has been idle, never on switch — so initializing a second
         // profile cannot tear down a pool the first profile is still writing to. A running
@@ -60,8 +62,13 @@ public class DuckDBProfilePersistenceProvider implements ProfilePersistenceProvi
 
     @Override
     public EventWriter.Factory eventWriterFactory() {
-        return (dataSource, profilingStartedAt) -> new SQLEventWriter(
-                () -> new DuckDBEventWriters(Schedulers.sharedDbWriter(), dataSource, batchSize, profilingStartedAt));
+        return (dataSource, profilingStartedAt) -> {
+            BatchingWritersSummary summary = new BatchingWritersSummary();
+            return new SQLEventWriter(
+                    () -> new DuckDBEventWriters(
+                            Schedulers.sharedDbWriter(), dataSource, batchSize, writerThreads, profilingStartedAt, summary),
+                    summary);
+        };
     }
 
     @Override
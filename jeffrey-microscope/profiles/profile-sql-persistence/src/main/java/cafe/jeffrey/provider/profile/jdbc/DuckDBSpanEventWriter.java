@@ -0,0 +1,85 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2025 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.provider.profile.jdbc;
+
+import org.duckdb.DuckDBAppender;
+import org.duckdb.DuckDBConnection;
+import cafe.jeffrey.provider.profile.api.EventSpan;
+import cafe.jeffrey.shared.persistence.StatementLabel;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+import static cafe.jeffrey.provider.profile.jdbc.DuckDBAppenderUtils.nullableAppend;
+
+/**
+ * Appends the spans the parser lifted out of instrumented events into {@code trace_span_events},
+ * the typed input of the trace derivation.
+ */
+public class DuckDBSpanEventWriter extends DuckDBBatchingWriter<EventSpan> {
+
+    /**
+     * Same zero point as {@link DuckDBEventWriter}, so a span and the event it came from agree on
+     * {@code start_timestamp_from_beginning}.
+     */
+    private final long profilingStartedAtMillis;
+
+    public DuckDBSpanEventWriter(
+            Executor executor, DataSource dataSource, int batchSize, int writerThreads, Instant profilingStartedAt) {
+        super(executor, "trace_span_events", dataSource, batchSize, writerThreads, StatementLabel.INSERT_SPAN_EVENTS);
+        Objects.requireNonNull(profilingStartedAt, "profilingStartedAt must be provided to compute relative span timestamps");
+        this.profilingStartedAtMillis = profilingStartedAt.toEpochMilli();
+    }
+
+    @Override
+    public void execute(DuckDBConnection connection, List<EventSpan> batch) throws Exception {
+        try (DuckDBAppender appender = connection.createAppender("trace_span_events")) {
+            for (EventSpan span : batch) {
+                appender.beginRow();
+                // trace_id - BIGINT NOT NULL
+                appender.append(span.traceId());
+                // span_id - BIGINT NOT NULL
+                appender.append(span.spanId());
+                // parent_span_id - BIGINT (nullable)
+                nullableAppend(appender, span.parentSpanId());
+                // event_type - VARCHAR NOT NULL
+                appender.append(span.eventType());
+                // start_timestamp - TIMESTAMPTZ NOT NULL
+                appender.append(span.startTimestamp().atOffset(ZoneOffset.UTC));
+                // start_timestamp_from_beginning - BIGINT NOT NULL (millis since profiling start)
+                appender.append(span.startTimestamp().toEpochMilli() - profilingStartedAtMillis);
+                // duration - BIGINT NOT NULL
+                appender.append(span.duration());
+                // self_duration - BIGINT NOT NULL
+                appender.append(span.selfDuration());
+                // counted_children - INTEGER NOT NULL
+                appender.append(span.countedChildren());
+                // thread_hash - BIGINT (nullable)
+                nullableAppend(appender, span.threadId());
+                // fields - JSON (nullable)
+                nullableAppend(appender, span.fields() != null ? span.fields().toString() : null);
+                appender.endRow();
+            }
+        }
+    }
+}
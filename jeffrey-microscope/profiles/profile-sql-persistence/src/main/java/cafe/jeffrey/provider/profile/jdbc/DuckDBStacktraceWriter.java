@@ -32,7 +32,11 @@ import java.util.concurrent.Executor;
 public class DuckDBStacktraceWriter extends DuckDBBatchingWriter<EventStacktraceWithHash> {
 
     public DuckDBStacktraceWriter(Executor executor, DataSource dataSource, int batchSize) {
-        super(executor, "stacktraces", dataSource, batchSize, StatementLabel.INSERT_STACKTRACES);
+        this(executor, dataSource, batchSize, DEFAULT_WRITER_THREADS);
+    }
+
+    public DuckDBStacktraceWriter(Executor executor, DataSource dataSource, int batchSize, int writerThreads) {
+        super(executor, "stacktraces", dataSource, batchSize, writerThreads, StatementLabel.INSERT_STACKTRACES);
     }
 
     @Override
@@ -35,7 +35,11 @@ import static cafe.jeffrey.provider.profile.jdbc.DuckDBAppenderUtils.nullableApp
 public class DuckDBThreadWriter extends DuckDBBatchingWriter<EventThreadWithHash> {
 
     public DuckDBThreadWriter(Executor executor, DataSource dataSource, int batchSize) {
-        super(executor, "threads", dataSource, batchSize, StatementLabel.INSERT_THREADS);
+        this(executor, dataSource, batchSize, DEFAULT_WRITER_THREADS);
+    }
+
+    public DuckDBThreadWriter(Executor executor, DataSource dataSource, int batchSize, int writerThreads) {
+        super(executor, "threads", dataSource, batchSize, writerThreads, StatementLabel.INSERT_THREADS);
     }
 
     @Override
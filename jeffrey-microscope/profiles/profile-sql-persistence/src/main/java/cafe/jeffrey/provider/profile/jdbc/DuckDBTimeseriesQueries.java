@@ -20,6 +20,10 @@ package cafe.jeffrey.provider.profile.jdbc;
 
 import cafe.jeffrey.provider.profile.api.EventQueryConfigurer;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
 import static cafe.jeffrey.provider.profile.jdbc.DuckDBFlamegraphQueries.addQuotes;
 
 /**
@@ -62,13 +66,15 @@ public class DuckDBTimeseriesQueries implements ComplexQueries.Timeseries {
             ORDER BY seconds
             """;
 
-    // The search pattern is a regular expression tested against the composed `class#method` frame
-    // name — the same contract as the client-side flamegraph highlight (RegExp over the frame title,
-    // built as `className#methodName` by FrameNameBuilder) and SearchingTimeseriesBuilder. A dotted
-    // search like `JsonReader.<init>` therefore matches `JsonReader#<init>` via the `.` wildcard.
-    // concat_ws skips NULL columns, so class-less native frames still match on the method alone.
+    private static final String PLACEHOLDER_MATCHED_STACKTRACES = "<<matched_stacktraces>>";
+    private static final String PLACEHOLDER_FRAME_PATH_CONDITION = "<<frame_path_condition>>";
+
+    // Splits the values of the relevant events into total and matched, where the matched stacktraces
+    // come from one of the MATCHED_BY_* selections below. Both resolve the match against the `frames`
+    // table first (thousands of rows) and only then touch the stacktraces, so the cost does not grow
+    // with events x stack depth.
     //language=SQL
-    private static final String SIMPLE_SEARCH = """
+    private static final String SPLIT_SEARCH = """
             WITH relevant_events AS (
                 SELECT
                     e.stacktrace_hash,
@@ -89,21 +95,8 @@ public class DuckDBTimeseriesQueries implements ComplexQueries.Timeseries {
                     <<additional_filters>>
                     AND EXISTS (SELECT 1 FROM relevant_events re WHERE re.stacktrace_hash = s.stacktrace_hash)
             ),
-            matching_frame_hashes AS (
-                SELECT LIST(DISTINCT f.frame_hash) AS matched_hashes
-                FROM frames f
-                WHERE regexp_matches(concat_ws('#', f.class_name, f.method_name), :search_pattern)
-                    AND EXISTS (
-                        SELECT 1
-                        FROM relevant_stacktraces rs
-                        WHERE list_contains(rs.frame_hashes, f.frame_hash)
-                    )
-            ),
             matched_stacktraces AS (
-                SELECT DISTINCT rs.stacktrace_hash
-                FROM relevant_stacktraces rs
-                CROSS JOIN matching_frame_hashes mfh
-                WHERE list_has_any(rs.frame_hashes, mfh.matched_hashes)
+                <<matched_stacktraces>>
             )
             SELECT
                 re.seconds,
@@ -116,6 +109,38 @@ public class DuckDBTimeseriesQueries implements ComplexQueries.Timeseries {
             ORDER BY seconds
             """;
 
+    // The search pattern is a regular expression tested against the composed `class#method` frame
+    // name — the same contract as the client-side flamegraph highlight (RegExp over the frame title,
+    // built as `className#methodName` by FrameNameBuilder) and SearchingTimeseriesBuilder. A dotted
+    // search like `JsonReader.<init>` therefore matches `JsonReader#<init>` via the `.` wildcard.
+    // concat_ws skips NULL columns, so class-less native frames still match on the method alone.
+    // The regex runs once per distinct frame; the stacktraces are matched by a semi-join of their
+    // unnested frame hashes against that set.
+    //language=SQL
+    private static final String MATCHED_BY_SEARCH = """
+            SELECT DISTINCT u.stacktrace_hash
+                FROM (
+                    SELECT rs.stacktrace_hash, UNNEST(rs.frame_hashes) AS frame_hash
+                    FROM relevant_stacktraces rs
+                ) u
+                WHERE u.frame_hash IN (
+                    SELECT f.frame_hash
+                    FROM frames f
+                    WHERE regexp_matches(concat_ws('#', f.class_name, f.method_name), :search_pattern)
+                )""";
+
+    // The frame paths are resolved to frame hashes by the caller (per path position, the hashes of all
+    // frames rendered under that name), so matching a stacktrace is a few positional lookups into its
+    // frame_hashes list. An out-of-range position yields NULL and does not match.
+    //language=SQL
+    private static final String MATCHED_BY_FRAME_PATH = """
+            SELECT rs.stacktrace_hash
+                FROM relevant_stacktraces rs
+                WHERE <<frame_path_condition>>""";
+
+    private static final String SIMPLE_SEARCH = SPLIT_SEARCH.replace(PLACEHOLDER_MATCHED_STACKTRACES, MATCHED_BY_SEARCH);
+    private static final String PATH_SEARCH = SPLIT_SEARCH.replace(PLACEHOLDER_MATCHED_STACKTRACES, MATCHED_BY_FRAME_PATH);
+
     //language=SQL
     private static final String FILTERABLE = """
             SELECT
@@ -137,54 +162,9 @@ public class DuckDBTimeseriesQueries implements ComplexQueries.Timeseries {
             ORDER BY seconds
             """;
 
-    //language=SQL
-    private static final String FRAME_BASED = """
-            WITH filtered_data AS (
-                SELECT
-                    (e.start_timestamp_from_beginning // <<bucket_size_ms>>) AS seconds,
-                    s.stacktrace_hash,
-                    s.frame_hashes,
-                    SUM(<<target_value>>) AS samples
-                FROM events e
-                INNER JOIN stacktraces s ON e.stacktrace_hash = s.stacktrace_hash
-                WHERE e.event_type = <<event_type>>
-                    <<time_filters>>
-                    <<span_filter>>
-                    <<stacktrace_filters>>
-                    <<additional_filters>>
-                GROUP BY seconds, s.stacktrace_hash, s.frame_hashes
-            ),
-            frame_lookup AS (
-                SELECT MAP_FROM_ENTRIES(
-                    LIST({'key': frame_hash, 'value': STRUCT_PACK(
-                        class_name := class_name,
-                        method_name := method_name,
-                        frame_type := frame_type,
-                        line_number := line_number,
-                        bytecode_index := bytecode_index
-                    )})
-                ) AS frames_map
-                FROM frames
-            ),
-            aggregated_timeseries AS (
-                SELECT
-                    fd.stacktrace_hash,
-                    fd.frame_hashes,
-                    LIST(STRUCT_PACK(second := fd.seconds, value := fd.samples) ORDER BY fd.seconds) AS event_values
-                FROM filtered_data fd
-                GROUP BY fd.stacktrace_hash, fd.frame_hashes
-            )
-            SELECT
-                ats.stacktrace_hash,
-                list_transform(ats.frame_hashes, fh -> fl.frames_map[fh]) AS frames,
-                ats.event_values
-            FROM aggregated_timeseries ats
-            CROSS JOIN frame_lookup fl;
-            """;
-
-    // Per-event variant of FRAME_BASED: no per-second bucketing — one event_values entry per event, whose
-    // `second` slot carries the raw millisecond offset (start_timestamp_from_beginning), not a second index.
-    // Lets a weighted OTLP export emit one observation per sample so the exact sample count round-trips.
+    // Resolved frames per stacktrace with one event_values entry per event, whose `second` slot carries the
+    // raw millisecond offset (start_timestamp_from_beginning), not a second index. Lets a weighted OTLP
+    // export emit one observation per sample so the exact sample count round-trips.
     private static final String FRAME_BASED_EVENTS = """
             WITH filtered_data AS (
                 SELECT
@@ -230,15 +210,15 @@ public class DuckDBTimeseriesQueries implements ComplexQueries.Timeseries {
 
     private final String simple;
     private final String simpleSearch;
+    private final String pathSearch;
     private final String filterable;
-    private final String frameBased;
     private final String frameBasedEvents;
 
     private DuckDBTimeseriesQueries(String eventType, String additionalFilters) {
         this.simple = prepare(SIMPLE, eventType, additionalFilters);
         this.simpleSearch = prepare(SIMPLE_SEARCH, eventType, additionalFilters);
+        this.pathSearch = prepare(PATH_SEARCH, eventType, additionalFilters);
         this.filterable = prepare(FILTERABLE, eventType, additionalFilters);
-        this.frameBased = prepare(FRAME_BASED, eventType, additionalFilters);
         this.frameBasedEvents = prepare(FRAME_BASED_EVENTS, eventType, additionalFilters);
     }
 
@@ -279,13 +259,37 @@ public class DuckDBTimeseriesQueries implements ComplexQueries.Timeseries {
     }
 
     @Override
-    public String filterable(EventQueryConfigurer configurer) {
-        return render(filterable, configurer);
+    public String pathSearch(EventQueryConfigurer configurer, List<long[][]> framePaths) {
+        return render(pathSearch, configurer)
+                .replace(PLACEHOLDER_FRAME_PATH_CONDITION, framePathCondition(framePaths));
+    }
+
+    /**
+     * {@code (frame_hashes[1] IN (..) AND frame_hashes[2] IN (..)) OR (..)}; a path with a position no
+     * frame resolves to can never match and is left out, no path at all renders {@code FALSE}.
+     */
+    static String framePathCondition(List<long[][]> framePaths) {
+        StringJoiner paths = new StringJoiner(" OR ");
+        for (long[][] positions : framePaths) {
+            if (positions.length == 0 || Arrays.stream(positions).anyMatch(hashes -> hashes.length == 0)) {
+                continue;
+            }
+            StringJoiner path = new StringJoiner(" AND ", "(", ")");
+            for (int i = 0; i < positions.length; i++) {
+                StringJoiner hashes = new StringJoiner(", ", "rs.frame_hashes[" + (i + 1) + "] IN (", ")");
+                for (long hash : positions[i]) {
+                    hashes.add(Long.toString(hash));
+                }
+                path.add(hashes.toString());
+            }
+            paths.add(path.toString());
+        }
+        return paths.length() == 0 ? "FALSE" : paths.toString();
     }
 
     @Override
-    public String frameBased(EventQueryConfigurer configurer) {
-        return render(frameBased, configurer);
+    public String filterable(EventQueryConfigurer configurer) {
+        return render(filterable, configurer);
     }
 
     @Override
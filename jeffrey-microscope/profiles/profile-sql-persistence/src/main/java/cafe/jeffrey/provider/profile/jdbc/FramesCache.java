@@ -20,6 +20,7 @@ package cafe.jeffrey.provider.profile.jdbc;
 
 import cafe.jeffrey.provider.profile.api.*;
 
+import org.eclipse.collections.api.block.procedure.primitive.LongObjectProcedure;
 import org.eclipse.collections.api.map.primitive.LongObjectMap;
 import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
 import cafe.jeffrey.jfrparser.api.type.JfrStackFrameImpl;
@@ -76,6 +77,13 @@ public class FramesCache {
     private record FrameEntry(long hash, JfrStackFrameImpl frame) {
     }
 
+    /**
+     * Visits every cached frame with its hash.
+     */
+    public void forEachFrame(LongObjectProcedure<? super JfrStackFrameImpl> procedure) {
+        framesMap.forEachKeyValue(procedure::value);
+    }
+
     /**
      * Resolves frame hashes to frame data using primitive long array.
      *
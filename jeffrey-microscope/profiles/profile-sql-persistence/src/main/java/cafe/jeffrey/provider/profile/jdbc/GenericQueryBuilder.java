@@ -58,6 +58,41 @@ public class GenericQueryBuilder implements QueryBuilder {
 
     public GenericQueryBuilder(
             SQLFormatter sqlFormatter, EventQueryConfigurer configurer, List<Type> eventTypes, List<String> baseFields) {
+        this(sqlFormatter, configurer, eventTypes, baseFields, null);
+    }
+
+    /**
+     * Reads the events from the typed side table (aliased as {@code events}, so all other clauses
+     * stay the same) and selects its typed columns in place of the JSON {@code fields}.
+     */
+    public GenericQueryBuilder(SQLFormatter sqlFormatter, EventQueryConfigurer configurer, TypedEventTable typedTable) {
+        this(sqlFormatter, configurer, configurer.eventTypes(), BASE_FIELDS, typedTable, null);
+    }
+
+    /**
+     * Reads the events from the given relation in place of {@code events}; for a query mixing typed
+     * and untyped event types, see {@link TypedEventTables#eventsSource(List, List)}.
+     */
+    public GenericQueryBuilder(SQLFormatter sqlFormatter, EventQueryConfigurer configurer, String eventsSource) {
+        this(sqlFormatter, configurer, configurer.eventTypes(), BASE_FIELDS, null, eventsSource);
+    }
+
+    private GenericQueryBuilder(
+            SQLFormatter sqlFormatter,
+            EventQueryConfigurer configurer,
+            List<Type> eventTypes,
+            List<String> baseFields,
+            TypedEventTable typedTable) {
+        this(sqlFormatter, configurer, eventTypes, baseFields, typedTable, null);
+    }
+
+    private GenericQueryBuilder(
+            SQLFormatter sqlFormatter,
+            EventQueryConfigurer configurer,
+            List<Type> eventTypes,
+            List<String> baseFields,
+            TypedEventTable typedTable,
+            String eventsSource) {
 
         if (eventTypes == null || eventTypes.isEmpty()) {
             throw new IllegalArgumentException("Event types must be specified in the configurer.");
@@ -66,13 +101,20 @@ public class GenericQueryBuilder implements QueryBuilder {
         this.sqlFormatter = sqlFormatter;
         this.builder = new SQLBuilder()
                 .addColumns(baseFields)
-                .from("events")
                 .where(sqlFormatter.eventTypes(eventTypes));
 
-        applyConfigurer(configurer);
+        if (typedTable != null) {
+            builder.from(typedTable.tableName(), "events");
+        } else if (eventsSource != null) {
+            builder.from(eventsSource, "events");
+        } else {
+            builder.from("events");
+        }
+
+        applyConfigurer(configurer, typedTable);
     }
 
-    private void applyConfigurer(EventQueryConfigurer configurer) {
+    private void applyConfigurer(EventQueryConfigurer configurer, TypedEventTable typedTable) {
         RelativeTimeRange timeRange = configurer.timeRange();
         if (timeRange != null) {
             builder.merge(sqlFormatter.timeRangeOptional(timeRange.start(), timeRange.end()));
@@ -91,7 +133,11 @@ public class GenericQueryBuilder implements QueryBuilder {
         }
 
         if (configurer.jsonFields()) {
-            builder.merge(sqlFormatter.eventFields());
+            if (typedTable != null) {
+                builder.addColumns(typedTable.fieldColumns());
+            } else {
+                builder.merge(sqlFormatter.eventFields());
+            }
         }
 
         if (configurer.isOrderedByTime()) {
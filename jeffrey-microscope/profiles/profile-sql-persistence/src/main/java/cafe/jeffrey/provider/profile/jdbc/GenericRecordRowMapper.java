@@ -42,11 +42,21 @@ public class GenericRecordRowMapper implements RowMapper<GenericRecord> {
     private final boolean useThreads;
     private final boolean useEventTypeInfo;
     private final boolean useJsonFields;
+    private final TypedEventTable typedTable;
 
     public GenericRecordRowMapper(EventQueryConfigurer configurer) {
+        this(configurer, null);
+    }
+
+    /**
+     * @param typedTable side table the rows are read from, or {@code null} when the fields come
+     *                   from the JSON {@code fields} column
+     */
+    public GenericRecordRowMapper(EventQueryConfigurer configurer, TypedEventTable typedTable) {
         this.useThreads = configurer.threads();
         this.useEventTypeInfo = configurer.eventTypeInfo();
         this.useJsonFields = configurer.jsonFields();
+        this.typedTable = typedTable;
     }
 
     @Override
@@ -85,7 +95,9 @@ public class GenericRecordRowMapper implements RowMapper<GenericRecord> {
 
         ObjectNode jsonFields = null;
         if (useJsonFields) {
-            jsonFields = (ObjectNode) Json.readTree(rs.getString("event_fields"));
+            jsonFields = typedTable != null
+                    ? typedTable.readFields(rs)
+                    : (ObjectNode) Json.readTree(rs.getString("event_fields"));
         }
 
         return new GenericRecord(
@@ -94,21 +94,38 @@ public class JdbcProfileCacheRepository implements ProfileCacheRepository {
         return databaseClient.querySingle(StatementLabel.FIND_CACHE_ENTRY, GET, paramSource, typedMapper(type));
     }
 
+    @Override
+    public void putBytes(String key, byte[] content) {
+        MapSqlParameterSource paramSource = new MapSqlParameterSource()
+                .addValue("key", key)
+                .addValue("content", new SqlLobValue(content), Types.BLOB);
+
+        databaseClient.insertWithLob(StatementLabel.INSERT_CACHE_ENTRY, INSERT, paramSource);
+    }
+
+    @Override
+    public Optional<byte[]> getBytes(String key) {
+        MapSqlParameterSource paramSource = new MapSqlParameterSource()
+                .addValue("key", key);
+
+        return databaseClient.querySingle(StatementLabel.FIND_CACHE_ENTRY, GET, paramSource, blobMapper(content -> content));
+    }
+
     public static <T> RowMapper<T> typedMapper(Class<T> type) {
-        return blobMapper(content -> Json.read(content, type));
+        return blobMapper(content -> Json.read(new String(content), type));
     }
 
     public static <T> RowMapper<T> typedMapper(TypeReference<T> type) {
-        return blobMapper(content -> Json.read(content, type));
+        return blobMapper(content -> Json.read(new String(content), type));
     }
 
-    private static <T> RowMapper<T> blobMapper(Function<String, T> deserializer) {
+    private static <T> RowMapper<T> blobMapper(Function<byte[], T> deserializer) {
         return (rs, _) -> {
             Blob blob = null;
             try {
                 blob = rs.getBlob("content");
                 if (blob != null) {
-                    return deserializer.apply(streamToString(blob.getBinaryStream()));
+                    return deserializer.apply(readAllBytes(blob.getBinaryStream()));
                 }
                 return null;
             } catch (SQLException e) {
@@ -126,9 +143,9 @@ public class JdbcProfileCacheRepository implements ProfileCacheRepository {
         databaseClient.delete(StatementLabel.DELETE_ALL_CACHE, DELETE_ALL);
     }
 
-    private static String streamToString(InputStream stream) {
+    private static byte[] readAllBytes(InputStream stream) {
         try {
-            return new String(stream.readAllBytes());
+            return stream.readAllBytes();
         } catch (IOException e) {
             throw new RuntimeException("Cannot retrieve a binary content", e);
         }
@@ -48,7 +48,7 @@ public class JdbcProfileEventRepository implements ProfileEventRepository {
     //language=SQL
     private final String LATEST_JSON_QUERY = """
             SELECT events.fields::jsonb AS event_fields
-            FROM events
+            FROM %s AS events
             WHERE events.event_type = :event_type
             ORDER BY events.start_timestamp DESC LIMIT 1""";
 
@@ -78,7 +78,7 @@ public class JdbcProfileEventRepository implements ProfileEventRepository {
 
     //language=SQL
     private static final String FIELDS_BY_EVENT = """
-            SELECT events.event_type, events.fields::jsonb as event_fields FROM events
+            SELECT events.event_type, events.fields::jsonb as event_fields FROM %s AS events
             WHERE events.event_type IN (:code)
             LIMIT :row_limit""";
 
@@ -213,7 +213,7 @@ public class JdbcProfileEventRepository implements ProfileEventRepository {
 
         return databaseClient.querySingle(
                 StatementLabel.FIND_LATEST_JSON,
-                sqlFormatter.formatJson(LATEST_JSON_QUERY),
+                sqlFormatter.formatJson(LATEST_JSON_QUERY.formatted(eventsSource(List.of(type)))),
                 params,
                 (rs, _) -> (ObjectNode) Json.readTree(rs.getString("event_fields")));
     }
@@ -243,7 +243,7 @@ public class JdbcProfileEventRepository implements ProfileEventRepository {
 
         return databaseClient.query(
                 StatementLabel.FIELDS_WITH_EVENT_TYPE,
-                sqlFormatter.formatJson(FIELDS_BY_EVENT),
+                sqlFormatter.formatJson(FIELDS_BY_EVENT.formatted(eventsSource(List.of(type)))),
                 paramSource,
                 (rs, _) -> Json.readTree(rs.getString("event_fields")));
     }
@@ -382,4 +382,18 @@ public class JdbcProfileEventRepository implements ProfileEventRepository {
             default -> "Unknown";
         };
     }
+
+    /**
+     * Events of the given types with their whole JSON fields, wherever the profile keeps them.
+     */
+    private String eventsSource(List<Type> types) {
+        return TypedEventTables.eventsSource(TypedEventTables.existing(databaseClient), types);
+    }
+
+    @Override
+    public List<Type> materializeTypedFields() {
+        return TypedEventTables.materialize(databaseClient).stream()
+                .flatMap(table -> table.types().stream())
+                .toList();
+    }
 }
@@ -18,9 +18,12 @@
 
 package cafe.jeffrey.provider.profile.jdbc;
 
+import org.eclipse.collections.api.block.procedure.primitive.LongObjectProcedure;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import cafe.jeffrey.jfrparser.api.type.JfrStackFrame;
 import cafe.jeffrey.provider.profile.api.*;
 import cafe.jeffrey.shared.common.FrameResolutionMode;
 import cafe.jeffrey.shared.common.model.StacktraceTag;
@@ -33,8 +36,14 @@ import cafe.jeffrey.shared.persistence.client.DatabaseClient;
 import cafe.jeffrey.shared.persistence.client.DatabaseClientProvider;
 import cafe.jeffrey.provider.profile.jdbc.*;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static cafe.jeffrey.shared.persistence.GroupLabel.PROFILE_EVENTS;
@@ -43,6 +52,11 @@ public class JdbcProfileEventStreamRepository implements ProfileEventStreamRepos
 
     private static final String JSON_ROOT_PATH_PREFIX = "$.";
 
+    private static final String[] SUB_SECOND_COLUMNS = {"start_ms_offset", "value"};
+    private static final String[] TIMESERIES_COLUMNS = {"seconds", "value"};
+    private static final String[] TIMESERIES_SEARCH_COLUMNS = {"seconds", "total_value", "matched_value"};
+    private static final String[] FILTERABLE_TIMESERIES_COLUMNS = {"seconds", "samples"};
+
     private record FlamegraphOptions(String sql, SqlParameterSource paramSource, RowMapper<FlamegraphRecord> mapper) {
     }
 
@@ -51,6 +65,9 @@ public class JdbcProfileEventStreamRepository implements ProfileEventStreamRepos
     private final FrameResolutionMode frameResolutionMode;
     private final FramesCacheSlot framesCacheSlot;
 
+    // Typed side tables of the profile, looked up on first use (they are created once at initialization)
+    private volatile List<TypedEventTable> typedEventTables;
+
     public JdbcProfileEventStreamRepository(
             QueryBuilderFactoryResolver queryBuilderFactoryResolver,
             DatabaseClientProvider databaseClientProvider,
@@ -66,10 +83,31 @@ public class JdbcProfileEventStreamRepository implements ProfileEventStreamRepos
     @Override
     public <T> T genericStreaming(EventQueryConfigurer configurer, RecordBuilder<GenericRecord, T> builder) {
         QueryBuilderFactory factory = queryBuilderFactoryResolver.resolve(configurer.eventTypes());
-        return startStreaming(
-                factory.createGenericQueryBuilder(configurer),
-                new GenericRecordRowMapper(configurer),
-                builder);
+
+        // Fields of hot event types are read from their typed side table when the profile has one;
+        // a query mixing them with other types gets their JSON put back together from the tables
+        List<TypedEventTable> typedTables = configurer.jsonFields() ? typedEventTables() : List.of();
+        TypedEventTable typedTable = TypedEventTables.resolve(typedTables, configurer.eventTypes()).orElse(null);
+
+        QueryBuilder queryBuilder;
+        if (typedTable != null) {
+            queryBuilder = factory.createGenericQueryBuilder(configurer, typedTable);
+        } else if (!typedTables.isEmpty()) {
+            queryBuilder = factory.createGenericQueryBuilder(configurer, typedTables);
+        } else {
+            queryBuilder = factory.createGenericQueryBuilder(configurer);
+        }
+
+        return startStreaming(queryBuilder, new GenericRecordRowMapper(configurer, typedTable), builder);
+    }
+
+    private List<TypedEventTable> typedEventTables() {
+        List<TypedEventTable> tables = typedEventTables;
+        if (tables == null) {
+            tables = TypedEventTables.existing(databaseClient);
+            typedEventTables = tables;
+        }
+        return tables;
     }
 
     @Override
@@ -78,14 +116,12 @@ public class JdbcProfileEventStreamRepository implements ProfileEventStreamRepos
 
         MapSqlParameterSource baseParams = createBaseParams(configurer);
 
-        databaseClient.queryStream(
-                StatementLabel.STREAM_EVENTS,
+        return streamNumeric(
                 factory.complexQueries().subSecond().simple(configurer),
                 baseParams,
+                SUB_SECOND_COLUMNS,
                 (r, _) -> new SubSecondRecord(r.getLong("start_ms_offset"), r.getLong("value")),
-                builder::onRecord);
-
-        return builder.build();
+                builder);
     }
 
     @Override
@@ -95,14 +131,12 @@ public class JdbcProfileEventStreamRepository implements ProfileEventStreamRepos
         MapSqlParameterSource baseParams = createBaseParams(configurer);
 
         ComplexQueries.Timeseries timeseries = factory.complexQueries().timeseries();
-        databaseClient.queryStream(
-                StatementLabel.STREAM_EVENTS,
+        return streamNumeric(
                 timeseries.simple(configurer),
                 baseParams,
+                TIMESERIES_COLUMNS,
                 (r, _) -> TimeseriesRecord.secondsAndValues(r.getLong("seconds"), r.getLong("value")),
-                builder::onRecord);
-
-        return builder.build();
+                builder);
     }
 
     @Override
@@ -112,14 +146,70 @@ public class JdbcProfileEventStreamRepository implements ProfileEventStreamRepos
         MapSqlParameterSource baseParams = createBaseParams(configurer);
 
         ComplexQueries.Timeseries timeseries = factory.complexQueries().timeseries();
-        databaseClient.queryStream(
-                StatementLabel.STREAM_EVENTS,
+        return streamNumeric(
                 timeseries.simpleSearch(configurer),
                 baseParams,
-                (r, _) -> new TimeseriesSearchRecord(r.getLong("seconds"), r.getLong("total_value"), r.getLong("matched_value")),
-                builder::onRecord);
+                TIMESERIES_SEARCH_COLUMNS,
+                JdbcProfileEventStreamRepository::mapSearchRecord,
+                builder);
+    }
 
-        return builder.build();
+    @Override
+    public <T> T timeseriesPathMatchingStreamer(
+            EventQueryConfigurer configurer,
+            List<List<String>> framePaths,
+            Function<JfrStackFrame, String> frameNamer,
+            RecordBuilder<TimeseriesSearchRecord, T> builder) {
+
+        QueryBuilderFactory factory = queryBuilderFactoryResolver.resolve(configurer.eventTypes());
+
+        MapSqlParameterSource baseParams = createBaseParams(configurer);
+
+        ComplexQueries.Timeseries timeseries = factory.complexQueries().timeseries();
+        return streamNumeric(
+                timeseries.pathSearch(configurer, resolveFramePaths(framePaths, frameNamer)),
+                baseParams,
+                TIMESERIES_SEARCH_COLUMNS,
+                JdbcProfileEventStreamRepository::mapSearchRecord,
+                builder);
+    }
+
+    /**
+     * Resolves every frame name of the paths to the hashes of all frames rendered under that name
+     * (one name spans several frames, e.g. different line numbers). Each frame of the profile is named
+     * once here, instead of once per frame of every streamed stacktrace.
+     */
+    private List<long[][]> resolveFramePaths(List<List<String>> framePaths, Function<JfrStackFrame, String> frameNamer) {
+        Set<String> names = framePaths.stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toSet());
+
+        Map<String, LongArrayList> hashesByName = new HashMap<>();
+        if (!names.isEmpty()) {
+            LongObjectProcedure<JfrStackFrame> collector = (hash, frame) -> {
+                String name = frameNamer.apply(frame);
+                if (names.contains(name)) {
+                    hashesByName.computeIfAbsent(name, _ -> new LongArrayList()).add(hash);
+                }
+            };
+
+            if (frameResolutionMode == FrameResolutionMode.CACHE) {
+                framesCacheSlot.resolve(() -> FramesCache.load(databaseClient)).forEachFrame(collector);
+            } else {
+                FramesCache.load(databaseClient).forEachFrame(collector);
+            }
+        }
+
+        List<long[][]> resolved = new ArrayList<>(framePaths.size());
+        for (List<String> path : framePaths) {
+            long[][] positions = new long[path.size()][];
+            for (int i = 0; i < path.size(); i++) {
+                LongArrayList hashes = hashesByName.get(path.get(i));
+                positions[i] = hashes != null ? hashes.toArray() : new long[0];
+            }
+            resolved.add(positions);
+        }
+        return resolved;
     }
 
     @Override
@@ -129,14 +219,12 @@ public class JdbcProfileEventStreamRepository implements ProfileEventStreamRepos
         MapSqlParameterSource baseParams = createBaseParams(configurer);
         applyJsonFieldFilter(baseParams, configurer.jsonFieldFilter());
 
-        databaseClient.queryStream(
-                StatementLabel.STREAM_EVENTS,
+        return streamNumeric(
                 factory.complexQueries().timeseries().filterable(configurer),
                 baseParams,
+                FILTERABLE_TIMESERIES_COLUMNS,
                 (r, _) -> new SecondValue(r.getLong("seconds"), r.getLong("samples")),
-                builder::onRecord);
-
-        return builder.build();
+                builder);
     }
 
     private static void applyJsonFieldFilter(
@@ -151,22 +239,6 @@ public class JdbcProfileEventStreamRepository implements ProfileEventStreamRepos
         }
     }
 
-    @Override
-    public <T> T frameBasedTimeseriesStreamer(EventQueryConfigurer configurer, RecordBuilder<TimeseriesRecord, T> builder) {
-        QueryBuilderFactory factory = queryBuilderFactoryResolver.resolve(configurer.eventTypes());
-
-        MapSqlParameterSource baseParams = createBaseParams(configurer);
-
-        databaseClient.queryStream(
-                StatementLabel.STREAM_EVENTS,
-                factory.complexQueries().timeseries().frameBased(configurer),
-                baseParams,
-                new TimeseriesRecordRowMapper(),
-                builder::onRecord);
-
-        return builder.build();
-    }
-
     @Override
     public <T> T frameBasedEventStreamer(EventQueryConfigurer configurer, RecordBuilder<TimeseriesRecord, T> builder) {
         QueryBuilderFactory factory = queryBuilderFactoryResolver.resolve(configurer.eventTypes());
@@ -197,6 +269,31 @@ public class JdbcProfileEventStreamRepository implements ProfileEventStreamRepos
         return builder.build();
     }
 
+    /**
+     * Streams a query of purely numeric columns: a {@link ColumnarRecordBuilder} receives them as column
+     * batches, any other builder gets one record per row from {@code mapper}.
+     */
+    private <T, R> R streamNumeric(
+            String sql,
+            MapSqlParameterSource params,
+            String[] columns,
+            RowMapper<T> mapper,
+            RecordBuilder<T, R> builder) {
+
+        if (builder instanceof ColumnarRecordBuilder<T, R> columnar) {
+            LongColumnBatchReader reader = new LongColumnBatchReader(columns, columnar::onBatch);
+            databaseClient.query(StatementLabel.STREAM_EVENTS, sql, params, reader);
+            reader.flush();
+        } else {
+            databaseClient.queryStream(StatementLabel.STREAM_EVENTS, sql, params, mapper, builder::onRecord);
+        }
+        return builder.build();
+    }
+
+    private static TimeseriesSearchRecord mapSearchRecord(ResultSet rs, int rowNum) throws SQLException {
+        return new TimeseriesSearchRecord(rs.getLong("seconds"), rs.getLong("total_value"), rs.getLong("matched_value"));
+    }
+
     private <T, R> R startStreaming(QueryBuilder queryBuilder, RowMapper<T> mapper, RecordBuilder<T, R> builder) {
         databaseClient.queryStream(StatementLabel.STREAM_EVENTS, queryBuilder.build(), mapper, builder::onRecord);
         return builder.build();
@@ -80,13 +80,13 @@ public class JdbcProfileEventTypeRepository implements ProfileEventTypeRepositor
 
     //language=SQL
     private static final String FIELDS_BY_SINGLE_EVENT = """
-            SELECT event_types.name, event_types.label, events.fields::JSON AS event_fields FROM events
+            SELECT event_types.name, event_types.label, events.fields::JSON AS event_fields FROM %s AS events
             INNER JOIN event_types ON events.event_type = event_types.name
             WHERE events.event_type = (:code) LIMIT 1""";
 
     //language=SQL
     private static final String FIELDS_BY_EVENT_TYPES = """
-            SELECT event_types.name, event_types.label, any_value(events.fields::JSON) AS event_fields FROM events
+            SELECT event_types.name, event_types.label, any_value(events.fields::JSON) AS event_fields FROM %s AS events
             INNER JOIN event_types ON events.event_type = event_types.name
             WHERE events.event_type IN (:codes)
             GROUP BY event_types.name, event_types.label""";
@@ -171,7 +171,7 @@ public class JdbcProfileEventTypeRepository implements ProfileEventTypeRepositor
 
         return databaseClient.querySingle(
                 StatementLabel.FIELDS_WITH_SINGLE_EVENT,
-                sqlFormatter.formatJson(FIELDS_BY_SINGLE_EVENT),
+                sqlFormatter.formatJson(FIELDS_BY_SINGLE_EVENT.formatted(eventsSource(List.of(type)))),
                 paramSource,
                 TYPE_FIELDS_MAPPER);
     }
@@ -187,7 +187,7 @@ public class JdbcProfileEventTypeRepository implements ProfileEventTypeRepositor
 
         List<EventTypeWithFields> rows = databaseClient.query(
                 StatementLabel.FIELDS_WITH_EVENT_TYPES,
-                sqlFormatter.formatJson(FIELDS_BY_EVENT_TYPES),
+                sqlFormatter.formatJson(FIELDS_BY_EVENT_TYPES.formatted(eventsSource(types))),
                 paramSource,
                 TYPE_FIELDS_MAPPER);
 
@@ -267,6 +267,13 @@ public class JdbcProfileEventTypeRepository implements ProfileEventTypeRepositor
                 StatementLabel.EVENT_SUMMARIES, eventSummariesByCodesSql(spanIntervals), paramSource, EVENT_SUMMARY_MAPPER);
     }
 
+    /**
+     * Events of the given types with their whole JSON fields, wherever the profile keeps them.
+     */
+    private String eventsSource(List<Type> types) {
+        return TypedEventTables.eventsSource(TypedEventTables.existing(databaseClient), types);
+    }
+
     /**
      * Splices the span-scope semi-join into the summaries query only when span intervals are present;
      * without span scoping, the clause is absent entirely.
@@ -30,6 +30,7 @@ import cafe.jeffrey.shared.persistence.client.DatabaseClientProvider;
 import java.sql.Array;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -79,13 +80,13 @@ public class JdbcProfileToolsRepository implements ProfileToolsRepository {
     /**
      * Set-based re-pointing of events to new stacktrace hashes: one statement per chunk of
      * mappings joined via {@code UPDATE ... FROM (VALUES ...)} instead of one full-table
-     * UPDATE per mapping. The placeholder is filled with {@code (:old_N, :new_N)} pairs.
+     * UPDATE per mapping. The placeholders are the events table and the {@code (:old_N, :new_N)} pairs.
      */
     //language=SQL
     private static final String UPDATE_EVENTS_STACKTRACE_TEMPLATE = """
-            UPDATE events SET stacktrace_hash = m.new_hash
-            FROM (VALUES %s) AS m(old_hash, new_hash)
-            WHERE events.stacktrace_hash = m.old_hash""";
+            UPDATE %1$s SET stacktrace_hash = m.new_hash
+            FROM (VALUES %2$s) AS m(old_hash, new_hash)
+            WHERE %1$s.stacktrace_hash = m.old_hash""";
 
     private static final int UPDATE_MAPPING_CHUNK_SIZE = 1000;
 
@@ -101,7 +102,9 @@ public class JdbcProfileToolsRepository implements ProfileToolsRepository {
 
     //language=SQL
     private static final String DELETE_EVENTS_BY_STACKTRACES = """
-            DELETE FROM events WHERE stacktrace_hash IN (:hashes)""";
+            DELETE FROM %s WHERE stacktrace_hash IN (:hashes)""";
+
+    private static final String EVENTS_TABLE = "events";
 
     //language=SQL
     private static final String DELETE_ORPHANED_STACKTRACES = """
@@ -202,9 +205,11 @@ public class JdbcProfileToolsRepository implements ProfileToolsRepository {
 
         // Update events to point to new stacktrace hashes — one set-based statement per chunk
         List<Map.Entry<Long, Long>> mappings = List.copyOf(oldToNewHashMapping.entrySet());
-        for (int from = 0; from < mappings.size(); from += UPDATE_MAPPING_CHUNK_SIZE) {
-            int to = Math.min(from + UPDATE_MAPPING_CHUNK_SIZE, mappings.size());
-            updateEventsStacktraceChunk(mappings.subList(from, to));
+        for (String eventsTable : eventsTables()) {
+            for (int from = 0; from < mappings.size(); from += UPDATE_MAPPING_CHUNK_SIZE) {
+                int to = Math.min(from + UPDATE_MAPPING_CHUNK_SIZE, mappings.size());
+                updateEventsStacktraceChunk(eventsTable, mappings.subList(from, to));
+            }
         }
 
         // Delete old stacktraces that are no longer referenced
@@ -215,7 +220,7 @@ public class JdbcProfileToolsRepository implements ProfileToolsRepository {
         framesCacheSlot.invalidate();
     }
 
-    private void updateEventsStacktraceChunk(List<Map.Entry<Long, Long>> mappings) {
+    private void updateEventsStacktraceChunk(String eventsTable, List<Map.Entry<Long, Long>> mappings) {
         StringJoiner valueRows = new StringJoiner(", ");
         MapSqlParameterSource params = new MapSqlParameterSource();
 
@@ -226,14 +231,30 @@ public class JdbcProfileToolsRepository implements ProfileToolsRepository {
             params.addValue("new_" + i, mapping.getValue());
         }
 
-        String sql = UPDATE_EVENTS_STACKTRACE_TEMPLATE.formatted(valueRows.toString());
+        String sql = UPDATE_EVENTS_STACKTRACE_TEMPLATE.formatted(eventsTable, valueRows.toString());
         databaseClient.update(StatementLabel.TOOLS_UPDATE_EVENTS_STACKTRACE, sql, params);
     }
 
     @Override
     public void deleteEventsByStacktraces(List<Long> stacktraceHashes) {
         var params = new MapSqlParameterSource().addValue("hashes", stacktraceHashes);
-        databaseClient.update(StatementLabel.TOOLS_DELETE_EVENTS_BY_STACKTRACES, DELETE_EVENTS_BY_STACKTRACES, params);
+        for (String eventsTable : eventsTables()) {
+            databaseClient.update(StatementLabel.TOOLS_DELETE_EVENTS_BY_STACKTRACES,
+                    DELETE_EVENTS_BY_STACKTRACES.formatted(eventsTable), params);
+        }
+    }
+
+    /**
+     * The events table together with the typed side tables holding copies of its rows: the generic
+     * streaming of the typed event types reads the side tables, so a tool has to change both.
+     */
+    private List<String> eventsTables() {
+        List<String> tables = new ArrayList<>();
+        tables.add(EVENTS_TABLE);
+        for (TypedEventTable typedTable : TypedEventTables.existing(databaseClient)) {
+            tables.add(typedTable.tableName());
+        }
+        return tables;
     }
 
     @Override
@@ -102,7 +102,8 @@ public class JdbcSpanRepository implements SpanRepository {
 
         return databaseClient.query(
                 StatementLabel.SPAN_EVENTS,
-                EVENTS_FOR_THREAD,
+                ThreadWindowEvents.reading(
+                        EVENTS_FOR_THREAD, TypedEventTables.eventsSource(TypedEventTables.existing(databaseClient))),
                 params,
                 ThreadWindowEvents.mapper());
     }
@@ -40,6 +40,7 @@ import cafe.jeffrey.provider.profile.api.TraceSpanRecord;
 import cafe.jeffrey.provider.profile.api.TraceSummaryRecord;
 import cafe.jeffrey.provider.profile.api.TraceTimelineBucketRecord;
 import cafe.jeffrey.shared.common.model.SpanInterval;
+import cafe.jeffrey.shared.common.model.Type;
 import cafe.jeffrey.shared.persistence.StatementLabel;
 import cafe.jeffrey.shared.persistence.client.DatabaseClient;
 import cafe.jeffrey.shared.persistence.client.DatabaseClientProvider;
@@ -57,9 +58,11 @@ import static cafe.jeffrey.shared.persistence.GroupLabel.PROFILE_TRACES;
 /**
  * Derives and reads the trace tables.
  * <p>
- * Ids are read out of the JSON {@code fields} with {@code json_extract_string(...)::BIGINT} rather
- * than {@code json_extract(...)::BIGINT}: the former hands back the number's raw text, so a 64-bit
- * id cannot lose precision on the way through.
+ * The derivation starts from {@code trace_span_events}, which the parser fills with typed ids as it
+ * streams the recording. Only for a profile it did not fill are the ids read out of the JSON
+ * {@code fields}, with {@code json_extract_string(...)::BIGINT} rather than
+ * {@code json_extract(...)::BIGINT}: the former hands back the number's raw text, so a 64-bit id
+ * cannot lose precision on the way through.
  */
 public class JdbcTraceRepository implements TraceRepository {
 
@@ -123,10 +126,63 @@ public class JdbcTraceRepository implements TraceRepository {
                 CASE WHEN %s THEN '{%s,"status":null}' ELSE '{%s}' END) AS VARCHAR), '{}')"""
             .formatted(SpanConventions.recordedStatusIsSpanStatus(), PLUMBING_KEYS, PLUMBING_KEYS);
 
+    /*
+     * Fills trace_span_events from `events` for a profile whose parser did not, which is one parsed
+     * before the span extraction moved into the parser, or one whose events were written by hand.
+     * Same rows the parser would have appended, minus what only the parser can know: every span's
+     * self time starts at its whole duration with no children counted, so SELF_DURATIONS resolves
+     * every parent here exactly as it did before the parser helped.
+     *
+     * The ids are pulled out once in the CTE, which the filter then reuses by name, so each is read
+     * out of the JSON a single time. The two predicates drop events that were never part of a
+     * trace: their id fields are 0, the wire encoding for "absent". The events are read through
+     * TypedEventTables.eventsSource, because a span type moved to a typed table has no JSON left in
+     * `events`.
+     */
+    //language=SQL
+    private static final String STAGE_SPAN_EVENTS = """
+            INSERT INTO trace_span_events (
+                trace_id, span_id, parent_span_id, event_type, start_timestamp,
+                start_timestamp_from_beginning, duration, self_duration, counted_children,
+                thread_hash, fields)
+            WITH spans AS (
+                SELECT
+                    e.*,
+                    json_extract_string(e.fields, '$.traceId')::BIGINT                  AS trace_id,
+                    json_extract_string(e.fields, '$.spanId')::BIGINT                   AS span_id,
+                    NULLIF(json_extract_string(e.fields, '$.parentSpanId')::BIGINT, 0)  AS parent_span_id
+                FROM %s e
+                WHERE e.event_type IN (%s)
+                  AND COALESCE(trace_id, 0) <> 0
+                  AND COALESCE(span_id, 0) <> 0
+            )
+            SELECT
+                trace_id, span_id, parent_span_id, event_type, start_timestamp,
+                COALESCE(start_timestamp_from_beginning, 0),
+                COALESCE(duration, 0),
+                COALESCE(duration, 0),
+                0,
+                thread_hash, fields
+            FROM spans
+            """;
+
+    /*
+     * The staged span events are only the input of the derivation. Once trace_spans holds them, the
+     * table is emptied rather than left to double the span data of every profile; deriving again
+     * stages it from `events` once more.
+     */
+    //language=SQL
+    private static final String CLEAR_SPAN_EVENTS = "TRUNCATE trace_span_events";
+
+    //language=SQL
+    private static final String SPAN_EVENTS_STAGED = """
+            SELECT COUNT(*) FROM (SELECT 1 FROM trace_span_events LIMIT 1) probe
+            """;
+
     /*
      * The identity columns are a flat projection, because there is nothing left to work out: Tracer
-     * minted every id in the JVM, so each is read straight out of the JSON. What used to be a
-     * synthetic span id here now lives in the event classes.
+     * minted every id in the JVM, and the parser read each one out of the event's typed fields into
+     * trace_span_events. What used to be a synthetic span id here now lives in the event classes.
      *
      * The three shape columns are not flat, and deliberately so: each is a projection over
      * conventions, which settle what an exchange, a call or a statement is *called* rather than
@@ -139,12 +195,8 @@ public class JdbcTraceRepository implements TraceRepository {
      * the recording declares for itself, which is how an event type Jeffrey has never seen gets
      * named with no change here. The verdict is never declared -- it is recorded by the writer,
      * and the built-in status arms exist only for the exchange types Jeffrey itself knows.
-     * Discovery above stays structural, so an event type no convention covers is still a span; it
-     * just carries the name, kind and status it recorded for itself.
-     *
-     * The ids are pulled out once in the CTE, which the filter then reuses by name, so each is read
-     * out of the JSON a single time. The two predicates drop events that were never part of a
-     * trace: their id fields are 0, the wire encoding for "absent".
+     * Discovery stays structural, so an event type no convention covers is still a span; it just
+     * carries the name, kind and status it recorded for itself.
      *
      * QUALIFY enforces the invariant the primary key states: one row per (trace_id, span_id). A
      * duplicated event -- a re-imported chunk, third-party instrumentation reusing an id -- keeps
@@ -157,18 +209,7 @@ public class JdbcTraceRepository implements TraceRepository {
             INSERT INTO trace_spans (
                 trace_id, span_id, parent_span_id, name, kind, status, error_type,
                 start_timestamp, start_timestamp_from_beginning, duration, self_duration,
-                thread_hash, event_type, attributes, event_fields)
-            WITH spans AS (
-                SELECT
-                    e.*,
-                    json_extract_string(e.fields, '$.traceId')::BIGINT                  AS trace_id,
-                    json_extract_string(e.fields, '$.spanId')::BIGINT                   AS span_id,
-                    NULLIF(json_extract_string(e.fields, '$.parentSpanId')::BIGINT, 0)  AS parent_span_id
-                FROM events e
-                WHERE e.event_type IN (%s)
-                  AND COALESCE(trace_id, 0) <> 0
-                  AND COALESCE(span_id, 0) <> 0
-            )
+                counted_children, thread_hash, event_type, attributes, event_fields)
             SELECT
                 trace_id                                                        AS trace_id,
                 span_id                                                         AS span_id,
@@ -178,17 +219,17 @@ public class JdbcTraceRepository implements TraceRepository {
                 %s                                                              AS status,
                 json_extract_string(fields, '$.errorType')                      AS error_type,
                 start_timestamp                                                 AS start_timestamp,
-                COALESCE(start_timestamp_from_beginning, 0)                     AS start_timestamp_from_beginning,
-                COALESCE(duration, 0)                                           AS duration,
-                -- Starts at the whole duration; SELF_DURATIONS then subtracts whatever the span's
-                -- same-thread children covered. A span with no such children is already correct
-                -- here, which is why that statement only has to touch the spans that have them.
-                COALESCE(duration, 0)                                           AS self_duration,
+                start_timestamp_from_beginning                                  AS start_timestamp_from_beginning,
+                duration                                                        AS duration,
+                -- Already net of the children the parser counted; SELF_DURATIONS redoes only the
+                -- spans whose children in the table do not match that count.
+                self_duration                                                   AS self_duration,
+                counted_children                                                AS counted_children,
                 thread_hash                                                     AS thread_hash,
                 event_type                                                      AS event_type,
                 json_extract_string(fields, '$.attributes')                     AS attributes,
                 %s                                                              AS event_fields
-            FROM spans
+            FROM trace_span_events
             QUALIFY ROW_NUMBER() OVER (PARTITION BY trace_id, span_id
                                        ORDER BY start_timestamp, duration) = 1
             """;
@@ -367,8 +408,12 @@ public class JdbcTraceRepository implements TraceRepository {
 
     /*
      * Subtracts from each span the stretches its children were covering, leaving the span's own
-     * time. Runs once, after the spans are inserted, because a span's self time is a fact about its
-     * children and nothing knows them until they are all in the table.
+     * time. Most spans arrive with that already done: the parser subtracts a child as soon as its
+     * parent closes on the same thread, and records how many children it counted. What is left for
+     * this statement are the spans whose children in the table disagree with that count -- a child
+     * parsed in another chunk, one that arrived after its parent, a duplicate the dedupe dropped, a
+     * blocking leaf synthesized after parsing -- and those are recomputed here from all of their
+     * children, never patched on top of the parser's answer.
      *
      * Only children on the parent's own thread are subtracted: work handed to another thread runs
      * beside the parent rather than instead of it, so cutting it out would charge the parent for
@@ -380,10 +425,8 @@ public class JdbcTraceRepository implements TraceRepository {
      * parent costs it only the stretch the two shared -- and then merged with the same
      * gaps-and-islands pass OPERATION_INTERVALS uses, so two children running concurrently are
      * subtracted once rather than twice. The result is floored at zero: microsecond rounding can
-     * make merged children marginally longer than the parent they ran inside.
-     *
-     * A span with no same-thread children is not touched at all; the insert already set its self
-     * time to its whole duration.
+     * make merged children marginally longer than the parent they ran inside. The parser clips and
+     * merges in the same microseconds, so both arrive at the same number for the same children.
      *
      * One shape this reads differently from the tree the waterfall assembles: a parent cycle. The
      * assembly breaks a cycle by promoting its earliest member to a root, whereas this join lets
@@ -394,16 +437,17 @@ public class JdbcTraceRepository implements TraceRepository {
     //language=SQL
     private static final String SELF_DURATIONS = """
             UPDATE trace_spans
-            SET self_duration = GREATEST(0, trace_spans.duration - covered.covered_us * 1000)
+            SET self_duration = GREATEST(0, trace_spans.duration - COALESCE(resolved.covered_us, 0) * 1000)
             FROM (
-                WITH clipped AS (
+                WITH children AS (
                     SELECT
-                        c.trace_id                                          AS trace_id,
-                        c.parent_span_id                                    AS span_id,
-                        GREATEST(EPOCH_US(c.start_timestamp),
-                                 EPOCH_US(p.start_timestamp))               AS from_us,
-                        LEAST(EPOCH_US(c.start_timestamp) + c.duration // 1000,
-                              EPOCH_US(p.start_timestamp) + p.duration // 1000) AS to_us
+                        c.trace_id              AS trace_id,
+                        c.parent_span_id        AS span_id,
+                        c.start_timestamp       AS child_start,
+                        c.duration              AS child_duration,
+                        p.start_timestamp       AS parent_start,
+                        p.duration              AS parent_duration,
+                        p.counted_children      AS counted_children
                     FROM trace_spans c
                     JOIN trace_spans p
                       ON p.trace_id = c.trace_id
@@ -411,6 +455,25 @@ public class JdbcTraceRepository implements TraceRepository {
                     WHERE c.parent_span_id IS NOT NULL
                       AND COALESCE(c.thread_hash, 0) = COALESCE(p.thread_hash, 0)
                 ),
+                stale AS (
+                    SELECT trace_id, span_id
+                    FROM children
+                    GROUP BY trace_id, span_id, counted_children
+                    HAVING COUNT(*) <> counted_children
+                ),
+                clipped AS (
+                    SELECT
+                        ch.trace_id                                             AS trace_id,
+                        ch.span_id                                              AS span_id,
+                        GREATEST(EPOCH_US(ch.child_start),
+                                 EPOCH_US(ch.parent_start))                     AS from_us,
+                        LEAST(EPOCH_US(ch.child_start) + ch.child_duration // 1000,
+                              EPOCH_US(ch.parent_start) + ch.parent_duration // 1000) AS to_us
+                    FROM children ch
+                    JOIN stale st
+                      ON st.trace_id = ch.trace_id
+                     AND st.span_id = ch.span_id
+                ),
                 windows AS (
                     SELECT * FROM clipped WHERE to_us > from_us
                 ),
@@ -440,13 +503,22 @@ public class JdbcTraceRepository implements TraceRepository {
                         MAX(to_us)   AS to_us
                     FROM islands
                     GROUP BY trace_id, span_id, island
+                ),
+                covered AS (
+                    SELECT trace_id, span_id, SUM(to_us - from_us) AS covered_us
+                    FROM merged
+                    GROUP BY trace_id, span_id
                 )
-                SELECT trace_id, span_id, SUM(to_us - from_us) AS covered_us
-                FROM merged
-                GROUP BY trace_id, span_id
-            ) covered
-            WHERE trace_spans.trace_id = covered.trace_id
-              AND trace_spans.span_id = covered.span_id
+                -- Every stale span is reset, including one whose children all clipped away: the
+                -- parser's number for it was taken over a different set of children.
+                SELECT st.trace_id, st.span_id, cv.covered_us
+                FROM stale st
+                LEFT JOIN covered cv
+                  ON cv.trace_id = st.trace_id
+                 AND cv.span_id = st.span_id
+            ) resolved
+            WHERE trace_spans.trace_id = resolved.trace_id
+              AND trace_spans.span_id = resolved.span_id
             """;
 
     //language=SQL
@@ -884,6 +956,8 @@ public class JdbcTraceRepository implements TraceRepository {
      *
      * A label is read out of the event's own fields, trying the names those event types use, so a
      * band can say "G1 Young" or "RevokeBias" rather than only that something stopped the world.
+     * The events are read through TypedEventTables.eventsSource: with typed side tables, the name and
+     * cause of a collection are kept in its table rather than in events.
      *
      * The duration is handed over in nanoseconds exactly as recorded. It used to be folded into a
      * microsecond end timestamp and rebuilt from the difference, which floored every pause shorter
@@ -905,7 +979,7 @@ public class JdbcTraceRepository implements TraceRepository {
                     e.event_type)                                   AS label,
                 EPOCH_US(e.start_timestamp)                         AS from_epoch_us,
                 e.duration                                          AS duration_ns
-            FROM events e
+            FROM %s e
             WHERE e.event_type IN (:pause_event_types)
                 AND e.duration IS NOT NULL
                 AND e.start_timestamp >= make_timestamptz(:lookback_from_ms * 1000)
@@ -986,22 +1060,30 @@ public class JdbcTraceRepository implements TraceRepository {
 
     @Override
     public void derive() {
-        // Both tables are wholly a function of `events`, so deriving twice must land where deriving
-        // once did. Without this a re-run doubled every span and then failed on the traces primary
-        // key, leaving the profile with spans that no trace header accounts for.
+        // Both tables are wholly a function of `trace_span_events`, so deriving twice must land where
+        // deriving once did. Without this a re-run doubled every span and then failed on the traces
+        // primary key, leaving the profile with spans that no trace header accounts for.
         databaseClient.execute(StatementLabel.DERIVE_TRACES, DELETE_TRACES);
         databaseClient.execute(StatementLabel.DERIVE_TRACE_SPANS, DELETE_TRACE_SPANS);
 
+        // The parser appends the span events as it streams the recording; a profile it did not do
+        // that for, or one derived again after they were cleared, gets them out of `events` instead,
+        // so every derivation reads the same table.
+        if (!databaseClient.queryExists(
+                StatementLabel.STAGE_SPAN_EVENTS, SPAN_EVENTS_STAGED, new MapSqlParameterSource())) {
+            databaseClient.execute(StatementLabel.STAGE_SPAN_EVENTS, STAGE_SPAN_EVENTS.formatted(
+                    TypedEventTables.eventsSource(TypedEventTables.existing(databaseClient)), SPAN_EVENT_TYPES));
+        }
+
         // One template per event type -- built-ins overlaid by what the recording declares for
         // itself (@Span, stored in event_types.extras by the parser) -- rendered as one CASE.
         String nameTemplates = SpanNameTemplates.nameCase(databaseClient);
 
-        // The placeholders in the order they appear: which event types are spans, the three span
-        // shape projections, and the event_fields stripping projection.
+        // The placeholders in the order they appear: the three span shape projections, and the
+        // event_fields stripping projection.
         databaseClient.execute(
                 StatementLabel.DERIVE_TRACE_SPANS,
                 DERIVE_TRACE_SPANS.formatted(
-                        SPAN_EVENT_TYPES,
                         SpanConventions.nameProjection(nameTemplates),
                         SpanConventions.kindProjection(),
                         SpanConventions.statusProjection(),
@@ -1017,10 +1099,12 @@ public class JdbcTraceRepository implements TraceRepository {
                         .addValue("blocking_names", BlockingLeafSpans.names())
                         .addValue("blocking_kinds", BlockingLeafSpans.kinds()));
 
-        // After the spans, before the headers: self time is a fact about a span's children, so
-        // every span has to be in the table before any of them can be resolved.
+        // After the spans, before the headers: whatever the parser could not resolve needs every
+        // span in the table, the synthesized leaves included, before it can be.
         databaseClient.execute(StatementLabel.DERIVE_TRACE_SPANS, SELF_DURATIONS);
         databaseClient.execute(StatementLabel.DERIVE_TRACES, DERIVE_TRACES);
+
+        databaseClient.execute(StatementLabel.STAGE_SPAN_EVENTS, CLEAR_SPAN_EVENTS);
     }
 
     @Override
@@ -1288,7 +1372,8 @@ public class JdbcTraceRepository implements TraceRepository {
 
         return databaseClient.query(
                 StatementLabel.TRACE_PAUSES,
-                PAUSES_IN_WINDOW,
+                PAUSES_IN_WINDOW.formatted(TypedEventTables.eventsSource(
+                        TypedEventTables.existing(databaseClient), eventTypes.stream().map(Type::fromCode).toList())),
                 params,
                 (rs, _) -> {
                     String eventType = rs.getString("event_type");
@@ -1406,7 +1491,8 @@ public class JdbcTraceRepository implements TraceRepository {
         // saying so is the difference between a truncated list and a list passed off as complete.
         List<ThreadWindowEventRecord> rows = databaseClient.query(
                 StatementLabel.TRACE_SPAN_EVENTS,
-                EVENTS_IN_SPAN,
+                ThreadWindowEvents.reading(
+                        EVENTS_IN_SPAN, TypedEventTables.eventsSource(TypedEventTables.existing(databaseClient))),
                 ThreadWindowEvents.params(
                         threadHash, fromEpochMillis, toEpochMillis, ThreadWindowEvents.ROW_LIMIT + 1),
                 ThreadWindowEvents.mapper());
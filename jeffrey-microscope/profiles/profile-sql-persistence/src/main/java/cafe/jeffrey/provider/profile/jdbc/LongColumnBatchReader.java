@@ -0,0 +1,77 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2025 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.provider.profile.jdbc;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import cafe.jeffrey.provider.profile.api.LongColumnBatch;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Reads numeric result columns straight into reusable {@code long[]} buffers and hands them over in batches,
+ * so a streamed chart allocates nothing per row (no record, no boxed value, no column-name lookup).
+ * Column indexes are resolved from the first row; {@link #flush()} must be called after the query to emit
+ * the last, partially filled batch.
+ */
+final class LongColumnBatchReader implements RowCallbackHandler {
+
+    static final int BATCH_SIZE = 4096;
+
+    private final String[] columnNames;
+    private final Consumer<LongColumnBatch> consumer;
+    private final long[][] columns;
+    private int[] columnIndexes;
+    private int size;
+
+    LongColumnBatchReader(String[] columnNames, Consumer<LongColumnBatch> consumer) {
+        this(columnNames, consumer, BATCH_SIZE);
+    }
+
+    LongColumnBatchReader(String[] columnNames, Consumer<LongColumnBatch> consumer, int batchSize) {
+        this.columnNames = columnNames;
+        this.consumer = consumer;
+        this.columns = new long[columnNames.length][batchSize];
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        if (columnIndexes == null) {
+            columnIndexes = new int[columnNames.length];
+            for (int i = 0; i < columnNames.length; i++) {
+                columnIndexes[i] = rs.findColumn(columnNames[i]);
+            }
+        }
+
+        for (int i = 0; i < columns.length; i++) {
+            columns[i][size] = rs.getLong(columnIndexes[i]);
+        }
+        if (++size == columns[0].length) {
+            flush();
+        }
+    }
+
+    void flush() {
+        if (size > 0) {
+            consumer.accept(new LongColumnBatch(size, columns));
+            size = 0;
+        }
+    }
+}
@@ -53,6 +53,18 @@ public class NativeLeakQueryBuilderFactory implements QueryBuilderFactory {
                 .merge(builder);
     }
 
+    @Override
+    public GenericQueryBuilder createGenericQueryBuilder(EventQueryConfigurer configurer, TypedEventTable typedTable) {
+        // Native allocation events have no typed side table
+        return createGenericQueryBuilder(configurer);
+    }
+
+    @Override
+    public GenericQueryBuilder createGenericQueryBuilder(
+            EventQueryConfigurer configurer, List<TypedEventTable> typedTables) {
+        return createGenericQueryBuilder(configurer);
+    }
+
     @Override
     public ComplexQueries complexQueries() {
         return complexQueries;
@@ -22,9 +22,23 @@ import cafe.jeffrey.provider.profile.api.*;
 
 import cafe.jeffrey.provider.profile.api.EventQueryConfigurer;
 
+import java.util.List;
+
 public interface QueryBuilderFactory {
 
     GenericQueryBuilder createGenericQueryBuilder(EventQueryConfigurer configurer);
 
+    /**
+     * Same as {@link #createGenericQueryBuilder(EventQueryConfigurer)}, but reads the events and their
+     * fields from the given typed side table.
+     */
+    GenericQueryBuilder createGenericQueryBuilder(EventQueryConfigurer configurer, TypedEventTable typedTable);
+
+    /**
+     * Same as {@link #createGenericQueryBuilder(EventQueryConfigurer)}, but puts the JSON fields of
+     * the event types stored in the given typed side tables back together from them.
+     */
+    GenericQueryBuilder createGenericQueryBuilder(EventQueryConfigurer configurer, List<TypedEventTable> typedTables);
+
     ComplexQueries complexQueries();
 }
@@ -35,10 +35,19 @@ public class SQLEventWriter implements EventWriter {
 
     private final Supplier<EventWriters> eventWritersFactory;
     private final EventDeduplicator deduplicator;
+    private final BatchingWritersSummary summary;
 
     public SQLEventWriter(Supplier<EventWriters> eventWritersFactory) {
+        this(eventWritersFactory, new BatchingWritersSummary());
+    }
+
+    /**
+     * @param summary statistics of the writers created by the factory, logged once the profile is written
+     */
+    public SQLEventWriter(Supplier<EventWriters> eventWritersFactory, BatchingWritersSummary summary) {
         this.eventWritersFactory = eventWritersFactory;
         this.deduplicator = new EventDeduplicator();
+        this.summary = summary;
     }
 
     @Override
@@ -61,5 +70,6 @@ public class SQLEventWriter implements EventWriter {
 
             collector.combine();
         }
+        summary.log();
     }
 }
@@ -61,6 +61,11 @@ public class SQLSingleThreadedEventWriter implements SingleThreadedEventWriter {
         }
     }
 
+    @Override
+    public void onEventSpan(EventSpan span) {
+        writersProvider.spans().insert(span);
+    }
+
     @Override
     public void onEventSetting(EventSetting eventSetting) {
         String eventType = eventSetting.eventType();
@@ -39,6 +39,12 @@ final class ThreadWindowEvents {
      */
     static final int ROW_LIMIT = 5000;
 
+    /**
+     * Stands for the relation the events are read from until {@link #reading(String, String)} fills
+     * it in at query time.
+     */
+    private static final String EVENTS_SOURCE = "<<events_source>>";
+
     /*
      * The window bounds compare the raw start_timestamp against epoch-micros literals so the
      * predicate stays sargable (no per-row EPOCH_MS). They replicate the millisecond-floor semantics
@@ -52,7 +58,7 @@ final class ThreadWindowEvents {
                 EPOCH_MS(e.start_timestamp) AS start_epoch_ms,
                 COALESCE(e.duration, 0)     AS duration_ns,
                 CAST(e.fields AS VARCHAR)   AS fields
-            FROM events e
+            FROM <<events_source>> e
             WHERE e.thread_hash = :thread_hash
                 AND %s
                 AND e.start_timestamp >= make_timestamptz(:from_ms * 1000)
@@ -73,6 +79,15 @@ final class ThreadWindowEvents {
         return QUERY.formatted(exclusionPredicate);
     }
 
+    /**
+     * The query reading the given relation for its events. A profile with typed side tables keeps the
+     * JSON fields of their event types out of {@code events}, and a drill-down shows the fields of
+     * whatever ran on the thread, so the callers pass {@link TypedEventTables#eventsSource(List)}.
+     */
+    static String reading(String query, String eventsSource) {
+        return query.replace(EVENTS_SOURCE, eventsSource);
+    }
+
     /**
      * The bind parameters every caller supplies, capped at {@link #ROW_LIMIT}. The exclusion's own
      * parameters, if it has any, are added by the caller on top of these.
@@ -0,0 +1,216 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.provider.profile.jdbc;
+
+import cafe.jeffrey.shared.common.Json;
+import cafe.jeffrey.shared.common.model.Type;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Typed side table for a family of high-volume event types. It carries the base columns of
+ * {@code events} (so it can stand in for it in a query aliased as {@code events}), one typed column
+ * per declared JSON field and the rest of the JSON document in {@code extra_fields}. Readers of these
+ * types then scan narrow typed columns and build their field nodes directly from them, instead of
+ * reading and parsing the {@code fields} JSON text, which is no longer kept in {@code events}.
+ *
+ * @param tableName name of the side table
+ * @param types     event types stored in the table
+ * @param fields    typed fields extracted from the JSON {@code fields} column
+ */
+public record TypedEventTable(String tableName, List<Type> types, List<Field> fields) {
+
+    /**
+     * Alias prefix of the typed columns in a select list; keeps field names such as {@code name}
+     * apart from the columns of joined tables (e.g. {@code threads.name}).
+     */
+    private static final String FIELD_ALIAS_PREFIX = "fields.";
+
+    /**
+     * Whatever the JSON document held beyond the declared fields (JFR's own {@code startTime},
+     * {@code duration} and {@code eventThread}, fields a newer event version added), so that releasing
+     * the document from {@code events} loses nothing.
+     */
+    private static final String EXTRA_FIELDS_COLUMN = "extra_fields";
+
+    static final List<String> BASE_COLUMNS = List.of(
+            "event_type",
+            "start_timestamp",
+            "start_timestamp_from_beginning",
+            "duration",
+            "samples",
+            "weight",
+            "weight_entity",
+            "stacktrace_hash",
+            "thread_hash");
+
+    //language=SQL
+    private static final String MATERIALIZE_TEMPLATE = """
+            CREATE OR REPLACE TABLE %s AS
+            SELECT
+                %s,
+                NULLIF(CAST(json_merge_patch(fields, '%s') AS VARCHAR), '{}')::JSON AS extra_fields,
+                unnest(json_transform(fields, '%s'))
+            FROM events
+            WHERE event_type IN (%s)
+            ORDER BY event_type, start_timestamp_from_beginning""";
+
+    //language=SQL
+    private static final String RELEASE_JSON_TEMPLATE =
+            "UPDATE events SET fields = NULL WHERE event_type IN (%s)";
+
+    //language=SQL
+    private static final String EVENTS_TEMPLATE = "SELECT %s, %s AS fields FROM %s";
+
+    public enum SqlType {
+        VARCHAR, BIGINT, BOOLEAN
+    }
+
+    /**
+     * A JSON field lifted into its own column. The SQL type follows how
+     * {@code EventFieldsToJsonMapper} writes the field: integral values and timespans as numbers,
+     * booleans as booleans, everything else as text.
+     */
+    public record Field(String name, SqlType sqlType) {
+
+        public static Field varchar(String name) {
+            return new Field(name, SqlType.VARCHAR);
+        }
+
+        public static Field bigint(String name) {
+            return new Field(name, SqlType.BIGINT);
+        }
+
+        public static Field bool(String name) {
+            return new Field(name, SqlType.BOOLEAN);
+        }
+    }
+
+    public boolean covers(List<Type> eventTypes) {
+        return !eventTypes.isEmpty() && types.containsAll(eventTypes);
+    }
+
+    /**
+     * CTAS copying the events of the covered types into the side table. A single
+     * {@code json_transform} parses each JSON document once into a struct that is unnested into the
+     * typed columns; fields missing from a particular event type end up as {@code NULL}. A merge patch
+     * of nulls deletes the declared fields from the document, and what is left goes to
+     * {@code extra_fields}.
+     */
+    public String materializeSql() {
+        String structure = fields.stream()
+                .map(field -> "\"" + field.name() + "\":\"" + field.sqlType().name() + "\"")
+                .collect(Collectors.joining(",", "{", "}"));
+
+        String declaredFieldsRemoval = fields.stream()
+                .map(field -> "\"" + field.name() + "\":null")
+                .collect(Collectors.joining(",", "{", "}"));
+
+        return MATERIALIZE_TEMPLATE.formatted(
+                tableName, String.join(", ", BASE_COLUMNS), declaredFieldsRemoval, structure, sqlEventTypes());
+    }
+
+    /**
+     * Drops the JSON documents of the covered types from {@code events} once the side table holds
+     * them, so the fields are not stored twice.
+     */
+    public String releaseJsonSql() {
+        return RELEASE_JSON_TEMPLATE.formatted(sqlEventTypes());
+    }
+
+    /**
+     * The side table in the shape of {@code events}: the base columns plus a {@code fields} JSON
+     * document put back together from the typed columns and {@code extra_fields}. Members that are
+     * {@code NULL} are dropped by the merge patch, the same as absent fields of the original.
+     */
+    public String eventsSql() {
+        String members = fields.stream()
+                .map(field -> "'" + field.name() + "', \"" + field.name() + "\"")
+                .collect(Collectors.joining(", "));
+
+        String fieldsJson = "json_merge_patch(COALESCE(%s, '{}'), json_object(%s))"
+                .formatted(EXTRA_FIELDS_COLUMN, members);
+
+        return EVENTS_TEMPLATE.formatted(String.join(", ", BASE_COLUMNS), fieldsJson, tableName);
+    }
+
+    /**
+     * The covered event types as a list of SQL string literals.
+     */
+    String sqlEventTypes() {
+        return types.stream()
+                .map(type -> "'" + type.code() + "'")
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Select-list entries of the typed columns and of {@code extra_fields}, qualified by the
+     * {@code events} alias.
+     */
+    public List<String> fieldColumns() {
+        return Stream.concat(
+                        fields.stream()
+                                .map(field -> "events.\"" + field.name() + "\" AS \""
+                                        + FIELD_ALIAS_PREFIX + field.name() + "\""),
+                        Stream.of("events." + EXTRA_FIELDS_COLUMN))
+                .toList();
+    }
+
+    /**
+     * Builds the field node of the current row from the typed columns. {@code NULL} columns are left
+     * out, which readers see the same way as an absent JSON field.
+     */
+    public ObjectNode readFields(ResultSet rs) throws SQLException {
+        ObjectNode node = Json.createObject();
+        String extraFields = rs.getString(EXTRA_FIELDS_COLUMN);
+        if (extraFields != null) {
+            node.setAll(Json.readObjectNode(extraFields));
+        }
+        for (Field field : fields) {
+            String column = FIELD_ALIAS_PREFIX + field.name();
+            switch (field.sqlType()) {
+                case VARCHAR -> {
+                    String value = rs.getString(column);
+                    if (value != null) {
+                        node.put(field.name(), value);
+                    }
+                }
+                case BIGINT -> {
+                    long value = rs.getLong(column);
+                    if (!rs.wasNull()) {
+                        node.put(field.name(), value);
+                    }
+                }
+                case BOOLEAN -> {
+                    boolean value = rs.getBoolean(column);
+                    if (!rs.wasNull()) {
+                        node.put(field.name(), value);
+                    }
+                }
+            }
+        }
+        return node;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.provider.profile.jdbc;
+
+import cafe.jeffrey.provider.profile.jdbc.TypedEventTable.Field;
+import cafe.jeffrey.shared.common.model.Type;
+import cafe.jeffrey.shared.persistence.StatementLabel;
+import cafe.jeffrey.shared.persistence.client.DatabaseClient;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Registry of the typed side tables for the high-volume event types whose fields are read on the
+ * dashboards (HTTP/gRPC/JDBC overviews, GC and socket I/O). Everything else keeps using the JSON
+ * {@code fields} column of {@code events}.
+ *
+ * <p>Once a side table is filled, the JSON documents of its types are released from {@code events},
+ * so the fields are stored once. Readers that need the whole document of any event (Event Viewer,
+ * thread drill-downs) read {@link #eventsSource(List)} in place of {@code events}.
+ *
+ * <p>{@code jdk.ObjectAllocationSample} has no table: its hot values (allocated class and weight)
+ * are already stored in the typed {@code weight_entity}/{@code weight} columns of {@code events}.
+ */
+public final class TypedEventTables {
+
+    /**
+     * Fields of every {@code AbstractTracedEvent} (all Jeffrey HTTP/gRPC/JDBC events).
+     */
+    private static final List<Field> TRACED_FIELDS = List.of(
+            Field.bigint("traceId"),
+            Field.bigint("spanId"),
+            Field.bigint("parentSpanId"),
+            Field.varchar("name"),
+            Field.varchar("kind"),
+            Field.varchar("status"),
+            Field.varchar("errorType"),
+            Field.varchar("attributes"));
+
+    public static final TypedEventTable HTTP_EXCHANGES = new TypedEventTable(
+            "typed_http_exchanges",
+            List.of(Type.HTTP_SERVER_EXCHANGE, Type.HTTP_CLIENT_EXCHANGE),
+            withTracedFields(
+                    Field.varchar("remoteHost"),
+                    Field.bigint("remotePort"),
+                    Field.varchar("uri"),
+                    Field.varchar("method"),
+                    Field.varchar("mediaType"),
+                    Field.bigint("statusCode"),
+                    Field.varchar("queryParams"),
+                    Field.varchar("pathParams"),
+                    Field.bigint("requestLength"),
+                    Field.bigint("responseLength")));
+
+    public static final TypedEventTable GRPC_EXCHANGES = new TypedEventTable(
+            "typed_grpc_exchanges",
+            List.of(Type.GRPC_SERVER_EXCHANGE, Type.GRPC_CLIENT_EXCHANGE),
+            withTracedFields(
+                    Field.varchar("service"),
+                    Field.varchar("method"),
+                    Field.varchar("remoteHost"),
+                    Field.bigint("remotePort"),
+                    Field.varchar("statusCode"),
+                    Field.varchar("authority"),
+                    Field.bigint("requestSize"),
+                    Field.bigint("responseSize")));
+
+    public static final TypedEventTable JDBC_STATEMENTS = new TypedEventTable(
+            "typed_jdbc_statements",
+            List.of(Type.JDBC_INSERT, Type.JDBC_UPDATE, Type.JDBC_DELETE,
+                    Type.JDBC_QUERY, Type.JDBC_EXECUTE, Type.JDBC_STREAM),
+            withTracedFields(
+                    Field.varchar("sql"),
+                    Field.varchar("params"),
+                    Field.varchar("group"),
+                    Field.bigint("rows"),
+                    Field.bool("isLob"),
+                    Field.bool("isBatch")));
+
+    public static final TypedEventTable GARBAGE_COLLECTIONS = new TypedEventTable(
+            "typed_garbage_collections",
+            List.of(Type.GARBAGE_COLLECTION),
+            List.of(
+                    Field.bigint("gcId"),
+                    Field.varchar("name"),
+                    Field.varchar("cause"),
+                    Field.bigint("sumOfPauses"),
+                    Field.bigint("longestPause")));
+
+    public static final TypedEventTable SOCKET_IO = new TypedEventTable(
+            "typed_socket_io",
+            List.of(Type.SOCKET_READ, Type.SOCKET_WRITE),
+            List.of(
+                    Field.varchar("host"),
+                    Field.varchar("address"),
+                    Field.bigint("port"),
+                    Field.bigint("bytesRead"),
+                    Field.bigint("bytesWritten"),
+                    Field.bool("endOfStream"),
+                    Field.bigint("timeout")));
+
+    public static final List<TypedEventTable> ALL = List.of(
+            HTTP_EXCHANGES, GRPC_EXCHANGES, JDBC_STATEMENTS, GARBAGE_COLLECTIONS, SOCKET_IO);
+
+    //language=SQL
+    private static final String COUNT_EVENTS_OF_TYPES =
+            "SELECT COUNT(*) FROM events WHERE event_type IN (:event_types)";
+
+    //language=SQL
+    private static final String EXISTING_TABLES =
+            "SELECT table_name FROM duckdb_tables() WHERE table_name IN (:table_names)";
+
+    private static final String EVENTS_TABLE = "events";
+
+    //language=SQL
+    private static final String UNTYPED_EVENTS_TEMPLATE = "SELECT %s, fields FROM events WHERE event_type NOT IN (%s)";
+
+    private TypedEventTables() {
+    }
+
+    /**
+     * Creates the side tables for the families present in the profile and releases the JSON documents
+     * of their events; families without any event are skipped, so a profile only gets the tables it
+     * can use.
+     *
+     * @return the created tables
+     */
+    public static List<TypedEventTable> materialize(DatabaseClient databaseClient) {
+        List<TypedEventTable> created = new ArrayList<>();
+        for (TypedEventTable table : ALL) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("event_types", table.types().stream().map(Type::code).toList());
+
+            long events = databaseClient.queryLong(
+                    StatementLabel.MATERIALIZE_TYPED_EVENTS, COUNT_EVENTS_OF_TYPES, params);
+            if (events > 0) {
+                databaseClient.execute(StatementLabel.MATERIALIZE_TYPED_EVENTS, table.materializeSql());
+                databaseClient.execute(StatementLabel.MATERIALIZE_TYPED_EVENTS, table.releaseJsonSql());
+                created.add(table);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Loads the side tables that exist in the given profile database.
+     */
+    public static List<TypedEventTable> existing(DatabaseClient databaseClient) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("table_names", ALL.stream().map(TypedEventTable::tableName).toList());
+
+        Set<String> tableNames = new HashSet<>(databaseClient.query(
+                StatementLabel.FIND_TYPED_EVENT_TABLES, EXISTING_TABLES, params,
+                (rs, _) -> rs.getString("table_name")));
+
+        return ALL.stream()
+                .filter(table -> tableNames.contains(table.tableName()))
+                .toList();
+    }
+
+    /**
+     * Finds the side table able to answer a query over all the given event types.
+     */
+    public static Optional<TypedEventTable> resolve(List<TypedEventTable> tables, List<Type> eventTypes) {
+        return tables.stream()
+                .filter(table -> table.covers(eventTypes))
+                .findFirst();
+    }
+
+    /**
+     * The relation to read instead of {@code events} when the JSON {@code fields} of the given event
+     * types are needed: plain {@code events} when none of them has a side table, otherwise
+     * {@link #eventsSource(List)} over the tables that do.
+     */
+    public static String eventsSource(List<TypedEventTable> tables, List<Type> eventTypes) {
+        List<TypedEventTable> involved = tables.stream()
+                .filter(table -> eventTypes.stream().anyMatch(table.types()::contains))
+                .toList();
+        return eventsSource(involved);
+    }
+
+    /**
+     * The relation to read instead of {@code events} when the JSON {@code fields} of any event type
+     * may be needed: the untyped events as they are, next to each side table with its documents put
+     * back together. A derived table with the columns of {@code events}, so a query only swaps the
+     * name in its {@code FROM}; predicates on the event type and time are pushed into every branch.
+     */
+    public static String eventsSource(List<TypedEventTable> tables) {
+        if (tables.isEmpty()) {
+            return EVENTS_TABLE;
+        }
+
+        String typedEventTypes = tables.stream()
+                .map(TypedEventTable::sqlEventTypes)
+                .collect(Collectors.joining(", "));
+
+        StringJoiner union = new StringJoiner(" UNION ALL ", "(", ")");
+        union.add(UNTYPED_EVENTS_TEMPLATE.formatted(String.join(", ", TypedEventTable.BASE_COLUMNS), typedEventTypes));
+        for (TypedEventTable table : tables) {
+            union.add(table.eventsSql());
+        }
+        return union.toString();
+    }
+
+    private static List<Field> withTracedFields(Field... fields) {
+        return Stream.concat(Stream.of(fields), TRACED_FIELDS.stream()).toList();
+    }
+}
@@ -184,10 +184,36 @@ CREATE TABLE IF NOT EXISTS pipeline_runs
     PRIMARY KEY (pipeline_id, scope_id)
 );
 
+--
+-- TRACE SPAN EVENTS TABLE
+-- The span events as the parser saw them, appended next to `events` while the recording streams:
+-- the trace identity read out of the typed JFR fields rather than the JSON, and the self time
+-- already net of the same-thread children that closed before their parent did. It is the input of
+-- the trace derivation, which dedupes it into trace_spans; nothing reads it afterwards.
+--
+-- No key and no dedupe: a re-imported chunk lands here twice, exactly as it does in `events`.
+--
+CREATE TABLE IF NOT EXISTS trace_span_events
+(
+    trace_id                       BIGINT      NOT NULL,
+    span_id                        BIGINT      NOT NULL,
+    parent_span_id                 BIGINT,
+    event_type                     VARCHAR     NOT NULL,
+    start_timestamp                TIMESTAMPTZ NOT NULL,
+    start_timestamp_from_beginning BIGINT      NOT NULL,
+    duration                       BIGINT      NOT NULL,
+    self_duration                  BIGINT      NOT NULL,
+    -- How many distinct same-thread children the parser already subtracted from self_duration.
+    counted_children               INTEGER     NOT NULL,
+    thread_hash                    BIGINT,
+    fields                         JSON
+);
+
 --
 -- TRACE SPANS TABLE
--- Spans arrive in `events` like any other JFR event, with their identity in the JSON `fields`.
--- Deriving them into typed columns once, after parsing, keeps every trace query off JSON
+-- Spans arrive in `events` like any other JFR event, with their identity in the JSON `fields`, and
+-- in trace_span_events with it already typed. Deriving them into typed columns once, after parsing,
+-- keeps every trace query off JSON
 -- extraction: assembling a tree, listing the slowest traces and aggregating per operation all
 -- run against BIGINTs instead of re-parsing `fields` per row, per query.
 --
@@ -224,6 +250,10 @@ CREATE TABLE IF NOT EXISTS trace_spans
     -- breakdown asks across every trace of a type, where it is not a group-by at all. Deriving it
     -- once leaves one definition of "self" for both.
     self_duration                  BIGINT      NOT NULL,
+    -- How many of the span's same-thread children self_duration already accounts for, as counted by
+    -- the parser. The derivation recomputes self_duration only where this disagrees with the
+    -- children actually in the table.
+    counted_children               INTEGER     NOT NULL DEFAULT 0,
     thread_hash                    BIGINT,
     -- Which event produced this span: jeffrey.TraceSpan, jeffrey.HttpServerExchange, ...
     event_type                     VARCHAR     NOT NULL,
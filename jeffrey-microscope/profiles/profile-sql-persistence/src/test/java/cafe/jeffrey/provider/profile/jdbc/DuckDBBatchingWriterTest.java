@@ -27,13 +27,19 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -71,6 +77,132 @@ class DuckDBBatchingWriterTest {
         }
     }
 
+    private static DataSource workingDataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        DuckDBConnection duckDBConnection = mock(DuckDBConnection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(DuckDBConnection.class)).thenReturn(true);
+        when(connection.unwrap(DuckDBConnection.class)).thenReturn(duckDBConnection);
+        return dataSource;
+    }
+
+    /**
+     * Writer whose batch writes wait for the test to release them, recording every written batch.
+     */
+    private static final class GatedWriter extends DuckDBBatchingWriter<String> {
+
+        private final CountDownLatch gate;
+        private final List<List<String>> written = new CopyOnWriteArrayList<>();
+
+        private GatedWriter(Executor executor, DataSource dataSource, int writerThreads, CountDownLatch gate) {
+            super(executor, "events", dataSource, BATCH_SIZE, writerThreads, StatementLabel.INSERT_EVENTS);
+            this.gate = gate;
+        }
+
+        @Override
+        protected void execute(DuckDBConnection connection, List<String> events) throws Exception {
+            gate.await();
+            written.add(List.copyOf(events));
+        }
+    }
+
+    @Nested
+    class Backpressure {
+
+        @Test
+        void producerBlocksWhenAllWriterThreadsAreBusy() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            CountDownLatch gate = new CountDownLatch(1);
+            GatedWriter writer = new GatedWriter(executor, workingDataSource(), 1, gate);
+
+            Thread producer = Thread.ofPlatform().start(() -> {
+                writer.insert("a");
+                writer.insert("b"); // first batch in flight, the only writer thread is busy
+                writer.insert("c");
+                writer.insert("d"); // second batch full -> waits for a free buffer
+            });
+
+            try {
+                // The producer must end up parked on the ring instead of queueing the second batch
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (producer.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+                    Thread.sleep(5);
+                }
+                assertEquals(Thread.State.WAITING, producer.getState());
+
+                gate.countDown();
+                producer.join(TimeUnit.SECONDS.toMillis(5));
+                writer.close();
+            } finally {
+                executor.shutdownNow();
+            }
+
+            DuckDBBatchingWriter.Statistics statistics = writer.statistics();
+            assertEquals(2, statistics.batches());
+            assertEquals(1, statistics.maxInFlight());
+            assertEquals(0, statistics.inFlightBatches());
+            assertTrue(statistics.blockedTime().isPositive());
+            assertEquals(List.of(List.of("a", "b"), List.of("c", "d")), writer.written);
+        }
+
+        @Test
+        void buffersAreReusedAcrossBatches() throws SQLException {
+            CountDownLatch open = new CountDownLatch(0);
+            GatedWriter writer = new GatedWriter(DIRECT_EXECUTOR, workingDataSource(), 2, open);
+
+            for (int i = 0; i < 10; i++) {
+                writer.insert("item-" + i);
+            }
+            writer.close();
+
+            DuckDBBatchingWriter.Statistics statistics = writer.statistics();
+            assertEquals(5, statistics.batches());
+            assertEquals(3, statistics.bufferCount());
+            assertEquals(1, statistics.maxInFlight());
+            assertEquals(5, writer.written.size());
+        }
+
+        @Test
+        void rejectsZeroWriterThreads() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new GatedWriter(DIRECT_EXECUTOR, mock(DataSource.class), 0, new CountDownLatch(0)));
+        }
+    }
+
+    @Nested
+    class Summary {
+
+        @Test
+        void mergesStatisticsOfWritersOfOneTable() throws SQLException {
+            BatchingWritersSummary summary = new BatchingWritersSummary();
+            for (int writers = 0; writers < 2; writers++) {
+                GatedWriter writer = new GatedWriter(DIRECT_EXECUTOR, workingDataSource(), 2, new CountDownLatch(0));
+                for (int i = 0; i < 6; i++) {
+                    writer.insert("item-" + i);
+                }
+                writer.close();
+                summary.add(writer.statistics());
+            }
+
+            DuckDBBatchingWriter.Statistics statistics = summary.tables().get("events");
+            assertEquals(6, statistics.batches());
+            assertEquals(1, statistics.maxInFlight());
+            assertEquals(1, summary.tables().size());
+        }
+
+        @Test
+        void skipsWritersWithoutBatches() throws SQLException {
+            BatchingWritersSummary summary = new BatchingWritersSummary();
+            GatedWriter writer = new GatedWriter(DIRECT_EXECUTOR, workingDataSource(), 2, new CountDownLatch(0));
+            writer.close();
+            summary.add(writer.statistics());
+
+            assertTrue(summary.tables().isEmpty());
+            assertDoesNotThrow(summary::log);
+        }
+    }
+
     @Nested
     class FailurePropagation {
 
@@ -24,6 +24,7 @@ import cafe.jeffrey.shared.persistence.client.DatabaseClient;
 import cafe.jeffrey.shared.persistence.client.DatabaseClientProvider;
 import cafe.jeffrey.test.DuckDBTest;
 import cafe.jeffrey.test.TestUtils;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
@@ -31,6 +32,7 @@ import javax.sql.DataSource;
 import java.sql.SQLException;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -92,6 +94,135 @@ class EventsTableClusteringTest {
         assertEquals(3, states.size());
     }
 
+    @Test
+    void dictionaryEncodedColumnsStayTransparentToQueries(DataSource dataSource) throws SQLException {
+        TestUtils.executeSql(dataSource, "sql/events/insert-events-with-types.sql");
+        DatabaseClient client = client(dataSource);
+
+        // weight_entity is NULL in every row, so only event_type gets an ENUM
+        client.recreateTableClustered(EVENTS_TABLE, CLUSTERING_COLUMNS, List.of("event_type", "weight_entity"));
+
+        long encodedColumns = client.queryLong(
+                StatementLabel.STREAM_EVENTS,
+                """
+                SELECT COUNT(*) FROM duckdb_columns()
+                WHERE table_name = 'events' AND column_name IN ('event_type', 'weight_entity') AND data_type LIKE 'ENUM%'
+                """,
+                new MapSqlParameterSource());
+        assertEquals(1, encodedColumns);
+
+        // Literal and parameter comparisons, string functions and getString behave as with VARCHAR
+        long executionSamples = client.queryLong(
+                StatementLabel.STREAM_EVENTS,
+                "SELECT COUNT(*) FROM events WHERE event_type = :event_type AND starts_with(event_type, 'jdk.')",
+                new MapSqlParameterSource("event_type", "jdk.ExecutionSample"));
+        assertEquals(3, executionSamples);
+
+        List<String> scannedEventTypes = client.query(
+                StatementLabel.STREAM_EVENTS,
+                "SELECT event_type FROM events",
+                new MapSqlParameterSource(),
+                (rs, _) -> rs.getString("event_type"));
+        assertEquals(scannedEventTypes.stream().sorted().toList(), scannedEventTypes);
+        assertEquals(5, scannedEventTypes.size());
+    }
+
+    @Nested
+    class ValuesMissingFromDictionary {
+
+        private static final String MISSING_EVENT_TYPE = "jdk.CPUTimeSample";
+        private static final String MISSING_WEIGHT_ENTITY = "java.lang.Object";
+
+        private DatabaseClient encodedClient(DataSource dataSource) throws SQLException {
+            TestUtils.executeSql(dataSource, "sql/events/insert-events-with-types.sql");
+            DatabaseClient client = client(dataSource);
+            // Give weight_entity a value, so both columns end up dictionary-encoded
+            client.execute(StatementLabel.RECREATE_TABLE_CLUSTERED,
+                    "UPDATE events SET weight_entity = 'java.lang.String' WHERE event_type = 'jdk.ObjectAllocationInNewTLAB'");
+
+            client.recreateTableClustered(EVENTS_TABLE, CLUSTERING_COLUMNS, List.of("event_type", "weight_entity"));
+
+            long encodedColumns = client.queryLong(
+                    StatementLabel.STREAM_EVENTS,
+                    """
+                    SELECT COUNT(*) FROM duckdb_columns()
+                    WHERE table_name = 'events' AND column_name IN ('event_type', 'weight_entity') AND data_type LIKE 'ENUM%'
+                    """,
+                    new MapSqlParameterSource());
+            assertEquals(2, encodedColumns);
+            return client;
+        }
+
+        private static long count(DatabaseClient client, String sql, MapSqlParameterSource params) {
+            return assertDoesNotThrow(() -> client.queryLong(StatementLabel.STREAM_EVENTS, sql, params));
+        }
+
+        @Test
+        void boundEventTypeMatchesNothing(DataSource dataSource) throws SQLException {
+            DatabaseClient client = encodedClient(dataSource);
+
+            long events = count(client, "SELECT COUNT(*) FROM events WHERE event_type = :event_type",
+                    new MapSqlParameterSource("event_type", MISSING_EVENT_TYPE));
+            assertEquals(0, events);
+        }
+
+        @Test
+        void literalEventTypeMatchesNothing(DataSource dataSource) throws SQLException {
+            DatabaseClient client = encodedClient(dataSource);
+
+            long events = count(client, "SELECT COUNT(*) FROM events WHERE event_type = '" + MISSING_EVENT_TYPE + "'",
+                    new MapSqlParameterSource());
+            assertEquals(0, events);
+        }
+
+        @Test
+        void boundEventTypesKeepOnlyKnownMatches(DataSource dataSource) throws SQLException {
+            DatabaseClient client = encodedClient(dataSource);
+
+            long events = count(client, "SELECT COUNT(*) FROM events WHERE event_type IN (:event_types)",
+                    new MapSqlParameterSource("event_types", List.of("jdk.ExecutionSample", MISSING_EVENT_TYPE)));
+            assertEquals(3, events);
+        }
+
+        @Test
+        void boundWeightEntityMatchesNothing(DataSource dataSource) throws SQLException {
+            DatabaseClient client = encodedClient(dataSource);
+
+            long events = count(client, "SELECT COUNT(*) FROM events WHERE weight_entity = :weight_entity",
+                    new MapSqlParameterSource("weight_entity", MISSING_WEIGHT_ENTITY));
+            assertEquals(0, events);
+        }
+
+        @Test
+        void literalWeightEntityMatchesNothing(DataSource dataSource) throws SQLException {
+            DatabaseClient client = encodedClient(dataSource);
+
+            long events = count(client,
+                    "SELECT COUNT(*) FROM events WHERE weight_entity = '" + MISSING_WEIGHT_ENTITY + "'",
+                    new MapSqlParameterSource());
+            assertEquals(0, events);
+        }
+    }
+
+    @Test
+    void highCardinalityColumnStaysVarchar(DataSource dataSource) {
+        DatabaseClient client = client(dataSource);
+        client.execute(StatementLabel.RECREATE_TABLE_CLUSTERED,
+                "CREATE TABLE allocations (id BIGINT, class_name VARCHAR)");
+        client.execute(StatementLabel.RECREATE_TABLE_CLUSTERED,
+                "INSERT INTO allocations SELECT range, 'Class' || range FROM range("
+                        + (DatabaseClient.MAX_DICTIONARY_VALUES + 10) + ")");
+
+        client.recreateTableClustered("allocations", List.of("id"), List.of("class_name"));
+
+        List<String> dataTypes = client.query(
+                StatementLabel.STREAM_EVENTS,
+                "SELECT data_type FROM duckdb_columns() WHERE table_name = 'allocations' AND column_name = 'class_name'",
+                new MapSqlParameterSource(),
+                (rs, _) -> rs.getString("data_type"));
+        assertEquals(List.of("VARCHAR"), dataTypes);
+    }
+
     @Test
     void rejectsMissingClusteringColumns(DataSource dataSource) {
         DatabaseClient client = client(dataSource);
@@ -37,10 +37,9 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
- * Contrasts the bucketed {@code frameBasedTimeseriesStreamer} against the per-event
- * {@code frameBasedEventStreamer}. The fixture puts several weighted events on the same stack in the same
- * second, so the bucketed query collapses them (losing the sample count) while the per-event query keeps one
- * observation per event — the behaviour the weighted OTLP export relies on to round-trip the exact count.
+ * Exercises the per-event {@code frameBasedEventStreamer}. The fixture puts several weighted events on the
+ * same stack in the same second, and the query still keeps one observation per event — the behaviour the
+ * weighted OTLP export relies on to round-trip the exact count.
  */
 @DuckDBTest(migration = "classpath:db/migration/profile")
 class FrameBasedEventStreamerTest {
@@ -79,23 +78,6 @@ class FrameBasedEventStreamerTest {
         }
     }
 
-    @Test
-    void perSecondStreamerCollapsesSameSecondEventsIntoBuckets(DataSource dataSource) throws SQLException {
-        TestUtils.executeSql(dataSource, FIXTURE);
-        EventQueryConfigurer configurer = new EventQueryConfigurer().withEventType(ALLOC).withWeight(true);
-
-        List<TimeseriesRecord> records = streamRepository(dataSource)
-                .frameBasedTimeseriesStreamer(configurer, new CollectingBuilder());
-
-        // Two stacks; each stack's same-second events collapse to a single bucket -> one SecondValue per stack.
-        assertEquals(2, records.size());
-        List<SecondValue> buckets = records.stream().flatMap(r -> r.values().stream()).toList();
-        assertEquals(2, buckets.size(), "same-second events must collapse into one bucket per stack");
-        assertEquals(EXPECTED_TOTAL_WEIGHT, buckets.stream().mapToLong(SecondValue::value).sum());
-        // second slot is a whole-second index in this mode.
-        assertEquals(List.of(0L, 1L), buckets.stream().map(SecondValue::second).sorted().toList());
-    }
-
     @Test
     void perEventStreamerKeepsOneObservationPerEvent(DataSource dataSource) throws SQLException {
         TestUtils.executeSql(dataSource, FIXTURE);
@@ -48,12 +48,15 @@ import cafe.jeffrey.provider.profile.api.TraceSpanRecord;
 import cafe.jeffrey.provider.profile.api.TraceSummaryRecord;
 import cafe.jeffrey.provider.profile.api.TraceTimelineBucketRecord;
 import cafe.jeffrey.shared.common.model.SpanInterval;
+import cafe.jeffrey.shared.persistence.GroupLabel;
+import cafe.jeffrey.shared.persistence.StatementLabel;
 import cafe.jeffrey.shared.persistence.client.DatabaseClientProvider;
 import cafe.jeffrey.test.DuckDBTest;
 import cafe.jeffrey.test.TestUtils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
 import javax.sql.DataSource;
 import java.sql.SQLException;
@@ -293,6 +296,34 @@ class JdbcTraceRepositoryTest {
             assertEquals(overviewOnce, repository.overview());
         }
 
+        @Test
+        @DisplayName("the staged span events are cleared once the spans are derived")
+        void clearsStagedSpanEvents(DataSource dataSource) throws SQLException {
+            // trace_span_events is only the input of the derivation, keeping it doubled the span data
+            JdbcTraceRepository repository = derived(dataSource);
+
+            long staged = new DatabaseClientProvider(dataSource)
+                    .provide(GroupLabel.PROFILE_TRACES)
+                    .queryLong(StatementLabel.STREAM_EVENTS, "SELECT COUNT(*) FROM trace_span_events",
+                            new MapSqlParameterSource());
+
+            assertEquals(0, staged);
+            assertFalse(repository.spansOf(SLOW_TRACE).isEmpty());
+        }
+
+        @Test
+        @DisplayName("deriving again stages the span events of typed tables from their columns")
+        void restagesTypedSpanEvents(DataSource dataSource) throws SQLException {
+            // The exchanges and JDBC statements moved to typed tables have no JSON left in `events`
+            JdbcTraceRepository repository = derived(dataSource);
+            List<TraceSpanRecord> once = repository.spansOf(SLOW_TRACE);
+            TypedEventTables.materialize(new DatabaseClientProvider(dataSource).provide(GroupLabel.PROFILE_TRACES));
+
+            repository.derive();
+
+            assertEquals(once, repository.spansOf(SLOW_TRACE));
+        }
+
         @Test
         @DisplayName("a trace's duration keeps the nanoseconds its spans were recorded with")
         void durationKeepsNanosecondPrecision(DataSource dataSource) throws SQLException {
@@ -1324,6 +1355,43 @@ class JdbcTraceRepositoryTest {
         }
     }
 
+    @Nested
+    @DisplayName("Span events written by the parser")
+    class ParsedSpanEvents {
+
+        private static Map<String, TraceSpanRecord> spansByName(DataSource dataSource) throws SQLException {
+            TestUtils.executeSql(dataSource, "sql/events/insert-parsed-span-events.sql");
+            JdbcTraceRepository repository = new JdbcTraceRepository(new DatabaseClientProvider(dataSource));
+            repository.derive();
+
+            return java.util.stream.LongStream.of(8101, 8102)
+                    .boxed()
+                    .flatMap(traceId -> repository.spansOf(traceId).stream())
+                    .collect(Collectors.toMap(TraceSpanRecord::name, Function.identity()));
+        }
+
+        @Test
+        @DisplayName("derive traces without any span in the events table")
+        void derivesFromTheTypedTableAlone(DataSource dataSource) throws SQLException {
+            Map<String, TraceSpanRecord> spans = spansByName(dataSource);
+
+            assertEquals(4, spans.size());
+            assertEquals(501L, spans.get("counted-child").parentSpanId());
+        }
+
+        @Test
+        @DisplayName("keep the parser's self time where its counted children agree with the table")
+        void keepsCountedSelfTime(DataSource dataSource) throws SQLException {
+            assertEquals(65 * MS, spansByName(dataSource).get("counted-parent").selfDurationNanos());
+        }
+
+        @Test
+        @DisplayName("recompute the self time of a parent whose children the parser did not see")
+        void recomputesStaleParents(DataSource dataSource) throws SQLException {
+            assertEquals(70 * MS, spansByName(dataSource).get("stale-parent").selfDurationNanos());
+        }
+    }
+
     @Nested
     @DisplayName("Filtering and paging")
     class Filtering {
@@ -18,7 +18,11 @@
 
 package cafe.jeffrey.provider.profile.jdbc;
 
+import cafe.jeffrey.jfrparser.api.type.JfrMethod;
+import cafe.jeffrey.jfrparser.api.type.JfrStackFrame;
+import cafe.jeffrey.provider.profile.api.ColumnarRecordBuilder;
 import cafe.jeffrey.provider.profile.api.EventQueryConfigurer;
+import cafe.jeffrey.provider.profile.api.LongColumnBatch;
 import cafe.jeffrey.provider.profile.api.ProfileEventStreamRepository;
 import cafe.jeffrey.provider.profile.api.RecordBuilder;
 import cafe.jeffrey.provider.profile.api.TimeseriesSearchRecord;
@@ -42,6 +46,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
  * flamegraph highlight. In particular a dotted search like {@code JsonReader.<init>} — the form the
  * flamegraph renders and users copy — must match the stored {@code JsonReader} + {@code <init>}
  * frame, which the previous per-column LIKE matching could never do.
+ * <p>
+ * The path-matching variant shares the same split query; its frame paths are resolved to frame hashes
+ * before the query runs. Both are read either record by record or, for a {@link ColumnarRecordBuilder},
+ * as column batches.
  */
 @DuckDBTest(migration = "classpath:db/migration/profile")
 class TimeseriesSearchingStreamerTest {
@@ -83,13 +91,59 @@ class TimeseriesSearchingStreamerTest {
         }
     }
 
+    private static final class ColumnCollectingBuilder
+            implements ColumnarRecordBuilder<TimeseriesSearchRecord, List<TimeseriesSearchRecord>> {
+        private final List<TimeseriesSearchRecord> records = new ArrayList<>();
+
+        @Override
+        public void onRecord(TimeseriesSearchRecord record) {
+            throw new AssertionError("Columnar builder must receive column batches only");
+        }
+
+        @Override
+        public void onBatch(LongColumnBatch batch) {
+            for (int i = 0; i < batch.size(); i++) {
+                records.add(new TimeseriesSearchRecord(
+                        batch.column(0)[i], batch.column(1)[i], batch.column(2)[i]));
+            }
+        }
+
+        @Override
+        public List<TimeseriesSearchRecord> build() {
+            return records;
+        }
+    }
+
     private static List<TimeseriesSearchRecord> search(DataSource dataSource, String pattern) throws SQLException {
+        return search(dataSource, pattern, new CollectingBuilder());
+    }
+
+    private static List<TimeseriesSearchRecord> search(
+            DataSource dataSource,
+            String pattern,
+            RecordBuilder<TimeseriesSearchRecord, List<TimeseriesSearchRecord>> builder) throws SQLException {
+
         TestUtils.executeSql(dataSource, FIXTURE);
         EventQueryConfigurer configurer = new EventQueryConfigurer()
                 .withEventType(ALLOC)
                 .withWeight(true)
                 .withSearchPattern(pattern);
-        return streamRepository(dataSource).timeseriesSearchingStreamer(configurer, new CollectingBuilder());
+        return streamRepository(dataSource).timeseriesSearchingStreamer(configurer, builder);
+    }
+
+    private static List<TimeseriesSearchRecord> matchPaths(DataSource dataSource, List<List<String>> framePaths)
+            throws SQLException {
+        TestUtils.executeSql(dataSource, FIXTURE);
+        EventQueryConfigurer configurer = new EventQueryConfigurer()
+                .withEventType(ALLOC)
+                .withWeight(true);
+        return streamRepository(dataSource).timeseriesPathMatchingStreamer(
+                configurer, framePaths, TimeseriesSearchingStreamerTest::frameName, new CollectingBuilder());
+    }
+
+    private static String frameName(JfrStackFrame frame) {
+        JfrMethod method = frame.method();
+        return method.className() != null ? method.className() + "#" + method.methodName() : method.methodName();
     }
 
     private static void assertMatched(List<TimeseriesSearchRecord> records, long expectedMatched) {
@@ -144,4 +198,57 @@ class TimeseriesSearchingStreamerTest {
             assertMatched(search(dataSource, "clone3"), NATIVE_WEIGHT);
         }
     }
+
+    @Nested
+    class FramePaths {
+
+        private static final String CONSTRUCTOR = "com.google.gson.stream.JsonReader#<init>";
+        private static final String THREAD_RUN = "java.lang.Thread#run";
+
+        @Test
+        void singleFramePathMatchesStacktraceStartingWithIt(DataSource dataSource) throws SQLException {
+            assertMatched(matchPaths(dataSource, List.of(List.of(CONSTRUCTOR))), CONSTRUCTOR_WEIGHT);
+        }
+
+        @Test
+        void fullPathMatches(DataSource dataSource) throws SQLException {
+            assertMatched(matchPaths(dataSource, List.of(List.of(CONSTRUCTOR, THREAD_RUN))), CONSTRUCTOR_WEIGHT);
+        }
+
+        @Test
+        void frameAtOtherPositionDoesNotMatch(DataSource dataSource) throws SQLException {
+            assertMatched(matchPaths(dataSource, List.of(List.of(THREAD_RUN))), 0L);
+        }
+
+        @Test
+        void pathLongerThanStacktraceDoesNotMatch(DataSource dataSource) throws SQLException {
+            assertMatched(matchPaths(dataSource, List.of(List.of("clone3", THREAD_RUN))), 0L);
+        }
+
+        @Test
+        void anyOfSeveralPathsMatches(DataSource dataSource) throws SQLException {
+            assertMatched(
+                    matchPaths(dataSource, List.of(List.of(CONSTRUCTOR), List.of("clone3"), List.of("unknown"))),
+                    CONSTRUCTOR_WEIGHT + NATIVE_WEIGHT);
+        }
+
+        @Test
+        void noPathsMatchNothing(DataSource dataSource) throws SQLException {
+            assertMatched(matchPaths(dataSource, List.of()), 0L);
+        }
+    }
+
+    @Nested
+    class ColumnBatches {
+
+        @Test
+        void columnarBuilderReceivesSameValues(DataSource dataSource) throws SQLException {
+            assertMatched(search(dataSource, "clone3", new ColumnCollectingBuilder()), NATIVE_WEIGHT);
+        }
+
+        @Test
+        void columnarBuilderReceivesUnmatchedSeconds(DataSource dataSource) throws SQLException {
+            assertMatched(search(dataSource, "NoSuchFrame", new ColumnCollectingBuilder()), 0L);
+        }
+    }
 }
@@ -0,0 +1,279 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package cafe.jeffrey.provider.profile.jdbc;
+
+import cafe.jeffrey.provider.profile.api.EventQueryConfigurer;
+import cafe.jeffrey.provider.profile.api.GenericRecord;
+import cafe.jeffrey.provider.profile.api.ProfileEventStreamRepository;
+import cafe.jeffrey.provider.profile.api.ProfileToolsRepository.StacktraceRecord;
+import cafe.jeffrey.provider.profile.api.RecordBuilder;
+import cafe.jeffrey.shared.common.FrameResolutionMode;
+import cafe.jeffrey.shared.common.model.Type;
+import cafe.jeffrey.shared.persistence.GroupLabel;
+import cafe.jeffrey.shared.persistence.StatementLabel;
+import cafe.jeffrey.shared.persistence.client.DatabaseClient;
+import cafe.jeffrey.shared.persistence.client.DatabaseClientProvider;
+import cafe.jeffrey.test.DuckDBTest;
+import cafe.jeffrey.test.TestUtils;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Typed side tables must be a transparent replacement of the JSON {@code fields} for the generic
+ * event streaming: the same records, the same field values, only read from typed columns.
+ */
+@DuckDBTest(migration = "classpath:db/migration/profile")
+class TypedEventTablesTest {
+
+    private static final String FIXTURE = "sql/events/insert-typed-field-events.sql";
+    private static final DuckDBSQLFormatter SQL_FORMATTER = new DuckDBSQLFormatter();
+
+    private static DatabaseClient client(DataSource dataSource) {
+        return new DatabaseClientProvider(dataSource).provide(GroupLabel.PROFILE_EVENTS);
+    }
+
+    private static ProfileEventStreamRepository streamRepository(DataSource dataSource) {
+        QueryBuilderFactoryResolver resolver = new QueryBuilderFactoryResolverImpl(
+                SQL_FORMATTER,
+                new SimpleComplexQueries(
+                        DuckDBFlamegraphQueries.of(), DuckDBTimeseriesQueries.of(), DuckDBSubSecondQueries.of()),
+                new SimpleComplexQueries(
+                        new DuckDBNativeFlamegraphQueries(),
+                        new DuckDBNativeTimeseriesQueries(),
+                        new DuckDBNativeSubSecondQueries()));
+        return new JdbcProfileRepositories(SQL_FORMATTER, resolver, FrameResolutionMode.DATABASE)
+                .newEventStreamRepository(dataSource);
+    }
+
+    private static long count(DataSource dataSource, String sql) {
+        return client(dataSource).queryLong(StatementLabel.STREAM_EVENTS, sql, new MapSqlParameterSource());
+    }
+
+    private static List<GenericRecord> stream(DataSource dataSource, EventQueryConfigurer configurer) {
+        return streamRepository(dataSource).genericStreaming(configurer, new RecordBuilder<>() {
+            private final List<GenericRecord> records = new ArrayList<>();
+
+            @Override
+            public void onRecord(GenericRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public List<GenericRecord> build() {
+                return records;
+            }
+        });
+    }
+
+    @Nested
+    class Materialize {
+
+        @Test
+        void createsTablesOnlyForFamiliesPresentInProfile(DataSource dataSource) throws SQLException {
+            TestUtils.executeSql(dataSource, FIXTURE);
+            DatabaseClient client = client(dataSource);
+
+            List<TypedEventTable> created = TypedEventTables.materialize(client);
+
+            assertEquals(List.of(TypedEventTables.HTTP_EXCHANGES, TypedEventTables.GARBAGE_COLLECTIONS), created);
+            assertEquals(created, TypedEventTables.existing(client));
+        }
+
+        @Test
+        void releasesJsonOfTypedEventsOnly(DataSource dataSource) throws SQLException {
+            TestUtils.executeSql(dataSource, FIXTURE);
+
+            TypedEventTables.materialize(client(dataSource));
+
+            assertEquals(0, count(dataSource, "SELECT COUNT(*) FROM events WHERE fields IS NOT NULL "
+                    + "AND event_type IN ('jeffrey.HttpServerExchange', 'jdk.GarbageCollection')"));
+            assertEquals(1, count(dataSource,
+                    "SELECT COUNT(*) FROM events WHERE fields IS NOT NULL AND event_type = 'jdk.ThreadPark'"));
+            // Rows stay in events for everything that does not read fields (counts, flamegraphs)
+            assertEquals(4, count(dataSource, "SELECT COUNT(*) FROM events"));
+        }
+
+        @Test
+        void noTablesWithoutEvents(DataSource dataSource) {
+            DatabaseClient client = client(dataSource);
+
+            assertTrue(TypedEventTables.materialize(client).isEmpty());
+            assertTrue(TypedEventTables.existing(client).isEmpty());
+        }
+    }
+
+    @Nested
+    class GenericStreaming {
+
+        @Test
+        void readsSameFieldValuesAsJson(DataSource dataSource) throws SQLException {
+            TestUtils.executeSql(dataSource, FIXTURE);
+            EventQueryConfigurer configurer = new EventQueryConfigurer()
+                    .withEventType(Type.HTTP_SERVER_EXCHANGE)
+                    .withJsonFields();
+
+            List<GenericRecord> fromJson = stream(dataSource, configurer);
+            TypedEventTables.materialize(client(dataSource));
+            List<GenericRecord> fromTyped = stream(dataSource, configurer);
+
+            assertEquals(2, fromTyped.size());
+            for (int i = 0; i < fromJson.size(); i++) {
+                ObjectNode json = fromJson.get(i).jsonFields();
+                ObjectNode typed = fromTyped.get(i).jsonFields();
+                for (TypedEventTable.Field field : TypedEventTables.HTTP_EXCHANGES.fields()) {
+                    assertEquals(json.path(field.name()).asString(""), typed.path(field.name()).asString(""),
+                            "field=" + field.name());
+                }
+                assertEquals(fromJson.get(i).duration(), fromTyped.get(i).duration());
+                assertEquals(fromJson.get(i).startTimestamp(), fromTyped.get(i).startTimestamp());
+            }
+
+            // A field missing in the JSON stays missing
+            assertFalse(fromTyped.get(1).jsonFields().has("remoteHost"));
+            assertEquals(404, Integer.parseInt(fromTyped.get(1).jsonFields().path("statusCode").asString("0")));
+            // A field without a typed column is kept aside and comes back with the others
+            assertEquals("2025-01-15T10:00:00Z", fromTyped.get(0).jsonFields().path("startTime").asString(""));
+        }
+
+        @Test
+        void mixedQueryRestoresFieldsOfTypedEvents(DataSource dataSource) throws SQLException {
+            TestUtils.executeSql(dataSource, FIXTURE);
+            TypedEventTables.materialize(client(dataSource));
+
+            List<GenericRecord> records = stream(dataSource, new EventQueryConfigurer()
+                    .withEventTypes(List.of(Type.GARBAGE_COLLECTION, Type.fromCode("jdk.ThreadPark")))
+                    .withJsonFields()
+                    .orderedByTime());
+
+            assertEquals(2, records.size());
+            assertEquals("G1 Evacuation Pause", records.get(0).jsonFields().path("cause").asString(""));
+            assertEquals(-1, records.get(1).jsonFields().path("timeout").asLong(0));
+        }
+
+        @Test
+        void keepsThreadNameApartFromNameField(DataSource dataSource) throws SQLException {
+            TestUtils.executeSql(dataSource, FIXTURE);
+            TypedEventTables.materialize(client(dataSource));
+
+            List<GenericRecord> records = stream(dataSource, new EventQueryConfigurer()
+                    .withEventType(Type.GARBAGE_COLLECTION)
+                    .withThreads()
+                    .withJsonFields());
+
+            assertEquals(1, records.size());
+            assertEquals("http-handler-1", records.getFirst().thread().name());
+            assertEquals("G1New", records.getFirst().jsonFields().path("name").asString(""));
+            assertEquals(5_000_000L, records.getFirst().jsonFields().path("longestPause").asLong(0));
+        }
+
+        @Test
+        void untypedEventTypeStaysOnJson(DataSource dataSource) throws SQLException {
+            TestUtils.executeSql(dataSource, FIXTURE);
+            TypedEventTables.materialize(client(dataSource));
+
+            List<GenericRecord> records = stream(dataSource, new EventQueryConfigurer()
+                    .withEventType(Type.fromCode("jdk.ThreadPark"))
+                    .withJsonFields());
+
+            assertEquals(1, records.size());
+            assertEquals(-1, records.getFirst().jsonFields().path("timeout").asLong(0));
+        }
+    }
+
+    @Nested
+    class EventViewer {
+
+        @Test
+        void readsWholeDocumentOfTypedEvents(DataSource dataSource) throws SQLException {
+            TestUtils.executeSql(dataSource, FIXTURE);
+            TypedEventTables.materialize(client(dataSource));
+
+            var repository = new JdbcProfileEventRepository(SQL_FORMATTER, new DatabaseClientProvider(dataSource));
+            List<JsonNode> events = repository.eventsByTypeWithFields(Type.HTTP_SERVER_EXCHANGE);
+
+            assertEquals(2, events.size());
+            JsonNode complete = events.stream()
+                    .filter(event -> event.has("remoteHost"))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals("/orders", complete.path("uri").asString(""));
+            assertEquals(4096, complete.path("responseLength").asLong(0));
+            assertEquals("2025-01-15T10:00:00Z", complete.path("startTime").asString(""));
+        }
+    }
+
+    /**
+     * The profile tools rewrite the stacktraces of the events after initialization; the side tables
+     * hold copies of those rows and must follow.
+     */
+    @Nested
+    class ProfileTools {
+
+        private static JdbcProfileToolsRepository toolsRepository(DataSource dataSource) {
+            return new JdbcProfileToolsRepository(
+                    new DatabaseClientProvider(dataSource),
+                    new FramesCacheSlot(new SingleSlotFramesCache(), dataSource));
+        }
+
+        @Test
+        void removedStacktracesLeaveTypedStreaming(DataSource dataSource) throws SQLException {
+            TestUtils.executeSql(dataSource, FIXTURE);
+            TypedEventTables.materialize(client(dataSource));
+
+            toolsRepository(dataSource).deleteEventsByStacktraces(List.of(8002L));
+
+            List<GenericRecord> records = stream(dataSource, new EventQueryConfigurer()
+                    .withEventType(Type.HTTP_SERVER_EXCHANGE)
+                    .withJsonFields());
+            assertEquals(1, records.size());
+            assertEquals("/orders", records.getFirst().jsonFields().path("uri").asString(""));
+        }
+
+        @Test
+        void collapsedStacktracesRepointTypedRows(DataSource dataSource) throws SQLException {
+            TestUtils.executeSql(dataSource, FIXTURE);
+            TypedEventTables.materialize(client(dataSource));
+
+            toolsRepository(dataSource).applyStacktraceTransformation(
+                    Map.of(8001L, 9001L), List.of(new StacktraceRecord(9001L, 1, new long[]{999}, new int[0])));
+
+            assertEquals(0, count(dataSource,
+                    "SELECT COUNT(*) FROM typed_http_exchanges WHERE stacktrace_hash = 8001"));
+            assertEquals(1, count(dataSource,
+                    "SELECT COUNT(*) FROM typed_http_exchanges WHERE stacktrace_hash = 9001"));
+            assertEquals(2, stream(dataSource, new EventQueryConfigurer()
+                    .withEventType(Type.HTTP_SERVER_EXCHANGE)
+                    .withJsonFields()).size());
+        }
+    }
+}
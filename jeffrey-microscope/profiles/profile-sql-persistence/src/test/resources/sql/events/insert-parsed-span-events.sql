@@ -0,0 +1,22 @@
+-- Fixture for JdbcTraceRepositoryTest.ParsedSpanEvents: spans as the parser appends them to
+-- trace_span_events, with no `events` rows behind them, so every trace derived here came from the
+-- typed table alone.
+--
+-- Every parent runs 0..100ms with one child at 10..40ms on the same thread; what differs is what the
+-- parser managed to count. Durations are nanoseconds.
+INSERT INTO trace_span_events (trace_id, span_id, parent_span_id, event_type, start_timestamp, start_timestamp_from_beginning, duration, self_duration, counted_children, thread_hash, fields)
+VALUES
+    -- 8101 counted: the child closed before its parent, so the parser subtracted it. The parent's
+    -- self time is recorded as 65ms rather than the 70ms a recompute would give, so the test can tell
+    -- a trusted number apart from a recomputed one.
+    (8101, 501, NULL, 'jeffrey.TraceSpan', '2025-01-15T10:11:00.000Z', 660000, 100000000, 65000000, 1, 3001,
+     '{"traceId":8101,"spanId":501,"parentSpanId":0,"name":"counted-parent","kind":"INTERNAL","status":"UNSET"}'),
+    (8101, 502, 501, 'jeffrey.TraceSpan', '2025-01-15T10:11:00.010Z', 660010, 30000000, 30000000, 0, 3001,
+     '{"traceId":8101,"spanId":502,"parentSpanId":501,"name":"counted-child","kind":"INTERNAL","status":"UNSET"}'),
+
+    -- 8102 stale: the child was parsed in another chunk, so the parent arrived with nothing counted.
+    -- ->  recomputed to 70ms
+    (8102, 511, NULL, 'jeffrey.TraceSpan', '2025-01-15T10:12:00.000Z', 720000, 100000000, 100000000, 0, 3001,
+     '{"traceId":8102,"spanId":511,"parentSpanId":0,"name":"stale-parent","kind":"INTERNAL","status":"UNSET"}'),
+    (8102, 512, 511, 'jeffrey.TraceSpan', '2025-01-15T10:12:00.010Z', 720010, 30000000, 30000000, 0, 3001,
+     '{"traceId":8102,"spanId":512,"parentSpanId":511,"name":"stale-child","kind":"INTERNAL","status":"UNSET"}');
@@ -0,0 +1,21 @@
+-- Events of two typed families (HTTP exchanges, garbage collections) next to an event type that stays
+-- on the JSON `fields` column only.
+--
+-- The second exchange misses most of its fields -- the typed table has to leave them absent, exactly
+-- as readers of the JSON see them. The first one carries JFR's own startTime, which no typed column
+-- declares, and both exchanges have a stacktrace for the profile tools to rewrite.
+
+INSERT INTO threads (thread_hash, name, os_id, java_id, is_virtual)
+VALUES
+    (7001, 'http-handler-1', 91, 51, false);
+
+INSERT INTO events (event_type, start_timestamp, start_timestamp_from_beginning, duration, samples, weight, weight_entity, stacktrace_hash, thread_hash, fields)
+VALUES
+    ('jeffrey.HttpServerExchange', '2025-01-15T10:00:00.000Z',   0, 10000000, 1, NULL, NULL, 8001, 7001,
+     '{"startTime":"2025-01-15T10:00:00Z","traceId":701,"spanId":7011,"parentSpanId":0,"name":"GET /orders","kind":"SERVER","status":"UNSET","remoteHost":"10.0.0.1","remotePort":8080,"uri":"/orders","method":"GET","statusCode":200,"requestLength":120,"responseLength":4096}'),
+    ('jeffrey.HttpServerExchange', '2025-01-15T10:00:01.000Z', 1000, 20000000, 1, NULL, NULL, 8002, 7001,
+     '{"uri":"/orders/1","method":"DELETE","statusCode":404}'),
+    ('jdk.GarbageCollection',      '2025-01-15T10:00:02.000Z', 2000,  5000000, 1, NULL, NULL, NULL, 7001,
+     '{"gcId":1,"name":"G1New","cause":"G1 Evacuation Pause","sumOfPauses":5000000,"longestPause":5000000}'),
+    ('jdk.ThreadPark',             '2025-01-15T10:00:03.000Z', 3000,  1000000, 1, NULL, NULL, NULL, 7001,
+     '{"parkedClass":"java.util.concurrent.locks.AbstractQueuedSynchronizer$ConditionObject","timeout":-1}');
@@ -21,7 +21,9 @@ package cafe.jeffrey.jfrparser.jdk;
 import jdk.jfr.EventType;
 import jdk.jfr.consumer.RecordedEvent;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Supplier;
 
 public interface EventProcessor<T> extends Supplier<T> {
@@ -44,6 +46,18 @@ public interface EventProcessor<T> extends Supplier<T> {
     default void onStart() {
     }
 
+    /**
+     * Called right after {@link #onStart()} with the recording file, before its events are streamed.
+     * A processor that reads some event types straight from the file returns their names; events of
+     * those types are then not streamed and {@link #onEvent(RecordedEvent)} is not invoked for them.
+     *
+     * @param recording the recording file to be streamed
+     * @return names of the event types the processor has already read.
+     */
+    default Set<String> onRecording(Path recording) {
+        return Set.of();
+    }
+
     default void onMetadata(List<EventType> eventTypes) {
     }
 
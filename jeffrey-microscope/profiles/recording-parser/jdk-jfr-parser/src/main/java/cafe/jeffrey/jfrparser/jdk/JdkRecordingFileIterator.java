@@ -18,12 +18,16 @@
 
 package cafe.jeffrey.jfrparser.jdk;
 
+import jdk.jfr.EventType;
 import jdk.jfr.consumer.EventStream;
+import jdk.jfr.consumer.RecordingFile;
 import cafe.jeffrey.shared.common.model.Type;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
 
 public class JdkRecordingFileIterator<PARTIAL, RESULT> implements RecordingFileIterator<PARTIAL, RESULT> {
 
@@ -55,17 +59,27 @@ public class JdkRecordingFileIterator<PARTIAL, RESULT> implements RecordingFileI
         ProcessableEvents processableEvents = eventProcessor.processableEvents();
 
         eventProcessor.onStart();
+        Set<String> alreadyRead = eventProcessor.onRecording(recording);
 
         try (EventStream stream = EventStream.openFile(recording)) {
             stream.onMetadata(metadata -> {
                 eventProcessor.onMetadata(metadata.getEventTypes());
             });
 
-            if (processableEvents.isProcessableAll()) {
+            if (processableEvents.isProcessableAll() && alreadyRead.isEmpty()) {
                 stream.onEvent(eventProcessor::onEvent);
+            } else if (processableEvents.isProcessableAll()) {
+                // Subscribing by name lets the stream skip the events read already, without building them
+                for (EventType eventType : readEventTypes(recording)) {
+                    if (!alreadyRead.contains(eventType.getName())) {
+                        stream.onEvent(eventType.getName(), eventProcessor::onEvent);
+                    }
+                }
             } else {
                 for (Type event : processableEvents.events()) {
-                    stream.onEvent(event.code(), eventProcessor::onEvent);
+                    if (!alreadyRead.contains(event.code())) {
+                        stream.onEvent(event.code(), eventProcessor::onEvent);
+                    }
                 }
             }
 
@@ -75,4 +89,10 @@ public class JdkRecordingFileIterator<PARTIAL, RESULT> implements RecordingFileI
             throw new RuntimeException(e);
         }
     }
+
+    private static List<EventType> readEventTypes(Path recording) throws IOException {
+        try (RecordingFile file = new RecordingFile(recording)) {
+            return file.readEventTypes();
+        }
+    }
 }
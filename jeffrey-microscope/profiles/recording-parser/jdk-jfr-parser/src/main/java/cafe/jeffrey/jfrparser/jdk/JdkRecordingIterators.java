@@ -137,6 +137,22 @@ public abstract class JdkRecordingIterators {
         return new ParallelRecordingFileIterator<>(recordings, singleIterator);
     }
 
+    /**
+     * Iterates over lazily created iterators in parallel, see {@link #parallel(List, Supplier)}. The iterators are
+     * started in the order of the list, so the caller decides the schedule, e.g. the biggest chunks first so one
+     * oversized chunk does not end up as the last running task.
+     *
+     * @param iterators creates an iterator for a single recording (chunk) on the worker thread that processes it.
+     * @param <PARTIAL> result of the single recording file
+     * @param <RESULT>  collected result of all recording files
+     * @return output from the iterating over the processor
+     */
+    public static <PARTIAL, RESULT> RecordingFileIterator<PARTIAL, RESULT> parallel(
+            List<Supplier<RecordingFileIterator<PARTIAL, PARTIAL>>> iterators) {
+
+        return new ParallelRecordingFileIterator<>(iterators);
+    }
+
     public static class NoopCollector implements Collector<Void, Void> {
         @Override
         public Supplier<Void> empty() {
@@ -25,12 +25,17 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Iterates over multiple recording files in parallel on the shared bulk pool
  * ({@link Schedulers#sharedBulkParallel()}, number of threads == number of processors).
  * The bulk pool is intentionally separate from the interactive pool so a large
  * import cannot queue ahead of latency-sensitive requests (flamegraphs, timeseries).
+ * <p>
+ * The iterators are submitted in the order of the list and created lazily on the worker
+ * thread, so a caller can put the biggest recordings first and defer any preparation
+ * (e.g. extracting a chunk) until a worker actually picks it up.
  *
  * @param <PARTIAL> result of the single recording file
  * @param <RESULT>  collected result of all recording files
@@ -39,15 +44,20 @@ public class ParallelRecordingFileIterator<PARTIAL, RESULT> implements Recording
 
     private static final String SPAN_CHUNK_PARSE = "chunk.parse";
 
-    private final List<Path> recordings;
-    private final Function<Path, RecordingFileIterator<PARTIAL, PARTIAL>> singleFileIterator;
+    private final List<Supplier<RecordingFileIterator<PARTIAL, PARTIAL>>> iterators;
 
     public ParallelRecordingFileIterator(
             List<Path> recordings,
             Function<Path, RecordingFileIterator<PARTIAL, PARTIAL>> singleFileIterator) {
 
-        this.recordings = recordings;
-        this.singleFileIterator = singleFileIterator;
+        this(recordings.stream()
+                .<Supplier<RecordingFileIterator<PARTIAL, PARTIAL>>>map(
+                        recording -> () -> singleFileIterator.apply(recording))
+                .toList());
+    }
+
+    public ParallelRecordingFileIterator(List<Supplier<RecordingFileIterator<PARTIAL, PARTIAL>>> iterators) {
+        this.iterators = iterators;
     }
 
     @Override
@@ -64,8 +74,8 @@ public class ParallelRecordingFileIterator<PARTIAL, RESULT> implements Recording
     }
 
     private List<PARTIAL> _iterate(Collector<PARTIAL, ?> collector) {
-        List<CompletableFuture<PARTIAL>> futures = recordings.stream()
-                .map(recording -> asyncExecution(recording, collector))
+        List<CompletableFuture<PARTIAL>> futures = iterators.stream()
+                .map(iterator -> asyncExecution(iterator, collector))
                 .toList();
 
         CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
@@ -76,13 +86,15 @@ public class ParallelRecordingFileIterator<PARTIAL, RESULT> implements Recording
                 .toList();
     }
 
-    private CompletableFuture<PARTIAL> asyncExecution(Path recording, Collector<PARTIAL, ?> collector) {
+    private CompletableFuture<PARTIAL> asyncExecution(
+            Supplier<RecordingFileIterator<PARTIAL, PARTIAL>> iterator, Collector<PARTIAL, ?> collector) {
+
         // fork captures the enclosing span here, on the submitting thread: the workers run on a
         // shared pool, which ScopedValue does not reach, so without it each file would parse under
         // a trace of its own rather than under the parse that spawned it.
         return CompletableFuture.supplyAsync(
                 Tracer.fork(SPAN_CHUNK_PARSE,
-                        () -> singleFileIterator.apply(recording).partialCollect(collector)),
+                        () -> iterator.get().partialCollect(collector)),
                 Schedulers.sharedBulkParallel());
     }
 
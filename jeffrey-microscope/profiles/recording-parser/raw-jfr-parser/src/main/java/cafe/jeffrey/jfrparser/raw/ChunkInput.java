@@ -0,0 +1,163 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.jfrparser.raw;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongFunction;
+
+/**
+ * Positioned reader over the bytes of a single chunk. Integers are LEB128 varints when the chunk
+ * declares compressed integers (every JDK and async-profiler recording does), fixed-size otherwise.
+ */
+final class ChunkInput {
+
+    private static final byte STRING_NULL = 0;
+    private static final byte STRING_EMPTY = 1;
+    private static final byte STRING_CONSTANT_POOL = 2;
+    private static final byte STRING_UTF8 = 3;
+    private static final byte STRING_CHAR_ARRAY = 4;
+    private static final byte STRING_LATIN1 = 5;
+
+    private final ByteBuffer buffer;
+    private final boolean compressed;
+
+    ChunkInput(ByteBuffer buffer, boolean compressed) {
+        this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+        this.compressed = compressed;
+    }
+
+    /**
+     * Independent reader over the same bytes, e.g. to resolve constants while iterating events.
+     */
+    ChunkInput duplicate() {
+        return new ChunkInput(buffer.duplicate(), compressed);
+    }
+
+    int position() {
+        return buffer.position();
+    }
+
+    void position(long position) {
+        buffer.position(Math.toIntExact(position));
+    }
+
+    int limit() {
+        return buffer.limit();
+    }
+
+    byte readByte() {
+        return buffer.get();
+    }
+
+    boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+
+    short readShort() {
+        return compressed ? (short) readVarLong() : buffer.getShort();
+    }
+
+    char readChar() {
+        return compressed ? (char) readVarLong() : buffer.getChar();
+    }
+
+    int readInt() {
+        return compressed ? (int) readVarLong() : buffer.getInt();
+    }
+
+    long readLong() {
+        return compressed ? readVarLong() : buffer.getLong();
+    }
+
+    float readFloat() {
+        return buffer.getFloat();
+    }
+
+    double readDouble() {
+        return buffer.getDouble();
+    }
+
+    /**
+     * @param constantStrings resolves strings stored in the {@code java.lang.String} constant pool
+     */
+    String readString(LongFunction<String> constantStrings) {
+        byte encoding = buffer.get();
+        return switch (encoding) {
+            case STRING_NULL -> null;
+            case STRING_EMPTY -> "";
+            case STRING_CONSTANT_POOL -> constantStrings.apply(readLong());
+            case STRING_UTF8 -> readBytes(StandardCharsets.UTF_8);
+            case STRING_LATIN1 -> readBytes(StandardCharsets.ISO_8859_1);
+            case STRING_CHAR_ARRAY -> {
+                int length = readInt();
+                char[] chars = new char[length];
+                for (int i = 0; i < length; i++) {
+                    chars[i] = readChar();
+                }
+                yield new String(chars);
+            }
+            default -> throw new JfrChunkParsingException("Unknown string encoding: " + encoding);
+        };
+    }
+
+    void skipString() {
+        byte encoding = buffer.get();
+        switch (encoding) {
+            case STRING_NULL, STRING_EMPTY -> {
+            }
+            case STRING_CONSTANT_POOL -> readLong();
+            case STRING_UTF8, STRING_LATIN1 -> skip(readInt());
+            case STRING_CHAR_ARRAY -> {
+                int length = readInt();
+                for (int i = 0; i < length; i++) {
+                    readChar();
+                }
+            }
+            default -> throw new JfrChunkParsingException("Unknown string encoding: " + encoding);
+        }
+    }
+
+    void skip(int bytes) {
+        buffer.position(buffer.position() + bytes);
+    }
+
+    private String readBytes(Charset charset) {
+        byte[] bytes = new byte[readInt()];
+        buffer.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    /**
+     * JFR varint: 7 bits per byte for the first 8 bytes, the 9th byte carries all its 8 bits.
+     */
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 56; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        return value | (long) (buffer.get() & 0xFF) << 56;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.jfrparser.raw;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Type descriptors from the metadata event of a chunk: every class (event types, constant pool types
+ * and inline structs) with its fields in the order their values are written.
+ */
+final class ChunkMetadata {
+
+    enum Kind {
+        BOOLEAN, BYTE, SHORT, CHAR, INT, LONG, FLOAT, DOUBLE, STRING, STRUCT
+    }
+
+    /**
+     * @param annotations values of the field's annotations by the annotation's class id
+     */
+    record Field(String name, long classId, boolean constantPool, boolean array, Map<Long, String> annotations) {
+    }
+
+    record ClassDescriptor(long id, String name, String superType, Kind kind, List<Field> fields) {
+
+        int fieldIndex(String fieldName) {
+            for (int i = 0; i < fields.size(); i++) {
+                if (fields.get(i).name().equals(fieldName)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private record Element(String name, Map<String, String> attributes, List<Element> children) {
+    }
+
+    private final Map<Long, ClassDescriptor> classesById;
+    private final Map<String, ClassDescriptor> classesByName;
+
+    private ChunkMetadata(Map<Long, ClassDescriptor> classesById, Map<String, ClassDescriptor> classesByName) {
+        this.classesById = classesById;
+        this.classesByName = classesByName;
+    }
+
+    /**
+     * @param input positioned at the metadata event of the chunk
+     */
+    static ChunkMetadata read(ChunkInput input) {
+        input.readInt();        // size
+        long typeId = input.readLong();
+        if (typeId != 0) {
+            throw new JfrChunkParsingException("Expected metadata event, got type: " + typeId);
+        }
+        input.readLong();       // startTime
+        input.readLong();       // duration
+        input.readLong();       // metadataId
+
+        int stringCount = input.readInt();
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            strings[i] = input.readString(_ -> {
+                throw new JfrChunkParsingException("Constant pool string in metadata");
+            });
+        }
+
+        Element root = readElement(input, strings);
+        if (!root.name().equals("root")) {
+            throw new JfrChunkParsingException("Expected root element, got " + root.name());
+        }
+
+        Map<Long, ClassDescriptor> byId = new HashMap<>();
+        Map<String, ClassDescriptor> byName = new HashMap<>();
+        for (Element metadata : root.children()) {
+            if (!metadata.name().equals("metadata")) {
+                continue;
+            }
+            for (Element clazz : metadata.children()) {
+                if (!clazz.name().equals("class")) {
+                    continue;
+                }
+                List<Field> fields = new ArrayList<>();
+                for (Element field : clazz.children()) {
+                    if (field.name().equals("field")) {
+                        fields.add(new Field(
+                                field.attributes().get("name"),
+                                Long.parseLong(field.attributes().get("class")),
+                                "true".equals(field.attributes().get("constantPool")),
+                                field.attributes().containsKey("dimension"),
+                                annotations(field)));
+                    }
+                }
+                String name = clazz.attributes().get("name");
+                ClassDescriptor descriptor = new ClassDescriptor(
+                        Long.parseLong(clazz.attributes().get("id")),
+                        name,
+                        clazz.attributes().get("superType"),
+                        kind(name),
+                        fields);
+                byId.put(descriptor.id(), descriptor);
+                byName.put(name, descriptor);
+            }
+        }
+        return new ChunkMetadata(byId, byName);
+    }
+
+    ClassDescriptor byId(long id) {
+        ClassDescriptor descriptor = classesById.get(id);
+        if (descriptor == null) {
+            throw new JfrChunkParsingException("Unknown type in chunk metadata: id=" + id);
+        }
+        return descriptor;
+    }
+
+    ClassDescriptor byName(String name) {
+        return classesByName.get(name);
+    }
+
+    /**
+     * @return the value of the field's annotation, {@code null} when the field does not carry it
+     */
+    String annotation(Field field, String annotationName) {
+        ClassDescriptor annotation = classesByName.get(annotationName);
+        return annotation != null ? field.annotations().get(annotation.id()) : null;
+    }
+
+    /**
+     * Skips one value of the field, including all its array elements.
+     */
+    void skip(ChunkInput input, Field field) {
+        if (field.array()) {
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                skipValue(input, field);
+            }
+        } else {
+            skipValue(input, field);
+        }
+    }
+
+    private void skipValue(ChunkInput input, Field field) {
+        if (field.constantPool()) {
+            input.readLong();
+        } else {
+            skip(input, byId(field.classId()));
+        }
+    }
+
+    /**
+     * Skips one inline value of the class, e.g. a constant pool entry or a nested struct.
+     */
+    void skip(ChunkInput input, ClassDescriptor descriptor) {
+        switch (descriptor.kind()) {
+            case BOOLEAN, BYTE -> input.skip(1);
+            case SHORT -> input.readShort();
+            case CHAR -> input.readChar();
+            case INT -> input.readInt();
+            case LONG -> input.readLong();
+            case FLOAT -> input.skip(Float.BYTES);
+            case DOUBLE -> input.skip(Double.BYTES);
+            case STRING -> input.skipString();
+            case STRUCT -> {
+                for (Field field : descriptor.fields()) {
+                    skip(input, field);
+                }
+            }
+        }
+    }
+
+    private static Kind kind(String className) {
+        return switch (className) {
+            case "boolean" -> Kind.BOOLEAN;
+            case "byte" -> Kind.BYTE;
+            case "short" -> Kind.SHORT;
+            case "char" -> Kind.CHAR;
+            case "int" -> Kind.INT;
+            case "long" -> Kind.LONG;
+            case "float" -> Kind.FLOAT;
+            case "double" -> Kind.DOUBLE;
+            case "java.lang.String" -> Kind.STRING;
+            default -> Kind.STRUCT;
+        };
+    }
+
+    private static Map<Long, String> annotations(Element field) {
+        Map<Long, String> annotations = new HashMap<>();
+        for (Element annotation : field.children()) {
+            if (annotation.name().equals("annotation")) {
+                // A marker annotation has no value, an empty one keeps it distinguishable from a missing one
+                String value = annotation.attributes().getOrDefault("value", "");
+                annotations.put(Long.parseLong(annotation.attributes().get("class")), value);
+            }
+        }
+        return annotations;
+    }
+
+    private static Element readElement(ChunkInput input, String[] strings) {
+        String name = strings[input.readInt()];
+
+        int attributeCount = input.readInt();
+        Map<String, String> attributes = new HashMap<>(attributeCount * 2);
+        for (int i = 0; i < attributeCount; i++) {
+            attributes.put(strings[input.readInt()], strings[input.readInt()]);
+        }
+
+        int childCount = input.readInt();
+        List<Element> children = new ArrayList<>(childCount);
+        for (int i = 0; i < childCount; i++) {
+            children.add(readElement(input, strings));
+        }
+        return new Element(name, attributes, children);
+    }
+}
@@ -33,6 +33,11 @@ public interface JfrChunkConstants {
      */
     int CHUNK_MAGIC = 0x464c5200;
 
+    /**
+     * Feature flag mask indicating integers in the chunk are written as varints.
+     */
+    int MASK_COMPRESSED_INTEGERS = 1;
+
     /**
      * Feature flag mask indicating this is the final chunk in a recording.
      */
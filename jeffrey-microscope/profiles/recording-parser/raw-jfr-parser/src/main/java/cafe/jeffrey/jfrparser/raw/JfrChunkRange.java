@@ -0,0 +1,31 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.jfrparser.raw;
+
+/**
+ * Position of a single chunk inside a plain (uncompressed) recording file.
+ * A chunk is self-contained (its own metadata and constant pools), so the byte range
+ * can be parsed on its own, independently of the other chunks of the recording.
+ *
+ * @param index  order of the chunk in the recording
+ * @param offset position of the chunk header in the recording file
+ * @param size   size of the chunk including its header, truncated to the end of the file
+ */
+public record JfrChunkRange(int index, long offset, long size) {
+}
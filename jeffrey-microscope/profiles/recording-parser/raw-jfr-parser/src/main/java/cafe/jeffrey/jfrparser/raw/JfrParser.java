@@ -40,6 +40,8 @@ import java.util.function.Consumer;
  * Provides a clean API for:
  * <ul>
  *   <li>Disassembling recordings into individual chunks</li>
+ *   <li>Locating and extracting single chunks of plain recordings</li>
+ *   <li>Decoding sample events of a chunk without {@code jdk.jfr.consumer}</li>
  *   <li>Extracting recording information (timing, size, event source)</li>
  *   <li>Reading event types from recordings</li>
  *   <li>Iterating over chunks for custom processing</li>
@@ -66,6 +68,30 @@ public abstract class JfrParser {
         return RecordingDisassembler.disassemble(recording, outputDir);
     }
 
+    /**
+     * Locates the chunks of a plain (not LZ4 compressed) recording without copying them,
+     * so they can be parsed or extracted individually and in any order.
+     *
+     * @param recording the path to the plain recording file
+     * @return byte ranges of all chunks in the order of the recording
+     */
+    public static List<JfrChunkRange> chunkRanges(Path recording) {
+        validateRecording(recording);
+        return RecordingDisassembler.chunkRanges(recording);
+    }
+
+    /**
+     * Writes a single chunk of a plain recording into its own file.
+     *
+     * @param recording the path to the plain recording file
+     * @param range     the chunk to extract, see {@link #chunkRanges(Path)}
+     * @param outputDir the directory to write the chunk file to
+     * @return path to the created chunk file
+     */
+    public static Path extractChunk(Path recording, JfrChunkRange range, Path outputDir) {
+        return RecordingDisassembler.extractChunk(recording, range, outputDir);
+    }
+
     // ========== Recording Information ==========
 
     /**
@@ -209,6 +235,21 @@ public abstract class JfrParser {
         return ChunkIterator.collectHeaders(input);
     }
 
+    // ========== Raw Sample Decoding ==========
+
+    /**
+     * Opens a decoder of the high-volume sample events of a single chunk of a plain recording.
+     * It reads the samples straight from the chunk's bytes, bypassing {@code jdk.jfr.consumer}.
+     *
+     * @param recording the path to the plain recording file
+     * @param range     the chunk to decode, see {@link #chunkRanges(Path)}
+     * @return decoder of the chunk
+     */
+    public static RawChunkDecoder openRawChunk(Path recording, JfrChunkRange range) {
+        validateRecording(recording);
+        return RawChunkDecoder.open(recording, range);
+    }
+
     // ========== Internal Helpers ==========
 
     private static RecordingInformation buildRecordingInfo(List<JfrChunk> chunks) {
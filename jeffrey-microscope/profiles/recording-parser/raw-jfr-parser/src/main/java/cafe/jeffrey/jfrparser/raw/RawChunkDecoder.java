@@ -0,0 +1,590 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.jfrparser.raw;
+
+import cafe.jeffrey.jfrparser.raw.ChunkMetadata.ClassDescriptor;
+import cafe.jeffrey.jfrparser.raw.ChunkMetadata.Field;
+import cafe.jeffrey.jfrparser.raw.ChunkMetadata.Kind;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes high-volume sample events of a single chunk straight from its bytes, without building
+ * the {@code RecordedEvent} / {@code RecordedStackTrace} / {@code RecordedFrame} graph of
+ * {@code jdk.jfr.consumer} for every sample.
+ * <p>
+ * Opening the decoder reads the metadata and indexes all constant pools into primitive
+ * key -> offset tables, nothing is decoded yet. {@link #decodeSamples} then walks the events and
+ * emits {@code (timestamp, thread, stacktrace, weight)} tuples together with the primitive values of
+ * all fields; threads, stacktraces and other constants are decoded only when asked for, so
+ * a consumer pays for every distinct stacktrace once.
+ * <p>
+ * Not thread-safe, one decoder per chunk and thread.
+ */
+public final class RawChunkDecoder implements JfrChunkConstants {
+
+    private static final long CHECKPOINT_TYPE_ID = 1;
+    private static final long NO_REFERENCE = 0;
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private static final String STRING_TYPE = "java.lang.String";
+    private static final String THREAD_TYPE = "java.lang.Thread";
+    private static final String CLASS_TYPE = "java.lang.Class";
+    private static final String STACKTRACE_TYPE = "jdk.types.StackTrace";
+    private static final String STACKFRAME_TYPE = "jdk.types.StackFrame";
+    private static final String METHOD_TYPE = "jdk.types.Method";
+    private static final String SYMBOL_TYPE = "jdk.types.Symbol";
+    private static final String FRAME_TYPE_TYPE = "jdk.types.FrameType";
+
+    private static final String TIMESTAMP_ANNOTATION = "jdk.jfr.Timestamp";
+    private static final String TIMESPAN_ANNOTATION = "jdk.jfr.Timespan";
+    private static final String PERCENTAGE_ANNOTATION = "jdk.jfr.Percentage";
+    private static final String TICKS = "TICKS";
+
+    /**
+     * Field positions of one sample event type, resolved once from the chunk metadata.
+     */
+    private record SamplePlan(
+            RawSample sample,
+            Field[] fields,
+            RawField.Kind[] kinds,
+            int startTimeIndex,
+            int threadIndex,
+            int stackTraceIndex,
+            int weightIndex) {
+    }
+
+    private final ChunkInput input;
+    private final ChunkInput resolver;
+    private final ChunkMetadata metadata;
+    private final long chunkSize;
+    private final long startNanos;
+    private final long startTicks;
+    private final double ticksPerNano;
+
+    // class id -> (constant pool key -> offset of the value in the chunk)
+    private final Map<Long, LongLongTable> constantPools = new HashMap<>();
+
+    private final Map<Long, String> strings = new HashMap<>();
+    private final Map<Long, String> symbols = new HashMap<>();
+    private final Map<Long, String> classNames = new HashMap<>();
+    private final Map<Long, String> frameTypes = new HashMap<>();
+    private final Map<Long, Map<Long, String>> constantValues = new HashMap<>();
+
+    private RawChunkDecoder(ByteBuffer chunk) {
+        ByteBuffer header = chunk.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int magic = header.getInt(0);
+        if (magic != CHUNK_MAGIC) {
+            throw new JfrChunkParsingException("Invalid JFR chunk magic: " + Integer.toHexString(magic));
+        }
+        this.chunkSize = Math.min(header.getLong(8), chunk.limit());
+        long constantPoolOffset = header.getLong(16);
+        long metadataOffset = header.getLong(24);
+        this.startNanos = header.getLong(32);
+        this.startTicks = header.getLong(48);
+        this.ticksPerNano = header.getLong(56) / NANOS_PER_SECOND;
+        boolean compressed = (header.getInt(64) & MASK_COMPRESSED_INTEGERS) != 0;
+
+        this.input = new ChunkInput(chunk.duplicate(), compressed);
+        this.resolver = input.duplicate();
+
+        input.position(metadataOffset);
+        this.metadata = ChunkMetadata.read(input);
+        indexConstantPools(constantPoolOffset);
+    }
+
+    /**
+     * Maps the chunk of a plain recording into memory and indexes it.
+     *
+     * @param recording the path to the plain recording file
+     * @param range     the chunk to decode, see {@link JfrParser#chunkRanges(Path)}
+     */
+    public static RawChunkDecoder open(Path recording, JfrChunkRange range) {
+        if (range.size() > Integer.MAX_VALUE) {
+            throw new JfrChunkParsingException(
+                    "Chunk is too big to be decoded: chunkIndex=" + range.index() + " size=" + range.size());
+        }
+        try (FileChannel channel = FileChannel.open(recording)) {
+            return new RawChunkDecoder(channel.map(FileChannel.MapMode.READ_ONLY, range.offset(), range.size()));
+        } catch (IOException e) {
+            throw new JfrChunkParsingException(
+                    "Cannot map chunk: recording=" + recording + " chunkIndex=" + range.index(), e);
+        }
+    }
+
+    /**
+     * @param chunk bytes of a single chunk, starting with its header
+     */
+    public static RawChunkDecoder of(ByteBuffer chunk) {
+        return new RawChunkDecoder(chunk);
+    }
+
+    /**
+     * @param eventTypeName name of the event type, e.g. {@code jdk.ExecutionSample}
+     * @return fields of the event type in the order their values are written, or {@code null}
+     * when the chunk does not contain the type
+     */
+    public List<RawField> fields(String eventTypeName) {
+        ClassDescriptor descriptor = metadata.byName(eventTypeName);
+        if (descriptor == null) {
+            return null;
+        }
+        List<RawField> fields = new ArrayList<>(descriptor.fields().size());
+        for (Field field : descriptor.fields()) {
+            fields.add(new RawField(field.name(), kind(field), field.classId()));
+        }
+        return fields;
+    }
+
+    /**
+     * Walks all events of the chunk and emits the samples of the given types; other events,
+     * and types the chunk does not contain, are skipped by their size without being decoded.
+     */
+    public void decodeSamples(List<RawSampleType> sampleTypes, RawSampleConsumer consumer) {
+        List<SamplePlan> plans = new ArrayList<>();
+        LongLongTable planIndexes = new LongLongTable();
+        for (RawSampleType sampleType : sampleTypes) {
+            ClassDescriptor descriptor = metadata.byName(sampleType.name());
+            if (descriptor != null) {
+                planIndexes.put(descriptor.id(), plans.size());
+                plans.add(plan(sampleType, descriptor));
+            }
+        }
+        if (plans.isEmpty()) {
+            return;
+        }
+
+        long position = CHUNK_HEADER_SIZE;
+        while (position < chunkSize) {
+            input.position(position);
+            int size = input.readInt();
+            if (size <= 0) {
+                throw new JfrChunkParsingException("Invalid event size: size=" + size + " position=" + position);
+            }
+            long planIndex = planIndexes.get(input.readLong());
+            if (planIndex != LongLongTable.MISSING) {
+                decodeSample(plans.get((int) planIndex), consumer);
+            }
+            position += size;
+        }
+    }
+
+    private void decodeSample(SamplePlan plan, RawSampleConsumer consumer) {
+        Field[] fields = plan.fields();
+        RawField.Kind[] kinds = plan.kinds();
+        RawSample sample = plan.sample();
+        long[] values = sample.values;
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = switch (kinds[i]) {
+                case TIMESTAMP -> toNanos(input.readLong());
+                case TIMESPAN -> toDurationNanos(input.readLong());
+                case THREAD, CLASS, STACKTRACE, STRING -> input.readLong();
+                case LONG -> readIntegral(input, fields[i]);
+                case BOOLEAN -> input.readBoolean() ? 1 : 0;
+                case UNSUPPORTED -> {
+                    metadata.skip(input, fields[i]);
+                    yield 0;
+                }
+            };
+        }
+
+        sample.timestampNanos = valueOf(values, plan.startTimeIndex(), 0);
+        sample.threadId = valueOf(values, plan.threadIndex(), NO_REFERENCE);
+        sample.stackTraceId = valueOf(values, plan.stackTraceIndex(), NO_REFERENCE);
+        sample.weight = valueOf(values, plan.weightIndex(), 1);
+        consumer.onSample(sample);
+    }
+
+    private static long valueOf(long[] values, int index, long defaultValue) {
+        return index >= 0 ? values[index] : defaultValue;
+    }
+
+    private SamplePlan plan(RawSampleType sampleType, ClassDescriptor descriptor) {
+        List<RawField> rawFields = fields(descriptor.name());
+        RawField.Kind[] kinds = rawFields.stream().map(RawField::kind).toArray(RawField.Kind[]::new);
+
+        int threadIndex = indexOf(rawFields, "sampledThread", RawField.Kind.THREAD);
+        if (threadIndex < 0) {
+            threadIndex = indexOf(rawFields, "eventThread", RawField.Kind.THREAD);
+        }
+        int startTimeIndex = indexOf(rawFields, "startTime", RawField.Kind.TIMESTAMP);
+        int stackTraceIndex = indexOf(rawFields, "stackTrace", RawField.Kind.STACKTRACE);
+        int weightIndex = sampleType.weightField() != null
+                ? indexOf(rawFields, sampleType.weightField(), RawField.Kind.LONG)
+                : -1;
+
+        return new SamplePlan(
+                new RawSample(sampleType, List.copyOf(rawFields)),
+                descriptor.fields().toArray(Field[]::new),
+                kinds,
+                startTimeIndex,
+                threadIndex,
+                stackTraceIndex,
+                weightIndex);
+    }
+
+    private static int indexOf(List<RawField> fields, String name, RawField.Kind kind) {
+        for (int i = 0; i < fields.size(); i++) {
+            RawField field = fields.get(i);
+            if (field.name().equals(name) && field.kind() == kind) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decides how the value of an event field is decoded. Only the shapes of the sample events are
+     * decoded, everything else is skipped and reported as {@link RawField.Kind#UNSUPPORTED}.
+     */
+    private RawField.Kind kind(Field field) {
+        if (field.array()) {
+            return RawField.Kind.UNSUPPORTED;
+        }
+        ClassDescriptor type = metadata.byId(field.classId());
+        boolean isLong = type.kind() == Kind.LONG;
+
+        String timestamp = metadata.annotation(field, TIMESTAMP_ANNOTATION);
+        if (timestamp != null) {
+            return isLong && TICKS.equals(timestamp) ? RawField.Kind.TIMESTAMP : RawField.Kind.UNSUPPORTED;
+        }
+        String timespan = metadata.annotation(field, TIMESPAN_ANNOTATION);
+        if (timespan != null) {
+            return isLong && TICKS.equals(timespan) ? RawField.Kind.TIMESPAN : RawField.Kind.UNSUPPORTED;
+        }
+        if (metadata.annotation(field, PERCENTAGE_ANNOTATION) != null) {
+            return RawField.Kind.UNSUPPORTED;
+        }
+
+        return switch (type.kind()) {
+            case INT, LONG -> RawField.Kind.LONG;
+            case BOOLEAN -> RawField.Kind.BOOLEAN;
+            case STRING -> field.constantPool() ? RawField.Kind.STRING : RawField.Kind.UNSUPPORTED;
+            case STRUCT -> field.constantPool() ? constantKind(type) : RawField.Kind.UNSUPPORTED;
+            default -> RawField.Kind.UNSUPPORTED;
+        };
+    }
+
+    private RawField.Kind constantKind(ClassDescriptor type) {
+        return switch (type.name()) {
+            case THREAD_TYPE -> RawField.Kind.THREAD;
+            case CLASS_TYPE -> RawField.Kind.CLASS;
+            case STACKTRACE_TYPE -> RawField.Kind.STACKTRACE;
+            // jdk.jfr.consumer unwraps a type of a single field to the field's value, e.g. a thread state
+            default -> isSingleString(type) ? RawField.Kind.STRING : RawField.Kind.UNSUPPORTED;
+        };
+    }
+
+    private boolean isSingleString(ClassDescriptor type) {
+        if (type.fields().size() != 1) {
+            return false;
+        }
+        Field field = type.fields().getFirst();
+        return !field.array() && metadata.byId(field.classId()).kind() == Kind.STRING;
+    }
+
+    /**
+     * Converts chunk ticks to epoch nanos the same way {@code jdk.jfr.consumer} does.
+     */
+    private long toNanos(long ticks) {
+        return startNanos + (long) ((ticks - startTicks) / ticksPerNano);
+    }
+
+    /**
+     * Converts a span of chunk ticks to nanos the same way {@code jdk.jfr.consumer} does,
+     * keeping the unbounded span unbounded.
+     */
+    private long toDurationNanos(long ticks) {
+        return ticks == Long.MAX_VALUE ? Long.MAX_VALUE : (long) (ticks / ticksPerNano);
+    }
+
+    /**
+     * @return the thread of the constant pool, or {@code null} for an unknown id
+     */
+    public RawThread thread(long threadId) {
+        ClassDescriptor threadType = metadata.byName(THREAD_TYPE);
+        if (!seek(threadType, threadId)) {
+            return null;
+        }
+
+        String osName = null;
+        String javaName = null;
+        long osThreadId = -1;
+        long javaThreadId = -1;
+        boolean virtual = false;
+        for (Field field : threadType.fields()) {
+            switch (field.name()) {
+                case "osName" -> osName = readString(field);
+                case "javaName" -> javaName = readString(field);
+                case "osThreadId" -> osThreadId = readIntegral(resolver, field);
+                case "javaThreadId" -> javaThreadId = readIntegral(resolver, field);
+                case "virtual" -> virtual = resolver.readBoolean();
+                default -> metadata.skip(resolver, field);
+            }
+        }
+        return new RawThread(osName, osThreadId, javaName, javaThreadId, virtual);
+    }
+
+    /**
+     * @return the stacktrace of the constant pool, or {@code null} for an unknown id
+     */
+    public RawStackTrace stackTrace(long stackTraceId) {
+        ClassDescriptor stackTraceType = metadata.byName(STACKTRACE_TYPE);
+        if (!seek(stackTraceType, stackTraceId)) {
+            return null;
+        }
+
+        // The frames are read into primitives first: resolving a method moves the resolver
+        long[] methods = null;
+        long[] types = null;
+        int[] lines = null;
+        int[] bytecodeIndexes = null;
+        boolean truncated = false;
+        for (Field field : stackTraceType.fields()) {
+            if (field.name().equals("truncated")) {
+                truncated = resolver.readBoolean();
+                continue;
+            }
+            if (!field.name().equals("frames")) {
+                metadata.skip(resolver, field);
+                continue;
+            }
+            ClassDescriptor frameType = metadata.byName(STACKFRAME_TYPE);
+            int count = resolver.readInt();
+            methods = new long[count];
+            types = new long[count];
+            lines = new int[count];
+            bytecodeIndexes = new int[count];
+            for (int i = 0; i < count; i++) {
+                for (Field frameField : frameType.fields()) {
+                    switch (frameField.name()) {
+                        case "method" -> methods[i] = resolver.readLong();
+                        case "type" -> types[i] = resolver.readLong();
+                        case "lineNumber" -> lines[i] = (int) readIntegral(resolver, frameField);
+                        case "bytecodeIndex" -> bytecodeIndexes[i] = (int) readIntegral(resolver, frameField);
+                        default -> metadata.skip(resolver, frameField);
+                    }
+                }
+            }
+        }
+        if (methods == null) {
+            return new RawStackTrace(List.of(), truncated);
+        }
+
+        List<RawFrame> frames = new ArrayList<>(methods.length);
+        for (int i = 0; i < methods.length; i++) {
+            long[] method = method(methods[i]);
+            frames.add(new RawFrame(
+                    className(method[0]),
+                    symbol(method[1]),
+                    frameType(types[i]),
+                    lines[i],
+                    bytecodeIndexes[i]));
+        }
+        return new RawStackTrace(frames, truncated);
+    }
+
+    /**
+     * @return class and name references of the method
+     */
+    private long[] method(long methodId) {
+        long[] refs = new long[2];
+        ClassDescriptor methodType = metadata.byName(METHOD_TYPE);
+        if (seek(methodType, methodId)) {
+            for (Field field : methodType.fields()) {
+                switch (field.name()) {
+                    case "type" -> refs[0] = resolver.readLong();
+                    case "name" -> refs[1] = resolver.readLong();
+                    default -> metadata.skip(resolver, field);
+                }
+            }
+        }
+        return refs;
+    }
+
+    /**
+     * @return name of the class of the constant pool with dots as {@code RecordedClass#getName()},
+     * or {@code null} for an unknown id
+     */
+    public String className(long classId) {
+        String cached = classNames.get(classId);
+        if (cached != null || classNames.containsKey(classId)) {
+            return cached;
+        }
+
+        long nameId = NO_REFERENCE;
+        ClassDescriptor classType = metadata.byName(CLASS_TYPE);
+        if (seek(classType, classId)) {
+            for (Field field : classType.fields()) {
+                if (field.name().equals("name")) {
+                    nameId = resolver.readLong();
+                    break;
+                }
+                metadata.skip(resolver, field);
+            }
+        }
+        String name = symbol(nameId);
+        String className = name != null ? name.replace('/', '.') : null;
+        classNames.put(classId, className);
+        return className;
+    }
+
+    /**
+     * @param field a field of {@link RawField.Kind#STRING} kind
+     * @param key   the field's value, a constant pool key
+     * @return the string of the constant, or {@code null} for an unknown key
+     */
+    public String string(RawField field, long key) {
+        ClassDescriptor type = metadata.byId(field.typeId());
+        if (type.kind() == Kind.STRING) {
+            return constantString(key);
+        }
+        Map<Long, String> cache = constantValues.computeIfAbsent(type.id(), _ -> new HashMap<>());
+        return cachedString(cache, key, type.name(), type.fields().getFirst().name());
+    }
+
+    private String symbol(long symbolId) {
+        return cachedString(symbols, symbolId, SYMBOL_TYPE, "string");
+    }
+
+    private String frameType(long frameTypeId) {
+        return cachedString(frameTypes, frameTypeId, FRAME_TYPE_TYPE, "description");
+    }
+
+    private String cachedString(Map<Long, String> cache, long id, String typeName, String fieldName) {
+        String cached = cache.get(id);
+        if (cached != null || cache.containsKey(id)) {
+            return cached;
+        }
+
+        String value = null;
+        ClassDescriptor type = metadata.byName(typeName);
+        if (seek(type, id)) {
+            for (Field field : type.fields()) {
+                if (field.name().equals(fieldName)) {
+                    value = readString(field);
+                    break;
+                }
+                metadata.skip(resolver, field);
+            }
+        }
+        cache.put(id, value);
+        return value;
+    }
+
+    private String constantString(long stringId) {
+        String cached = strings.get(stringId);
+        if (cached != null) {
+            return cached;
+        }
+
+        ClassDescriptor stringType = metadata.byName(STRING_TYPE);
+        int position = resolver.position();
+        String value = null;
+        if (seek(stringType, stringId)) {
+            value = resolver.readString(_ -> null);
+            strings.put(stringId, value);
+        }
+        resolver.position(position);
+        return value;
+    }
+
+    private String readString(Field field) {
+        if (field.constantPool()) {
+            return constantString(resolver.readLong());
+        }
+        return resolver.readString(this::constantString);
+    }
+
+    private long readIntegral(ChunkInput in, Field field) {
+        return switch (metadata.byId(field.classId()).kind()) {
+            case BOOLEAN -> in.readBoolean() ? 1 : 0;
+            case BYTE -> in.readByte();
+            case SHORT -> in.readShort();
+            case CHAR -> in.readChar();
+            case INT -> in.readInt();
+            case LONG -> in.readLong();
+            default -> throw new JfrChunkParsingException(
+                    "Field is not an integral number: field=" + field.name());
+        };
+    }
+
+    /**
+     * Moves the resolver to the constant pool entry of the type.
+     *
+     * @return {@code false} if the chunk has no such entry
+     */
+    private boolean seek(ClassDescriptor type, long key) {
+        if (type == null) {
+            return false;
+        }
+        LongLongTable pool = constantPools.get(type.id());
+        long offset = pool != null ? pool.get(key) : LongLongTable.MISSING;
+        if (offset == LongLongTable.MISSING) {
+            return false;
+        }
+        resolver.position(offset);
+        return true;
+    }
+
+    /**
+     * Follows the chain of checkpoint events, from the last one (the offset in the chunk header)
+     * back to the first, and records the offset of every constant pool entry.
+     */
+    private void indexConstantPools(long constantPoolOffset) {
+        long position = constantPoolOffset;
+        while (true) {
+            input.position(position);
+            input.readInt();    // size
+            long typeId = input.readLong();
+            if (typeId != CHECKPOINT_TYPE_ID) {
+                throw new JfrChunkParsingException("Expected checkpoint event, got type: " + typeId);
+            }
+            input.readLong();   // startTime
+            input.readLong();   // duration
+            long delta = input.readLong();
+            input.readByte();   // checkpoint type
+            int poolCount = input.readInt();
+
+            for (int i = 0; i < poolCount; i++) {
+                ClassDescriptor type = metadata.byId(input.readLong());
+                int count = input.readInt();
+                LongLongTable pool = constantPools.computeIfAbsent(type.id(), _ -> new LongLongTable(count));
+                for (int j = 0; j < count; j++) {
+                    long key = input.readLong();
+                    pool.put(key, input.position());
+                    metadata.skip(input, type);
+                }
+            }
+
+            if (delta == 0) {
+                break;
+            }
+            position += delta;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.jfrparser.raw;
+
+/**
+ * A field of a sample event type, as {@link RawChunkDecoder} delivers its value through
+ * {@link RawSample#value(int)}.
+ *
+ * @param name   field name
+ * @param kind   how the value was decoded and what it means
+ * @param typeId id of the field's type in the chunk metadata
+ */
+public record RawField(String name, Kind kind, long typeId) {
+
+    public enum Kind {
+        /**
+         * Epoch nanos, read from a {@code @Timestamp(TICKS)} field.
+         */
+        TIMESTAMP,
+        /**
+         * Nanos, read from a {@code @Timespan(TICKS)} field; {@link Long#MAX_VALUE} for an unbounded span.
+         */
+        TIMESPAN,
+        /**
+         * Constant pool key of a thread, see {@link RawChunkDecoder#thread(long)}.
+         */
+        THREAD,
+        /**
+         * Constant pool key of a class, see {@link RawChunkDecoder#className(long)}.
+         */
+        CLASS,
+        /**
+         * Constant pool key of a stacktrace, see {@link RawChunkDecoder#stackTrace(long)}.
+         */
+        STACKTRACE,
+        /**
+         * An {@code int} or {@code long} number.
+         */
+        LONG,
+        /**
+         * {@code 1} for true, {@code 0} for false.
+         */
+        BOOLEAN,
+        /**
+         * Constant pool key of a value made of a single string, e.g. a thread state,
+         * see {@link RawChunkDecoder#string(RawField, long)}.
+         */
+        STRING,
+        /**
+         * Skipped by the decoder, the value is always {@code 0}.
+         */
+        UNSUPPORTED
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.jfrparser.raw;
+
+import java.util.List;
+
+/**
+ * The sample {@link RawChunkDecoder} has just decoded. One instance per sample type is reused for
+ * all its samples of the chunk, so it is valid only until the consumer returns.
+ */
+public final class RawSample {
+
+    private final RawSampleType type;
+    private final List<RawField> fields;
+    final long[] values;
+
+    long timestampNanos;
+    long threadId;
+    long stackTraceId;
+    long weight;
+
+    RawSample(RawSampleType type, List<RawField> fields) {
+        this.type = type;
+        this.fields = fields;
+        this.values = new long[fields.size()];
+    }
+
+    public RawSampleType type() {
+        return type;
+    }
+
+    /**
+     * @return fields of the sample type in the order of the chunk metadata
+     */
+    public List<RawField> fields() {
+        return fields;
+    }
+
+    /**
+     * @param index index of the field in {@link #fields()}
+     * @return the value of the field, its meaning is given by {@link RawField#kind()}
+     */
+    public long value(int index) {
+        return values[index];
+    }
+
+    public long timestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * @return constant pool key of the sampled thread, {@code 0} when the sample has none
+     */
+    public long threadId() {
+        return threadId;
+    }
+
+    /**
+     * @return constant pool key of the stacktrace, {@code 0} when the sample has none
+     */
+    public long stackTraceId() {
+        return stackTraceId;
+    }
+
+    /**
+     * @return the value of {@link RawSampleType#weightField()}, {@code 1} when the type has none
+     */
+    public long weight() {
+        return weight;
+    }
+}
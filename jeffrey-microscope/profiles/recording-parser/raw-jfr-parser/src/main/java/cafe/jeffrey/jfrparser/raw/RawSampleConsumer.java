@@ -0,0 +1,33 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.jfrparser.raw;
+
+/**
+ * Receives decoded samples. The thread and stacktrace ids are the constant pool keys of the chunk
+ * ({@code 0} when the sample has none); they are resolved on demand, once per distinct id, through
+ * {@link RawChunkDecoder#thread(long)} and {@link RawChunkDecoder#stackTrace(long)}.
+ */
+@FunctionalInterface
+public interface RawSampleConsumer {
+
+    /**
+     * @param sample the decoded sample, reused for the next sample of its type once this method returns
+     */
+    void onSample(RawSample sample);
+}
@@ -0,0 +1,45 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.jfrparser.raw;
+
+import cafe.jeffrey.shared.common.model.EventTypeName;
+
+import java.util.List;
+
+/**
+ * A high-volume sample event type decoded by {@link RawChunkDecoder}.
+ *
+ * @param name        event type name, e.g. {@code jdk.ExecutionSample}
+ * @param weightField numeric field carrying the weight of the sample, {@code null} for a weight of 1
+ */
+public record RawSampleType(String name, String weightField) {
+
+    /**
+     * CPU, native and allocation samples of the JDK and async-profiler.
+     */
+    public static final List<RawSampleType> DEFAULTS = List.of(
+            new RawSampleType(EventTypeName.EXECUTION_SAMPLE, null),
+            new RawSampleType("jdk.NativeMethodSample", null),
+            new RawSampleType(EventTypeName.OBJECT_ALLOCATION_SAMPLE, "weight"),
+            new RawSampleType("jdk.ObjectAllocationInNewTLAB", "tlabSize"),
+            new RawSampleType("jdk.ObjectAllocationOutsideTLAB", "allocationSize"),
+            new RawSampleType(EventTypeName.WALL_CLOCK_SAMPLE, "samples"),
+            new RawSampleType(EventTypeName.MALLOC, "size"),
+            new RawSampleType(EventTypeName.FREE, null));
+}
@@ -146,15 +146,26 @@ public abstract class RecordingDisassembler implements JfrChunkConstants {
      */
     private static List<Path> disassembleFile(Path recording, Path outputDir) {
         List<Path> chunkFiles = new ArrayList<>();
+        for (JfrChunkRange range : chunkRanges(recording)) {
+            chunkFiles.add(extractChunk(recording, range, outputDir));
+        }
+
+        LOG.debug("Disassembled {} chunks from file: {}", chunkFiles.size(), recording);
+        return chunkFiles;
+    }
+
+    /**
+     * Locates all chunks of a plain JFR recording by reading only their headers.
+     * A chunk that claims to extend beyond the end of the file is truncated to the remaining bytes.
+     *
+     * @param recording Path to JFR file (not LZ4 compressed)
+     * @return byte ranges of all chunks in the order of the recording
+     */
+    public static List<JfrChunkRange> chunkRanges(Path recording) {
+        List<JfrChunkRange> ranges = new ArrayList<>();
         ByteBuffer buffer = ByteBuffer.allocate(CHUNK_HEADER_SIZE);
         buffer.order(ByteOrder.BIG_ENDIAN);
 
-        try {
-            Files.createDirectories(outputDir);
-        } catch (IOException e) {
-            throw new JfrChunkParsingException("Failed to create output directory: " + outputDir, e);
-        }
-
         try (FileChannel channel = FileChannel.open(recording)) {
             long recordingSize = Files.size(recording);
             int chunkIndex = 0;
@@ -181,35 +192,55 @@ public abstract class RecordingDisassembler implements JfrChunkConstants {
                     chunkSize = remainingInFile;
                 }
 
-                LOG.trace("Processing chunk {} at position {} with size {} bytes",
-                        chunkIndex, chunkStart, chunkSize);
-
-                // Write chunk to output file using zero-copy transfer
-                Path outputPath = outputDir.resolve("chunk_" + chunkIndex + ".jfr");
-                try (FileChannel output = FileChannel.open(outputPath, CREATE, WRITE)) {
-                    long transferred = 0;
-                    while (transferred < chunkSize) {
-                        long n = channel.transferTo(chunkStart + transferred,
-                                chunkSize - transferred, output);
-                        if (n <= 0) {
-                            throw new IOException("transferTo returned " + n);
-                        }
-                        transferred += n;
-                    }
-                }
-
-                chunkFiles.add(outputPath);
+                LOG.trace("Found chunk {} at position {} with size {} bytes", chunkIndex, chunkStart, chunkSize);
+                ranges.add(new JfrChunkRange(chunkIndex, chunkStart, chunkSize));
 
                 // Move to next chunk
                 channel.position(chunkStart + chunkSize);
                 chunkIndex++;
             }
         } catch (IOException e) {
-            throw new JfrChunkParsingException("Failed to disassemble recording: " + recording, e);
+            throw new JfrChunkParsingException("Failed to locate chunks in recording: " + recording, e);
         }
 
-        LOG.debug("Disassembled {} chunks from file: {}", chunkFiles.size(), recording);
-        return chunkFiles;
+        return ranges;
+    }
+
+    /**
+     * Writes a single chunk of a plain JFR recording into its own file using zero-copy transfer.
+     * Safe to call concurrently for different chunks of the same recording.
+     *
+     * @param recording Path to JFR file (not LZ4 compressed)
+     * @param range     chunk to extract, see {@link #chunkRanges(Path)}
+     * @param outputDir Directory to write the chunk file
+     * @return path to the created chunk file
+     */
+    public static Path extractChunk(Path recording, JfrChunkRange range, Path outputDir) {
+        Path outputPath = outputDir.resolve("chunk_" + range.index() + ".jfr");
+
+        try {
+            Files.createDirectories(outputDir);
+        } catch (IOException e) {
+            throw new JfrChunkParsingException("Failed to create output directory: " + outputDir, e);
+        }
+
+        try (FileChannel channel = FileChannel.open(recording);
+             FileChannel output = FileChannel.open(outputPath, CREATE, WRITE)) {
+
+            long transferred = 0;
+            while (transferred < range.size()) {
+                long n = channel.transferTo(range.offset() + transferred, range.size() - transferred, output);
+                if (n <= 0) {
+                    throw new IOException("transferTo returned " + n);
+                }
+                transferred += n;
+            }
+        } catch (IOException e) {
+            throw new JfrChunkParsingException(
+                    "Failed to extract chunk: recording=" + recording + " chunkIndex=" + range.index(), e);
+        }
+
+        return outputPath;
     }
 
     /**
@@ -0,0 +1,240 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cafe.jeffrey.jfrparser.raw;
+
+import jdk.jfr.Event;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Decodes a recording made by the running JVM and compares every sample with what
+ * {@code jdk.jfr.consumer} reads from the same file.
+ */
+@DisplayName("RawChunkDecoder")
+class RawChunkDecoderTest {
+
+    private static final String SAMPLE_EVENT = "test.RawSample";
+    private static final String OTHER_EVENT = "test.RawOther";
+    private static final List<RawSampleType> SAMPLE_TYPES = List.of(new RawSampleType(SAMPLE_EVENT, "weight"));
+    private static final int SAMPLES = 200;
+
+    @Name(SAMPLE_EVENT)
+    @StackTrace
+    static class TestSample extends Event {
+        long weight;
+        String label;
+    }
+
+    @Name(OTHER_EVENT)
+    static class RawOther extends Event {
+        String payload;
+    }
+
+    private record Decoded(long timestampNanos, RawThread thread, RawStackTrace stackTrace, long weight) {
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private Path recording;
+
+    @BeforeEach
+    void record() throws Exception {
+        recording = tempDir.resolve("recording.jfr");
+        try (Recording jfr = new Recording()) {
+            jfr.enable(SAMPLE_EVENT).withStackTrace();
+            jfr.enable(OTHER_EVENT);
+            jfr.start();
+            for (int i = 0; i < SAMPLES; i++) {
+                commitAtDepth(i % 5, i);
+                RawOther other = new RawOther();
+                other.payload = "payload-" + i;
+                other.commit();
+            }
+            Thread worker = new Thread(() -> commitAtDepth(2, SAMPLES), "raw-decoder-worker");
+            worker.start();
+            worker.join();
+            jfr.stop();
+            jfr.dump(recording);
+        }
+    }
+
+    private static void commitAtDepth(int depth, long weight) {
+        if (depth > 0) {
+            commitAtDepth(depth - 1, weight);
+        } else {
+            TestSample sample = new TestSample();
+            sample.weight = weight;
+            sample.label = "sample-" + weight;
+            sample.commit();
+        }
+    }
+
+    @Test
+    void decodesSamplesLikeJdkConsumer() throws IOException {
+        List<RecordedEvent> expected = new ArrayList<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                if (event.getEventType().getName().equals(SAMPLE_EVENT)) {
+                    expected.add(event);
+                }
+            }
+        }
+
+        List<Decoded> actual = decodeAll();
+
+        assertEquals(SAMPLES + 1, expected.size());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSample(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    void unknownIdsResolveToNull() {
+        JfrChunkRange chunk = JfrParser.chunkRanges(recording).getFirst();
+        RawChunkDecoder decoder = RawChunkDecoder.open(recording, chunk);
+
+        assertNull(decoder.thread(Long.MAX_VALUE));
+        assertNull(decoder.stackTrace(Long.MAX_VALUE));
+    }
+
+    @Test
+    void typesMissingInChunkEmitNothing() {
+        JfrChunkRange chunk = JfrParser.chunkRanges(recording).getFirst();
+        RawChunkDecoder decoder = RawChunkDecoder.open(recording, chunk);
+
+        List<Long> samples = new ArrayList<>();
+        decoder.decodeSamples(RawSampleType.DEFAULTS.stream()
+                        .filter(type -> type.name().startsWith("profiler."))
+                        .toList(),
+                sample -> samples.add(sample.timestampNanos()));
+
+        assertTrue(samples.isEmpty());
+    }
+
+    @Test
+    void describesFieldsOfSampleType() {
+        JfrChunkRange chunk = JfrParser.chunkRanges(recording).getFirst();
+        RawChunkDecoder decoder = RawChunkDecoder.open(recording, chunk);
+
+        List<RawField> fields = decoder.fields(SAMPLE_EVENT);
+
+        assertEquals(RawField.Kind.TIMESTAMP, kindOf(fields, "startTime"));
+        assertEquals(RawField.Kind.THREAD, kindOf(fields, "eventThread"));
+        assertEquals(RawField.Kind.STACKTRACE, kindOf(fields, "stackTrace"));
+        assertEquals(RawField.Kind.LONG, kindOf(fields, "weight"));
+        // Inline strings are left to jdk.jfr.consumer
+        assertEquals(RawField.Kind.UNSUPPORTED, kindOf(fields, "label"));
+        assertNull(decoder.fields("test.Missing"));
+    }
+
+    @Test
+    void deliversValuesOfAllFields() {
+        JfrChunkRange chunk = JfrParser.chunkRanges(recording).getFirst();
+        RawChunkDecoder decoder = RawChunkDecoder.open(recording, chunk);
+
+        List<Long> weights = new ArrayList<>();
+        decoder.decodeSamples(SAMPLE_TYPES, sample -> {
+            int weightIndex = indexOf(sample.fields(), "weight");
+            int threadIndex = indexOf(sample.fields(), "eventThread");
+            assertEquals(sample.weight(), sample.value(weightIndex));
+            assertEquals(sample.threadId(), sample.value(threadIndex));
+            weights.add(sample.value(weightIndex));
+        });
+
+        assertEquals(SAMPLES + 1, weights.size());
+    }
+
+    private static RawField.Kind kindOf(List<RawField> fields, String name) {
+        return fields.get(indexOf(fields, name)).kind();
+    }
+
+    private static int indexOf(List<RawField> fields, String name) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).name().equals(name)) {
+                return i;
+            }
+        }
+        throw new AssertionError("Missing field: " + name);
+    }
+
+    private List<Decoded> decodeAll() {
+        List<Decoded> decoded = new ArrayList<>();
+        for (JfrChunkRange chunk : JfrParser.chunkRanges(recording)) {
+            RawChunkDecoder decoder = RawChunkDecoder.open(recording, chunk);
+            decoder.decodeSamples(SAMPLE_TYPES, sample -> {
+                assertEquals(SAMPLE_EVENT, sample.type().name());
+                decoded.add(new Decoded(
+                        sample.timestampNanos(),
+                        decoder.thread(sample.threadId()),
+                        decoder.stackTrace(sample.stackTraceId()),
+                        sample.weight()));
+            });
+        }
+        return decoded;
+    }
+
+    private static void assertSample(RecordedEvent expected, Decoded actual) {
+        Instant startTime = expected.getStartTime();
+        assertEquals(startTime.getEpochSecond() * 1_000_000_000L + startTime.getNano(), actual.timestampNanos());
+        assertEquals(expected.getLong("weight"), actual.weight());
+
+        RecordedThread thread = expected.getThread();
+        assertNotNull(actual.thread());
+        assertEquals(thread.getJavaName(), actual.thread().javaName());
+        assertEquals(thread.getJavaThreadId(), actual.thread().javaThreadId());
+        assertEquals(thread.getOSThreadId(), actual.thread().osThreadId());
+        assertEquals(thread.getOSName(), actual.thread().osName());
+
+        List<RecordedFrame> frames = expected.getStackTrace().getFrames();
+        List<RawFrame> rawFrames = actual.stackTrace().frames();
+        assertEquals(expected.getStackTrace().isTruncated(), actual.stackTrace().truncated());
+        assertEquals(frames.size(), rawFrames.size());
+        for (int i = 0; i < frames.size(); i++) {
+            RecordedFrame frame = frames.get(i);
+            RawFrame rawFrame = rawFrames.get(i);
+            assertEquals(frame.getMethod().getType().getName(), rawFrame.className());
+            assertEquals(frame.getMethod().getName(), rawFrame.methodName());
+            assertEquals(frame.getType(), rawFrame.frameType());
+            assertEquals(frame.getLineNumber(), rawFrame.lineNumber());
+            assertEquals(frame.getBytecodeIndex(), rawFrame.bytecodeIndex());
+        }
+    }
+}
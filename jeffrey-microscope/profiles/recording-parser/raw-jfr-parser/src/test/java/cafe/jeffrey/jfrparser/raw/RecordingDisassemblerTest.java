@@ -30,6 +30,7 @@ import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -59,6 +60,44 @@ class RecordingDisassemblerTest implements JfrChunkConstants {
             assertArrayEquals(firstChunk, Files.readAllBytes(chunks.get(0)));
             assertArrayEquals(secondChunk, Files.readAllBytes(chunks.get(1)));
         }
+
+        @Test
+        void locatesChunkRangesWithoutCopying() throws IOException {
+            byte[] firstChunk = syntheticChunk(FIRST_CHUNK_PAYLOAD_SIZE, (byte) 0x0A);
+            byte[] secondChunk = syntheticChunk(SECOND_CHUNK_PAYLOAD_SIZE, (byte) 0x0B);
+            Path recording = writeRecording("recording.jfr", firstChunk, secondChunk);
+
+            List<JfrChunkRange> ranges = RecordingDisassembler.chunkRanges(recording);
+
+            assertEquals(List.of(
+                    new JfrChunkRange(0, 0, firstChunk.length),
+                    new JfrChunkRange(1, firstChunk.length, secondChunk.length)), ranges);
+        }
+
+        @Test
+        void truncatesLastChunkRangeToFileSize() throws IOException {
+            byte[] firstChunk = syntheticChunk(FIRST_CHUNK_PAYLOAD_SIZE, (byte) 0x0A);
+            byte[] secondChunk = syntheticChunk(SECOND_CHUNK_PAYLOAD_SIZE, (byte) 0x0B);
+            byte[] truncatedSecond = Arrays.copyOf(secondChunk, secondChunk.length - 10);
+            Path recording = writeRecording("recording.jfr", firstChunk, truncatedSecond);
+
+            List<JfrChunkRange> ranges = RecordingDisassembler.chunkRanges(recording);
+
+            assertEquals(new JfrChunkRange(1, firstChunk.length, truncatedSecond.length), ranges.get(1));
+        }
+
+        @Test
+        void extractsSingleChunkOutOfOrder() throws IOException {
+            byte[] firstChunk = syntheticChunk(FIRST_CHUNK_PAYLOAD_SIZE, (byte) 0x0A);
+            byte[] secondChunk = syntheticChunk(SECOND_CHUNK_PAYLOAD_SIZE, (byte) 0x0B);
+            Path recording = writeRecording("recording.jfr", firstChunk, secondChunk);
+            List<JfrChunkRange> ranges = RecordingDisassembler.chunkRanges(recording);
+
+            Path second = RecordingDisassembler.extractChunk(recording, ranges.get(1), tempDir.resolve("chunks"));
+
+            assertEquals("chunk_1.jfr", second.getFileName().toString());
+            assertArrayEquals(secondChunk, Files.readAllBytes(second));
+        }
     }
 
     @Nested
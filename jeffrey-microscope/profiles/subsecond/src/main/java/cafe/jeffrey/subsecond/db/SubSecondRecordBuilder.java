@@ -18,13 +18,14 @@
 
 package cafe.jeffrey.subsecond.db;
 
-import cafe.jeffrey.provider.profile.api.RecordBuilder;
+import cafe.jeffrey.provider.profile.api.ColumnarRecordBuilder;
+import cafe.jeffrey.provider.profile.api.LongColumnBatch;
 import cafe.jeffrey.provider.profile.api.SubSecondRecord;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class SubSecondRecordBuilder implements RecordBuilder<SubSecondRecord, SingleResult> {
+public class SubSecondRecordBuilder implements ColumnarRecordBuilder<SubSecondRecord, SingleResult> {
 
     private final List<SecondColumn> columns = new ArrayList<>();
     private final long timeRangeStartMillis;
@@ -42,7 +43,20 @@ public class SubSecondRecordBuilder implements RecordBuilder<SubSecondRecord, Si
 
     @Override
     public void onRecord(SubSecondRecord record) {
-        long millis = record.timestampFromStart() - timeRangeStartMillis;
+        add(record.timestampFromStart(), record.value());
+    }
+
+    @Override
+    public void onBatch(LongColumnBatch batch) {
+        long[] timestamps = batch.column(0);
+        long[] values = batch.column(1);
+        for (int i = 0; i < batch.size(); i++) {
+            add(timestamps[i], values[i]);
+        }
+    }
+
+    private void add(long timestampFromStart, long value) {
+        long millis = timestampFromStart - timeRangeStartMillis;
         int seconds = (int) (millis / 1000);
         int millisInSecond = (int) (millis % 1000);
 
@@ -54,7 +68,7 @@ public class SubSecondRecordBuilder implements RecordBuilder<SubSecondRecord, Si
 
         // Increment a value in the bucket and return a new value to track the
         // `maxvalue` from all buckets and columns.
-        long newValue = columns.get(seconds).increment(millisInSecond, record.value());
+        long newValue = columns.get(seconds).increment(millisInSecond, value);
         if (newValue > maxvalue) {
             maxvalue = newValue;
         }
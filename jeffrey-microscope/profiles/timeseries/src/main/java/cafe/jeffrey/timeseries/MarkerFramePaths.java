@@ -0,0 +1,51 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2025 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.timeseries;
+
+import cafe.jeffrey.profile.common.analysis.marker.Marker;
+import cafe.jeffrey.frameir.frame.FrameNameBuilder;
+import cafe.jeffrey.jfrparser.api.type.JfrStackFrame;
+
+import java.util.List;
+
+/**
+ * Frame paths of the markers and the frame naming they are compared with. The paths are resolved to
+ * frame hashes and the timeseries is split in the database
+ * ({@code ProfileEventStreamRepository#timeseriesPathMatchingStreamer}).
+ */
+public abstract class MarkerFramePaths {
+
+    private static final FrameNameBuilder FRAME_NAME_BUILDER = new FrameNameBuilder();
+
+    /**
+     * The name a path frame is compared with.
+     */
+    public static String frameName(JfrStackFrame frame) {
+        return FRAME_NAME_BUILDER.generateName(frame, null);
+    }
+
+    /**
+     * Frame paths of the markers, as accepted by {@code timeseriesPathMatchingStreamer}.
+     */
+    public static List<List<String>> framePaths(List<Marker> markers) {
+        return markers.stream()
+                .map(marker -> marker.path().frames())
+                .toList();
+    }
+}
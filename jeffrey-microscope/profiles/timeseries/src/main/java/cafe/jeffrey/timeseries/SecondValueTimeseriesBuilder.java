@@ -20,10 +20,11 @@ package cafe.jeffrey.timeseries;
 
 import org.eclipse.collections.impl.map.mutable.primitive.LongLongHashMap;
 import cafe.jeffrey.shared.common.model.time.RelativeTimeRange;
-import cafe.jeffrey.provider.profile.api.RecordBuilder;
+import cafe.jeffrey.provider.profile.api.ColumnarRecordBuilder;
+import cafe.jeffrey.provider.profile.api.LongColumnBatch;
 import cafe.jeffrey.provider.profile.api.SecondValue;
 
-public class SecondValueTimeseriesBuilder implements RecordBuilder<SecondValue, TimeseriesData> {
+public class SecondValueTimeseriesBuilder implements ColumnarRecordBuilder<SecondValue, TimeseriesData> {
 
     private final String serieName;
     private final LongLongHashMap values;
@@ -38,6 +39,15 @@ public class SecondValueTimeseriesBuilder implements RecordBuilder<SecondValue,
         values.addToValue(record.second(), record.value());
     }
 
+    @Override
+    public void onBatch(LongColumnBatch batch) {
+        long[] seconds = batch.column(0);
+        long[] samples = batch.column(1);
+        for (int i = 0; i < batch.size(); i++) {
+            values.addToValue(seconds[i], samples[i]);
+        }
+    }
+
     @Override
     public TimeseriesData build() {
         return new TimeseriesData(TimeseriesUtils.buildSerie(serieName, values));
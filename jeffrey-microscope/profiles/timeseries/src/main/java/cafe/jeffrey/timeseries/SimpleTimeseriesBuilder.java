@@ -20,11 +20,12 @@ package cafe.jeffrey.timeseries;
 
 import org.eclipse.collections.impl.map.mutable.primitive.LongLongHashMap;
 import cafe.jeffrey.shared.common.model.time.RelativeTimeRange;
-import cafe.jeffrey.provider.profile.api.RecordBuilder;
+import cafe.jeffrey.provider.profile.api.ColumnarRecordBuilder;
+import cafe.jeffrey.provider.profile.api.LongColumnBatch;
 import cafe.jeffrey.provider.profile.api.SecondValue;
 import cafe.jeffrey.provider.profile.api.TimeseriesRecord;
 
-public class SimpleTimeseriesBuilder implements RecordBuilder<TimeseriesRecord, TimeseriesData> {
+public class SimpleTimeseriesBuilder implements ColumnarRecordBuilder<TimeseriesRecord, TimeseriesData> {
 
     private final String serieName;
     private final LongLongHashMap values;
@@ -44,6 +45,15 @@ public class SimpleTimeseriesBuilder implements RecordBuilder<TimeseriesRecord,
         values.addToValue(first.second(), first.value());
     }
 
+    @Override
+    public void onBatch(LongColumnBatch batch) {
+        long[] seconds = batch.column(0);
+        long[] samples = batch.column(1);
+        for (int i = 0; i < batch.size(); i++) {
+            values.addToValue(seconds[i], samples[i]);
+        }
+    }
+
     @Override
     public TimeseriesData build() {
         return new TimeseriesData(TimeseriesUtils.buildSerie(serieName, values));
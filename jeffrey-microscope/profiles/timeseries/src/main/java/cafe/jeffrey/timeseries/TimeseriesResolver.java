@@ -31,8 +31,9 @@ public abstract class TimeseriesResolver {
 
         return switch (timeseriesType) {
             case SEARCHING -> new SearchingTimeseriesBuilder(timeRange, params.searchPattern());
-            case PATH_MATCHING -> new PathMatchingTimeseriesBuilder(timeRange, params.markers());
-            case SIMPLE -> new SimpleTimeseriesBuilder(timeRange);
+            // Marker paths are matched in the database (timeseriesPathMatchingStreamer),
+            // the records of a plain timeseries carry no stacktrace to split on
+            case PATH_MATCHING, SIMPLE -> new SimpleTimeseriesBuilder(timeRange);
         };
     }
 }
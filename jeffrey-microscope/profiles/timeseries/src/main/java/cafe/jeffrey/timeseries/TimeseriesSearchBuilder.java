@@ -20,10 +20,11 @@ package cafe.jeffrey.timeseries;
 
 import org.eclipse.collections.impl.map.mutable.primitive.LongLongHashMap;
 import cafe.jeffrey.shared.common.model.time.RelativeTimeRange;
-import cafe.jeffrey.provider.profile.api.RecordBuilder;
+import cafe.jeffrey.provider.profile.api.ColumnarRecordBuilder;
+import cafe.jeffrey.provider.profile.api.LongColumnBatch;
 import cafe.jeffrey.provider.profile.api.TimeseriesSearchRecord;
 
-public class TimeseriesSearchBuilder implements RecordBuilder<TimeseriesSearchRecord, TimeseriesData> {
+public class TimeseriesSearchBuilder implements ColumnarRecordBuilder<TimeseriesSearchRecord, TimeseriesData> {
 
     private final LongLongHashMap values;
     private final LongLongHashMap matchedValues;
@@ -35,8 +36,22 @@ public class TimeseriesSearchBuilder implements RecordBuilder<TimeseriesSearchRe
 
     @Override
     public void onRecord(TimeseriesSearchRecord record) {
-        matchedValues.addToValue(record.second(), record.matched());
-        values.addToValue(record.second(), record.total() - record.matched());
+        add(record.second(), record.total(), record.matched());
+    }
+
+    @Override
+    public void onBatch(LongColumnBatch batch) {
+        long[] seconds = batch.column(0);
+        long[] totals = batch.column(1);
+        long[] matched = batch.column(2);
+        for (int i = 0; i < batch.size(); i++) {
+            add(seconds[i], totals[i], matched[i]);
+        }
+    }
+
+    private void add(long second, long total, long matched) {
+        matchedValues.addToValue(second, matched);
+        values.addToValue(second, total - matched);
     }
 
     @Override
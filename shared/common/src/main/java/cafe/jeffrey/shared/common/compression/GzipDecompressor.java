@@ -0,0 +1,384 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2025 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.shared.common.compression;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Pipelined decompression of a (possibly multi-member) gzip file into a target file.
+ * <p>
+ * A single deflate stream cannot be inflated in parallel, but {@link java.util.zip.GZIPInputStream}
+ * also spends the inflating thread on the CRC32 and on copying into the output. Here the calling
+ * thread only inflates: filled buffers are handed to a writer thread that updates the checksum and
+ * writes them to the target, so the two stages overlap. Buffers are recycled through a bounded
+ * ring, which caps the memory in flight and blocks the inflater whenever the writer falls behind.
+ * <p>
+ * Every member's CRC32 and size are verified against its trailer. Trailing bytes that do not start
+ * another gzip member are ignored, as {@code GZIPInputStream} does.
+ */
+public final class GzipDecompressor {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    public static final int DEFAULT_BUFFERS = 4;
+
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+    private static final int GZIP_DEFLATE = 8;
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private static final int INPUT_BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * Unit of work handed to the writer: a filled buffer, or the end of a member with its trailer.
+     */
+    private sealed interface Chunk {
+    }
+
+    private record Data(byte[] buffer, int length) implements Chunk {
+    }
+
+    private record MemberEnd(int crc, int size) implements Chunk {
+    }
+
+    private record End() implements Chunk {
+    }
+
+    private GzipDecompressor() {
+    }
+
+    /**
+     * Returns {@code true} if the file starts with the gzip magic bytes.
+     */
+    public static boolean isGzip(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return in.read() == GZIP_MAGIC_1 && in.read() == GZIP_MAGIC_2;
+        }
+    }
+
+    /**
+     * Decompresses {@code source} into {@code target} (created or truncated).
+     *
+     * @return the number of uncompressed bytes written
+     */
+    public static long decompress(Path source, Path target) throws IOException {
+        return decompress(source, target, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFERS);
+    }
+
+    public static long decompress(Path source, Path target, int bufferSize, int buffers) throws IOException {
+        if (bufferSize < 1 || buffers < 1) {
+            throw new IllegalArgumentException(
+                    "bufferSize and buffers must be positive: bufferSize=" + bufferSize + " buffers=" + buffers);
+        }
+        try (InputStream in = Files.newInputStream(source);
+             FileChannel out = FileChannel.open(target, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            return new Pipeline(new CompressedInput(in), out, bufferSize, buffers).run();
+        }
+    }
+
+    private static final class Pipeline {
+
+        private final CompressedInput input;
+        private final FileChannel output;
+        private final BlockingQueue<byte[]> freeBuffers;
+        private final BlockingQueue<Chunk> filled = new LinkedBlockingQueue<>();
+
+        private volatile Throwable writerFailure;
+        private long written;
+
+        private Pipeline(CompressedInput input, FileChannel output, int bufferSize, int buffers) {
+            this.input = input;
+            this.output = output;
+            this.freeBuffers = new ArrayBlockingQueue<>(buffers);
+            for (int i = 0; i < buffers; i++) {
+                freeBuffers.add(new byte[bufferSize]);
+            }
+        }
+
+        private long run() throws IOException {
+            Thread writer = Thread.ofVirtual().name("gzip-writer").start(this::write);
+            try {
+                inflateMembers();
+            } finally {
+                filled.add(new End());
+                joinUninterruptibly(writer);
+            }
+            rethrowWriterFailure();
+            return written;
+        }
+
+        private void inflateMembers() throws IOException {
+            if (!input.readHeader()) {
+                throw new ZipException("Not in GZIP format");
+            }
+            Inflater inflater = new Inflater(true);
+            try {
+                do {
+                    inflateMember(inflater);
+                    inflater.reset();
+                } while (input.readHeader());
+            } finally {
+                inflater.end();
+            }
+        }
+
+        private void inflateMember(Inflater inflater) throws IOException {
+            byte[] buffer = takeBuffer();
+            int length = 0;
+            try {
+                while (!inflater.finished()) {
+                    if (inflater.needsInput()) {
+                        input.feed(inflater);
+                    } else if (inflater.needsDictionary()) {
+                        throw new ZipException("Unexpected preset dictionary in gzip member");
+                    }
+                    length += inflater.inflate(buffer, length, buffer.length - length);
+                    if (length == buffer.length) {
+                        filled.add(new Data(buffer, length));
+                        buffer = takeBuffer();
+                        length = 0;
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException("Corrupt gzip stream: " + e.getMessage());
+            } finally {
+                if (length > 0) {
+                    filled.add(new Data(buffer, length));
+                } else {
+                    freeBuffers.add(buffer);
+                }
+            }
+            input.unread(inflater.getRemaining());
+            filled.add(new MemberEnd(input.readIntLE(), input.readIntLE()));
+        }
+
+        /**
+         * Waits for a free buffer, i.e. for the writer to finish one of the filled ones.
+         */
+        private byte[] takeBuffer() throws IOException {
+            rethrowWriterFailure();
+            try {
+                return freeBuffers.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a decompression buffer", e);
+            }
+        }
+
+        private void write() {
+            CRC32 crc = new CRC32();
+            long memberSize = 0;
+            while (true) {
+                Chunk chunk;
+                try {
+                    chunk = filled.take();
+                } catch (InterruptedException e) {
+                    writerFailure = e;
+                    return;
+                }
+                switch (chunk) {
+                    case End _ -> {
+                        return;
+                    }
+                    case Data data -> {
+                        try {
+                            if (writerFailure == null) {
+                                crc.update(data.buffer(), 0, data.length());
+                                writeFully(ByteBuffer.wrap(data.buffer(), 0, data.length()));
+                                memberSize += data.length();
+                            }
+                        } catch (Throwable t) {
+                            writerFailure = t;
+                        } finally {
+                            // Always hand the buffer back so the inflater never blocks on a failed writer
+                            freeBuffers.add(data.buffer());
+                        }
+                    }
+                    case MemberEnd end -> {
+                        if (writerFailure == null && (int) crc.getValue() != end.crc()) {
+                            writerFailure = new ZipException("Corrupt GZIP trailer: CRC32 mismatch");
+                        } else if (writerFailure == null && (int) memberSize != end.size()) {
+                            writerFailure = new ZipException("Corrupt GZIP trailer: size mismatch");
+                        }
+                        crc.reset();
+                        memberSize = 0;
+                    }
+                }
+            }
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                written += output.write(buffer);
+            }
+        }
+
+        private void rethrowWriterFailure() throws IOException {
+            Throwable failure = writerFailure;
+            if (failure == null) {
+                return;
+            }
+            if (failure instanceof IOException e) {
+                throw e;
+            }
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            }
+            throw new IOException("Gzip writer failed", failure);
+        }
+
+        private static void joinUninterruptibly(Thread thread) {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Compressed bytes with one-buffer pushback, so the inflater's unconsumed input can be re-read
+     * as the trailer and the next member's header.
+     */
+    private static final class CompressedInput {
+
+        private final InputStream stream;
+        private final byte[] buffer = new byte[INPUT_BUFFER_SIZE];
+        private int position;
+        private int limit;
+
+        private CompressedInput(InputStream stream) {
+            this.stream = stream;
+        }
+
+        /**
+         * Parses a gzip member header. Returns {@code false} at the end of the input or when the
+         * remaining bytes do not start with the gzip magic.
+         */
+        private boolean readHeader() throws IOException {
+            int magic1 = read();
+            if (magic1 < 0) {
+                return false;
+            }
+            int magic2 = read();
+            if (magic1 != GZIP_MAGIC_1 || magic2 != GZIP_MAGIC_2) {
+                return false;
+            }
+            if (readRequired() != GZIP_DEFLATE) {
+                throw new ZipException("Unsupported compression method");
+            }
+            int flags = readRequired();
+            skip(6); // MTIME, XFL, OS
+            if ((flags & FEXTRA) != 0) {
+                skip(readRequired() | (readRequired() << 8));
+            }
+            if ((flags & FNAME) != 0) {
+                skipZeroTerminated();
+            }
+            if ((flags & FCOMMENT) != 0) {
+                skipZeroTerminated();
+            }
+            if ((flags & FHCRC) != 0) {
+                skip(2);
+            }
+            return true;
+        }
+
+        private void feed(Inflater inflater) throws IOException {
+            if (position == limit && !fill()) {
+                throw new EOFException("Unexpected end of gzip stream");
+            }
+            inflater.setInput(buffer, position, limit - position);
+            position = limit;
+        }
+
+        private void unread(int remaining) {
+            position -= remaining;
+        }
+
+        private int readIntLE() throws IOException {
+            return readRequired() | (readRequired() << 8) | (readRequired() << 16) | (readRequired() << 24);
+        }
+
+        private void skip(int count) throws IOException {
+            for (int i = 0; i < count; i++) {
+                readRequired();
+            }
+        }
+
+        private void skipZeroTerminated() throws IOException {
+            while (readRequired() != 0) {
+                // skip
+            }
+        }
+
+        private int readRequired() throws IOException {
+            int b = read();
+            if (b < 0) {
+                throw new EOFException("Unexpected end of gzip stream");
+            }
+            return b;
+        }
+
+        private int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        private boolean fill() throws IOException {
+            int n = stream.read(buffer, 0, buffer.length);
+            if (n <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = n;
+            return true;
+        }
+    }
+}
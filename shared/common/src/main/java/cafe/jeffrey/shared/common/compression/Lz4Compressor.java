@@ -24,17 +24,23 @@ import cafe.jeffrey.shared.common.filesystem.TempDirFactory;
 import cafe.jeffrey.shared.common.filesystem.TempDirectory;
 import cafe.jeffrey.shared.common.model.repository.FileExtensions;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 /**
  * Utility class for LZ4 compression and decompression of files.
+ * <p>
+ * Compressed files are sequences of LZ4 frames. A single file may contain several frames
+ * (e.g. the result of {@link #concatenate(List, OutputStream)}) and all read methods
+ * decode every frame in the file, not only the first one.
  */
 public class Lz4Compressor {
 
@@ -138,7 +144,8 @@ public class Lz4Compressor {
      */
     public static InputStream decompressStream(Path path) {
         try {
-            return new LZ4FrameInputStream(Files.newInputStream(path));
+            // readSingleFrame=false: continue with the next frame after an end mark
+            return new LZ4FrameInputStream(Files.newInputStream(path), false);
         } catch (IOException e) {
             throw new RuntimeException("Failed to create decompress stream: file=" + path, e);
         }
@@ -159,6 +166,47 @@ public class Lz4Compressor {
         }
     }
 
+    /**
+     * Concatenates files into a single multi-frame LZ4 stream without decompressing anything.
+     * LZ4 compressed sources are copied byte-for-byte as they already consist of complete frames,
+     * any other source is compressed into a new frame appended to the output.
+     * Note: This method does NOT close the OutputStream - caller is responsible for closing it.
+     *
+     * @param sources the files to concatenate, in order
+     * @param output  the OutputStream to write the concatenated frames to
+     */
+    public static void concatenate(List<Path> sources, OutputStream output) {
+        for (Path source : sources) {
+            try {
+                if (isLz4Compressed(source)) {
+                    Files.copy(source, output);
+                } else {
+                    try (OutputStream frame = new LZ4FrameOutputStream(new NonClosingOutputStream(output))) {
+                        Files.copy(source, frame);
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to concatenate file: source=" + source, e);
+            }
+        }
+    }
+
+    /**
+     * Concatenates files into a single multi-frame LZ4 file, see {@link #concatenate(List, OutputStream)}.
+     *
+     * @param sources the files to concatenate, in order
+     * @param target  the target file path for the concatenated output
+     */
+    public static Path concatenate(List<Path> sources, Path target) {
+        try (OutputStream out = Files.newOutputStream(target)) {
+            concatenate(sources, out);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to concatenate files: sources=" + sources + " target=" + target, e);
+        }
+
+        return target;
+    }
+
     /**
      * Checks if a file is LZ4 compressed based on its extension.
      *
@@ -168,4 +216,24 @@ public class Lz4Compressor {
     public static boolean isLz4Compressed(Path path) {
         return path.toString().endsWith(LZ4_EXTENSION);
     }
+
+    /**
+     * Lets {@link LZ4FrameOutputStream} write its end mark on close without closing the shared output.
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        private NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
 }
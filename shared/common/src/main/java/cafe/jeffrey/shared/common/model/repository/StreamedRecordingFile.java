@@ -21,24 +21,72 @@ package cafe.jeffrey.shared.common.model.repository;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
-public record StreamedRecordingFile(String fileName, Path path, Closeable cleanup) {
+/**
+ * A file to be streamed to a client. The content is the concatenation of {@code parts},
+ * which lets e.g. a merged recording be served directly from its source files.
+ */
+public record StreamedRecordingFile(String fileName, List<Path> parts, Closeable cleanup) {
 
     public StreamedRecordingFile(String fileName, Path path) {
         this(fileName, path, null);
     }
 
+    public StreamedRecordingFile(String fileName, Path path, Closeable cleanup) {
+        this(fileName, List.of(path), cleanup);
+    }
+
+    /**
+     * @return total size of all parts in bytes
+     */
+    public long size() throws IOException {
+        long size = 0;
+        for (Path part : parts) {
+            size += Files.size(part);
+        }
+        return size;
+    }
+
     /**
-     * Opens an InputStream for the file. If a cleanup action is present,
-     * it will be executed when the stream is closed.
+     * Opens an InputStream for the file. Parts are opened lazily one after another.
+     * If a cleanup action is present, it will be executed when the stream is closed.
      */
     public InputStream openStream() throws IOException {
-        InputStream stream = Files.newInputStream(path);
+        InputStream stream = parts.size() == 1
+                ? Files.newInputStream(parts.getFirst())
+                : new SequenceInputStream(new PartStreams(parts.iterator()));
         if (cleanup != null) {
             stream = new CleanupInputStream(stream, cleanup);
         }
         return stream;
     }
+
+    private record PartStreams(Iterator<Path> parts) implements Enumeration<InputStream> {
+
+        @Override
+        public boolean hasMoreElements() {
+            return parts.hasNext();
+        }
+
+        @Override
+        public InputStream nextElement() {
+            if (!parts.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Path part = parts.next();
+            try {
+                return Files.newInputStream(part);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open part: " + part, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2025 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.shared.common.compression;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GzipDecompressorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    @Nested
+    class Decompress {
+
+        @Test
+        void roundTripsContentLargerThanTheBufferRing() throws IOException {
+            byte[] content = new byte[300_000];
+            Random random = new Random(42);
+            for (int i = 0; i < content.length; i++) {
+                content[i] = (byte) random.nextInt(16);
+            }
+            Path source = tempDir.resolve("large.gz");
+            Files.write(source, gzip(content));
+            Path target = tempDir.resolve("large");
+
+            // 2 x 4 KiB buffers force the inflater to wait for the writer many times
+            long written = GzipDecompressor.decompress(source, target, 4096, 2);
+
+            assertEquals(content.length, written);
+            assertArrayEquals(content, Files.readAllBytes(target));
+        }
+
+        @Test
+        void concatenatesAllMembers() throws IOException {
+            ByteArrayOutputStream members = new ByteArrayOutputStream();
+            members.write(gzip("first,".getBytes(StandardCharsets.UTF_8)));
+            members.write(gzip("second".getBytes(StandardCharsets.UTF_8)));
+            Path source = tempDir.resolve("members.gz");
+            Files.write(source, members.toByteArray());
+            Path target = tempDir.resolve("members");
+
+            GzipDecompressor.decompress(source, target);
+
+            assertEquals("first,second", Files.readString(target));
+        }
+
+        @Test
+        void ignoresTrailingBytesAfterLastMember() throws IOException {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            content.write(gzip("payload".getBytes(StandardCharsets.UTF_8)));
+            content.write(new byte[]{0, 0, 0, 0});
+            Path source = tempDir.resolve("padded.gz");
+            Files.write(source, content.toByteArray());
+            Path target = tempDir.resolve("padded");
+
+            GzipDecompressor.decompress(source, target);
+
+            assertEquals("payload", Files.readString(target));
+        }
+
+        @Test
+        void overwritesExistingTarget() throws IOException {
+            Path source = tempDir.resolve("short.gz");
+            Files.write(source, gzip("new".getBytes(StandardCharsets.UTF_8)));
+            Path target = tempDir.resolve("short");
+            Files.writeString(target, "previous and longer content");
+
+            GzipDecompressor.decompress(source, target);
+
+            assertEquals("new", Files.readString(target));
+        }
+    }
+
+    @Nested
+    class Corruption {
+
+        @Test
+        void rejectsCrcMismatch() throws IOException {
+            byte[] compressed = gzip("checksummed content".getBytes(StandardCharsets.UTF_8));
+            compressed[compressed.length - 8] ^= 0x01;
+            Path source = tempDir.resolve("crc.gz");
+            Files.write(source, compressed);
+
+            ZipException e = assertThrows(ZipException.class,
+                    () -> GzipDecompressor.decompress(source, tempDir.resolve("crc")));
+            assertTrue(e.getMessage().contains("CRC32"));
+        }
+
+        @Test
+        void rejectsTruncatedStream() throws IOException {
+            byte[] compressed = gzip("truncated content".getBytes(StandardCharsets.UTF_8));
+            Path source = tempDir.resolve("truncated.gz");
+            Files.write(source, Arrays.copyOf(compressed, compressed.length - 10));
+
+            assertThrows(IOException.class, () -> GzipDecompressor.decompress(source, tempDir.resolve("truncated")));
+        }
+
+        @Test
+        void rejectsNonGzipInput() throws IOException {
+            Path source = tempDir.resolve("plain.txt");
+            Files.writeString(source, "not compressed");
+
+            assertFalse(GzipDecompressor.isGzip(source));
+            assertThrows(ZipException.class, () -> GzipDecompressor.decompress(source, tempDir.resolve("plain")));
+        }
+    }
+}
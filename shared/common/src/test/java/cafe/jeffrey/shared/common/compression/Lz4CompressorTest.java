@@ -23,11 +23,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import cafe.jeffrey.shared.common.filesystem.TempDirFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -138,6 +140,50 @@ class Lz4CompressorTest {
         }
     }
 
+    @Nested
+    class Concatenate {
+
+        @Test
+        void concatenatedFramesDecompressToConcatenatedContent() throws IOException {
+            Path first = tempDir.resolve("first.txt");
+            Path second = tempDir.resolve("second.txt");
+            Files.writeString(first, "first part;");
+            Files.writeString(second, "second part");
+
+            Path firstCompressed = Lz4Compressor.compress(first, tempDir.resolve("first.txt.lz4"));
+            Path secondCompressed = Lz4Compressor.compress(second, tempDir.resolve("second.txt.lz4"));
+
+            Path merged = Lz4Compressor.concatenate(
+                    List.of(firstCompressed, secondCompressed), tempDir.resolve("merged.lz4"));
+
+            // Compressed frames are copied as-is
+            assertEquals(Files.size(firstCompressed) + Files.size(secondCompressed), Files.size(merged));
+            try (InputStream stream = Lz4Compressor.decompressStream(merged)) {
+                assertEquals("first part;second part", new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        @Test
+        void uncompressedSourceIsAppendedAsNewFrame() throws IOException {
+            Path first = tempDir.resolve("first.txt");
+            Path second = tempDir.resolve("second.txt");
+            Files.writeString(first, "compressed;");
+            Files.writeString(second, "plain");
+
+            Path firstCompressed = Lz4Compressor.compress(first, tempDir.resolve("first.txt.lz4"));
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            Lz4Compressor.concatenate(List.of(firstCompressed, second), output);
+
+            Path merged = tempDir.resolve("merged.lz4");
+            Files.write(merged, output.toByteArray());
+            Path decompressed = tempDir.resolve("merged.txt");
+            Lz4Compressor.decompress(merged, decompressed);
+
+            assertEquals("compressed;plain", Files.readString(decompressed));
+        }
+    }
+
     @Nested
     class IsLz4Compressed {
 
@@ -37,6 +37,23 @@ public abstract class GrpcClientErrors {
         return exception.getStatus().getCode() == Status.Code.NOT_FOUND;
     }
 
+    /**
+     * Whether the failure, or any of its causes, is a gRPC status that repeating the same call
+     * cannot change: the resource is missing, the request is invalid, or the caller is not allowed
+     * to make it. Transient failures (a dropped connection, an unavailable hub) are not permanent.
+     */
+    public static boolean isPermanent(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof StatusRuntimeException sre) {
+                return switch (sre.getStatus().getCode()) {
+                    case NOT_FOUND, INVALID_ARGUMENT, PERMISSION_DENIED -> true;
+                    default -> false;
+                };
+            }
+        }
+        return false;
+    }
+
     /**
      * Translates an inbound gRPC failure into the application's error model so it surfaces
      * with a meaningful HTTP status instead of a generic internal error: remote NOT_FOUND
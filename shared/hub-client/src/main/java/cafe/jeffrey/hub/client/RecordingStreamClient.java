@@ -20,6 +20,7 @@ package cafe.jeffrey.hub.client;
 
 import cafe.jeffrey.microscope.grpc.client.*;
 
+import io.grpc.Context;
 import io.grpc.StatusRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,8 +35,9 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Iterator;
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
 
 public class RecordingStreamClient {
 
@@ -61,20 +63,6 @@ public class RecordingStreamClient {
         this.tempDirProvider = tempDirProvider;
     }
 
-    public CompletableFuture<Resource> downloadRecordings(
-            String sessionId, List<String> recordingIds) {
-
-        return CompletableFuture.supplyAsync(() -> {
-            DownloadMergedRecordingsRequest request = DownloadMergedRecordingsRequest.newBuilder()
-                    .setSessionId(sessionId)
-                    .addAllFileIds(recordingIds)
-                    .build();
-
-            Iterator<DataChunk> chunks = stub.downloadMergedRecordings(request);
-            return collectChunksToResource(chunks);
-        }, Schedulers.sharedVirtual());
-    }
-
     public CompletableFuture<Resource> downloadArtifactFile(
             String sessionId, String fileId) {
 
@@ -89,40 +77,68 @@ public class RecordingStreamClient {
         }, Schedulers.sharedVirtual());
     }
 
-    public void streamRecordings(
-            String sessionId, List<String> recordingIds, InputStreamConsumer consumer) {
-
-        DownloadMergedRecordingsRequest request = DownloadMergedRecordingsRequest.newBuilder()
-                .setSessionId(sessionId)
-                .addAllFileIds(recordingIds)
-                .build();
+    public void streamArtifactFile(
+            String sessionId, String fileId, InputStreamConsumer consumer) {
 
-        Iterator<DataChunk> chunks = stub.downloadMergedRecordings(request);
-        streamChunksToConsumer(chunks, consumer);
+        streamArtifactFile(sessionId, fileId, 0, consumer);
     }
 
+    /**
+     * Streams the artifact file starting at byte {@code offset}. The consumer still receives the size
+     * of the complete file as the content length.
+     */
     public void streamArtifactFile(
-            String sessionId, String fileId, InputStreamConsumer consumer) {
+            String sessionId, String fileId, long offset, InputStreamConsumer consumer) {
 
         DownloadArtifactFileRequest request = DownloadArtifactFileRequest.newBuilder()
                 .setSessionId(sessionId)
                 .setFileId(fileId)
+                .setOffset(offset)
                 .build();
 
-        Iterator<DataChunk> chunks = stub.downloadArtifactFile(request);
-        streamChunksToConsumer(chunks, consumer);
+        streamCancellable(() -> stub.downloadArtifactFile(request), offset, consumer);
     }
 
     public void streamRecordingFile(
             String sessionId, String fileId, InputStreamConsumer consumer) {
 
+        streamRecordingFile(sessionId, fileId, 0, consumer);
+    }
+
+    /**
+     * Streams the recording file starting at byte {@code offset}. The consumer still receives the
+     * size of the complete file as the content length.
+     */
+    public void streamRecordingFile(
+            String sessionId, String fileId, long offset, InputStreamConsumer consumer) {
+
         DownloadRecordingFileRequest request = DownloadRecordingFileRequest.newBuilder()
                 .setSessionId(sessionId)
                 .setFileId(fileId)
+                .setOffset(offset)
                 .build();
 
-        Iterator<DataChunk> chunks = stub.downloadRecordingFile(request);
-        streamChunksToConsumer(chunks, consumer);
+        streamCancellable(() -> stub.downloadRecordingFile(request), offset, consumer);
+    }
+
+    /**
+     * Starts the streaming call in its own cancellable context, so a download given up on the client
+     * side (the hub cannot resume, a chunk fails verification, the consumer fails) stops the hub
+     * from sending the rest of the file.
+     */
+    private static void streamCancellable(
+            Supplier<Iterator<DataChunk>> call, long offset, InputStreamConsumer consumer) {
+
+        try (Context.CancellableContext context = Context.current().withCancellation()) {
+            Iterator<DataChunk> chunks;
+            Context previous = context.attach();
+            try {
+                chunks = call.get();
+            } finally {
+                context.detach(previous);
+            }
+            streamChunksToConsumer(chunks, offset, consumer, context);
+        }
     }
 
     /**
@@ -154,9 +170,16 @@ public class RecordingStreamClient {
      * The first chunk is fetched synchronously before the consumer starts — the server sends
      * the total size only on the first chunk, so this guarantees the consumer receives the
      * real content length instead of racing against the writer thread.
-     * A virtual thread writes the remaining chunks to the pipe concurrently.
+     * A virtual thread writes the remaining chunks to the pipe concurrently, verifying each
+     * chunk's position and checksum (when the hub sends them) before it reaches the consumer.
+     * Whenever the download is given up, {@code context} is cancelled, which cancels the call.
      */
-    private static void streamChunksToConsumer(Iterator<DataChunk> chunks, InputStreamConsumer consumer) {
+    static void streamChunksToConsumer(
+            Iterator<DataChunk> chunks,
+            long offset,
+            InputStreamConsumer consumer,
+            Context.CancellableContext context) {
+
         DataChunk firstChunk;
         try {
             firstChunk = chunks.hasNext() ? chunks.next() : null;
@@ -164,6 +187,13 @@ public class RecordingStreamClient {
             throw toRuntimeException(e);
         }
 
+        if (offset > 0 && (firstChunk == null || !firstChunk.hasOffset())) {
+            // An older hub ignores the offset and sends the file from its beginning
+            ResumeNotSupportedException error = new ResumeNotSupportedException(offset);
+            context.cancel(error);
+            throw error;
+        }
+
         long contentLength = (firstChunk != null && firstChunk.getTotalSize() > 0)
                 ? firstChunk.getTotalSize()
                 : UNKNOWN_CONTENT_LENGTH;
@@ -176,21 +206,31 @@ public class RecordingStreamClient {
 
             Thread writer = Thread.ofVirtual().start(() -> {
                 try (pipeOut) {
+                    long position = offset;
                     if (firstChunk != null) {
-                        firstChunk.getData().writeTo(pipeOut);
+                        position = writeVerified(firstChunk, position, pipeOut);
                     }
                     while (chunks.hasNext()) {
-                        chunks.next().getData().writeTo(pipeOut);
+                        position = writeVerified(chunks.next(), position, pipeOut);
                     }
                 } catch (Exception e) {
                     writerError[0] = e;
+                    // A chunk failed verification or the call broke: the rest of the file is not wanted
+                    context.cancel(e);
                     LOG.error("Error writing gRPC chunks to pipe", e);
                 }
             });
 
+            boolean consumed = false;
             try {
                 consumer.accept(pipeIn, contentLength);
+                consumed = true;
             } finally {
+                if (!consumed) {
+                    // Stop the hub and release the writer, which may be blocked on a full pipe
+                    context.cancel(null);
+                    pipeIn.close();
+                }
                 writer.join();
                 pipeIn.close();
             }
@@ -206,6 +246,27 @@ public class RecordingStreamClient {
         }
     }
 
+    /**
+     * Writes the chunk's data after checking it continues at {@code position} and matches its
+     * checksum. Hubs predating ranged downloads send neither field; their chunks are written as-is.
+     *
+     * @return the position right after the written chunk
+     */
+    private static long writeVerified(DataChunk chunk, long position, OutputStream out) throws IOException {
+        if (chunk.hasOffset() && chunk.getOffset() != position) {
+            throw new IOException("Unexpected chunk offset: expected=" + position + " actual=" + chunk.getOffset());
+        }
+        if (chunk.hasChecksum()) {
+            CRC32C checksum = new CRC32C();
+            checksum.update(chunk.getData().asReadOnlyByteBuffer());
+            if ((int) checksum.getValue() != chunk.getChecksum()) {
+                throw new IOException("Chunk checksum mismatch: offset=" + position);
+            }
+        }
+        chunk.getData().writeTo(out);
+        return position + chunk.getData().size();
+    }
+
     /**
      * Maps a streaming failure to a RuntimeException, preferring the gRPC status description
      * as the message when available.
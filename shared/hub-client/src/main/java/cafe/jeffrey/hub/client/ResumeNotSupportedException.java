@@ -0,0 +1,38 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.hub.client;
+
+/**
+ * A download was requested from a non-zero offset, but the hub sent the file from its beginning:
+ * it predates ranged downloads. Repeating the request cannot change that, only a download from the
+ * beginning can succeed.
+ */
+public class ResumeNotSupportedException extends RuntimeException {
+
+    private final long offset;
+
+    public ResumeNotSupportedException(long offset) {
+        super("Hub does not support resuming downloads: offset=" + offset);
+        this.offset = offset;
+    }
+
+    public long offset() {
+        return offset;
+    }
+}
@@ -110,4 +110,35 @@ class GrpcClientErrorsTest {
             assertTrue(result.getMessage().contains("NOT_FOUND"));
         }
     }
+
+    @Nested
+    class IsPermanentMethod {
+
+        @Test
+        void notFoundInvalidArgumentAndPermissionDenied_arePermanent() {
+            assertTrue(GrpcClientErrors.isPermanent(grpcError(Status.NOT_FOUND, "File not found")));
+            assertTrue(GrpcClientErrors.isPermanent(grpcError(Status.INVALID_ARGUMENT, "Offset out of range")));
+            assertTrue(GrpcClientErrors.isPermanent(grpcError(Status.PERMISSION_DENIED, "Not allowed")));
+        }
+
+        @Test
+        void transientStatuses_areNotPermanent() {
+            assertFalse(GrpcClientErrors.isPermanent(grpcError(Status.UNAVAILABLE, "Connection reset")));
+            assertFalse(GrpcClientErrors.isPermanent(grpcError(Status.DEADLINE_EXCEEDED, "Deadline exceeded")));
+            assertFalse(GrpcClientErrors.isPermanent(grpcError(Status.INTERNAL, "Stream broken")));
+        }
+
+        @Test
+        void findsTheStatusInTheCauseChain() {
+            RuntimeException wrapped = new RuntimeException(
+                    "File not found", grpcError(Status.NOT_FOUND, "File not found"));
+
+            assertTrue(GrpcClientErrors.isPermanent(wrapped));
+        }
+
+        @Test
+        void failureWithoutStatus_isNotPermanent() {
+            assertFalse(GrpcClientErrors.isPermanent(new RuntimeException("Pipe closed")));
+        }
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.hub.client;
+
+import com.google.protobuf.ByteString;
+import io.grpc.Context;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import cafe.jeffrey.hub.api.v1.DataChunk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordingStreamClientTest {
+
+    private static DataChunk chunk(String data, long offset) {
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes);
+        return DataChunk.newBuilder()
+                .setData(ByteString.copyFrom(bytes))
+                .setOffset(offset)
+                .setChecksum((int) checksum.getValue())
+                .build();
+    }
+
+    private static DataChunk legacyChunk(String data) {
+        return DataChunk.newBuilder()
+                .setData(ByteString.copyFromUtf8(data))
+                .build();
+    }
+
+    private static String stream(List<DataChunk> chunks, long offset, Context.CancellableContext context) {
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        RecordingStreamClient.streamChunksToConsumer(
+                chunks.iterator(), offset, (in, _) -> in.transferTo(received), context);
+        return received.toString(StandardCharsets.UTF_8);
+    }
+
+    @Nested
+    class VerifiedChunks {
+
+        @Test
+        void writesChunksContinuingAtRequestedOffset() {
+            Context.CancellableContext context = Context.current().withCancellation();
+
+            String received = stream(List.of(chunk("abc", 10), chunk("def", 13)), 10, context);
+
+            assertEquals("abcdef", received);
+            assertFalse(context.isCancelled());
+        }
+
+        @Test
+        void writesChunksOfHubWithoutVerification() {
+            Context.CancellableContext context = Context.current().withCancellation();
+
+            String received = stream(List.of(legacyChunk("abc"), legacyChunk("def")), 0, context);
+
+            assertEquals("abcdef", received);
+            assertFalse(context.isCancelled());
+        }
+
+        @Test
+        void unexpectedOffset_failsAndCancelsCall() {
+            Context.CancellableContext context = Context.current().withCancellation();
+
+            RuntimeException error = assertThrows(RuntimeException.class,
+                    () -> stream(List.of(chunk("abc", 0), chunk("def", 5)), 0, context));
+
+            assertInstanceOf(IOException.class, error.getCause());
+            assertTrue(error.getMessage().contains("Unexpected chunk offset"));
+            assertTrue(context.isCancelled());
+        }
+
+        @Test
+        void checksumMismatch_failsAndCancelsCall() {
+            Context.CancellableContext context = Context.current().withCancellation();
+            DataChunk corrupted = chunk("def", 3).toBuilder()
+                    .setData(ByteString.copyFromUtf8("dxf"))
+                    .build();
+
+            RuntimeException error = assertThrows(RuntimeException.class,
+                    () -> stream(List.of(chunk("abc", 0), corrupted), 0, context));
+
+            assertInstanceOf(IOException.class, error.getCause());
+            assertTrue(error.getMessage().contains("Chunk checksum mismatch"));
+            assertTrue(context.isCancelled());
+        }
+    }
+
+    @Nested
+    class Resume {
+
+        @Test
+        void hubIgnoringOffset_throwsResumeNotSupportedAndCancelsCall() {
+            Context.CancellableContext context = Context.current().withCancellation();
+
+            ResumeNotSupportedException error = assertThrows(ResumeNotSupportedException.class,
+                    () -> stream(List.of(legacyChunk("abc")), 10, context));
+
+            assertEquals(10, error.offset());
+            assertTrue(context.isCancelled());
+        }
+
+        @Test
+        void emptyStreamFromOffset_throwsResumeNotSupported() {
+            Context.CancellableContext context = Context.current().withCancellation();
+
+            assertThrows(ResumeNotSupportedException.class, () -> stream(List.of(), 10, context));
+            assertTrue(context.isCancelled());
+        }
+    }
+
+    @Nested
+    class ConsumerFailure {
+
+        @Test
+        void failingConsumer_cancelsCall() {
+            Context.CancellableContext context = Context.current().withCancellation();
+
+            assertThrows(RuntimeException.class, () -> RecordingStreamClient.streamChunksToConsumer(
+                    List.of(chunk("abc", 0), chunk("def", 3)).iterator(), 0,
+                    (_, _) -> {
+                        throw new IOException("disk full");
+                    },
+                    context));
+
+            assertTrue(context.isCancelled());
+        }
+    }
+}
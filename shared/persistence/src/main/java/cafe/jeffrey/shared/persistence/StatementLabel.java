@@ -62,10 +62,13 @@ public enum StatementLabel {
      */
     FIND_LATEST_JSON,
     STREAM_EVENTS,
+    MATERIALIZE_TYPED_EVENTS,
+    FIND_TYPED_EVENT_TABLES,
     LOAD_FRAMES_CACHE,
     LIST_SPANS,
     SPAN_EVENTS,
     LOAD_SPAN_NAME_TEMPLATES,
+    STAGE_SPAN_EVENTS,
     DERIVE_TRACE_SPANS,
     DERIVE_BLOCKING_SPANS,
     DERIVE_TRACES,
@@ -160,6 +163,7 @@ public enum StatementLabel {
      */
     INSERT_EVENT_TYPES,
     INSERT_EVENTS,
+    INSERT_SPAN_EVENTS,
     INSERT_STACKTRACES,
     INSERT_THREADS,
     INSERT_FRAMES,
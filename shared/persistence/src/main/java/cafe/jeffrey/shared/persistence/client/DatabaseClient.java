@@ -37,6 +37,7 @@ import cafe.jeffrey.shared.persistence.StatementLabel;
 
 import javax.sql.DataSource;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
@@ -51,6 +52,24 @@ public class DatabaseClient {
     private static final String DROP_TABLE_TEMPLATE = "DROP TABLE %s";
     //language=SQL
     private static final String RENAME_TABLE_TEMPLATE = "ALTER TABLE %s RENAME TO %s";
+    //language=SQL
+    private static final String CREATE_ENCODED_SORTED_TABLE_TEMPLATE =
+            "CREATE TABLE %s AS SELECT * REPLACE (%s) FROM %s ORDER BY %s";
+    //language=SQL
+    private static final String DROP_TYPE_TEMPLATE = "DROP TYPE IF EXISTS %s";
+    //language=SQL
+    private static final String CREATE_ENUM_TYPE_TEMPLATE =
+            "CREATE TYPE %s AS ENUM (SELECT DISTINCT %s FROM %s WHERE %s IS NOT NULL ORDER BY %s)";
+    //language=SQL
+    private static final String COUNT_DISTINCT_TEMPLATE = "SELECT COUNT(DISTINCT %s) FROM %s";
+    private static final String DICTIONARY_TYPE_SUFFIX = "_dict";
+
+    /**
+     * Largest number of distinct values a column is dictionary-encoded with. Up to this count DuckDB stores
+     * the ENUM ordinals in two bytes; above it they take four and DuckDB's own dictionary compression of
+     * VARCHAR segments serves just as well without materializing a huge type.
+     */
+    public static final long MAX_DICTIONARY_VALUES = 65_535;
 
     private final NamedParameterJdbcOperations delegate;
     private final TransactionOperations transactionOperations;
@@ -304,13 +323,48 @@ public class DatabaseClient {
      * be used for tables without constraints relied upon afterwards.
      */
     public void recreateTableClustered(String tableName, List<String> orderByColumns) {
+        recreateTableClustered(tableName, orderByColumns, List.of());
+    }
+
+    /**
+     * Same as {@link #recreateTableClustered(String, List)}, but additionally dictionary-encodes the
+     * given low-cardinality VARCHAR columns: an {@code ENUM} type is built from the distinct values
+     * found in the table (named {@code <table>_<column>_dict}) and the column is cast to it during the
+     * rewrite. Values are stored as small ordinals, while comparisons with string literals, string
+     * functions and JDBC {@code getString} keep working unchanged, so queries need no rewrite. A literal or
+     * bound value missing from the enum (e.g. an event type the recording does not contain) matches no row.
+     *
+     * <p>The enum values are sorted, so ordering by an encoded column stays lexicographic. The table
+     * must not receive new values afterwards — only values captured in the enum can be inserted.
+     * A column with more than {@link #MAX_DICTIONARY_VALUES} distinct values stays VARCHAR.
+     */
+    public void recreateTableClustered(String tableName, List<String> orderByColumns, List<String> dictionaryColumns) {
         if (orderByColumns == null || orderByColumns.isEmpty()) {
             throw new IllegalArgumentException("At least one clustering column is required");
         }
 
+        List<String> replacements = new ArrayList<>();
+        for (String column : dictionaryColumns == null ? List.<String>of() : dictionaryColumns) {
+            // An ENUM needs at least one value; an all-NULL or high-cardinality column stays VARCHAR
+            long distinctValues = queryLong(StatementLabel.RECREATE_TABLE_CLUSTERED,
+                    COUNT_DISTINCT_TEMPLATE.formatted(column, tableName), new EmptySqlParameterSource());
+            if (distinctValues == 0 || distinctValues > MAX_DICTIONARY_VALUES) {
+                continue;
+            }
+            String typeName = tableName + "_" + column + DICTIONARY_TYPE_SUFFIX;
+            execute(StatementLabel.RECREATE_TABLE_CLUSTERED, DROP_TYPE_TEMPLATE.formatted(typeName));
+            execute(StatementLabel.RECREATE_TABLE_CLUSTERED, CREATE_ENUM_TYPE_TEMPLATE.formatted(
+                    typeName, column, tableName, column, column));
+            replacements.add(column + "::" + typeName + " AS " + column);
+        }
+
         String sortedTableName = tableName + CLUSTERED_TABLE_SUFFIX;
-        execute(StatementLabel.RECREATE_TABLE_CLUSTERED, CREATE_SORTED_TABLE_TEMPLATE.formatted(
-                sortedTableName, tableName, String.join(", ", orderByColumns)));
+        String orderBy = String.join(", ", orderByColumns);
+        String createSortedTable = replacements.isEmpty()
+                ? CREATE_SORTED_TABLE_TEMPLATE.formatted(sortedTableName, tableName, orderBy)
+                : CREATE_ENCODED_SORTED_TABLE_TEMPLATE.formatted(
+                        sortedTableName, String.join(", ", replacements), tableName, orderBy);
+        execute(StatementLabel.RECREATE_TABLE_CLUSTERED, createSortedTable);
         execute(StatementLabel.RECREATE_TABLE_CLUSTERED, DROP_TABLE_TEMPLATE.formatted(tableName));
         execute(StatementLabel.RECREATE_TABLE_CLUSTERED, RENAME_TABLE_TEMPLATE.formatted(sortedTableName, tableName));
     }
@@ -20,36 +20,46 @@ package cafe.jeffrey.recordings.core;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.Resource;
+import cafe.jeffrey.hub.client.GrpcClientErrors;
 import cafe.jeffrey.hub.client.manager.TempDirProvider;
 import cafe.jeffrey.hub.client.RecordingStreamClient;
 import cafe.jeffrey.hub.client.RepositoryClient;
+import cafe.jeffrey.hub.client.ResumeNotSupportedException;
 import cafe.jeffrey.recordings.core.download.FileProgress;
 import cafe.jeffrey.recordings.core.download.ProgressCallback;
 import cafe.jeffrey.recordings.core.download.ProgressTrackingInputStream;
+import cafe.jeffrey.recordings.core.download.RecordingFileCache;
 import cafe.jeffrey.recordings.core.manager.RecordingsCoreManager;
 import cafe.jeffrey.hub.client.dto.RecordingSessionResponse;
 import cafe.jeffrey.hub.client.dto.RepositoryFileResponse;
+import cafe.jeffrey.shared.common.compression.Lz4Compressor;
 import cafe.jeffrey.shared.common.exception.Exceptions;
 import cafe.jeffrey.shared.common.filesystem.FileSystemUtils;
 import cafe.jeffrey.shared.common.filesystem.TempDirectory;
 import cafe.jeffrey.shared.common.model.repository.RepositoryFile;
+import cafe.jeffrey.shared.common.model.repository.SupportedRecordingFile;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Semaphore;
 
 import cafe.jeffrey.shared.common.Schedulers;
@@ -68,7 +78,32 @@ public class RemoteRecordingsDownloadManager implements RecordingsDownloadManage
      */
     private static final String PARTIAL_FILE_SUFFIX = ".part";
 
+    /**
+     * Number of consecutive resume attempts that may fail without receiving any new bytes before
+     * the download is given up. Attempts that extend the partial file reset the count.
+     */
+    static final int MAX_STALLED_ATTEMPTS = 3;
+
+    /**
+     * Magic number starting every LZ4 frame (0x184D2204, little-endian).
+     */
+    private static final byte[] LZ4_FRAME_MAGIC = {0x04, 0x22, 0x4D, 0x18};
+
+    /**
+     * Pause before resuming an interrupted download.
+     */
+    private static final Duration RESUME_BACKOFF = Duration.ofSeconds(1);
+
+    /**
+     * A download that can be started at an arbitrary byte offset of the remote file.
+     */
+    @FunctionalInterface
+    interface RangedDownload {
+        void stream(long offset, RecordingStreamClient.InputStreamConsumer consumer);
+    }
+
     private final TempDirProvider tempDirProvider;
+    private final RecordingFileCache fileCache;
     private final RecordingStreamClient recordingStreamClient;
     private final RepositoryClient repositoryClient;
     private final RecordingsCoreManager recordingsManager;
@@ -77,6 +112,7 @@ public class RemoteRecordingsDownloadManager implements RecordingsDownloadManage
 
     public RemoteRecordingsDownloadManager(
             TempDirProvider tempDirProvider,
+            RecordingFileCache fileCache,
             RecordingStreamClient recordingStreamClient,
             RepositoryClient repositoryClient,
             RecordingsCoreManager recordingsManager,
@@ -84,6 +120,7 @@ public class RemoteRecordingsDownloadManager implements RecordingsDownloadManage
             String projectName) {
 
         this.tempDirProvider = tempDirProvider;
+        this.fileCache = fileCache;
         this.recordingStreamClient = recordingStreamClient;
         this.repositoryClient = repositoryClient;
         this.recordingsManager = recordingsManager;
@@ -101,7 +138,7 @@ public class RemoteRecordingsDownloadManager implements RecordingsDownloadManage
                 .filter(RepositoryFile::isFinished)
                 .toList();
 
-        processRecordingSession(recordingSessionId, files);
+        processRecordingSession(recordingSession, files, NoProgress.INSTANCE);
     }
 
     @Override
@@ -116,63 +153,7 @@ public class RemoteRecordingsDownloadManager implements RecordingsDownloadManage
                 .filter(file -> requestedFileIds.contains(file.id()))
                 .toList();
 
-        processRecordingSession(recordingSessionId, files);
-    }
-
-    // TODO: Simplify this behaviour
-    private void processRecordingSession(String recordingSessionId, List<RepositoryFile> files) {
-        // At least one recording file must be present, otherwise nothing to merge and download
-        // 0...n additional recording files can be present (e.g. HeapDump, logs, etc.)
-        if (files.stream().noneMatch(RepositoryFile::isRecordingFile)) {
-            throw Exceptions.emptyRecordingSession(recordingSessionId);
-        }
-
-        List<String> onlyRecordingFileIds = files.stream()
-                .filter(RepositoryFile::isRecordingFile)
-                .filter(RepositoryFile::isFinished)
-                .map(RepositoryFile::id)
-                .toList();
-
-        try (TempDirectory tempDir = tempDirProvider.newTempDir()) {
-            // Download the merged recording file
-            CompletableFuture<Path> recordingF = recordingStreamClient.downloadRecordings(
-                            recordingSessionId, onlyRecordingFileIds)
-                    .thenApply(resource -> copyToTempDir(resource, tempDir));
-
-            // Download artifact files (heap dumps, logs, etc.)
-            List<CompletableFuture<Path>> artifactsF = files.stream()
-                    .filter(RepositoryFile::isArtifactFile)
-                    .map(file -> recordingStreamClient.downloadArtifactFile(
-                                    recordingSessionId, file.id())
-                            .thenApply(resource -> copyToTempDir(resource, tempDir)))
-                    .toList();
-
-            // Wait for all downloads to complete
-            Path recordingPath = recordingF.join();
-            List<Path> artifactPaths = artifactsF.stream()
-                    .map(CompletableFuture::join)
-                    .toList();
-
-            // Persist into Recordings storage with origin tags
-            persistToRecordings(recordingSessionId, recordingPath, artifactPaths);
-        }
-    }
-
-    private static Path copyToTempDir(Resource resource, TempDirectory tempDir) {
-        try {
-            String filename = resource.getFilename();
-            Path target = tempDir.resolve(filename);
-            // ATOMIC_MOVE is not a valid option for Files.copy (throws UnsupportedOperationException),
-            // stream into a partial file in the same directory and move it atomically afterwards.
-            Path partial = tempDir.resolve(filename + PARTIAL_FILE_SUFFIX);
-            try (InputStream in = resource.getInputStream()) {
-                Files.copy(in, partial, StandardCopyOption.REPLACE_EXISTING);
-            }
-            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-            return target;
-        } catch (IOException e) {
-            throw new RuntimeException("Cannot copy file from remote source", e);
-        }
+        processRecordingSession(recordingSession, files, NoProgress.INSTANCE);
     }
 
     /**
@@ -198,10 +179,17 @@ public class RemoteRecordingsDownloadManager implements RecordingsDownloadManage
                 .filter(file -> requestedFileIds.contains(file.id()))
                 .toList();
 
-        processRecordingSessionWithProgress(recordingSession, files, progressCallback);
+        processRecordingSession(recordingSession, files, progressCallback);
     }
 
-    private void processRecordingSessionWithProgress(
+    /**
+     * Fetches the selected recording files and artifacts of the session, merges the recording files
+     * locally and persists the result into Recordings storage. Every file is served from the local
+     * {@link RecordingFileCache} when possible, so only files that have not been fetched before go over
+     * the network; the merge is the same concatenation of LZ4 frames the hub would have produced.
+     * A failed artifact download is reported and skipped, a failed recording file fails the download.
+     */
+    private void processRecordingSession(
             RecordingSessionResponse recordingSession,
             List<RepositoryFile> files,
             ProgressCallback progressCallback) {
@@ -213,22 +201,19 @@ public class RemoteRecordingsDownloadManager implements RecordingsDownloadManage
             throw Exceptions.emptyRecordingSession(recordingSessionId);
         }
 
+        // Same order as the merge on the hub, JFR chunks follow each other in time
         List<RepositoryFile> recordingFiles = files.stream()
                 .filter(RepositoryFile::isRecordingFile)
+                .sorted(Comparator.comparing(
+                        RepositoryFile::createdAt, Comparator.nullsLast(Comparator.naturalOrder())))
                 .toList();
 
         List<RepositoryFile> artifactFiles = files.stream()
                 .filter(RepositoryFile::isArtifactFile)
                 .toList();
 
-        List<String> recordingFileIds = recordingFiles.stream()
-                .map(RepositoryFile::id)
-                .toList();
-
-        // Calculate total: 1 merged recording + individual artifact files
-        long mergedSizeEstimate = recordingFiles.stream().mapToLong(RepositoryFile::size).sum();
-        long totalBytes = files.stream().mapToLong(RepositoryFile::size).sum();
-        int totalFiles = 1 + artifactFiles.size();
+        long totalBytes = files.stream().mapToLong(RemoteRecordingsDownloadManager::sizeOf).sum();
+        int totalFiles = recordingFiles.size() + artifactFiles.size();
         String mergedFileName = buildMergedFileName(recordingSession);
 
         LOG.info("Starting parallel download with progress tracking: sessionId={} files={} totalBytes={} maxConcurrent={}",
@@ -239,9 +224,8 @@ public class RemoteRecordingsDownloadManager implements RecordingsDownloadManage
 
         // Report all files as pending upfront so the UI can show them immediately
         List<FileProgress> pendingFiles = new ArrayList<>();
-        pendingFiles.add(FileProgress.pending(mergedFileName, mergedSizeEstimate));
-        for (RepositoryFile artifact : artifactFiles) {
-            pendingFiles.add(FileProgress.pending(artifact.name(), artifact.size()));
+        for (RepositoryFile file : files) {
+            pendingFiles.add(FileProgress.pending(file.name(), sizeOf(file)));
         }
         progressCallback.onFilesDiscovered(pendingFiles);
 
@@ -252,76 +236,63 @@ public class RemoteRecordingsDownloadManager implements RecordingsDownloadManage
 
         // Semaphore to limit concurrent downloads
         Semaphore downloadSemaphore = new Semaphore(MAX_CONCURRENT_DOWNLOADS);
+        AbortableProgress downloadProgress = new AbortableProgress(progressCallback);
 
         try (TempDirectory tempDir = tempDirProvider.newTempDir()) {
-            // Download merged recording file with streaming progress
-
-            if (progressCallback.isCancelled()) {
-                throw new CancellationException("Download cancelled");
+            // Recording files are stored under their position in the merge, their names may collide
+            List<CompletableFuture<Path>> recordingFutures = new ArrayList<>();
+            for (int i = 0; i < recordingFiles.size(); i++) {
+                RepositoryFile recordingFile = recordingFiles.get(i);
+                Path partPath = tempDir.resolve("part-" + i);
+                recordingFutures.add(CompletableFuture.supplyAsync(() -> {
+                    fetchWithLimit(downloadSemaphore, recordingFile, partPath,
+                            (offset, consumer) -> recordingStreamClient.streamRecordingFile(
+                                    recordingSessionId, recordingFile.id(), offset, consumer),
+                            downloadProgress);
+                    return partPath;
+                }, Schedulers.sharedVirtual()));
             }
 
-            Path recordingPath = tempDir.resolve(mergedFileName);
-            recordingStreamClient.streamRecordings(
-                    recordingSessionId, recordingFileIds,
-                    (inputStream, contentLength) -> {
-                        long actualSize = contentLength > 0 ? contentLength : mergedSizeEstimate;
-                        progressCallback.onFileStart(mergedFileName, actualSize);
-                        streamToFileWithProgress(
-                                inputStream, recordingPath, mergedFileName, progressCallback);
-                    });
+            // Download artifact files in parallel with concurrency limit
+            List<CompletableFuture<Path>> artifactFutures = artifactFiles.stream()
+                    .map(artifactFile -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            Path artifactPath = tempDir.resolve(artifactFile.name());
+                            fetchWithLimit(downloadSemaphore, artifactFile, artifactPath,
+                                    (offset, consumer) -> recordingStreamClient.streamArtifactFile(
+                                            recordingSessionId, artifactFile.id(), offset, consumer),
+                                    downloadProgress);
+                            return artifactPath;
+                        } catch (CancellationException e) {
+                            return null;
+                        } catch (Exception e) {
+                            LOG.warn("Failed to download artifact: file={} error={}", artifactFile.name(), e.getMessage());
+                            progressCallback.onFileError(artifactFile.name(), e.getMessage());
+                            return null;
+                        }
+                    }, Schedulers.sharedVirtual()))
+                    .toList();
 
-            LOG.info("Recording file received: file={} size={}", mergedFileName, FileSystemUtils.size(recordingPath));
-            progressCallback.onFileComplete(mergedFileName);
+            // Wait for all downloads to complete, a failed recording file fails the whole download.
+            // The other downloads are stopped and awaited first, they write into the temp directory.
+            List<Path> recordingParts = new ArrayList<>();
+            try {
+                for (CompletableFuture<Path> future : recordingFutures) {
+                    recordingParts.add(joinUnwrapped(future));
+                }
+            } catch (RuntimeException e) {
+                downloadProgress.abort();
+                awaitQuietly(recordingFutures);
+                awaitQuietly(artifactFutures);
+                throw e;
+            }
 
-            // Download artifact files in parallel with concurrency limit
+            // Collect successful downloads (filter out nulls from failed/cancelled downloads)
             List<Path> artifactPaths = new ArrayList<>();
-
-            if (!artifactFiles.isEmpty()) {
-                List<CompletableFuture<Path>> artifactFutures = artifactFiles.stream()
-                        .map(artifactFile -> CompletableFuture.supplyAsync(() -> {
-                            try {
-                                downloadSemaphore.acquire();
-                                try {
-                                    if (progressCallback.isCancelled()) {
-                                        return null;
-                                    }
-
-                                    Path artifactPath = tempDir.resolve(artifactFile.name());
-                                    recordingStreamClient.streamArtifactFile(
-                                            recordingSessionId, artifactFile.id(),
-                                            (inputStream, contentLength) -> {
-                                                long actualSize = contentLength > 0 ? contentLength : artifactFile.size();
-                                                progressCallback.onFileStart(artifactFile.name(), actualSize);
-                                                streamToFileWithProgress(
-                                                        inputStream, artifactPath, artifactFile.name(), progressCallback);
-                                            });
-
-                                    progressCallback.onFileComplete(artifactFile.name());
-                                    return artifactPath;
-                                } finally {
-                                    downloadSemaphore.release();
-                                }
-                            } catch (InterruptedException e) {
-                                Thread.currentThread().interrupt();
-                                progressCallback.onFileError(artifactFile.name(), "Download interrupted");
-                                return null;
-                            } catch (Exception e) {
-                                LOG.warn("Failed to download artifact: file={} error={}", artifactFile.name(), e.getMessage());
-                                progressCallback.onFileError(artifactFile.name(), e.getMessage());
-                                return null;
-                            }
-                        }, Schedulers.sharedVirtual()))
-                        .toList();
-
-                // Wait for all artifact downloads to complete
-                CompletableFuture.allOf(artifactFutures.toArray(new CompletableFuture[0])).join();
-
-                // Collect successful downloads (filter out nulls from failed/cancelled downloads)
-                for (CompletableFuture<Path> future : artifactFutures) {
-                    Path path = future.join();
-                    if (path != null) {
-                        artifactPaths.add(path);
-                    }
+            for (CompletableFuture<Path> future : artifactFutures) {
+                Path path = future.join();
+                if (path != null) {
+                    artifactPaths.add(path);
                 }
             }
 
@@ -333,6 +304,11 @@ public class RemoteRecordingsDownloadManager implements RecordingsDownloadManage
             // Processing phase
             progressCallback.onProcessing();
 
+            Path recordingPath = Lz4Compressor.concatenate(
+                    withFormatExtensions(recordingParts), tempDir.resolve(mergedFileName));
+            LOG.info("Recording file merged: file={} parts={} size={}",
+                    mergedFileName, recordingParts.size(), FileSystemUtils.size(recordingPath));
+
             // Persist into Recordings storage with origin tags
             persistToRecordings(recordingSessionId, recordingPath, artifactPaths);
 
@@ -350,15 +326,216 @@ public class RemoteRecordingsDownloadManager implements RecordingsDownloadManage
         }
     }
 
-    private static void streamToFileWithProgress(
+    /**
+     * Fetches the file while holding a download permit, see {@link #fetchFile}.
+     */
+    private void fetchWithLimit(
+            Semaphore downloadSemaphore,
+            RepositoryFile file,
+            Path target,
+            RangedDownload download,
+            ProgressCallback progressCallback) {
+
+        try {
+            downloadSemaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Download interrupted");
+        }
+        try {
+            if (progressCallback.isCancelled()) {
+                throw new CancellationException("Download cancelled");
+            }
+            fetchFile(file, target, download, progressCallback);
+        } finally {
+            downloadSemaphore.release();
+        }
+    }
+
+    /**
+     * Places the file at {@code target}: from the local cache when it holds the file, otherwise
+     * downloaded from the hub and added to the cache afterwards. A file the hub reports without its
+     * size or creation time bypasses the cache, its identity would not tell different contents apart.
+     */
+    private void fetchFile(
+            RepositoryFile file,
+            Path target,
+            RangedDownload download,
+            ProgressCallback progressCallback) {
+
+        if (file.size() == null || file.createdAt() == null) {
+            downloadResumable(download, target, file.name(), sizeOf(file), progressCallback);
+            progressCallback.onFileComplete(file.name());
+            return;
+        }
+
+        RecordingFileCache.Key key = new RecordingFileCache.Key(
+                originContext.hubId(), file.id(), file.size(), file.createdAt().toEpochMilli());
+
+        if (fileCache.materialize(key, target)) {
+            LOG.debug("File served from the local cache: file={}", file.name());
+            progressCallback.onFileStart(file.name(), sizeOf(file));
+            progressCallback.onFileComplete(file.name());
+            return;
+        }
+
+        downloadResumable(download, target, file.name(), sizeOf(file), progressCallback);
+        fileCache.put(key, target);
+        progressCallback.onFileComplete(file.name());
+    }
+
+    /**
+     * The hub serves recording files LZ4 compressed, but {@link Lz4Compressor#concatenate} tells the
+     * format by the extension, so the downloaded parts get one according to their magic bytes.
+     */
+    static List<Path> withFormatExtensions(List<Path> parts) {
+        List<Path> named = new ArrayList<>(parts.size());
+        for (Path part : parts) {
+            try {
+                SupportedRecordingFile format = startsWithLz4Magic(part)
+                        ? SupportedRecordingFile.JFR_LZ4
+                        : SupportedRecordingFile.JFR;
+                Path target = part.resolveSibling(format.appendExtension(part.getFileName().toString()));
+                named.add(Files.move(part, target, StandardCopyOption.REPLACE_EXISTING));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot prepare the recording file for merging: " + part, e);
+            }
+        }
+        return named;
+    }
+
+    private static boolean startsWithLz4Magic(Path file) throws IOException {
+        byte[] header = new byte[LZ4_FRAME_MAGIC.length];
+        try (InputStream in = Files.newInputStream(file)) {
+            return in.readNBytes(header, 0, header.length) == header.length
+                    && Arrays.equals(header, LZ4_FRAME_MAGIC);
+        }
+    }
+
+    private static Path joinUnwrapped(CompletableFuture<Path> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until all the futures are done, whatever their outcome.
+     */
+    private static void awaitQuietly(List<CompletableFuture<Path>> futures) {
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((_, _) -> null)
+                .join();
+    }
+
+    private static long sizeOf(RepositoryFile file) {
+        return file.size() != null ? file.size() : 0;
+    }
+
+    /**
+     * Downloads a file into {@code <target>.part} and moves it to {@code target} once complete. When
+     * the transfer breaks, it resumes from the current length of the partial file instead of starting
+     * over; it gives up after {@link #MAX_STALLED_ATTEMPTS} consecutive attempts that bring no new
+     * bytes. A hub that cannot resume makes the download restart from the beginning, and from then on
+     * every broken attempt counts as stalled, since none of its bytes are kept. A failure that no
+     * retry can fix (the file is gone, the request is invalid or not permitted) fails right away.
+     */
+    static void downloadResumable(
+            RangedDownload download,
+            Path target,
+            String fileName,
+            long sizeEstimate,
+            ProgressCallback progressCallback) {
+
+        downloadResumable(download, target, fileName, sizeEstimate, progressCallback, RESUME_BACKOFF);
+    }
+
+    static void downloadResumable(
+            RangedDownload download,
+            Path target,
+            String fileName,
+            long sizeEstimate,
+            ProgressCallback progressCallback,
+            Duration resumeBackoff) {
+
+        Path partial = target.resolveSibling(target.getFileName() + PARTIAL_FILE_SUFFIX);
+        boolean[] started = {false};
+        long[] expectedSize = {-1};
+        int stalledAttempts = 0;
+        boolean resumable = true;
+
+        try {
+            Files.deleteIfExists(partial);
+            while (true) {
+                if (!resumable) {
+                    Files.deleteIfExists(partial);
+                }
+                long offset = partialSize(partial);
+                try {
+                    download.stream(offset, (inputStream, contentLength) -> {
+                        if (!started[0]) {
+                            long actualSize = contentLength > 0 ? contentLength : sizeEstimate;
+                            progressCallback.onFileStart(fileName, actualSize);
+                            started[0] = true;
+                        }
+                        expectedSize[0] = contentLength;
+                        appendToFileWithProgress(inputStream, partial, offset, fileName, progressCallback);
+                    });
+                    break;
+                } catch (CancellationException e) {
+                    throw e;
+                } catch (ResumeNotSupportedException e) {
+                    // Only thrown for a non-zero offset, a restart from the beginning cannot repeat it
+                    LOG.warn("Hub cannot resume the download, restarting it: file={} offset={}", fileName, offset);
+                    resumable = false;
+                } catch (RuntimeException e) {
+                    if (GrpcClientErrors.isPermanent(e)) {
+                        throw e;
+                    }
+                    if (resumable && partialSize(partial) > offset) {
+                        stalledAttempts = 0;
+                    } else if (++stalledAttempts >= MAX_STALLED_ATTEMPTS) {
+                        throw e;
+                    }
+                    LOG.warn("Download interrupted, resuming: file={} offset={} error={}",
+                            fileName, partialSize(partial), e.getMessage());
+                    Thread.sleep(resumeBackoff);
+                }
+            }
+
+            long size = partialSize(partial);
+            if (expectedSize[0] > 0 && size != expectedSize[0]) {
+                throw new IOException("Incomplete download: file=" + fileName
+                        + " expected=" + expectedSize[0] + " actual=" + size);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot download file from remote source: " + fileName, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Download interrupted");
+        }
+    }
+
+    private static long partialSize(Path partial) throws IOException {
+        return Files.exists(partial) ? Files.size(partial) : 0;
+    }
+
+    private static void appendToFileWithProgress(
             InputStream source,
             Path target,
+            long initialBytes,
             String fileName,
             ProgressCallback progressCallback) throws IOException {
 
         try (InputStream in = new ProgressTrackingInputStream(
-                source, fileName, progressCallback::onFileProgress);
-             OutputStream out = Files.newOutputStream(target)) {
+                source, fileName, initialBytes, progressCallback::onFileProgress);
+             OutputStream out = Files.newOutputStream(
+                     target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
 
             byte[] buffer = new byte[8192];
             int bytesRead;
@@ -399,4 +576,121 @@ public class RemoteRecordingsDownloadManager implements RecordingsDownloadManage
         recordingsManager.createDownloadedRecording(
                 recordingSessionId, recordingPath, artifactPaths, originTags);
     }
+
+    /**
+     * Progress callback of the file downloads of one session. Once aborted it reports them as
+     * cancelled, so the downloads still running stop at their next buffer and the queued ones
+     * never start.
+     */
+    private static final class AbortableProgress implements ProgressCallback {
+
+        private final ProgressCallback delegate;
+        private volatile boolean aborted;
+
+        private AbortableProgress(ProgressCallback delegate) {
+            this.delegate = delegate;
+        }
+
+        void abort() {
+            aborted = true;
+        }
+
+        @Override
+        public void onStart(int totalFiles, long totalBytes) {
+            delegate.onStart(totalFiles, totalBytes);
+        }
+
+        @Override
+        public void onFilesDiscovered(List<FileProgress> pendingFiles) {
+            delegate.onFilesDiscovered(pendingFiles);
+        }
+
+        @Override
+        public void onFileStart(String fileName, long fileSize) {
+            delegate.onFileStart(fileName, fileSize);
+        }
+
+        @Override
+        public void onFileProgress(String fileName, long bytesDownloaded) {
+            delegate.onFileProgress(fileName, bytesDownloaded);
+        }
+
+        @Override
+        public void onFileComplete(String fileName) {
+            delegate.onFileComplete(fileName);
+        }
+
+        @Override
+        public void onFileError(String fileName, String errorMessage) {
+            delegate.onFileError(fileName, errorMessage);
+        }
+
+        @Override
+        public void onProcessing() {
+            delegate.onProcessing();
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+
+        @Override
+        public void onError(String errorMessage) {
+            delegate.onError(errorMessage);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return aborted || delegate.isCancelled();
+        }
+    }
+
+    /**
+     * Progress callback of the downloads that do not report progress.
+     */
+    enum NoProgress implements ProgressCallback {
+        INSTANCE;
+
+        @Override
+        public void onStart(int totalFiles, long totalBytes) {
+        }
+
+        @Override
+        public void onFilesDiscovered(List<FileProgress> pendingFiles) {
+        }
+
+        @Override
+        public void onFileStart(String fileName, long fileSize) {
+        }
+
+        @Override
+        public void onFileProgress(String fileName, long bytesDownloaded) {
+        }
+
+        @Override
+        public void onFileComplete(String fileName) {
+        }
+
+        @Override
+        public void onFileError(String fileName, String errorMessage) {
+        }
+
+        @Override
+        public void onProcessing() {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        @Override
+        public void onError(String errorMessage) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    }
 }
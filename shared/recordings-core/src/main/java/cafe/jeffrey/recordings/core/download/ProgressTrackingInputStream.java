@@ -37,8 +37,8 @@ public class ProgressTrackingInputStream extends FilterInputStream {
 
     private final String fileName;
     private final BiConsumer<String, Long> progressConsumer;
-    private long bytesRead = 0;
-    private long lastReportedBytes = 0;
+    private long bytesRead;
+    private long lastReportedBytes;
 
     /**
      * Creates a progress tracking input stream.
@@ -48,9 +48,25 @@ public class ProgressTrackingInputStream extends FilterInputStream {
      * @param progressConsumer callback invoked with (fileName, bytesRead) for progress updates
      */
     public ProgressTrackingInputStream(InputStream in, String fileName, BiConsumer<String, Long> progressConsumer) {
+        this(in, fileName, 0, progressConsumer);
+    }
+
+    /**
+     * Creates a progress tracking input stream that continues counting from {@code initialBytes},
+     * e.g. when a download resumes and the stream starts in the middle of the file.
+     *
+     * @param in               the underlying input stream
+     * @param fileName         name of the file being read (for parallel tracking)
+     * @param initialBytes     bytes already read before this stream
+     * @param progressConsumer callback invoked with (fileName, bytesRead) for progress updates
+     */
+    public ProgressTrackingInputStream(
+            InputStream in, String fileName, long initialBytes, BiConsumer<String, Long> progressConsumer) {
         super(in);
         this.fileName = fileName;
         this.progressConsumer = progressConsumer;
+        this.bytesRead = initialBytes;
+        this.lastReportedBytes = initialBytes;
     }
 
     @Override
@@ -0,0 +1,256 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2025 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.recordings.core.download;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import cafe.jeffrey.shared.common.filesystem.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Local, size-bounded cache of finished files downloaded from a hub, so that profiling the same
+ * session again with a different file selection only fetches the files that are not cached yet.
+ *
+ * <p>The cache is content-addressed: file content is stored once under the SHA-256 of its bytes in
+ * {@code blobs/}, and {@code entries/} maps a {@link Key} (hub file identity plus its size and
+ * creation time, which cannot change once the file is finished) to the content hash and length.
+ * Cached files are handed out as hard links (or copies where links are not supported), so evicting
+ * a blob never breaks a download that is still using it. Blobs are evicted least recently used first
+ * once their total size exceeds {@code maxSizeBytes}; entries pointing to an evicted blob are misses.
+ */
+public class RecordingFileCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RecordingFileCache.class);
+
+    /**
+     * Default upper bound of the cached content (10 GB).
+     */
+    public static final long DEFAULT_MAX_SIZE = 10L * 1024 * 1024 * 1024;
+
+    private static final String BLOBS_DIR = "blobs";
+    private static final String ENTRIES_DIR = "entries";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Identity of a finished hub file.
+     *
+     * @param hubId     hub the file was downloaded from
+     * @param fileId    id of the file in the hub's repository
+     * @param size      size of the file reported by the hub
+     * @param createdAt creation time of the file reported by the hub (epoch millis)
+     */
+    public record Key(String hubId, String fileId, long size, long createdAt) {
+
+        String digest() {
+            return sha256(hubId + "|" + fileId + "|" + size + "|" + createdAt);
+        }
+    }
+
+    private record Entry(String contentHash, long length) {
+    }
+
+    private final Path blobsDir;
+    private final Path entriesDir;
+    private final long maxSizeBytes;
+
+    public RecordingFileCache(Path directory, long maxSizeBytes) {
+        this.blobsDir = FileSystemUtils.createDirectories(directory.resolve(BLOBS_DIR));
+        this.entriesDir = FileSystemUtils.createDirectories(directory.resolve(ENTRIES_DIR));
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Places the cached content of the file at {@code target} if the cache holds it.
+     *
+     * @return {@code true} on a cache hit, {@code false} when the file has to be downloaded
+     */
+    public boolean materialize(Key key, Path target) {
+        Optional<Entry> entry = readEntry(key);
+        if (entry.isEmpty()) {
+            return false;
+        }
+
+        Path blob = blobsDir.resolve(entry.get().contentHash());
+        try {
+            if (Files.size(blob) != entry.get().length()) {
+                LOG.warn("Dropping corrupted cache entry: file_id={} blob={}", key.fileId(), blob);
+                Files.deleteIfExists(blob);
+                return false;
+            }
+            linkOrCopy(blob, target);
+            Files.setLastModifiedTime(blob, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            // Evicted in the meantime, the entry is left for the next put to overwrite
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the cached file: file_id=" + key.fileId(), e);
+        }
+    }
+
+    /**
+     * Stores the completely downloaded {@code file} under {@code key} and evicts the least recently
+     * used content if the cache grew over its limit. The file itself stays where it is.
+     */
+    public void put(Key key, Path file) {
+        try {
+            String contentHash = contentHash(file);
+            Path blob = blobsDir.resolve(contentHash);
+            if (Files.exists(blob)) {
+                Files.setLastModifiedTime(blob, FileTime.from(Instant.now()));
+            } else {
+                Path temp = blobsDir.resolve(contentHash + "-" + System.nanoTime() + TEMP_SUFFIX);
+                linkOrCopy(file, temp);
+                Files.move(temp, blob, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            String entry = contentHash + " " + Files.size(blob);
+            Path entryFile = entriesDir.resolve(key.digest());
+            Path tempEntry = entriesDir.resolve(key.digest() + "-" + System.nanoTime() + TEMP_SUFFIX);
+            Files.writeString(tempEntry, entry, StandardCharsets.UTF_8);
+            Files.move(tempEntry, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            evict(blob);
+        } catch (IOException e) {
+            // The download itself succeeded, a failing cache only costs a future re-download
+            LOG.warn("Cannot store the downloaded file in the cache: file_id={} error={}", key.fileId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the least recently used blobs until the cached content fits into the limit again.
+     * The just stored {@code keep} blob is never evicted, even if it alone exceeds the limit.
+     */
+    private synchronized void evict(Path keep) throws IOException {
+        List<Path> blobs;
+        try (Stream<Path> files = Files.list(blobsDir)) {
+            blobs = files
+                    .filter(path -> !path.getFileName().toString().endsWith(TEMP_SUFFIX))
+                    .sorted(Comparator.comparing(RecordingFileCache::lastModified))
+                    .toList();
+        }
+
+        long total = 0;
+        for (Path blob : blobs) {
+            total += sizeOrZero(blob);
+        }
+
+        for (Path blob : blobs) {
+            if (total <= maxSizeBytes) {
+                break;
+            }
+            if (!blob.equals(keep)) {
+                long size = sizeOrZero(blob);
+                Files.deleteIfExists(blob);
+                total -= size;
+                LOG.debug("Evicted cached recording file: blob={} size={}", blob.getFileName(), size);
+            }
+        }
+    }
+
+    private Optional<Entry> readEntry(Key key) {
+        Path entryFile = entriesDir.resolve(key.digest());
+        if (!Files.exists(entryFile)) {
+            return Optional.empty();
+        }
+        try {
+            String[] parts = Files.readString(entryFile, StandardCharsets.UTF_8).trim().split(" ");
+            if (parts.length != 2) {
+                return Optional.empty();
+            }
+            return Optional.of(new Entry(parts[0], Long.parseLong(parts[1])));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | NumberFormatException e) {
+            LOG.warn("Ignoring unreadable cache entry: file_id={} error={}", key.fileId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Hard-links {@code source} to {@code target}, falling back to a copy when the file system (or
+     * the pair of directories) does not support hard links.
+     */
+    private static void linkOrCopy(Path source, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, source);
+        } catch (NoSuchFileException e) {
+            throw e;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String contentHash(Path file) throws IOException {
+        MessageDigest digest = newSha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String sha256(String value) {
+        return HexFormat.of().formatHex(newSha256().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long sizeOrZero(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
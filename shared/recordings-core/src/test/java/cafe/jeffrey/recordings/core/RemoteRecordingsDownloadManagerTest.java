@@ -0,0 +1,271 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.recordings.core;
+
+import io.grpc.Status;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import cafe.jeffrey.hub.client.RecordingStreamClient;
+import cafe.jeffrey.hub.client.ResumeNotSupportedException;
+import cafe.jeffrey.shared.common.JfrFileUtils;
+import cafe.jeffrey.shared.common.compression.Lz4Compressor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemoteRecordingsDownloadManagerTest {
+
+    private static final Path JFRS_DIR = Path.of("src/test/resources/jfrs");
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * One attempt of a ranged download, given the offset it was requested from.
+     */
+    @FunctionalInterface
+    private interface Attempt {
+        void run(long offset, RecordingStreamClient.InputStreamConsumer consumer) throws IOException;
+    }
+
+    /**
+     * Ranged download of {@link #CONTENT} that plays the scripted attempts in order, repeating the
+     * last one, and records the offset of every attempt.
+     */
+    private static final class ScriptedDownload implements RemoteRecordingsDownloadManager.RangedDownload {
+
+        private final List<Attempt> attempts;
+        private final List<Long> offsets = new ArrayList<>();
+
+        private ScriptedDownload(Attempt... attempts) {
+            this.attempts = List.of(attempts);
+        }
+
+        @Override
+        public void stream(long offset, RecordingStreamClient.InputStreamConsumer consumer) {
+            Attempt attempt = attempts.get(Math.min(offsets.size(), attempts.size() - 1));
+            offsets.add(offset);
+            try {
+                attempt.run(offset, consumer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void serve(
+            long offset, int length, long contentLength, RecordingStreamClient.InputStreamConsumer consumer)
+            throws IOException {
+
+        byte[] range = Arrays.copyOfRange(CONTENT, (int) offset, (int) offset + length);
+        consumer.accept(new ByteArrayInputStream(range), contentLength);
+    }
+
+    /** Serves the rest of the file. */
+    private static Attempt completes() {
+        return (offset, consumer) -> serve(offset, CONTENT.length - (int) offset, CONTENT.length, consumer);
+    }
+
+    /** Serves a few bytes from the offset, then the transfer breaks with {@code failure}. */
+    private static Attempt breaksAfter(int bytes, RuntimeException failure) {
+        return (offset, consumer) -> {
+            serve(offset, bytes, CONTENT.length, consumer);
+            throw failure;
+        };
+    }
+
+    private static Attempt breaksAfter(int bytes) {
+        return breaksAfter(bytes, new RuntimeException("Connection reset"));
+    }
+
+    /** The transfer breaks before any byte arrives. */
+    private static Attempt neverProgresses() {
+        return (_, _) -> {
+            throw new RuntimeException("Connection refused");
+        };
+    }
+
+    /** A hub predating ranged downloads, it can only serve the file from its beginning. */
+    private static Attempt cannotResume(Attempt fromBeginning) {
+        return (offset, consumer) -> {
+            if (offset > 0) {
+                throw new ResumeNotSupportedException(offset);
+            }
+            fromBeginning.run(offset, consumer);
+        };
+    }
+
+    private void download(ScriptedDownload download, Path target) {
+        RemoteRecordingsDownloadManager.downloadResumable(
+                download, target, "recording.jfr", CONTENT.length,
+                RemoteRecordingsDownloadManager.NoProgress.INSTANCE, Duration.ZERO);
+    }
+
+    @Nested
+    class ResumableDownload {
+
+        @Test
+        void resumesFromLengthOfPartialFile() throws IOException {
+            Path target = tempDir.resolve("recording.jfr");
+            ScriptedDownload download = new ScriptedDownload(breaksAfter(4), breaksAfter(3), completes());
+
+            download(download, target);
+
+            assertEquals(List.of(0L, 4L, 7L), download.offsets);
+            assertArrayEquals(CONTENT, Files.readAllBytes(target));
+            assertFalse(Files.exists(tempDir.resolve("recording.jfr.part")));
+        }
+
+        @Test
+        void resumesAfterChunkFailsVerification() throws IOException {
+            Path target = tempDir.resolve("recording.jfr");
+            ScriptedDownload download = new ScriptedDownload(
+                    breaksAfter(4, new RuntimeException("Unexpected chunk offset: expected=4 actual=6",
+                            new IOException("Unexpected chunk offset: expected=4 actual=6"))),
+                    breaksAfter(2, new RuntimeException("Chunk checksum mismatch: offset=6",
+                            new IOException("Chunk checksum mismatch: offset=6"))),
+                    completes());
+
+            download(download, target);
+
+            assertEquals(List.of(0L, 4L, 6L), download.offsets);
+            assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        }
+
+        @Test
+        void attemptsBringingNewBytesAreNotStalled() throws IOException {
+            Path target = tempDir.resolve("recording.jfr");
+            Attempt[] attempts = new Attempt[RemoteRecordingsDownloadManager.MAX_STALLED_ATTEMPTS * 2 + 1];
+            Arrays.fill(attempts, breaksAfter(1));
+            attempts[attempts.length - 1] = completes();
+            ScriptedDownload download = new ScriptedDownload(attempts);
+
+            download(download, target);
+
+            assertEquals(attempts.length, download.offsets.size());
+            assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        }
+
+        @Test
+        void givesUpAfterMaxStalledAttempts() {
+            Path target = tempDir.resolve("recording.jfr");
+            ScriptedDownload download = new ScriptedDownload(breaksAfter(4), neverProgresses());
+
+            RuntimeException error = assertThrows(RuntimeException.class, () -> download(download, target));
+
+            assertEquals("Connection refused", error.getMessage());
+            assertEquals(1 + RemoteRecordingsDownloadManager.MAX_STALLED_ATTEMPTS, download.offsets.size());
+            assertEquals(List.of(4L), download.offsets.subList(1, 2));
+            assertFalse(Files.exists(target));
+        }
+
+        @Test
+        void permanentErrorFailsImmediately() {
+            Path target = tempDir.resolve("recording.jfr");
+            ScriptedDownload download = new ScriptedDownload((_, _) -> {
+                throw Status.NOT_FOUND.withDescription("File not found").asRuntimeException();
+            });
+
+            assertThrows(RuntimeException.class, () -> download(download, target));
+            assertEquals(1, download.offsets.size());
+        }
+
+        @Test
+        void restartsFromBeginningWhenHubCannotResume() throws IOException {
+            Path target = tempDir.resolve("recording.jfr");
+            ScriptedDownload download = new ScriptedDownload(
+                    breaksAfter(4), cannotResume(completes()));
+
+            download(download, target);
+
+            assertEquals(List.of(0L, 4L, 0L), download.offsets);
+            assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        }
+
+        @Test
+        void everyBrokenAttemptIsStalledOnceHubCannotResume() {
+            Path target = tempDir.resolve("recording.jfr");
+            ScriptedDownload download = new ScriptedDownload(
+                    breaksAfter(4), cannotResume(breaksAfter(4)));
+
+            assertThrows(RuntimeException.class, () -> download(download, target));
+
+            // the broken attempt, the refused resume, then only restarts that keep none of their bytes
+            List<Long> restarts = download.offsets.subList(2, download.offsets.size());
+            assertEquals(RemoteRecordingsDownloadManager.MAX_STALLED_ATTEMPTS, restarts.size());
+            assertTrue(restarts.stream().allMatch(offset -> offset == 0));
+        }
+
+        @Test
+        void failsWhenDownloadEndsShortOfContentLength() {
+            Path target = tempDir.resolve("recording.jfr");
+            ScriptedDownload download = new ScriptedDownload(
+                    (offset, consumer) -> serve(offset, CONTENT.length, CONTENT.length + 5, consumer));
+
+            UncheckedIOException error = assertThrows(UncheckedIOException.class, () -> download(download, target));
+
+            assertTrue(error.getCause().getMessage().startsWith("Incomplete download"));
+            assertFalse(Files.exists(target));
+        }
+    }
+
+    @Nested
+    class LocalMerge {
+
+        @Test
+        void mergesPlainAndCompressedPartsIntoReadableRecording() throws IOException {
+            Path plainSource = JFRS_DIR.resolve("profile-3.jfr");
+            Path compressedSource = JFRS_DIR.resolve("profile-4.jfr");
+
+            // Downloaded parts are stored without an extension, one as the hub stored it, one compressed
+            Path plainPart = Files.copy(plainSource, tempDir.resolve("part-0"));
+            Path compressedPart = Lz4Compressor.compress(compressedSource, tempDir.resolve("part-1"));
+
+            List<Path> named = RemoteRecordingsDownloadManager.withFormatExtensions(
+                    List.of(plainPart, compressedPart));
+
+            assertEquals(List.of(tempDir.resolve("part-0.jfr"), tempDir.resolve("part-1.jfr.lz4")), named);
+
+            Path merged = Lz4Compressor.concatenate(named, tempDir.resolve("merged.jfr.lz4"));
+            Path decompressed = tempDir.resolve("merged.jfr");
+            Lz4Compressor.decompress(merged, decompressed);
+
+            // JFR chunks follow each other, the merged recording is the parts in the merge order
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            expected.writeBytes(Files.readAllBytes(plainSource));
+            expected.writeBytes(Files.readAllBytes(compressedSource));
+            assertArrayEquals(expected.toByteArray(), Files.readAllBytes(decompressed));
+            assertTrue(JfrFileUtils.isJfrFileReadable(decompressed));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Jeffrey
+ * Copyright (C) 2026 Petr Bouda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cafe.jeffrey.recordings.core.download;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordingFileCacheTest {
+
+    private static final String HUB_ID = "hub-1";
+    private static final long CREATED_AT = Instant.parse("2026-08-10T10:00:00Z").toEpochMilli();
+    private static final Instant LONG_AGO = Instant.now().minus(Duration.ofHours(1));
+
+    @TempDir
+    Path tempDir;
+
+    Path cacheDir;
+
+    @BeforeEach
+    void setUp() {
+        cacheDir = tempDir.resolve("cache");
+    }
+
+    private static byte[] content(char fill, int size) {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, (byte) fill);
+        return bytes;
+    }
+
+    private static RecordingFileCache.Key key(String fileId, byte[] content) {
+        return new RecordingFileCache.Key(HUB_ID, fileId, content.length, CREATED_AT);
+    }
+
+    private Path download(String name, byte[] content) throws IOException {
+        return Files.write(tempDir.resolve(name), content);
+    }
+
+    /** The cache is content-addressed, a blob is named after the SHA-256 of its bytes. */
+    private Path blobOf(byte[] content) throws NoSuchAlgorithmException {
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        return cacheDir.resolve("blobs").resolve(hash);
+    }
+
+    private void lastUsedAt(byte[] content, Instant time) throws Exception {
+        Files.setLastModifiedTime(blobOf(content), FileTime.from(time));
+    }
+
+    @Nested
+    class Materialize {
+
+        @Test
+        void missesWhenTheFileWasNeverStored() {
+            RecordingFileCache cache = new RecordingFileCache(cacheDir, RecordingFileCache.DEFAULT_MAX_SIZE);
+            Path target = tempDir.resolve("target");
+
+            assertFalse(cache.materialize(key("file-1", content('a', 100)), target));
+            assertFalse(Files.exists(target));
+        }
+
+        @Test
+        void placesTheStoredContentAtTheTarget() throws IOException {
+            RecordingFileCache cache = new RecordingFileCache(cacheDir, RecordingFileCache.DEFAULT_MAX_SIZE);
+            byte[] content = content('a', 100);
+            Path downloaded = download("downloaded", content);
+
+            cache.put(key("file-1", content), downloaded);
+            Files.delete(downloaded);
+
+            Path target = tempDir.resolve("target");
+            assertTrue(cache.materialize(key("file-1", content), target));
+            assertArrayEquals(content, Files.readAllBytes(target));
+        }
+
+        @Test
+        void missesWhenTheCreationTimeDiffers() throws IOException {
+            RecordingFileCache cache = new RecordingFileCache(cacheDir, RecordingFileCache.DEFAULT_MAX_SIZE);
+            byte[] content = content('a', 100);
+            cache.put(key("file-1", content), download("downloaded", content));
+
+            RecordingFileCache.Key recreated = new RecordingFileCache.Key(
+                    HUB_ID, "file-1", content.length, CREATED_AT + 1);
+
+            assertFalse(cache.materialize(recreated, tempDir.resolve("target")));
+        }
+
+        @Test
+        void dropsTheBlobWhenItsSizeDoesNotMatchTheEntry() throws Exception {
+            RecordingFileCache cache = new RecordingFileCache(cacheDir, RecordingFileCache.DEFAULT_MAX_SIZE);
+            byte[] content = content('a', 100);
+            cache.put(key("file-1", content), download("downloaded", content));
+
+            // Truncated behind the cache's back, a new file rather than through the hard link
+            Path blob = blobOf(content);
+            Files.delete(blob);
+            Files.write(blob, content('a', 40));
+
+            assertFalse(cache.materialize(key("file-1", content), tempDir.resolve("target")));
+            assertFalse(Files.exists(blob));
+        }
+    }
+
+    @Nested
+    class Eviction {
+
+        @Test
+        void evictsTheLeastRecentlyUsedContentFirst() throws Exception {
+            RecordingFileCache cache = new RecordingFileCache(cacheDir, 250);
+            byte[] first = content('a', 100);
+            byte[] second = content('b', 100);
+            byte[] third = content('c', 100);
+
+            cache.put(key("file-1", first), download("first", first));
+            cache.put(key("file-2", second), download("second", second));
+            // The first file was used after the second one
+            lastUsedAt(second, LONG_AGO);
+            lastUsedAt(first, LONG_AGO.plusSeconds(1));
+
+            cache.put(key("file-3", third), download("third", third));
+
+            assertTrue(cache.materialize(key("file-1", first), tempDir.resolve("target-1")));
+            assertFalse(cache.materialize(key("file-2", second), tempDir.resolve("target-2")));
+            assertTrue(cache.materialize(key("file-3", third), tempDir.resolve("target-3")));
+        }
+
+        @Test
+        void keepsTheJustStoredContentEvenOverTheLimit() throws Exception {
+            RecordingFileCache cache = new RecordingFileCache(cacheDir, 50);
+            byte[] first = content('a', 100);
+            byte[] second = content('b', 100);
+
+            cache.put(key("file-1", first), download("first", first));
+            assertTrue(Files.exists(blobOf(first)));
+
+            lastUsedAt(first, LONG_AGO);
+            cache.put(key("file-2", second), download("second", second));
+
+            assertFalse(Files.exists(blobOf(first)));
+            assertTrue(cache.materialize(key("file-2", second), tempDir.resolve("target")));
+        }
+
+        @Test
+        void sameContentUnderTwoKeysIsStoredOnce() throws Exception {
+            RecordingFileCache cache = new RecordingFileCache(cacheDir, 150);
+            byte[] content = content('a', 100);
+
+            cache.put(key("file-1", content), download("first", content));
+            cache.put(key("file-2", content), download("second", content));
+
+            assertTrue(cache.materialize(key("file-1", content), tempDir.resolve("target-1")));
+            assertTrue(cache.materialize(key("file-2", content), tempDir.resolve("target-2")));
+        }
+    }
+}
@@ -33,4 +33,8 @@ final class StubGrpcExceptions {
     static StatusRuntimeException notFound(String description) {
         return Status.NOT_FOUND.withDescription(description).asRuntimeException();
     }
+
+    static StatusRuntimeException invalidArgument(String description) {
+        return Status.INVALID_ARGUMENT.withDescription(description).asRuntimeException();
+    }
 }
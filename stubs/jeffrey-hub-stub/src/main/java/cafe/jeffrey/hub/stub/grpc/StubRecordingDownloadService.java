@@ -24,12 +24,13 @@ import cafe.jeffrey.hub.api.v1.DownloadMergedRecordingsRequest;
 import cafe.jeffrey.hub.api.v1.DownloadRecordingFileRequest;
 import cafe.jeffrey.hub.api.v1.RecordingDownloadServiceGrpc;
 import cafe.jeffrey.hub.stub.data.StubDataset;
-import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import io.grpc.stub.StreamObserver;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.util.zip.CRC32C;
 
 /**
  * Stub {@code RecordingDownloadService}. Recording downloads (merged and single-file) always
@@ -39,9 +40,10 @@ import java.io.UncheckedIOException;
  * but the Download Assistant fetches every source of a session (1 merged recording + N
  * artifacts), so the artifacts must complete instead of erroring.
  *
- * <p>Bytes are streamed in fixed-size {@link DataChunk}s, mirroring the real hub's wire
- * contract ({@code total_size} on the first chunk only; an empty file sends zero chunks). The
- * downloaded filename is built entirely client-side by the microscope, so no header is sent.
+ * <p>Bytes are streamed in fixed-size {@link DataChunk}s from the requested offset, mirroring the
+ * real hub's wire contract ({@code total_size} on the first chunk only, every chunk carrying its
+ * offset and CRC32C; an empty file sends zero chunks). The downloaded filename is built entirely
+ * client-side by the microscope, so no header is sent.
  */
 public class StubRecordingDownloadService extends RecordingDownloadServiceGrpc.RecordingDownloadServiceImplBase {
 
@@ -60,41 +62,59 @@ public class StubRecordingDownloadService extends RecordingDownloadServiceGrpc.R
     @Override
     public void downloadMergedRecordings(
             DownloadMergedRecordingsRequest request, StreamObserver<DataChunk> responseObserver) {
-        streamForSession(request.getSessionId(), mergedRecording, responseObserver);
+        streamForSession(request.getSessionId(), mergedRecording, request.getOffset(), responseObserver);
     }
 
     @Override
     public void downloadRecordingFile(
             DownloadRecordingFileRequest request, StreamObserver<DataChunk> responseObserver) {
-        streamForSession(request.getSessionId(), mergedRecording, responseObserver);
+        streamForSession(request.getSessionId(), mergedRecording, request.getOffset(), responseObserver);
     }
 
     @Override
     public void downloadArtifactFile(
             DownloadArtifactFileRequest request, StreamObserver<DataChunk> responseObserver) {
-        streamForSession(request.getSessionId(), EMPTY_ARTIFACT, responseObserver);
+        streamForSession(request.getSessionId(), EMPTY_ARTIFACT, request.getOffset(), responseObserver);
     }
 
-    private void streamForSession(String sessionId, byte[] data, StreamObserver<DataChunk> responseObserver) {
+    private void streamForSession(
+            String sessionId, byte[] data, long startOffset, StreamObserver<DataChunk> responseObserver) {
         dataset.session(sessionId)
                 .ifPresentOrElse(
-                        session -> streamBytes(data, responseObserver),
+                        session -> streamBytes(data, startOffset, responseObserver),
                         () -> responseObserver.onError(
                                 StubGrpcExceptions.notFound("Session not found: " + sessionId)));
     }
 
-    private static void streamBytes(byte[] data, StreamObserver<DataChunk> responseObserver) {
+    private static void streamBytes(byte[] data, long startOffset, StreamObserver<DataChunk> responseObserver) {
+        if (startOffset < 0 || startOffset > data.length) {
+            responseObserver.onError(StubGrpcExceptions.invalidArgument(
+                    "Offset out of range: offset=" + startOffset + " size=" + data.length));
+            return;
+        }
+
         boolean firstChunk = true;
-        for (int offset = 0; offset < data.length; offset += CHUNK_SIZE) {
+        for (int offset = (int) startOffset; offset < data.length; offset += CHUNK_SIZE) {
             int length = Math.min(CHUNK_SIZE, data.length - offset);
+            CRC32C checksum = new CRC32C();
+            checksum.update(data, offset, length);
+
             DataChunk.Builder chunk = DataChunk.newBuilder()
-                    .setData(ByteString.copyFrom(data, offset, length));
+                    .setData(UnsafeByteOperations.unsafeWrap(data, offset, length))
+                    .setOffset(offset)
+                    .setChecksum((int) checksum.getValue());
             if (firstChunk) {
                 chunk.setTotalSize(data.length);
                 firstChunk = false;
             }
             responseObserver.onNext(chunk.build());
         }
+        if (firstChunk && startOffset > 0) {
+            responseObserver.onNext(DataChunk.newBuilder()
+                    .setTotalSize(data.length)
+                    .setOffset(startOffset)
+                    .build());
+        }
         responseObserver.onCompleted();
     }
 